@@ -0,0 +1,164 @@
+package com.vinaacademy.platform.benchmark;
+
+import com.vinaacademy.platform.configuration.cache.VersionedCacheSerializer;
+import com.vinaacademy.platform.feature.course.dto.CourseDetailsResponse;
+import com.vinaacademy.platform.feature.course.enums.CourseLevel;
+import com.vinaacademy.platform.feature.course.enums.CourseStatus;
+import com.vinaacademy.platform.feature.course.enums.LessonType;
+import com.vinaacademy.platform.feature.lesson.dto.LessonDto;
+import com.vinaacademy.platform.feature.review.dto.CourseReviewDto;
+import com.vinaacademy.platform.feature.section.dto.SectionDto;
+import com.vinaacademy.platform.feature.user.dto.UserDto;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value encoding of a large {@link CourseDetailsResponse}: the legacy JSON ({@code JSON}) against
+ * Smile without ({@code SMILE}) and with ({@code SMILE_DEFLATE}) compression. The encoded size of every
+ * variant is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"JSON", "SMILE", "SMILE_DEFLATE"})
+    public String encoding;
+
+    @Param({"10", "40"})
+    public int sections;
+
+    private VersionedCacheSerializer serializer;
+    private CourseDetailsResponse course;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = switch (encoding) {
+            case "JSON" -> new VersionedCacheSerializer(VersionedCacheSerializer.Format.JSON, -1);
+            case "SMILE" -> new VersionedCacheSerializer(VersionedCacheSerializer.Format.SMILE, -1);
+            default -> new VersionedCacheSerializer(VersionedCacheSerializer.Format.SMILE, 0);
+        };
+        course = largeCourse(sections, 15, 100);
+        encoded = serializer.serialize(course);
+        System.out.printf("%n[payload] encoding=%s sections=%d bytes=%d%n", encoding, sections, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(course);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(encoded);
+    }
+
+    static CourseDetailsResponse largeCourse(int sectionCount, int lessonsPerSection, int reviewCount) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+        UUID courseId = UUID.randomUUID();
+
+        UserDto instructor = UserDto.builder()
+                .id(UUID.randomUUID())
+                .fullName("Nguyễn Văn Giảng Viên")
+                .username("giangvien")
+                .email("giangvien@vinaacademy.vn")
+                .avatarUrl("https://cdn.vinaacademy.vn/avatars/giangvien.png")
+                .description("Giảng viên có 10 năm kinh nghiệm phát triển phần mềm")
+                .createdDate(now)
+                .updatedDate(now)
+                .build();
+
+        List<SectionDto> sections = new ArrayList<>(sectionCount);
+        for (int s = 0; s < sectionCount; s++) {
+            UUID sectionId = UUID.randomUUID();
+            List<LessonDto> lessons = new ArrayList<>(lessonsPerSection);
+            for (int l = 0; l < lessonsPerSection; l++) {
+                lessons.add(LessonDto.builder()
+                        .id(UUID.randomUUID())
+                        .title("Bài " + (l + 1) + ": Lập trình hướng đối tượng nâng cao")
+                        .description("Trong bài học này chúng ta tìm hiểu kế thừa, đa hình và đóng gói")
+                        .type(l % 3 == 0 ? LessonType.QUIZ : LessonType.VIDEO)
+                        .free(l == 0)
+                        .orderIndex(l)
+                        .sectionId(sectionId)
+                        .authorId(instructor.getId())
+                        .authorName(instructor.getFullName())
+                        .thumbnailUrl("https://cdn.vinaacademy.vn/thumbnails/" + UUID.randomUUID() + ".jpg")
+                        .status(VideoStatus.READY)
+                        .videoDuration(612.5)
+                        .createdDate(now)
+                        .updatedDate(now)
+                        .build());
+            }
+            sections.add(SectionDto.builder()
+                    .id(sectionId)
+                    .title("Chương " + (s + 1) + ": Nền tảng Java")
+                    .orderIndex(s)
+                    .lessonCount(lessonsPerSection)
+                    .courseId(courseId)
+                    .lessons(lessons)
+                    .build());
+        }
+
+        List<CourseReviewDto> reviews = new ArrayList<>(reviewCount);
+        for (int r = 0; r < reviewCount; r++) {
+            reviews.add(CourseReviewDto.builder()
+                    .id((long) r)
+                    .courseId(courseId)
+                    .rating(4 + r % 2)
+                    .review("Khóa học rất chi tiết, giảng viên giải thích dễ hiểu")
+                    .userId(UUID.randomUUID())
+                    .userFullName("Học viên " + r)
+                    .createdDate(now)
+                    .updatedDate(now)
+                    .build());
+        }
+
+        return CourseDetailsResponse.builder()
+                .id(courseId)
+                .name("Lập trình Java từ cơ bản đến nâng cao")
+                .slug("lap-trinh-java-tu-co-ban-den-nang-cao")
+                .description("Khóa học Java toàn diện dành cho người mới bắt đầu")
+                .image("https://cdn.vinaacademy.vn/courses/java.png")
+                .price(new BigDecimal("499000"))
+                .level(CourseLevel.BEGINNER)
+                .status(CourseStatus.PUBLISHED)
+                .language("Tiếng Việt")
+                .categorySlug("lap-trinh")
+                .categoryName("Lập trình")
+                .rating(4.7)
+                .totalRating(reviewCount)
+                .totalStudent(12000)
+                .totalSection(sectionCount)
+                .totalLesson((long) sectionCount * lessonsPerSection)
+                .instructors(new ArrayList<>(List.of(instructor)))
+                .ownerInstructor(instructor)
+                .sections(sections)
+                .reviews(reviews)
+                .createdDate(now)
+                .updatedDate(now)
+                .build();
+    }
+}
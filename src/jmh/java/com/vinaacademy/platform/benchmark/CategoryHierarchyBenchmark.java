@@ -0,0 +1,82 @@
+package com.vinaacademy.platform.benchmark;
+
+import com.vinaacademy.platform.feature.category.Category;
+import com.vinaacademy.platform.feature.category.dto.CategoryDto;
+import com.vinaacademy.platform.feature.category.mapper.CategoryMapper;
+import com.vinaacademy.platform.feature.category.utils.CategoryUtils;
+import com.vinaacademy.platform.feature.course.entity.Course;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CategoryUtils#buildCategoryHierarchy} on a generated category tree rooted at one top-level
+ * category: {@code fanout} children per node, three levels below the root, 20 courses per category.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryHierarchyBenchmark {
+
+    private static final int DEPTH = 3;
+    private static final int COURSES_PER_CATEGORY = 20;
+
+    // 4 -> 85 danh mục, 8 -> 585 danh mục
+    @Param({"4", "8"})
+    public int fanout;
+
+    private CategoryMapper mapper;
+    private Category root;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = Mappers.getMapper(CategoryMapper.class);
+        // Chỉ số lượng khóa học được đọc, các danh mục dùng chung một danh sách
+        List<Course> courses = new ArrayList<>(COURSES_PER_CATEGORY);
+        for (int i = 0; i < COURSES_PER_CATEGORY; i++) {
+            courses.add(new Course());
+        }
+        root = category(null, "lap-trinh", DEPTH, Collections.unmodifiableList(courses), new AtomicLong());
+    }
+
+    @Benchmark
+    public CategoryDto buildCategoryHierarchy() {
+        return CategoryUtils.buildCategoryHierarchy(root, mapper);
+    }
+
+    private Category category(Category parent, String slug, int levelsBelow, List<Course> courses,
+                              AtomicLong ids) {
+        Category category = Category.builder()
+                .id(ids.incrementAndGet())
+                .name("Danh mục " + slug)
+                .slug(slug)
+                .parent(parent)
+                .courses(courses)
+                .build();
+        List<Category> children = new ArrayList<>(levelsBelow > 0 ? fanout : 0);
+        for (int i = 0; levelsBelow > 0 && i < fanout; i++) {
+            children.add(category(category, slug + "-" + i, levelsBelow - 1, courses, ids));
+        }
+        category.setChildren(children);
+        return category;
+    }
+}
@@ -0,0 +1,171 @@
+package com.vinaacademy.platform.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.vinaacademy.platform.feature.course.assembler.CourseAssembler;
+import com.vinaacademy.platform.feature.course.curriculum.CourseCurriculum;
+import com.vinaacademy.platform.feature.course.dto.CourseDetailsResponse;
+import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.course.enums.CourseLevel;
+import com.vinaacademy.platform.feature.course.enums.CourseStatus;
+import com.vinaacademy.platform.feature.instructor.CourseInstructor;
+import com.vinaacademy.platform.feature.instructor.repository.CourseInstructorRepository;
+import com.vinaacademy.platform.feature.lesson.entity.Lesson;
+import com.vinaacademy.platform.feature.quiz.entity.Quiz;
+import com.vinaacademy.platform.feature.review.entity.CourseReview;
+import com.vinaacademy.platform.feature.section.entity.Section;
+import com.vinaacademy.platform.feature.user.entity.User;
+import com.vinaacademy.platform.feature.video.entity.Video;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CourseAssembler} on a large course built from detached entities, sections and lessons stored out
+ * of order as they come back from the database: the full details response and the curriculum snapshot.
+ * The instructors association is a plain list, so it counts as initialized and no repository is queried.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseAssemblerBenchmark {
+
+    @Param({"10", "40"})
+    public int sections;
+
+    private CourseAssembler assembler;
+    private Course course;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        assembler = new CourseAssembler(mock(CourseInstructorRepository.class, withSettings().stubOnly()));
+        course = largeCourse(sections, 15, 100);
+    }
+
+    @Benchmark
+    public CourseDetailsResponse assembleCourseDetailsResponse() {
+        return assembler.assembleCourseDetailsResponse(course);
+    }
+
+    @Benchmark
+    public CourseCurriculum buildCurriculum() {
+        return assembler.buildCurriculum(course);
+    }
+
+    static Course largeCourse(int sectionCount, int lessonsPerSection, int reviewCount) {
+        User instructor = User.builder()
+                .id(UUID.randomUUID())
+                .fullName("Nguyễn Văn Giảng Viên")
+                .username("giangvien")
+                .email("giangvien@vinaacademy.vn")
+                .avatarUrl("https://cdn.vinaacademy.vn/avatars/giangvien.png")
+                .description("Giảng viên có 10 năm kinh nghiệm phát triển phần mềm")
+                .build();
+
+        Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .name("Lập trình Java từ cơ bản đến nâng cao")
+                .slug("lap-trinh-java-tu-co-ban-den-nang-cao")
+                .description("Khóa học Java toàn diện dành cho người mới bắt đầu")
+                .image("https://cdn.vinaacademy.vn/courses/java.png")
+                .price(new BigDecimal("499000"))
+                .level(CourseLevel.BEGINNER)
+                .status(CourseStatus.PUBLISHED)
+                .language("Tiếng Việt")
+                .rating(4.7)
+                .totalRating(reviewCount)
+                .totalStudent(12000)
+                .totalSection(sectionCount)
+                .totalLesson((long) sectionCount * lessonsPerSection)
+                .build();
+
+        List<Section> sections = new ArrayList<>(sectionCount);
+        for (int s = 0; s < sectionCount; s++) {
+            Section section = Section.builder()
+                    .id(UUID.randomUUID())
+                    .course(course)
+                    .title("Chương " + (s + 1) + ": Nền tảng Java")
+                    .orderIndex(s)
+                    .build();
+            List<Lesson> lessons = new ArrayList<>(lessonsPerSection);
+            for (int l = 0; l < lessonsPerSection; l++) {
+                lessons.add(l % 3 == 0 ? quiz(section, instructor, l) : video(section, instructor, l));
+            }
+            Collections.shuffle(lessons);
+            section.setLessons(lessons);
+            sections.add(section);
+        }
+        Collections.shuffle(sections);
+        course.setSections(sections);
+
+        course.setInstructors(new ArrayList<>(List.of(CourseInstructor.builder()
+                .id(1L)
+                .instructor(instructor)
+                .course(course)
+                .isOwner(true)
+                .build())));
+
+        List<CourseReview> reviews = new ArrayList<>(reviewCount);
+        for (int r = 0; r < reviewCount; r++) {
+            reviews.add(CourseReview.builder()
+                    .id((long) r)
+                    .course(course)
+                    .rating(4 + r % 2)
+                    .review("Khóa học rất chi tiết, giảng viên giải thích dễ hiểu")
+                    .user(User.builder().id(UUID.randomUUID()).fullName("Học viên " + r).build())
+                    .build());
+        }
+        course.setCourseReviews(reviews);
+        return course;
+    }
+
+    private static Video video(Section section, User author, int index) {
+        return Video.builder()
+                .id(UUID.randomUUID())
+                .section(section)
+                .title("Bài " + (index + 1) + ": Lập trình hướng đối tượng nâng cao")
+                .description("Trong bài học này chúng ta tìm hiểu kế thừa, đa hình và đóng gói")
+                .free(index == 0)
+                .orderIndex(index)
+                .author(author)
+                .thumbnailUrl("https://cdn.vinaacademy.vn/thumbnails/" + UUID.randomUUID() + ".jpg")
+                .status(VideoStatus.READY)
+                .duration(612.5)
+                .build();
+    }
+
+    private static Quiz quiz(Section section, User author, int index) {
+        return Quiz.builder()
+                .id(UUID.randomUUID())
+                .section(section)
+                .title("Bài " + (index + 1) + ": Kiểm tra kiến thức")
+                .description("Bài kiểm tra trắc nghiệm cuối chương")
+                .orderIndex(index)
+                .author(author)
+                .totalPoints(10)
+                .passingScore(70)
+                .duration(15)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.vinaacademy.platform.benchmark;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.vinaacademy.platform.feature.user.auth.service.JwtService;
+import com.vinaacademy.platform.feature.user.entity.User;
+import com.vinaacademy.platform.feature.user.role.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtService} decoding with RS256 keys set up like {@code JwtConfig}: one signature check
+ * ({@code isValidToken}), refresh-token decoding, and the gRPC {@code validateToken} path, which decodes the
+ * same token once per extracted claim (six times).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecodeBenchmark {
+
+    private JwtService jwtService;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey(keyPair.getPrivate())
+                .keyID("rsa-key")
+                .build();
+
+        jwtService = new JwtService(
+                new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey))),
+                NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build());
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpirationTime", 3600);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpirationTime", 86400);
+        ReflectionTestUtils.setField(jwtService, "issuer", "http://localhost:8080");
+
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email("hocvien@vinaacademy.vn")
+                .username("hocvien")
+                .fullName("Trần Thị Học Viên")
+                .avatarUrl("https://cdn.vinaacademy.vn/avatars/hocvien.png")
+                .roles(Set.of(Role.builder().id(1L).code("student").name("Học viên").build()))
+                .build();
+        accessToken = jwtService.generateAccessToken(user);
+        refreshToken = jwtService.generateRefreshToken(user, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public boolean isValidToken() {
+        return jwtService.isValidToken(accessToken);
+    }
+
+    @Benchmark
+    public Object decodeRefreshToken() {
+        return jwtService.decodeRefreshToken(refreshToken);
+    }
+
+    @Benchmark
+    public String validateLikeGrpc() {
+        if (!jwtService.isValidToken(accessToken)) {
+            return null;
+        }
+        return jwtService.extractUserId(accessToken)
+                + jwtService.extractEmail(accessToken)
+                + jwtService.extractRoles(accessToken)
+                + jwtService.extractAvatarUrl(accessToken)
+                + jwtService.extractFullName(accessToken);
+    }
+}
@@ -0,0 +1,122 @@
+package com.vinaacademy.platform.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.video.entity.Video;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import com.vinaacademy.platform.feature.video.service.impl.VideoServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VideoServiceImpl#getRewriteManifestProxy} on a generated VOD media playlist of 6-second segments.
+ * Storage is stubbed in memory: the download returns the playlist bytes and batch signing returns
+ * precomputed URLs, as on a presign cache hit, so the numbers cover parsing, the key lookups and the
+ * rewrite itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManifestRewriteBenchmark {
+
+    // 100 đoạn ≈ 10 phút, 1000 đoạn ≈ 1 giờ 40 phút video
+    @Param({"100", "1000"})
+    public int segments;
+
+    private VideoServiceImpl videoService;
+    private UUID videoId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        videoId = UUID.randomUUID();
+        Video video = Video.builder()
+                .id(videoId)
+                .title("Bài 1: Giới thiệu")
+                .hlsPath("videos/" + videoId + "/hls")
+                .status(VideoStatus.READY)
+                .duration(segments * 6.0)
+                .build();
+
+        byte[] playlist = mediaPlaylist(segments).getBytes(StandardCharsets.UTF_8);
+        Map<String, String> signedUrls = new HashMap<>();
+        for (int i = 0; i < segments; i++) {
+            String key = video.getHlsPath() + "/720p/segment" + i + ".ts";
+            signedUrls.put(key, "https://minio.vinaacademy.vn/vinaacademy/" + key
+                    + "?X-Amz-Algorithm=AWS4-HMAC-SHA256&X-Amz-Date=20250101T080000Z&X-Amz-Expires=21600"
+                    + "&X-Amz-SignedHeaders=host&X-Amz-Credential=minioadmin%2F20250101%2Fus-east-1%2Fs3%2Faws4_request"
+                    + "&X-Amz-Signature=" + UUID.randomUUID().toString().replace("-", "").repeat(2));
+        }
+
+        // stubOnly: không ghi lại lời gọi, tránh bộ nhớ tăng dần trong lúc đo
+        VideoRepository videoRepository = mock(VideoRepository.class, withSettings().stubOnly());
+        when(videoRepository.findById(videoId)).thenReturn(Optional.of(video));
+        S3Service s3Service = mock(S3Service.class, withSettings().stubOnly());
+        when(s3Service.downloadFile(anyString())).thenAnswer(invocation -> new ByteArrayInputStream(playlist));
+        when(s3Service.generatePresignedUrls(anyCollection(), anyInt()))
+                .thenAnswer(invocation -> {
+                    Collection<String> keys = invocation.getArgument(0);
+                    Map<String, String> urls = new HashMap<>(keys.size() * 2);
+                    for (String key : keys) {
+                        urls.put(key, signedUrls.get(key));
+                    }
+                    return urls;
+                });
+
+        videoService = new VideoServiceImpl();
+        ReflectionTestUtils.setField(videoService, "videoRepository", videoRepository);
+        ReflectionTestUtils.setField(videoService, "s3Service", s3Service);
+        ReflectionTestUtils.setField(videoService, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public ByteArrayResource rewriteMediaPlaylist() throws IOException {
+        return videoService.getRewriteManifestProxy(videoId, "/api/v1/videos/" + videoId + "/", "720p/playlist.m3u8");
+    }
+
+    static String mediaPlaylist(int segmentCount) {
+        StringBuilder playlist = new StringBuilder("""
+                #EXTM3U
+                #EXT-X-VERSION:3
+                #EXT-X-TARGETDURATION:6
+                #EXT-X-MEDIA-SEQUENCE:0
+                #EXT-X-PLAYLIST-TYPE:VOD
+                """);
+        for (int i = 0; i < segmentCount; i++) {
+            playlist.append("#EXTINF:6.000000,\n").append("segment").append(i).append(".ts\n");
+        }
+        return playlist.append("#EXT-X-ENDLIST\n").toString();
+    }
+}
@@ -0,0 +1,155 @@
+package com.vinaacademy.platform.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.vinaacademy.platform.feature.quiz.dto.UserAnswerRequest;
+import com.vinaacademy.platform.feature.quiz.entity.Answer;
+import com.vinaacademy.platform.feature.quiz.entity.Question;
+import com.vinaacademy.platform.feature.quiz.entity.Quiz;
+import com.vinaacademy.platform.feature.quiz.entity.QuizSubmission;
+import com.vinaacademy.platform.feature.quiz.entity.UserAnswer;
+import com.vinaacademy.platform.feature.quiz.enums.QuestionType;
+import com.vinaacademy.platform.feature.quiz.repository.AnswerRepository;
+import com.vinaacademy.platform.feature.quiz.repository.QuestionRepository;
+import com.vinaacademy.platform.feature.quiz.service.internal.impl.QuizGradingServiceImpl;
+import com.vinaacademy.platform.feature.quiz.strategy.impl.MultipleChoiceGradingStrategy;
+import com.vinaacademy.platform.feature.quiz.strategy.impl.SingleChoiceGradingStrategy;
+import com.vinaacademy.platform.feature.quiz.strategy.impl.TextGradingStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quiz grading through {@link QuizGradingServiceImpl} with the three real strategies, on a submission
+ * mixing single-choice (50%), multiple-choice (30%) and text (20%) questions, plus one multiple-choice
+ * answer on its own, the strategy with the most lookups. Repositories are stubbed from in-memory maps, so
+ * the numbers cover strategy selection, grading and rounding without database round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizGradingBenchmark {
+
+    private static final int ANSWERS_PER_QUESTION = 4;
+
+    @Param({"20", "100"})
+    public int questions;
+
+    private QuizGradingServiceImpl gradingService;
+    private Quiz quiz;
+    private List<UserAnswerRequest> submissionAnswers;
+    private Question multipleChoiceQuestion;
+    private UserAnswerRequest multipleChoiceAnswer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<UUID, Question> questionsById = new HashMap<>();
+        Map<UUID, Answer> answersById = new HashMap<>();
+        Map<UUID, List<Answer>> correctByQuestion = new HashMap<>();
+        submissionAnswers = new ArrayList<>(questions);
+
+        for (int q = 0; q < questions; q++) {
+            QuestionType type = q % 10 < 5 ? QuestionType.SINGLE_CHOICE
+                    : q % 10 < 8 ? QuestionType.MULTIPLE_CHOICE : QuestionType.TEXT;
+            Question question = Question.builder()
+                    .id(UUID.randomUUID())
+                    .questionText("Câu " + (q + 1) + ": Phát biểu nào sau đây đúng về JVM?")
+                    .point(type == QuestionType.MULTIPLE_CHOICE ? 2.0 : 1.0)
+                    .questionType(type)
+                    .build();
+            questionsById.put(question.getId(), question);
+
+            // Đáp án không trỏ ngược về câu hỏi: equals/hashCode của Lombok sẽ đệ quy qua danh sách thường
+            List<Answer> correct = new ArrayList<>();
+            List<UUID> selected = new ArrayList<>();
+            for (int a = 0; type != QuestionType.TEXT && a < ANSWERS_PER_QUESTION; a++) {
+                boolean isCorrect = type == QuestionType.MULTIPLE_CHOICE ? a < 2 : a == 0;
+                Answer answer = Answer.builder()
+                        .id(UUID.randomUUID())
+                        .answerText("Đáp án " + (char) ('A' + a))
+                        .isCorrect(isCorrect)
+                        .build();
+                answersById.put(answer.getId(), answer);
+                if (isCorrect) {
+                    correct.add(answer);
+                }
+                // Học viên chọn đúng câu một lựa chọn, câu nhiều lựa chọn chọn A và C (đúng một nửa)
+                if (type == QuestionType.SINGLE_CHOICE ? a == 0 : a == 0 || a == 2) {
+                    selected.add(answer.getId());
+                }
+            }
+            correctByQuestion.put(question.getId(), correct);
+
+            UserAnswerRequest request = UserAnswerRequest.builder()
+                    .questionId(question.getId())
+                    .questionType(type)
+                    .selectedAnswerIds(selected)
+                    .textAnswer(type == QuestionType.TEXT ? "Garbage collector giải phóng bộ nhớ heap" : null)
+                    .build();
+            submissionAnswers.add(request);
+            if (type == QuestionType.MULTIPLE_CHOICE && multipleChoiceQuestion == null) {
+                multipleChoiceQuestion = question;
+                multipleChoiceAnswer = request;
+            }
+        }
+
+        // stubOnly: không ghi lại lời gọi, tránh bộ nhớ tăng dần trong lúc đo
+        QuestionRepository questionRepository = mock(QuestionRepository.class, withSettings().stubOnly());
+        when(questionRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(questionsById.get(invocation.<UUID>getArgument(0))));
+        AnswerRepository answerRepository = mock(AnswerRepository.class, withSettings().stubOnly());
+        when(answerRepository.findById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(answersById.get(invocation.<UUID>getArgument(0))));
+        when(answerRepository.countByQuestionIdAndIsCorrect(any(UUID.class), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    long correct = correctByQuestion.get(invocation.<UUID>getArgument(0)).size();
+                    return invocation.<Boolean>getArgument(1) ? correct : ANSWERS_PER_QUESTION - correct;
+                });
+        when(answerRepository.findByQuestionIdAndIsCorrect(any(UUID.class), anyBoolean()))
+                .thenAnswer(invocation -> correctByQuestion.get(invocation.<UUID>getArgument(0)));
+
+        gradingService = new QuizGradingServiceImpl(
+                List.of(new SingleChoiceGradingStrategy(answerRepository),
+                        new MultipleChoiceGradingStrategy(answerRepository),
+                        new TextGradingStrategy()),
+                questionRepository,
+                new SimpleMeterRegistry());
+        quiz = Quiz.builder().id(UUID.randomUUID()).title("Kiểm tra cuối khóa").build();
+    }
+
+    @Benchmark
+    public double calculateScore() {
+        QuizSubmission submission = QuizSubmission.builder().id(UUID.randomUUID()).build();
+        return gradingService.calculateScore(quiz, submission, submissionAnswers);
+    }
+
+    @Benchmark
+    public UserAnswer gradeMultipleChoice() {
+        return gradingService.gradeAnswer(multipleChoiceQuestion, multipleChoiceAnswer);
+    }
+}
@@ -0,0 +1,208 @@
+package com.vinaacademy.platform.benchmark;
+
+import com.vinaacademy.platform.configuration.S3ClientFactory;
+import com.vinaacademy.platform.configuration.S3ClientProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedDirectoryUpload;
+import software.amazon.awssdk.transfer.s3.model.UploadDirectoryRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Wall time of uploading one HLS output directory through {@code S3TransferManager}, as
+ * {@code VideoProcessorServiceImpl} does after transcoding: the previous untuned Netty client
+ * ({@code DEFAULT}) against the tuned Netty client with multipart ({@code NETTY}) and the CRT client
+ * ({@code CRT}), both built by {@link S3ClientFactory} with its default properties.
+ *
+ * <p>Needs a running MinIO; connection settings come from {@code -Dbench.minio.endpoint},
+ * {@code -Dbench.minio.access-key}, {@code -Dbench.minio.secret-key} and {@code -Dbench.minio.bucket}
+ * (defaults match docker-compose). {@code -Dbench.hls.dir} uploads a real HLS directory instead of the
+ * generated 3-variant tree. Every iteration writes under a fresh {@code bench/{uuid}/} prefix that is
+ * deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class S3UploadBenchmark {
+
+    private static final String ENDPOINT = System.getProperty("bench.minio.endpoint", "http://localhost:9000");
+    private static final String ACCESS_KEY = System.getProperty("bench.minio.access-key", "admin");
+    private static final String SECRET_KEY = System.getProperty("bench.minio.secret-key", "password123");
+    private static final String BUCKET = System.getProperty("bench.minio.bucket", "vinaacademy");
+    private static final String REGION = "us-east-1";
+
+    // Biến thể (tên, kích thước mỗi segment) của cây HLS tự sinh
+    private static final String[] VARIANTS = {"360p", "720p", "1080p"};
+    private static final int[] SEGMENT_BYTES = {256 * 1024, 768 * 1024, 1536 * 1024};
+    private static final int SEGMENTS_PER_VARIANT = 50;
+
+    @Param({"DEFAULT", "NETTY", "CRT"})
+    public String client;
+
+    private S3Client syncClient;
+    private S3AsyncClient asyncClient;
+    private S3TransferManager transferManager;
+    private Path source;
+    private boolean generatedSource;
+    private String prefix;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        S3ClientProperties properties = new S3ClientProperties();
+        if (!"DEFAULT".equals(client)) {
+            properties.setAsyncClient(S3ClientProperties.AsyncClient.valueOf(client));
+        }
+        S3ClientFactory factory = new S3ClientFactory(ENDPOINT, REGION, ACCESS_KEY, SECRET_KEY, true, properties);
+        syncClient = factory.syncClient();
+        if ("DEFAULT".equals(client)) {
+            asyncClient = defaultAsyncClient();
+            transferManager = S3TransferManager.builder().s3Client(asyncClient).build();
+        } else {
+            asyncClient = factory.asyncClient();
+            transferManager = factory.transferManager(asyncClient);
+        }
+        ensureBucket();
+
+        String hlsDir = System.getProperty("bench.hls.dir");
+        if (hlsDir != null) {
+            source = Path.of(hlsDir);
+        } else {
+            source = generateHlsTree();
+            generatedSource = true;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newPrefix() {
+        prefix = "bench/" + UUID.randomUUID() + "/";
+    }
+
+    @Benchmark
+    public CompletedDirectoryUpload uploadDirectory() {
+        CompletedDirectoryUpload result = transferManager
+                .uploadDirectory(UploadDirectoryRequest.builder()
+                        .bucket(BUCKET)
+                        .source(source)
+                        .s3Prefix(prefix)
+                        .maxDepth(Integer.MAX_VALUE)
+                        .build())
+                .completionFuture()
+                .join();
+        if (!result.failedTransfers().isEmpty()) {
+            throw new IllegalStateException(result.failedTransfers().size() + " files failed to upload",
+                    result.failedTransfers().get(0).exception());
+        }
+        return result;
+    }
+
+    @TearDown(Level.Iteration)
+    public void deletePrefix() {
+        List<ObjectIdentifier> batch = new ArrayList<>();
+        for (S3Object object : syncClient.listObjectsV2Paginator(r -> r.bucket(BUCKET).prefix(prefix)).contents()) {
+            batch.add(ObjectIdentifier.builder().key(object.key()).build());
+            if (batch.size() == 1000) {
+                deleteBatch(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleteBatch(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        transferManager.close();
+        asyncClient.close();
+        syncClient.close();
+        if (generatedSource) {
+            try (Stream<Path> paths = Files.walk(source)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    /** The async client the application used before the tuned factory: SDK defaults, no multipart. */
+    private static S3AsyncClient defaultAsyncClient() {
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(ENDPOINT))
+                .region(Region.of(REGION))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)))
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .build();
+    }
+
+    private void ensureBucket() {
+        try {
+            syncClient.headBucket(r -> r.bucket(BUCKET));
+        } catch (NoSuchBucketException e) {
+            syncClient.createBucket(r -> r.bucket(BUCKET));
+        }
+    }
+
+    private void deleteBatch(List<ObjectIdentifier> batch) {
+        List<ObjectIdentifier> keys = List.copyOf(batch);
+        syncClient.deleteObjects(r -> r.bucket(BUCKET).delete(d -> d.objects(keys).quiet(true)));
+        batch.clear();
+    }
+
+    /** master.m3u8 plus one playlist and {@link #SEGMENTS_PER_VARIANT} random .ts segments per variant. */
+    private static Path generateHlsTree() throws IOException {
+        Path root = Files.createTempDirectory("bench-hls");
+        Random random = new Random(42);
+        StringBuilder master = new StringBuilder("#EXTM3U\n");
+        for (int v = 0; v < VARIANTS.length; v++) {
+            Path variant = Files.createDirectories(root.resolve(VARIANTS[v]));
+            StringBuilder playlist = new StringBuilder("#EXTM3U\n#EXT-X-TARGETDURATION:6\n");
+            byte[] segment = new byte[SEGMENT_BYTES[v]];
+            for (int i = 0; i < SEGMENTS_PER_VARIANT; i++) {
+                random.nextBytes(segment);
+                String name = String.format("segment_%03d.ts", i);
+                Files.write(variant.resolve(name), segment);
+                playlist.append("#EXTINF:6.0,\n").append(name).append('\n');
+            }
+            playlist.append("#EXT-X-ENDLIST\n");
+            Files.writeString(variant.resolve("playlist.m3u8"), playlist);
+            master.append("#EXT-X-STREAM-INF:RESOLUTION=").append(VARIANTS[v]).append('\n')
+                    .append(VARIANTS[v]).append("/playlist.m3u8\n");
+        }
+        Files.writeString(root.resolve("master.m3u8"), master);
+        return root;
+    }
+}
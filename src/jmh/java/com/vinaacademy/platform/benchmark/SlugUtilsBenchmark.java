@@ -0,0 +1,50 @@
+package com.vinaacademy.platform.benchmark;
+
+import com.vinaacademy.platform.feature.common.utils.SlugUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SlugUtils#toSlug} on a short ASCII title ({@code ASCII}), a typical Vietnamese course title
+ * ({@code VIETNAMESE}) and a long Vietnamese lesson title with punctuation ({@code LONG}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlugUtilsBenchmark {
+
+    @Param({"ASCII", "VIETNAMESE", "LONG"})
+    public String input;
+
+    private String title;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        title = switch (input) {
+            case "ASCII" -> "Spring Boot Microservices";
+            case "VIETNAMESE" -> "Lập trình Java từ cơ bản đến nâng cao";
+            default -> "Bài 12: Đồng bộ hóa luồng, khóa (lock) & điều phối tác vụ — thực hành với "
+                    + "ExecutorService, CompletableFuture và Virtual Threads trong dự án thương mại điện tử!!!";
+        };
+    }
+
+    @Benchmark
+    public String toSlug() {
+        return SlugUtils.toSlug(title);
+    }
+}
@@ -0,0 +1,70 @@
+package com.vinaacademy.platform.benchmark;
+
+import com.vinaacademy.platform.feature.order_payment.utils.VNPayConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing of a VNPay IPN callback: {@link VNPayConfig#hashAllFields} over the fields VNPay sends, and
+ * {@link VNPayConfig#hmacSHA512} with a key other than the configured secret, which builds a new
+ * {@code Mac} on every call instead of reusing the per-thread one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VNPayHashBenchmark {
+
+    private static final String SECRET = "BENCHMARKHASHSECRET0123456789ABCD";
+
+    private VNPayConfig vnPayConfig;
+    private Map<String, String> fields;
+    private String hashData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vnPayConfig = new VNPayConfig();
+        vnPayConfig.vnp_HashSecret = SECRET;
+        vnPayConfig.vnp_TmnCode = "VINAACAD";
+
+        fields = new HashMap<>();
+        fields.put("vnp_Amount", "49900000");
+        fields.put("vnp_BankCode", "NCB");
+        fields.put("vnp_BankTranNo", "VNP14422574");
+        fields.put("vnp_CardType", "ATM");
+        fields.put("vnp_OrderInfo", "Thanh toan don hang 7f3c2a9e-1b4d-4c8e-9a57-2d6f0e8b1c34");
+        fields.put("vnp_PayDate", "20250101083015");
+        fields.put("vnp_ResponseCode", "00");
+        fields.put("vnp_TmnCode", "VINAACAD");
+        fields.put("vnp_TransactionNo", "14422574");
+        fields.put("vnp_TransactionStatus", "00");
+        fields.put("vnp_TxnRef", "7f3c2a9e1b4d4c8e");
+        fields.put("vnp_SecureHashType", "");
+        hashData = "vnp_Amount=49900000&vnp_BankCode=NCB&vnp_OrderInfo=Thanh+toan+don+hang&vnp_TxnRef=7f3c2a9e1b4d4c8e";
+    }
+
+    @Benchmark
+    public String hashAllFields() {
+        return vnPayConfig.hashAllFields(fields);
+    }
+
+    @Benchmark
+    public String hmacWithOtherKey() {
+        return vnPayConfig.hmacSHA512("ANOTHERMERCHANTSECRET", hashData);
+    }
+}
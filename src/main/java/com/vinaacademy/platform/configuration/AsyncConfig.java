@@ -5,28 +5,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-    @Bean(name = "logTaskExecutor")
-    public Executor logTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(4);
-        executor.setQueueCapacity(10);
-        executor.setThreadNamePrefix("log-worker-");
-        executor.initialize();
-        return executor;
-    }
-
     @Bean(name = "emailTaskExecutor")
-    public Executor emailTaskExecutor() {
+    public ThreadPoolTaskExecutor emailTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(4);
@@ -37,18 +25,20 @@ public class AsyncConfig {
     }
 
     @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
+    public ThreadPoolTaskExecutor notificationExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(4);
         executor.setQueueCapacity(10);
         executor.setThreadNamePrefix("notification-worker-");
+        // Fan-out dispatches one task per batch; run on the caller instead of rejecting when saturated
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.initialize();
         return executor;
     }
 
     @Bean(name = "videoTaskExecutor")
-    public Executor videoTaskExecutor() {
+    public ThreadPoolTaskExecutor videoTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
         // ⚙ Cấu hình tối ưu
@@ -64,7 +54,12 @@ public class AsyncConfig {
     @Bean
     @Primary
     public TaskScheduler taskScheduler() {
-        return new ConcurrentTaskScheduler(Executors.newScheduledThreadPool(10));
+        // ThreadPoolTaskScheduler (không bọc pool thô) để Actuator đo được hàng đợi của scheduler
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(10);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.initialize();
+        return scheduler;
     }
 
 }
@@ -18,16 +18,7 @@ public class JacksonConfig {
 
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-
-        // 👇 Loại bỏ null field khỏi JSON
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-
-        // 👇 Tắt timestamp cho date
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        // 👇 Xử lý các field không nhận dạng được
-        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ObjectMapper mapper = applyCommonSettings(new ObjectMapper());
 
         // 👇 Tự động escape HTML (optional tùy dự án)
 //        mapper.getFactory().configure(JsonGenerator.Feature.ESCAPE_NON_ASCII, true);
@@ -48,14 +39,31 @@ public class JacksonConfig {
         SimpleModule bigDecimalModule = new SimpleModule();
         bigDecimalModule.addSerializer(BigDecimal.class, ToStringSerializer.instance);
 
-        // 👇 Optional: Serialize Enum rõ ràng (theo name thay vì ordinal)
-        mapper.enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING);
-        mapper.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
-
         // Đăng ký các modules
         mapper.registerModule(timeModule);
         mapper.registerModule(bigDecimalModule);
 
         return mapper;
     }
-}
\ No newline at end of file
+
+    /**
+     * Settings shared by every mapper of the application (web JSON, binary cache encoding...), independent
+     * of the data format.
+     */
+    public static ObjectMapper applyCommonSettings(ObjectMapper mapper) {
+        // 👇 Loại bỏ null field khỏi JSON
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+        // 👇 Tắt timestamp cho date
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // 👇 Xử lý các field không nhận dạng được
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // 👇 Optional: Serialize Enum rõ ràng (theo name thay vì ordinal)
+        mapper.enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING);
+        mapper.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
+
+        return mapper;
+    }
+}
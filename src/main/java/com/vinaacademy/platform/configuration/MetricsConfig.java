@@ -0,0 +1,22 @@
+package com.vinaacademy.platform.configuration;
+
+import com.vinaacademy.platform.configuration.metrics.TaskExecutorRejectionMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+
+/**
+ * Metrics not covered by Actuator's auto-configuration. Hikari pools, executor beans, Redis cache statistics
+ * and gRPC server calls ({@code grpc.server}, per service/method/status) are bound automatically and
+ * scraped from {@code /actuator/prometheus} on the management port ({@code management.server.port}).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TaskExecutorRejectionMetrics taskExecutorRejectionMetrics(Map<String, ThreadPoolTaskExecutor> executors) {
+        return new TaskExecutorRejectionMetrics(executors);
+    }
+}
@@ -1,20 +1,29 @@
 package com.vinaacademy.platform.configuration;
 
+import com.vinaacademy.platform.configuration.cache.CacheInvalidationBroadcaster;
 import com.vinaacademy.platform.configuration.cache.CacheName;
+import com.vinaacademy.platform.configuration.cache.CacheSerializationProperties;
+import com.vinaacademy.platform.configuration.cache.TwoTierCacheManager;
+import com.vinaacademy.platform.configuration.cache.VersionedCacheSerializer;
 import com.vinaacademy.platform.feature.email.mq.redis.EmailSubscriber;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
@@ -30,6 +39,7 @@ import static com.vinaacademy.platform.feature.email.mq.redis.EmailQueueConstant
 
 @ConditionalOnProperty(name = "spring.data.redis.enabled", havingValue = "true")
 @Configuration
+@EnableCaching
 @Log4j2
 @RequiredArgsConstructor
 public class RedisConfig {
@@ -38,14 +48,33 @@ public class RedisConfig {
     private long defaultTtl;
 
     @Bean
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    @Primary
+    public CacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                     CacheInvalidationBroadcaster cacheInvalidationBroadcaster,
+                                     MeterRegistry meterRegistry) {
+        // L1 trong JVM trước Redis (L2) cho mọi cache
+        return new TwoTierCacheManager(redisCacheManager, cacheInvalidationBroadcaster, meterRegistry);
+    }
+
+    @Bean
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster(StringRedisTemplate stringRedisTemplate,
+                                                                     RedisMessageListenerContainer emailMessageContainer) {
+        return new CacheInvalidationBroadcaster(stringRedisTemplate, emailMessageContainer);
+    }
+
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                              CacheSerializationProperties serializationProperties) {
+        // Giá trị cache được ghi theo định dạng cấu hình (mặc định Smile), vẫn đọc được các entry JSON cũ
+        VersionedCacheSerializer valueSerializer = new VersionedCacheSerializer(
+                serializationProperties.getFormat(), serializationProperties.getCompressionThreshold());
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofSeconds(defaultTtl))
                 .disableCachingNullValues()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                        .fromSerializer(valueSerializer));
 
         // Custom TTL
         Map<String, RedisCacheConfiguration> cacheConfigs = Arrays.stream(CacheName.values())
@@ -56,6 +85,8 @@ public class RedisConfig {
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigs)
+                // Actuator xuất cache.gets/puts/evictions của tầng Redis từ thống kê này
+                .enableStatistics()
                 .build();
     }
 
@@ -0,0 +1,152 @@
+package com.vinaacademy.platform.configuration;
+
+import java.net.URI;
+import java.time.Duration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+/**
+ * Builds the S3/MinIO clients from the connection settings and {@link S3ClientProperties}. Kept apart from
+ * {@link S3Config} so the upload benchmark builds exactly the clients the application runs with.
+ */
+public class S3ClientFactory {
+
+  // Dưới ngưỡng này trong asyncStallTimeout thì CRT coi kết nối là treo
+  private static final long STALLED_THROUGHPUT_BPS = 1024;
+
+  private final URI endpoint;
+  private final Region region;
+  private final StaticCredentialsProvider credentials;
+  private final boolean pathStyle;
+  private final S3ClientProperties properties;
+
+  public S3ClientFactory(
+      String endpoint,
+      String region,
+      String accessKey,
+      String secretKey,
+      boolean pathStyle,
+      S3ClientProperties properties) {
+    this.endpoint = URI.create(endpoint);
+    this.region = Region.of(region);
+    this.credentials =
+        StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    this.pathStyle = pathStyle;
+    this.properties = properties;
+  }
+
+  /**
+   * Synchronous client on a bounded Apache connection pool, for metadata operations and small objects on
+   * request threads. A saturated pool fails fast after {@code connectionAcquisitionTimeout}.
+   */
+  public S3Client syncClient() {
+    return S3Client.builder()
+        .endpointOverride(endpoint)
+        .region(region)
+        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build())
+        .credentialsProvider(credentials)
+        // Avoid sending optional checksum headers that some S3-compatible stores may not accept
+        .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+        .httpClientBuilder(
+            ApacheHttpClient.builder()
+                .maxConnections(properties.getMaxConnections())
+                .connectionAcquisitionTimeout(properties.getConnectionAcquisitionTimeout())
+                .connectionTimeout(properties.getConnectionTimeout())
+                .socketTimeout(properties.getSocketTimeout())
+                .connectionMaxIdleTime(properties.getConnectionMaxIdleTime())
+                .tcpKeepAlive(true))
+        .overrideConfiguration(
+            ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMinutes(2))
+                .apiCallAttemptTimeout(Duration.ofSeconds(30))
+                .build())
+        .build();
+  }
+
+  /**
+   * Asynchronous client used by the transfer manager, built on the implementation selected by
+   * {@link S3ClientProperties#getAsyncClient()}.
+   */
+  public S3AsyncClient asyncClient() {
+    return switch (properties.getAsyncClient()) {
+      case CRT -> crtAsyncClient();
+      case NETTY -> nettyAsyncClient();
+    };
+  }
+
+  /**
+   * Transfer manager for directory uploads (HLS output), limited to {@code directoryUploadConcurrency} files
+   * in flight.
+   */
+  public S3TransferManager transferManager(S3AsyncClient asyncClient) {
+    return S3TransferManager.builder()
+        .s3Client(asyncClient)
+        .transferDirectoryMaxConcurrency(properties.getDirectoryUploadConcurrency())
+        .build();
+  }
+
+  private S3AsyncClient crtAsyncClient() {
+    var builder =
+        S3AsyncClient.crtBuilder()
+            .endpointOverride(endpoint)
+            .region(region)
+            .forcePathStyle(pathStyle)
+            .credentialsProvider(credentials)
+            .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+            .targetThroughputInGbps(properties.getTargetThroughputGbps())
+            .thresholdInBytes(properties.getMultipartThreshold().toBytes())
+            .minimumPartSizeInBytes(properties.getMinimumPartSize().toBytes())
+            .httpConfiguration(
+                http ->
+                    http.connectionTimeout(properties.getConnectionTimeout())
+                        .connectionHealthConfiguration(
+                            health ->
+                                health
+                                    .minimumThroughputInBps(STALLED_THROUGHPUT_BPS)
+                                    .minimumThroughputTimeout(properties.getAsyncStallTimeout())));
+    if (properties.getAsyncMaxConcurrency() > 0) {
+      builder.maxConcurrency(properties.getAsyncMaxConcurrency());
+    }
+    return builder.build();
+  }
+
+  private S3AsyncClient nettyAsyncClient() {
+    NettyNioAsyncHttpClient.Builder http =
+        NettyNioAsyncHttpClient.builder()
+            .connectionTimeout(properties.getConnectionTimeout())
+            .connectionAcquisitionTimeout(properties.getConnectionAcquisitionTimeout())
+            .connectionMaxIdleTime(properties.getConnectionMaxIdleTime());
+    if (properties.getAsyncMaxConcurrency() > 0) {
+      http.maxConcurrency(properties.getAsyncMaxConcurrency());
+    }
+    return S3AsyncClient.builder()
+        .endpointOverride(endpoint)
+        .region(region)
+        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build())
+        .credentialsProvider(credentials)
+        .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+        .httpClientBuilder(http)
+        // Không bật thì transfer manager gửi mỗi tệp bằng một PUT duy nhất, kể cả tệp rất lớn
+        .multipartEnabled(true)
+        .multipartConfiguration(
+            multipart ->
+                multipart
+                    .thresholdInBytes(properties.getMultipartThreshold().toBytes())
+                    .minimumPartSizeInBytes(properties.getMinimumPartSize().toBytes()))
+        .overrideConfiguration(
+            ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMinutes(5))
+                .apiCallAttemptTimeout(Duration.ofSeconds(30))
+                .build())
+        .build();
+  }
+}
@@ -0,0 +1,81 @@
+package com.vinaacademy.platform.configuration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(S3ClientProperties.class)
+@ConfigurationProperties(prefix = "minio.client")
+@Data
+@NoArgsConstructor
+public class S3ClientProperties {
+
+    public enum AsyncClient {
+        /**
+         * AWS CRT S3 client: native multipart uploads with parallel parts, connection count sized from the
+         * target throughput.
+         */
+        CRT,
+        /**
+         * Java SDK client on Netty, with the SDK's own multipart support enabled.
+         */
+        NETTY
+    }
+
+    /**
+     * Implementation behind {@code S3AsyncClient} and therefore {@code S3TransferManager} (HLS uploads).
+     */
+    private AsyncClient asyncClient = AsyncClient.CRT;
+    /**
+     * Throughput the CRT client aims for; it opens as many connections as needed to reach it.
+     */
+    private double targetThroughputGbps = 5.0;
+    /**
+     * Uploads larger than this are split into parts sent in parallel. HLS segments stay below it and go out
+     * as a single PUT each.
+     */
+    private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+    /**
+     * Size of each part of a multipart upload (S3 requires at least 5MB).
+     */
+    private DataSize minimumPartSize = DataSize.ofMegabytes(8);
+    /**
+     * Max concurrent requests of the async client. For CRT, 0 derives it from the target throughput.
+     */
+    private int asyncMaxConcurrency = 0;
+    /**
+     * Max files of one directory upload in flight at once.
+     */
+    private int directoryUploadConcurrency = 64;
+    /**
+     * A CRT connection transferring less than 1KB/s for this long is considered stalled and retried.
+     */
+    private Duration asyncStallTimeout = Duration.ofSeconds(30);
+    /**
+     * Size of the sync client's connection pool, shared by HEAD/GET/PUT calls from request threads.
+     */
+    private int maxConnections = 64;
+    /**
+     * How long a request waits for a pooled connection before failing, rather than queueing request threads
+     * behind a saturated pool.
+     */
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(2);
+    /**
+     * TCP connect timeout of both clients.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    /**
+     * Read timeout of the sync client.
+     */
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    /**
+     * Idle pooled connections are closed after this long, before MinIO or a proxy drops them.
+     */
+    private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+}
@@ -1,24 +1,21 @@
 package com.vinaacademy.platform.configuration;
 
-import java.net.URI;
-import java.time.Duration;
+import com.vinaacademy.platform.feature.storage.utils.S3UrlSigner;
+import java.time.Clock;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
-import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3Configuration;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 @Configuration
+@RequiredArgsConstructor
 public class S3Config {
 
+  private final S3ClientProperties clientProperties;
+
   @Value("${minio.endpoint}")
   private String endpoint; // e.g. http://localhost:9000 or https://minio.mycorp.com
 
@@ -34,115 +31,76 @@ public class S3Config {
   @Value("${minio.path-style:true}")
   private boolean pathStyle;
 
-  /**
-   * Create an S3Configuration with path-style addressing set from the configured flag.
-   *
-   * This configures S3 clients to use path-style access when the injected `pathStyle` property
-   * is true (required for many MinIO deployments).
-   *
-   * @return an S3Configuration with pathStyleAccessEnabled set to the `pathStyle` field
-   */
-  private S3Configuration s3Cfg() {
-    return S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
-  }
+  @Value("${minio.presign-cache-size:20000}")
+  private int presignCacheSize;
 
   /**
-   * Creates a StaticCredentialsProvider from the configured access and secret keys.
-   *
-   * The provider wraps AwsBasicCredentials constructed from this class's
-   * accessKey and secretKey fields.
+   * Create the factory building every S3 client from the configured endpoint, region, credentials,
+   * addressing style and the {@code minio.client.*} tuning properties.
    *
-   * @return a StaticCredentialsProvider supplying AwsBasicCredentials for S3 clients
+   * @return an S3ClientFactory for the configured MinIO/S3 endpoint
    */
-  private StaticCredentialsProvider creds() {
-    return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+  private S3ClientFactory clientFactory() {
+    return new S3ClientFactory(
+        endpoint, region, accessKey, secretKey, pathStyle, clientProperties);
   }
 
   /**
    * Creates and configures a synchronous S3Client for blocking or short-lived S3 operations.
    *
-   * <p>The client is configured with the configured endpoint and region, path-style access
-   * (from s3Cfg()), static credentials (from creds()), request checksum calculation set to
-   * WHEN_REQUIRED, and client override timeouts (apiCallTimeout = 2 minutes,
-   * apiCallAttemptTimeout = 30 seconds). Suitable for metadata operations and small S3 requests.
+   * <p>The client runs on an Apache connection pool sized by {@code minio.client.max-connections}, with an
+   * explicit connection acquisition timeout so a saturated pool fails fast instead of piling up request
+   * threads. Request checksum calculation is set to WHEN_REQUIRED and API calls time out after 2 minutes
+   * (30 seconds per attempt). Suitable for metadata operations and small S3 requests.
    *
    * @return a fully configured S3Client
    */
   @Bean
   public S3Client s3Client() {
-    return S3Client.builder()
-        .endpointOverride(URI.create(endpoint))
-        .region(Region.of(region))
-        .serviceConfiguration(s3Cfg())
-        .credentialsProvider(creds())
-        // Avoid sending optional checksum headers that some S3-compatible stores may not accept
-        .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
-        .overrideConfiguration(
-            ClientOverrideConfiguration.builder()
-                .apiCallTimeout(Duration.ofMinutes(2))
-                .apiCallAttemptTimeout(Duration.ofSeconds(30))
-                .build())
-        .build();
+    return clientFactory().syncClient();
   }
 
   /**
-   * Creates and configures a non-blocking S3AsyncClient for high-throughput and
-   * asynchronous S3 operations (required by the Transfer Manager).
+   * Creates the non-blocking S3AsyncClient used for high-throughput transfers (required by the Transfer
+   * Manager) and batched deletes.
    *
-   * The client is configured to target the configured endpoint and region, use
-   * the shared S3 service configuration (including path-style addressing), and
-   * the static credentials provider. Request checksum calculation is enabled
-   * when required. API call timeouts are set to support long-running transfers
-   * (apiCallTimeout = 5 minutes, apiCallAttemptTimeout = 30 seconds).
+   * <p>By default this is the AWS CRT-based client, which splits uploads above
+   * {@code minio.client.multipart-threshold} into parallel parts and sizes its connection count from
+   * {@code minio.client.target-throughput-gbps}. {@code minio.client.async-client=netty} selects the
+   * Netty-based client with SDK multipart support instead.
    *
    * @return a configured S3AsyncClient suitable for parallel/non-blocking S3 transfers
    */
   @Bean
   public S3AsyncClient s3AsyncClient() {
-    // Use the default netty async client; CRT works too, but start simple with MinIO.
-    return S3AsyncClient.builder()
-        .endpointOverride(URI.create(endpoint))
-        .region(Region.of(region))
-        .serviceConfiguration(s3Cfg())
-        .credentialsProvider(creds())
-        .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
-        .overrideConfiguration(
-            ClientOverrideConfiguration.builder()
-                .apiCallTimeout(Duration.ofMinutes(5))
-                .apiCallAttemptTimeout(Duration.ofSeconds(30))
-                .build())
-        .build();
+    return clientFactory().asyncClient();
   }
 
   /**
    * Creates an S3TransferManager for high-throughput, parallel S3 transfers using the provided async client.
    *
-   * The returned manager performs multipart and parallel uploads/downloads and should be closed when no longer needed.
+   * The returned manager performs multipart and parallel uploads/downloads, with at most
+   * {@code minio.client.directory-upload-concurrency} files of a directory upload in flight.
    *
    * @return a configured S3TransferManager backed by the provided S3AsyncClient
    */
   @Bean
   public S3TransferManager s3TransferManager(S3AsyncClient async) {
-    return S3TransferManager.builder().s3Client(async).build();
+    return clientFactory().transferManager(async);
   }
 
   /**
-   * Creates an S3Presigner configured for the application's MinIO/S3 endpoint.
+   * Creates the presigner used for GET URLs handed to clients (HLS segments, thumbnails).
    *
-   * <p>The presigner is configured with the injected endpoint, region, credentials, and
-   * S3 service configuration (including path-style addressing). Use this bean to
-   * generate pre-signed GET/PUT URLs that are compatible with MinIO and other S3-compatible
-   * services.
+   * <p>It signs with the same endpoint, region, credentials and addressing style as the clients above, but
+   * derives the SigV4 signing key once per day and caches URLs per time window, so presigning every
+   * segment of a playlist costs one HMAC per segment at most.
    *
-   * @return an S3Presigner ready to build pre-signed requests against the configured endpoint
+   * @return an S3UrlSigner for the configured endpoint
    */
   @Bean
-  public S3Presigner s3Presigner() {
-    return S3Presigner.builder()
-        .endpointOverride(URI.create(endpoint))
-        .region(Region.of(region))
-        .credentialsProvider(creds())
-        .serviceConfiguration(s3Cfg())
-        .build();
+  public S3UrlSigner s3UrlSigner() {
+    return new S3UrlSigner(
+        endpoint, region, accessKey, secretKey, pathStyle, presignCacheSize, Clock.systemUTC());
   }
 }
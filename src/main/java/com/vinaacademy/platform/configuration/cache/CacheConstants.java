@@ -5,4 +5,7 @@ public class CacheConstants {
     public static final String CATEGORIES = "categories";
     public static final String SHORT_TERM = "shortTerm";
     public static final String LONG_TERM = "longTerm";
+    public static final String COURSE_DETAILS = "courseDetails";
+    public static final String COURSE_BY_ID = "courseById";
+    public static final String COURSE_INFO_BY_ID = "courseInfoById";
 }
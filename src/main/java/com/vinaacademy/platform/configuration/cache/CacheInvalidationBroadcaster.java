@@ -0,0 +1,78 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Propagates evictions of {@link TwoTierCache} entries to the other nodes over a Redis channel.
+ * <p>
+ * Message format: {@code nodeId|cacheName|key}, an empty key meaning "clear the whole cache". Messages sent
+ * by this node are ignored since the local entry has already been dropped.
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class CacheInvalidationBroadcaster implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "cache:invalidate";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @PostConstruct
+    void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    void register(TwoTierCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(cacheName, "");
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, nodeId + "|" + cacheName + "|" + key);
+        } catch (DataAccessException e) {
+            // Các node khác sẽ tự hết hạn theo TTL của near cache
+            log.warn("Failed to broadcast invalidation of {}[{}]", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts[2].isEmpty()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
@@ -2,18 +2,38 @@ package com.vinaacademy.platform.configuration.cache;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Cache names with their TTL in Redis ({@code ttl}) and in the in-process tier ({@code localTtl}, at most
+ * {@code localMaxEntries} entries per node). All durations are in seconds.
+ */
 public enum CacheName {
-    CATEGORY(CacheConstants.CATEGORY, 86400),
-    CATEGORIES(CacheConstants.CATEGORIES, 86400),
-    SHORT_TERM(CacheConstants.SHORT_TERM, 3600),
-    LONG_TERM(CacheConstants.LONG_TERM, 86400);
+    CATEGORY(CacheConstants.CATEGORY, 86400, 3600, 500),
+    CATEGORIES(CacheConstants.CATEGORIES, 86400, 3600, 16),
+    SHORT_TERM(CacheConstants.SHORT_TERM, 3600, 60, 1000),
+    LONG_TERM(CacheConstants.LONG_TERM, 86400, 600, 1000),
+    COURSE_DETAILS(CacheConstants.COURSE_DETAILS, 3600, 300, 1000),
+    COURSE_BY_ID(CacheConstants.COURSE_BY_ID, 3600, 300, 1000),
+    COURSE_INFO_BY_ID(CacheConstants.COURSE_INFO_BY_ID, 3600, 300, 1000);
     @Getter
     private final String value;
     @Getter
     private final int ttl;
+    @Getter
+    private final int localTtl;
+    @Getter
+    private final int localMaxEntries;
 
-    CacheName(String value, int ttl) {
+    CacheName(String value, int ttl, int localTtl, int localMaxEntries) {
         this.value = value;
         this.ttl = ttl;
+        this.localTtl = localTtl;
+        this.localMaxEntries = localMaxEntries;
+    }
+
+    public static Optional<CacheName> fromValue(String value) {
+        return Arrays.stream(values()).filter(v -> v.value.equals(value)).findFirst();
     }
 }
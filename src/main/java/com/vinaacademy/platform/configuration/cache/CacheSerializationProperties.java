@@ -0,0 +1,25 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CacheSerializationProperties.class)
+@ConfigurationProperties(prefix = "application.cache.serialization")
+@Data
+@NoArgsConstructor
+public class CacheSerializationProperties {
+    /**
+     * Encoding of newly written cache values. Entries in any supported format are always readable, so
+     * switching does not require flushing Redis. Keep {@code json} while nodes running an older version are
+     * still reading the same Redis.
+     */
+    private VersionedCacheSerializer.Format format = VersionedCacheSerializer.Format.SMILE;
+    /**
+     * Binary payloads at least this large (bytes) are compressed. A negative value disables compression.
+     */
+    private int compressionThreshold = 2048;
+}
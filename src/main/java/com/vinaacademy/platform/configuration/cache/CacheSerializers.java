@@ -0,0 +1,40 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+/**
+ * JSON encoding of cached values. A bare {@link GenericJackson2JsonRedisSerializer} knows no java.time types
+ * and writes no type id for final root values such as the lists returned by {@code Stream.toList()}, so
+ * those entries cannot be read back; this one registers {@link JavaTimeModule} and types every value.
+ */
+public final class CacheSerializers {
+
+    private CacheSerializers() {
+    }
+
+    public static GenericJackson2JsonRedisSerializer json() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return new GenericJackson2JsonRedisSerializer(withTypeIds(mapper));
+    }
+
+    /**
+     * Write a type id on every value, so it reads back as its original type when the target is
+     * {@code Object}. Only application types and the JDK types cached DTOs use are accepted.
+     */
+    @SuppressWarnings("deprecation") // EVERYTHING: kể cả kiểu final ở gốc, như List trả về từ Stream.toList()
+    public static ObjectMapper withTypeIds(ObjectMapper mapper) {
+        return mapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.vinaacademy.platform.")
+                        .allowIfSubType("java.util.")
+                        .allowIfSubType("java.time.")
+                        .allowIfSubType("java.math.")
+                        .allowIfSubType(Number.class)
+                        .build(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+    }
+}
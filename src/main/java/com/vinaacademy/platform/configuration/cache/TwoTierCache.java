@@ -0,0 +1,227 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link Cache} decorator keeping a bounded, short-lived copy of entries in the JVM (L1) in front of a shared
+ * (Redis) cache (L2). L1 hits skip both the network round trip and deserialization.
+ * <p>
+ * Misses through {@link #get(Object, Callable)} are coalesced per key: concurrent callers on the same node
+ * wait for a single loader instead of all hitting the database. Writes and evictions go to both levels and
+ * are broadcast so the other nodes drop their local copy; the local TTL bounds staleness should a broadcast
+ * be missed.
+ * <p>
+ * Lookups are counted in {@code cache.tier.gets} tagged with the cache name and {@code result} =
+ * {@code l1_hit}, {@code l2_hit} or {@code miss}; {@code cache.tier.local.size} reports the L1 size and
+ * {@code cache.tier.hit.ratio} the share of lookups served by either tier since startup.
+ */
+public class TwoTierCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final long ttlNanos;
+
+    // LRU theo thứ tự truy cập; khóa là chuỗi giống khóa trên Redis để khớp với thông điệp invalidate
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    public TwoTierCache(Cache delegate, CacheInvalidationBroadcaster broadcaster, int maxEntries, Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.broadcaster = broadcaster;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.localHits = counter(meterRegistry, "l1_hit");
+        this.remoteHits = counter(meterRegistry, "l2_hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("cache.tier.local.size", entries, Map::size)
+                .tag("cache", getName())
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.hit.ratio", this, TwoTierCache::hitRatio)
+                .tag("cache", getName())
+                .register(meterRegistry);
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.tier.gets")
+                .tag("cache", getName())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object local = getLocal(localKey);
+        if (local != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(local);
+        }
+        ValueWrapper remote = delegate.get(key);
+        if (remote != null && remote.get() != null) {
+            remoteHits.increment();
+            putLocal(localKey, remote.get());
+        } else {
+            misses.increment();
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(localKey, loading);
+        if (running != null) {
+            return (T) await(running, key, valueLoader);
+        }
+
+        try {
+            // Kiểm tra lại: luồng trước có thể vừa nạp xong giữa lần miss và lúc giành quyền nạp
+            ValueWrapper remote = delegate.get(key);
+            Object value = remote != null ? remote.get() : valueLoader.call();
+            if (value != null) {
+                if (remote == null) {
+                    delegate.put(key, value);
+                }
+                putLocal(localKey, value);
+            }
+            loading.complete(value);
+            return (T) value;
+        } catch (Exception e) {
+            loading.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(localKey, loading);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        String localKey = localKey(key);
+        putLocal(localKey, value);
+        broadcaster.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        String localKey = localKey(key);
+        entries.remove(localKey);
+        broadcaster.publishEvict(getName(), localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = delegate.evictIfPresent(key);
+        String localKey = localKey(key);
+        entries.remove(localKey);
+        broadcaster.publishEvict(getName(), localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        entries.clear();
+        broadcaster.publishClear(getName());
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + remoteHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? Double.NaN : hits / total;
+    }
+
+    void evictLocal(String localKey) {
+        entries.remove(localKey);
+    }
+
+    void clearLocal() {
+        entries.clear();
+    }
+
+    private Object getLocal(String localKey) {
+        Entry entry = entries.get(localKey);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt() > ttlNanos) {
+            entries.remove(localKey, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private void putLocal(String localKey, Object value) {
+        if (value != null) {
+            entries.put(localKey, new Entry(value, System.nanoTime()));
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static Object await(CompletableFuture<Object> running, Object key, Callable<?> valueLoader) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    private record Entry(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Composite {@link CacheManager}: every cache of the delegate (Redis) manager is fronted by a bounded
+ * in-process tier, see {@link TwoTierCache}. Local size and TTL come from {@link CacheName}; the local TTL
+ * never exceeds the Redis TTL of the same cache.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    // Cache không khai báo trong CacheName
+    private static final Duration DEFAULT_LOCAL_TTL = Duration.ofMinutes(1);
+    private static final int DEFAULT_LOCAL_MAX_ENTRIES = 1000;
+
+    private final CacheManager delegate;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager delegate, CacheInvalidationBroadcaster broadcaster,
+                               MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> {
+            Duration localTtl = CacheName.fromValue(n)
+                    .map(c -> Duration.ofSeconds(Math.min(c.getLocalTtl(), c.getTtl())))
+                    .orElse(DEFAULT_LOCAL_TTL);
+            int maxEntries = CacheName.fromValue(n)
+                    .map(CacheName::getLocalMaxEntries)
+                    .orElse(DEFAULT_LOCAL_MAX_ENTRIES);
+            TwoTierCache twoTierCache = new TwoTierCache(target, broadcaster, maxEntries, localTtl, meterRegistry);
+            broadcaster.register(twoTierCache);
+            return twoTierCache;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
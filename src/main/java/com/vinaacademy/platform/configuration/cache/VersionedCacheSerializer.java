@@ -0,0 +1,141 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vinaacademy.platform.configuration.JacksonConfig;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer for cached DTOs with a version tag in front of every binary entry.
+ * <p>
+ * Binary entries start with {@link #MAGIC} followed by one codec byte ({@link #CODEC_SMILE},
+ * {@link #CODEC_SMILE_DEFLATE}). Smile keeps Jackson's data model, so the mapper shares the application
+ * settings from {@link JacksonConfig}, but back-references repeated property names and type ids instead of
+ * repeating them as text. Entries without the tag are read as the JSON written by
+ * {@link CacheSerializers#json()}, so entries cached before a format switch stay readable until they expire.
+ */
+public class VersionedCacheSerializer implements RedisSerializer<Object> {
+
+    public enum Format {
+        JSON, SMILE
+    }
+
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte CODEC_SMILE = 1;
+    static final byte CODEC_SMILE_DEFLATE = 2;
+    private static final int HEADER_LENGTH = 2;
+
+    private final Format format;
+    private final int compressionThreshold;
+    private final GenericJackson2JsonRedisSerializer jsonSerializer;
+    private final ObjectMapper smileMapper;
+
+    public VersionedCacheSerializer(Format format, int compressionThreshold) {
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+        this.jsonSerializer = CacheSerializers.json();
+        this.smileMapper = createSmileMapper();
+    }
+
+    private static ObjectMapper createSmileMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = JacksonConfig.applyCommonSettings(new ObjectMapper(factory));
+        mapper.registerModule(new JavaTimeModule());
+        // Cùng cách ghi kiểu với định dạng JSON để đọc lại đúng DTO khi kiểu đích là Object
+        return CacheSerializers.withTypeIds(mapper);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (format == Format.JSON) {
+            return jsonSerializer.serialize(value);
+        }
+        try {
+            byte[] payload = smileMapper.writeValueAsBytes(value);
+            if (compressionThreshold >= 0 && payload.length >= compressionThreshold) {
+                return withHeader(CODEC_SMILE_DEFLATE, deflate(payload));
+            }
+            return withHeader(CODEC_SMILE, payload);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        try {
+            return switch (bytes[1]) {
+                case CODEC_SMILE -> smileMapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH,
+                        Object.class);
+                case CODEC_SMILE_DEFLATE -> smileMapper.readValue(inflate(bytes, HEADER_LENGTH), Object.class);
+                default -> throw new SerializationException("Unknown cache codec: " + bytes[1]);
+            };
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read cached value: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] withHeader(byte codec, byte[] payload) {
+        byte[] result = new byte[payload.length + HEADER_LENGTH];
+        result[0] = MAGIC;
+        result[1] = codec;
+        System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+        return result;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed cache value");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vinaacademy.platform.configuration.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Complements the {@code executor.*} meters Actuator binds for every executor bean (queue depth, active and
+ * pool size) with what it does not report: {@code executor.rejected}, counted by wrapping each pool's
+ * rejection policy, and {@code executor.queue.capacity}. Both are tagged with the bean {@code name} like the
+ * Actuator meters, so queue saturation is {@code executor.queued / executor.queue.capacity}.
+ * <p>
+ * The wrapped policy still runs, so {@code CallerRunsPolicy} pools keep running on the caller and the others
+ * keep throwing {@link java.util.concurrent.RejectedExecutionException}.
+ */
+public class TaskExecutorRejectionMetrics implements MeterBinder {
+
+    private final Map<String, ThreadPoolTaskExecutor> executors;
+
+    public TaskExecutorRejectionMetrics(Map<String, ThreadPoolTaskExecutor> executors) {
+        this.executors = executors;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        executors.forEach((name, executor) -> {
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+            Counter rejected = Counter.builder("executor.rejected")
+                    .description("Tasks refused because the pool and its queue were full")
+                    .tag("name", name)
+                    .register(registry);
+            Gauge.builder("executor.queue.capacity", pool, p -> p.getQueue().size() + p.getQueue().remainingCapacity())
+                    .tag("name", name)
+                    .register(registry);
+            RejectedExecutionHandler policy = pool.getRejectedExecutionHandler();
+            if (!(policy instanceof CountingRejectedExecutionHandler)) {
+                pool.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(policy, rejected));
+            }
+        });
+    }
+
+    private record CountingRejectedExecutionHandler(RejectedExecutionHandler delegate, Counter rejected)
+            implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.vinaacademy.platform.configuration.security;
 
 
+import com.vinaacademy.platform.feature.user.constant.AuthConstants;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -18,6 +21,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 @Configuration
@@ -33,6 +37,9 @@ public class SecurityConfig {
     @Value("${application.url.google-auth")
     private String googleAuthUrl;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
   /**
    * Configures a SecurityFilterChain for the OAuth2 authorization server endpoints and enables JWT-based resource server support.
    *
@@ -58,7 +65,8 @@ public class SecurityConfig {
   /**
    * Configures and returns the resource-server SecurityFilterChain used for application endpoints.
    *
-   * <p>Sets a permissive request authorization policy (all requests permitted), enforces stateless
+   * <p>Sets a permissive request authorization policy (all requests permitted, except actuator endpoints
+   * other than health reached through the application port, which require the admin role), enforces stateless
    * sessions, disables CSRF and HTTP Basic, and enables JWT-based OAuth2 resource-server support
    * using the injected custom JWT authentication converter. Also wires CORS using the provided
    * CorsConfigurationSource, configures OAuth2 login endpoints (authorization base URI comes from
@@ -72,6 +80,8 @@ public class SecurityConfig {
   public SecurityFilterChain resourceServerSecurityFilterChain(HttpSecurity http) throws Exception {
     http
         .authorizeHttpRequests(auth -> auth
+            // Quyền trong token có dạng ROLE_<code> (Role#getAuthorities), nên kiểm tra bằng hasRole
+            .requestMatchers(actuatorOnApplicationPort()).hasRole(AuthConstants.ADMIN_ROLE)
             .anyRequest().permitAll()
         )
         .sessionManagement(session -> 
@@ -102,6 +112,16 @@ public class SecurityConfig {
     return http.build();
   }
 
+  /**
+   * Actuator endpoints (except health) reached through the public application port. Metrics are normally
+   * served on the internal {@code management.server.port}; this only applies when that port is set to the
+   * application port.
+   */
+  private RequestMatcher actuatorOnApplicationPort() {
+    RequestMatcher endpoints = EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class);
+    return request -> request.getLocalPort() == serverPort && endpoints.matches(request);
+  }
+
 
 
     /**
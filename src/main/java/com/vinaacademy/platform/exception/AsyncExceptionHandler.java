@@ -2,6 +2,7 @@ package com.vinaacademy.platform.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -12,8 +13,11 @@ import java.util.concurrent.Executor;
 @Slf4j
 public class AsyncExceptionHandler implements AsyncConfigurer {
 
-    @Override
-    public Executor getAsyncExecutor() {
+    /**
+     * Executor mặc định của {@code @Async}; khai báo thành bean để được đo như các executor khác.
+     */
+    @Bean(name = "asyncExecutor")
+    public ThreadPoolTaskExecutor asyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
@@ -23,6 +27,11 @@ public class AsyncExceptionHandler implements AsyncConfigurer {
         return executor;
     }
 
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return (ex, method, params) -> {
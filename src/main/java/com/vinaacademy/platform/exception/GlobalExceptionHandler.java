@@ -60,6 +60,18 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(ApiResponse.error(404, message));
     }
 
+    /**
+     * Handle TooManyRequestsException, telling the client when to retry
+     */
+    @ExceptionHandler({TooManyRequestsException.class})
+    public ResponseEntity<Object> handleTooManyRequests(TooManyRequestsException e) {
+        logger.warn("TooManyRequestsException: " + e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(429, e.getMessage()));
+    }
+
     /**
      * Handle custom AccessDeniedException with i18n support
      */
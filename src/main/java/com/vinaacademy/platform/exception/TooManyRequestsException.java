@@ -0,0 +1,25 @@
+package com.vinaacademy.platform.exception;
+
+import lombok.*;
+
+/**
+ * Exception for throttled requests (HTTP 429). {@code retryAfterSeconds} is sent as the Retry-After header.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TooManyRequestsException extends RuntimeException {
+    private Integer code;
+    private String message;
+    private long retryAfterSeconds;
+
+    public static TooManyRequestsException retryAfter(long retryAfterSeconds, String message) {
+        return TooManyRequestsException.builder()
+                .code(429)
+                .message(message)
+                .retryAfterSeconds(retryAfterSeconds)
+                .build();
+    }
+}
@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.vinaacademy.platform.feature.cart.entity.Cart;
@@ -21,4 +24,11 @@ public interface CartItemRepository  extends JpaRepository<CartItem, Long>{
     void deleteByCart(Cart cart);
     void deleteByCartId(long cartId);
     List<CartItem> findByCartId(Long cartId);
+
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.course WHERE ci.cart.id = :cartId")
+    List<CartItem> findWithCourseByCartId(@Param("cartId") Long cartId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
 }
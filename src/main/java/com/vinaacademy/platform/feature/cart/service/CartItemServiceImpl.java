@@ -43,7 +43,7 @@ public class CartItemServiceImpl implements CartItemService{
 		User user = securityHelper.getCurrentUser();
     	UUID userId = user.getId();
     	
-		if (cart.getUser().getId() != userId ) {
+		if (!cart.getUser().getId().equals(userId)) {
     		throw BadRequestException.message("Bạn không có quyền sở hữu với cart này");
     	}
 		
@@ -76,7 +76,7 @@ public class CartItemServiceImpl implements CartItemService{
 		User user = securityHelper.getCurrentUser();
     	UUID userId = user.getId();
     	
-		if (cart.getUser().getId() != userId ) {
+		if (!cart.getUser().getId().equals(userId)) {
     		throw BadRequestException.message("Bạn không có quyền sở hữu với cart này");
     	}
 		
@@ -98,7 +98,7 @@ public class CartItemServiceImpl implements CartItemService{
 		User user = securityHelper.getCurrentUser();
     	UUID userId = user.getId();
     	
-		if (cart.getUser().getId() != userId ) {
+		if (!cart.getUser().getId().equals(userId)) {
     		throw BadRequestException.message("Bạn không có quyền sở hữu với cart này");
     	}
 		
@@ -112,7 +112,7 @@ public class CartItemServiceImpl implements CartItemService{
 		User user = securityHelper.getCurrentUser();
     	UUID userId = user.getId();
     	
-		if (cart.getUser().getId() != userId ) {
+		if (!cart.getUser().getId().equals(userId)) {
     		throw BadRequestException.message("Bạn không có quyền sở hữu với cart này");
     	}
 		List<CartItemDto> cartItemDtos = cartMapper.toCartItemDTOList(cart.getCartItems());
@@ -127,7 +127,7 @@ public class CartItemServiceImpl implements CartItemService{
 		User user = securityHelper.getCurrentUser();
     	UUID userId = user.getId();
     	
-		if (cart.getUser().getId() != userId ) {
+		if (!cart.getUser().getId().equals(userId)) {
     		throw BadRequestException.message("Bạn không có quyền sở hữu với cart này");
     	}
 		CartItemDto cartItemDto = cartMapper.toCartItemDTO(cartItem);
@@ -26,7 +26,7 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryMapper categoryMapper;
 
     @Override
-    @Cacheable(value = CacheConstants.CATEGORIES)
+    @Cacheable(value = CacheConstants.CATEGORIES, sync = true)
     public List<CategoryDto> getCategories() {
         // Root categories
         List<Category> categories = categoryRepository.findAllRootCategoriesWithChildren();
@@ -37,7 +37,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.CATEGORY, key = "#slug")
+    @Cacheable(value = CacheConstants.CATEGORY, key = "#slug", sync = true)
     public CategoryDto getCategory(String slug) {
         Category category = categoryRepository.findBySlug(slug)
                 .orElseThrow(() -> BadRequestException.message("Danh mục không tồn tại"));
@@ -0,0 +1,39 @@
+package com.vinaacademy.platform.feature.common.dto;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position {@code (createdDate, id)}, serialized as URL-safe base64 so clients treat it as a token.
+ */
+public record KeysetCursor(LocalDateTime createdDate, UUID id) {
+
+    private static final char SEPARATOR = '_';
+
+    public String encode() {
+        String raw = createdDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank cursor (first page)
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw BadRequestException.message("Cursor không hợp lệ");
+        }
+    }
+}
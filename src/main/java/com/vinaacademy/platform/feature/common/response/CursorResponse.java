@@ -0,0 +1,23 @@
+package com.vinaacademy.platform.feature.common.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) page. Pass {@code nextCursor} back to fetch the following page; it is {@code null}
+ * when {@code hasNext} is {@code false}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private Integer size;
+}
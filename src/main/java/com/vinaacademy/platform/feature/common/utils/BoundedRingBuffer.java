@@ -0,0 +1,114 @@
+package com.vinaacademy.platform.feature.common.utils;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer/multi-consumer ring buffer (Dmitry Vyukov's sequence-per-slot design).
+ * <p>
+ * {@link #offer(Object)} never blocks: it returns {@code false} when the buffer is full so callers can
+ * apply their own backpressure policy (drop, count, flush early...).
+ *
+ * @param <T> element type
+ */
+public class BoundedRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity requested capacity, rounded up to the next power of two
+     */
+    public BoundedRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    public T poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T element = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    return element;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code maxElements} elements into {@code target}.
+     *
+     * @return number of elements drained
+     */
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        int drained = 0;
+        T element;
+        while (drained < maxElements && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate number of buffered elements; exact only when producers and consumers are idle.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -7,6 +7,8 @@ import com.vinaacademy.platform.feature.course.dto.*;
 import com.vinaacademy.platform.feature.course.permission.CoursePermissionService;
 import com.vinaacademy.platform.feature.course.service.CourseCommandService;
 import com.vinaacademy.platform.feature.course.service.CourseQueryService;
+import com.vinaacademy.platform.feature.ratelimit.annotation.RateLimited;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
 import com.vinaacademy.platform.feature.user.auth.annotation.HasAnyRole;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.constant.AuthConstants;
@@ -105,6 +107,7 @@ public class CourseController {
         @Parameter(name = "size", description = "Page size", example = "10"),
         @Parameter(name = "sort", description = "Sort criteria", example = "name,asc")
       })
+  @RateLimited(RateLimitProperties.SEARCH)
   public ApiResponse<Page<CourseDto>> searchPublishedCourses(
       @Valid @ModelAttribute CourseSearchRequest searchRequest,
       @PageableDefault(size = COURSE_DEFAULT_SIZE, sort = "name", direction = Sort.Direction.ASC)
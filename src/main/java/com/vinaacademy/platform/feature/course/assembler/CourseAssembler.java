@@ -1,5 +1,9 @@
 package com.vinaacademy.platform.feature.course.assembler;
 
+import com.vinaacademy.platform.feature.course.curriculum.CourseCurriculum;
+import com.vinaacademy.platform.feature.course.curriculum.CourseCurriculum.CurriculumLesson;
+import com.vinaacademy.platform.feature.course.curriculum.CourseCurriculum.CurriculumSection;
+import com.vinaacademy.platform.feature.course.curriculum.LessonProgressOverlay;
 import com.vinaacademy.platform.feature.course.dto.CourseDetailsResponse;
 import com.vinaacademy.platform.feature.course.entity.Course;
 import com.vinaacademy.platform.feature.course.mapper.CourseMapper;
@@ -8,7 +12,6 @@ import com.vinaacademy.platform.feature.instructor.projection.InstructorInfo;
 import com.vinaacademy.platform.feature.instructor.repository.CourseInstructorRepository;
 import com.vinaacademy.platform.feature.lesson.dto.LessonDto;
 import com.vinaacademy.platform.feature.lesson.entity.Lesson;
-import com.vinaacademy.platform.feature.lesson.entity.UserProgress;
 import com.vinaacademy.platform.feature.lesson.mapper.LessonMapper;
 import com.vinaacademy.platform.feature.review.dto.CourseReviewDto;
 import com.vinaacademy.platform.feature.review.mapper.CourseReviewMapper;
@@ -20,10 +23,8 @@ import com.vinaacademy.platform.feature.user.entity.User;
 import jakarta.validation.constraints.NotNull;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
@@ -167,48 +168,99 @@ public class CourseAssembler {
   }
 
   /**
-   * Builds ordered SectionDto objects whose LessonDto children are annotated with per-user progress.
+   * Build the immutable curriculum snapshot of a course: sections and lessons sorted by their
+   * {@code orderIndex} (null indices last) with lesson type-specific fields resolved.
    *
-   * Sections and lessons are sorted by their `orderIndex` (ascending). If `sections` is null or empty,
-   * an empty list is returned. For each lesson, the method looks up progress in `progressMap` by the
-   * lesson's UUID; if no entry is present, an empty `UserProgress` is attached.
+   * <p>The snapshot holds no user or course-level data so it can be cached and shared by every
+   * student; see {@link #assembleLearningSections}.
    *
-   * @param sections list of Section entities to convert (may be null)
-   * @param progressMap mapping from lesson UUID to the user's progress for that lesson; missing keys
-   *     result in a default, empty UserProgress being set on the LessonDto
+   * @param course the course whose sections and lessons are read
+   * @return the curriculum snapshot
+   */
+  public CourseCurriculum buildCurriculum(@NotNull Course course) {
+    List<CurriculumSection> sections =
+        processSectionsAndLessons(course.getSections()).stream()
+            .map(
+                section ->
+                    new CurriculumSection(
+                        section.getId(),
+                        section.getTitle(),
+                        section.getOrderIndex(),
+                        section.getLessons().stream().map(CourseAssembler::toCurriculumLesson).toList()))
+            .toList();
+    return new CourseCurriculum(course.getId(), sections);
+  }
+
+  /**
+   * Builds ordered SectionDto objects from a cached curriculum, each LessonDto carrying the user's
+   * progress taken from {@code progress}. Lessons without a progress row get an empty
+   * {@code UserProgress}.
+   *
+   * @param course the course the curriculum belongs to, used for course id and name
+   * @param curriculum the (shared) curriculum snapshot, already ordered
+   * @param progress the current user's progress overlay
    * @return an ordered list of SectionDto with lessons populated and each LessonDto carrying its
    *     currentUserProgress
    */
-  public List<SectionDto> processSectionsAndLessonsWithProgress(
-      List<Section> sections, Map<UUID, UserProgress> progressMap) {
-    if (sections == null || sections.isEmpty()) {
-      return List.of();
-    }
-
-    return sections.stream()
-        .sorted(java.util.Comparator.comparing(Section::getOrderIndex))
+  public List<SectionDto> assembleLearningSections(
+      Course course, CourseCurriculum curriculum, LessonProgressOverlay progress) {
+    return curriculum.sections().stream()
         .map(
-            section -> {
-              SectionDto sectionDto = SectionMapper.INSTANCE.toDto(section);
-
-              // Map lessons with progress
-              List<LessonDto> lessonDtos =
-                  section.getLessons().stream()
-                      .sorted(java.util.Comparator.comparing(Lesson::getOrderIndex))
-                      .map(
-                          lesson -> {
-                            LessonDto lessonDto = LessonMapper.INSTANCE.lessonToLessonDto(lesson);
-                            // Add user progress if available
-                            UserProgress userProgress =
-                                progressMap.getOrDefault(lesson.getId(), new UserProgress());
-                            lessonDto.setCurrentUserProgress(userProgress);
-                            return lessonDto;
-                          })
-                      .toList();
-
-              sectionDto.setLessons(lessonDtos);
-              return sectionDto;
-            })
+            section ->
+                SectionDto.builder()
+                    .id(section.id())
+                    .title(section.title())
+                    .orderIndex(section.orderIndex())
+                    .lessonCount(section.lessons().size())
+                    .courseId(course.getId())
+                    .courseName(course.getName())
+                    .lessons(
+                        section.lessons().stream()
+                            .map(
+                                lesson ->
+                                    LessonDto.builder()
+                                        .id(lesson.id())
+                                        .title(lesson.title())
+                                        .description(lesson.description())
+                                        .type(lesson.type())
+                                        .free(lesson.free())
+                                        .orderIndex(lesson.orderIndex())
+                                        .sectionId(section.id())
+                                        .sectionTitle(section.title())
+                                        .authorId(lesson.authorId())
+                                        .authorName(lesson.authorName())
+                                        .courseId(course.getId())
+                                        .courseName(course.getName())
+                                        .currentUserProgress(progress.toUserProgress(lesson.id()))
+                                        .thumbnailUrl(lesson.thumbnailUrl())
+                                        .status(lesson.status())
+                                        .videoDuration(lesson.videoDuration())
+                                        .content(lesson.content())
+                                        .passPoint(lesson.passPoint())
+                                        .totalPoint(lesson.totalPoint())
+                                        .duration(lesson.duration())
+                                        .build())
+                            .toList())
+                    .build())
         .toList();
   }
+
+  private static CurriculumLesson toCurriculumLesson(LessonDto lesson) {
+    return new CurriculumLesson(
+        lesson.getId(),
+        lesson.getTitle(),
+        lesson.getDescription(),
+        lesson.getType(),
+        lesson.isFree(),
+        lesson.getOrderIndex(),
+        lesson.getAuthorId(),
+        lesson.getAuthorName(),
+        lesson.getThumbnailUrl(),
+        lesson.getStatus(),
+        lesson.getVideoDuration(),
+        lesson.getContent(),
+        lesson.getPassPoint(),
+        lesson.getTotalPoint(),
+        lesson.getDuration());
+  }
 }
@@ -0,0 +1,57 @@
+package com.vinaacademy.platform.feature.course.curriculum;
+
+import com.vinaacademy.platform.feature.course.enums.LessonType;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a course's curriculum: sections and lessons already sorted by order index,
+ * with the type-specific lesson fields the learning view needs. Contains nothing user-specific so a
+ * single instance can be shared by every student of the course.
+ */
+public record CourseCurriculum(UUID courseId, List<CurriculumSection> sections) {
+
+    public CourseCurriculum {
+        sections = List.copyOf(sections);
+    }
+
+    /**
+     * @return ids of all lessons in curriculum order
+     */
+    public List<UUID> lessonIds() {
+        return sections.stream()
+                .flatMap(section -> section.lessons().stream())
+                .map(CurriculumLesson::id)
+                .toList();
+    }
+
+    public record CurriculumSection(UUID id, String title, int orderIndex, List<CurriculumLesson> lessons) {
+
+        public CurriculumSection {
+            lessons = List.copyOf(lessons);
+        }
+    }
+
+    public record CurriculumLesson(
+            UUID id,
+            String title,
+            String description,
+            LessonType type,
+            boolean free,
+            int orderIndex,
+            UUID authorId,
+            String authorName,
+            // Video
+            String thumbnailUrl,
+            VideoStatus status,
+            Double videoDuration,
+            // Reading
+            String content,
+            // Quiz
+            Double passPoint,
+            Double totalPoint,
+            Integer duration) {
+    }
+}
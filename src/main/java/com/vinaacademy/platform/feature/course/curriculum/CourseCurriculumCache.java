@@ -0,0 +1,133 @@
+package com.vinaacademy.platform.feature.course.curriculum;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinaacademy.platform.feature.course.assembler.CourseAssembler;
+import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.course.event.CurriculumChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-level cache of {@link CourseCurriculum} snapshots: a bounded in-process near cache in front of
+ * Redis. Snapshots are built from the database only on a miss in both levels.
+ * <p>
+ * Invalidation is driven by {@link CurriculumChangedEvent}: the Redis entry is deleted and the course id
+ * is broadcast on {@value #INVALIDATE_CHANNEL} so every node drops its near-cache entry. The near-cache
+ * TTL bounds staleness should a broadcast be missed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseCurriculumCache implements MessageListener {
+
+    private static final String CURRICULUM_CACHE_KEY = "course:curriculum:";
+    private static final String INVALIDATE_CHANNEL = "course:curriculum:invalidate";
+    private static final Duration CURRICULUM_CACHE_EXPIRE_TIME = Duration.ofHours(12);
+    private static final int NEAR_CACHE_MAX_ENTRIES = 512;
+    private static final long NEAR_CACHE_TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CourseAssembler courseAssembler;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    // LRU theo thứ tự truy cập, giới hạn số khóa học giữ trong heap
+    private final Map<UUID, NearEntry> nearCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, NearEntry> eldest) {
+                    return size() > NEAR_CACHE_MAX_ENTRIES;
+                }
+            });
+
+    @PostConstruct
+    void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * Return the curriculum snapshot of the course, building and caching it on a miss.
+     * Must be called inside a transaction when the snapshot may need to be built (lazy sections/lessons).
+     */
+    public CourseCurriculum getCurriculum(Course course) {
+        UUID courseId = course.getId();
+        NearEntry near = nearCache.get(courseId);
+        if (near != null && near.expiresAt() - System.nanoTime() > 0) {
+            return near.curriculum();
+        }
+
+        CourseCurriculum curriculum = readFromRedis(courseId);
+        if (curriculum == null) {
+            curriculum = courseAssembler.buildCurriculum(course);
+            writeToRedis(courseId, curriculum);
+        }
+        nearCache.put(courseId, new NearEntry(curriculum, System.nanoTime() + NEAR_CACHE_TTL_NANOS));
+        return curriculum;
+    }
+
+    @EventListener
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        UUID courseId = event.getCourseId();
+        nearCache.remove(courseId);
+        try {
+            stringRedisTemplate.delete(getCacheKey(courseId));
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, courseId.toString());
+        } catch (DataAccessException e) {
+            log.warn("Failed to invalidate curriculum cache for course {}", courseId, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            nearCache.remove(UUID.fromString(body));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed curriculum invalidation message: {}", body);
+        }
+    }
+
+    private CourseCurriculum readFromRedis(UUID courseId) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(getCacheKey(courseId));
+            return json != null ? objectMapper.readValue(json, CourseCurriculum.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to read curriculum cache for course {}", courseId, e);
+            return null;
+        }
+    }
+
+    private void writeToRedis(UUID courseId, CourseCurriculum curriculum) {
+        try {
+            stringRedisTemplate.opsForValue().set(getCacheKey(courseId),
+                    objectMapper.writeValueAsString(curriculum), CURRICULUM_CACHE_EXPIRE_TIME);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to write curriculum cache for course {}", courseId, e);
+        }
+    }
+
+    private String getCacheKey(UUID courseId) {
+        return CURRICULUM_CACHE_KEY + courseId;
+    }
+
+    private record NearEntry(CourseCurriculum curriculum, long expiresAt) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.vinaacademy.platform.feature.course.curriculum;
+
+import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.course.event.CurriculumChangedEvent;
+import com.vinaacademy.platform.feature.lesson.entity.Lesson;
+import com.vinaacademy.platform.feature.section.entity.Section;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JPA entity listener on {@link Lesson} and {@link Section}. Collects the affected course ids for the
+ * current transaction and publishes one {@link CurriculumChangedEvent} per course after commit, so a
+ * reorder touching hundreds of lessons invalidates the curriculum snapshot only once.
+ * <p>
+ * Bulk JPQL/SQL updates bypass entity callbacks; such code paths must call {@link #courseChanged(UUID)}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurriculumChangeListener {
+
+    private static final String PENDING_RESOURCE = CurriculumChangeListener.class.getName() + ".pending";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        UUID courseId = resolveCourseId(entity);
+        if (courseId != null) {
+            courseChanged(courseId);
+        }
+    }
+
+    /**
+     * Schedule a {@link CurriculumChangedEvent} for the course after the current transaction commits,
+     * or publish it immediately when no transaction is active.
+     */
+    @SuppressWarnings("unchecked")
+    public void courseChanged(UUID courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(courseId);
+            return;
+        }
+        Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(PENDING_RESOURCE);
+        if (pending == null) {
+            Set<UUID> courseIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_RESOURCE, courseIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    courseIds.forEach(CurriculumChangeListener.this::publish);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_RESOURCE);
+                }
+            });
+            pending = courseIds;
+        }
+        pending.add(courseId);
+    }
+
+    private void publish(UUID courseId) {
+        eventPublisher.publishEvent(CurriculumChangedEvent.builder().courseId(courseId).build());
+    }
+
+    private static UUID resolveCourseId(Object entity) {
+        Section section = null;
+        if (entity instanceof Lesson lesson) {
+            section = lesson.getSection();
+        } else if (entity instanceof Section s) {
+            section = s;
+        }
+        if (section == null) {
+            return null;
+        }
+        Course course = section.getCourse();
+        return course != null ? course.getId() : null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.vinaacademy.platform.feature.course.curriculum;
+
+import com.vinaacademy.platform.feature.course.projection.OrderIndexProjection;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based maintenance of {@code order_index} for sections (per course) and lessons (per section).
+ * <p>
+ * Shifts are applied with a single {@code UPDATE ... SET order_index = order_index ± 1} over the affected
+ * range, and full reorders with one {@code CASE} update limited to the rows whose position actually
+ * changed, instead of loading every sibling and saving it one by one.
+ * <p>
+ * All methods must run inside the caller's transaction. Callers take {@link #lockCourse(UUID)} before
+ * reading positions so that concurrent edits of the same course are serialized. The entity being moved is
+ * always excluded from the bulk statements; the caller sets its index on the managed entity.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class CurriculumOrderingService {
+
+    private static final String SHIFT_SECTIONS_SQL = "UPDATE sections SET order_index = order_index + ? " +
+            "WHERE course_id = ? AND order_index BETWEEN ? AND ? AND id <> ?";
+    // Bump @Version so concurrent editors holding a stale lesson fail instead of writing the old index back
+    private static final String SHIFT_LESSONS_SQL = "UPDATE lessons SET order_index = order_index + ?, " +
+            "version = COALESCE(version, 0) + 1 " +
+            "WHERE section_id = ? AND order_index BETWEEN ? AND ? AND id <> ?";
+
+    private static final UUID NO_ID = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final CurriculumChangeListener curriculumChangeListener;
+
+    /**
+     * Transaction-scoped PostgreSQL advisory lock on the course, released on commit/rollback.
+     */
+    public void lockCourse(UUID courseId) {
+        long key = courseId.getMostSignificantBits() ^ courseId.getLeastSignificantBits();
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, key);
+    }
+
+    /**
+     * Close the gap left by a removed section: every section after {@code removedIndex} moves up by one.
+     */
+    public void closeSectionGap(UUID courseId, int removedIndex) {
+        shift(SHIFT_SECTIONS_SQL, courseId, removedIndex + 1, Integer.MAX_VALUE, -1, NO_ID);
+        curriculumChangeListener.courseChanged(courseId);
+    }
+
+    /**
+     * Make room at {@code index}: every section at or after it moves down by one.
+     */
+    public void openSectionGap(UUID courseId, int index) {
+        shift(SHIFT_SECTIONS_SQL, courseId, index, Integer.MAX_VALUE, 1, NO_ID);
+        curriculumChangeListener.courseChanged(courseId);
+    }
+
+    /**
+     * Shift the siblings between {@code from} and {@code to} so that {@code sectionId} can take index
+     * {@code to}. The section itself is not updated.
+     */
+    public void moveSection(UUID courseId, UUID sectionId, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (to < from) {
+            shift(SHIFT_SECTIONS_SQL, courseId, to, from - 1, 1, sectionId);
+        } else {
+            shift(SHIFT_SECTIONS_SQL, courseId, from + 1, to, -1, sectionId);
+        }
+        curriculumChangeListener.courseChanged(courseId);
+    }
+
+    /**
+     * Apply a full section order. {@code current} holds the stored positions, {@code newOrder} the requested
+     * order of the same ids; only sections whose index differs are written.
+     */
+    public void applySectionOrder(UUID courseId, List<OrderIndexProjection> current, List<UUID> newOrder) {
+        int updated = applyOrder("sections", "", "course_id", courseId, current, newOrder);
+        if (updated > 0) {
+            curriculumChangeListener.courseChanged(courseId);
+        }
+    }
+
+    public void closeLessonGap(UUID courseId, UUID sectionId, int removedIndex) {
+        shift(SHIFT_LESSONS_SQL, sectionId, removedIndex + 1, Integer.MAX_VALUE, -1, NO_ID);
+        curriculumChangeListener.courseChanged(courseId);
+    }
+
+    public void openLessonGap(UUID courseId, UUID sectionId, int index) {
+        shift(SHIFT_LESSONS_SQL, sectionId, index, Integer.MAX_VALUE, 1, NO_ID);
+        curriculumChangeListener.courseChanged(courseId);
+    }
+
+    public void moveLesson(UUID courseId, UUID sectionId, UUID lessonId, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (to < from) {
+            shift(SHIFT_LESSONS_SQL, sectionId, to, from - 1, 1, lessonId);
+        } else {
+            shift(SHIFT_LESSONS_SQL, sectionId, from + 1, to, -1, lessonId);
+        }
+        curriculumChangeListener.courseChanged(courseId);
+    }
+
+    public void applyLessonOrder(UUID courseId, UUID sectionId, List<OrderIndexProjection> current,
+                                 List<UUID> newOrder) {
+        int updated = applyOrder("lessons", ", version = COALESCE(version, 0) + 1",
+                "section_id", sectionId, current, newOrder);
+        if (updated > 0) {
+            curriculumChangeListener.courseChanged(courseId);
+        }
+    }
+
+    private void shift(String sql, UUID parentId, int from, int to, int delta, UUID excludeId) {
+        // JDBC statements do not trigger Hibernate's auto-flush
+        entityManager.flush();
+        int updated = jdbcTemplate.update(sql, delta, parentId, from, to, excludeId);
+        log.debug("Shifted {} rows by {} in [{}, {}] under {}", updated, delta, from, to, parentId);
+    }
+
+    private int applyOrder(String table, String extraSet, String parentColumn, UUID parentId,
+                           List<OrderIndexProjection> current, List<UUID> newOrder) {
+        Map<UUID, Integer> storedIndexes = new HashMap<>();
+        current.forEach(item -> storedIndexes.put(item.getId(), item.getOrderIndex()));
+
+        StringBuilder cases = new StringBuilder();
+        List<Object> caseArgs = new ArrayList<>();
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < newOrder.size(); i++) {
+            UUID id = newOrder.get(i);
+            Integer stored = storedIndexes.get(id);
+            if (stored != null && stored == i) {
+                continue;
+            }
+            cases.append(" WHEN ? THEN ?");
+            caseArgs.add(id);
+            caseArgs.add(i);
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = "UPDATE " + table + " SET order_index = CASE id" + cases + " ELSE order_index END" + extraSet +
+                " WHERE " + parentColumn + " = ? AND id IN (" + placeholders + ")";
+
+        List<Object> args = new ArrayList<>(caseArgs);
+        args.add(parentId);
+        args.addAll(ids);
+
+        entityManager.flush();
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        log.debug("Reordered {} of {} rows in {} under {}", updated, newOrder.size(), table, parentId);
+        return updated;
+    }
+}
@@ -0,0 +1,39 @@
+package com.vinaacademy.platform.feature.course.curriculum;
+
+import com.vinaacademy.platform.feature.course.projection.LessonProgressProjection;
+import com.vinaacademy.platform.feature.lesson.entity.UserProgress;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-user progress laid over a {@link CourseCurriculum}: the set of completed lesson ids plus the
+ * last watched position of lessons that have one.
+ */
+public record LessonProgressOverlay(Set<UUID> completedLessonIds, Map<UUID, Long> lastWatchedTimes) {
+
+    public static LessonProgressOverlay from(List<LessonProgressProjection> rows) {
+        Set<UUID> completed = new HashSet<>();
+        Map<UUID, Long> lastWatched = new HashMap<>();
+        for (LessonProgressProjection row : rows) {
+            if (Boolean.TRUE.equals(row.getCompleted())) {
+                completed.add(row.getLessonId());
+            }
+            if (row.getLastWatchedTime() != null) {
+                lastWatched.put(row.getLessonId(), row.getLastWatchedTime());
+            }
+        }
+        return new LessonProgressOverlay(completed, lastWatched);
+    }
+
+    public UserProgress toUserProgress(UUID lessonId) {
+        return UserProgress.builder()
+                .completed(completedLessonIds.contains(lessonId))
+                .lastWatchedTime(lastWatchedTimes.get(lessonId))
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import com.vinaacademy.platform.feature.course.enums.CourseLevel;
 import com.vinaacademy.platform.feature.course.enums.CourseStatus;
 import com.vinaacademy.platform.feature.enrollment.Enrollment;
 import com.vinaacademy.platform.feature.instructor.CourseInstructor;
+import com.vinaacademy.platform.feature.log.annotation.AuditedEntity;
 import com.vinaacademy.platform.feature.review.entity.CourseReview;
 import com.vinaacademy.platform.feature.section.entity.Section;
 import jakarta.persistence.*;
@@ -24,6 +25,7 @@ import org.hibernate.annotations.FetchMode;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@AuditedEntity(exclude = {"description", "rating", "totalRating", "totalStudent", "totalSection", "totalLesson"})
 @Entity
 @Table(
     name = "courses",
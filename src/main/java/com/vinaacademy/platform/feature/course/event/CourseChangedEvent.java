@@ -0,0 +1,30 @@
+package com.vinaacademy.platform.feature.course.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Domain event published when a course's own data (info, status, rating, reviews...) changes.
+ * Used to evict exactly that course from the read caches once the transaction has committed.
+ */
+@Data
+@Builder
+public class CourseChangedEvent {
+
+    /**
+     * The ID of the course that changed
+     */
+    private final UUID courseId;
+
+    /**
+     * The current course slug
+     */
+    private final String slug;
+
+    /**
+     * The slug before this change, when the change renamed the course
+     */
+    private final String previousSlug;
+}
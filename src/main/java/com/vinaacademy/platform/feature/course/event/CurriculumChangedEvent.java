@@ -0,0 +1,20 @@
+package com.vinaacademy.platform.feature.course.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Domain event published after a transaction that changed a course's sections or lessons has committed.
+ * Published at most once per course per transaction.
+ */
+@Data
+@Builder
+public class CurriculumChangedEvent {
+
+    /**
+     * The ID of the course whose curriculum changed
+     */
+    private final UUID courseId;
+}
@@ -0,0 +1,63 @@
+package com.vinaacademy.platform.feature.course.event.listener;
+
+import com.vinaacademy.platform.configuration.cache.CacheConstants;
+import com.vinaacademy.platform.feature.course.event.CourseChangedEvent;
+import com.vinaacademy.platform.feature.course.event.CurriculumChangedEvent;
+import com.vinaacademy.platform.feature.course.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Evicts a single course from the read caches when it changes, instead of flushing every course.
+ * Runs after commit so that a concurrent reader cannot put the pre-commit state back into the cache.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CourseCacheEvictionListener {
+
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+    private final CourseRepository courseRepository;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleCourseChanged(CourseChangedEvent event) {
+        evict(event.getCourseId(), event.getSlug());
+        if (event.getPreviousSlug() != null && !event.getPreviousSlug().equals(event.getSlug())) {
+            evict(CacheConstants.COURSE_DETAILS, event.getPreviousSlug());
+        }
+    }
+
+    /**
+     * Course details embed sections and lessons, so curriculum edits evict the course too.
+     */
+    @EventListener
+    public void handleCurriculumChanged(CurriculumChangedEvent event) {
+        String slug = courseRepository.findSlugById(event.getCourseId()).orElse(null);
+        evict(event.getCourseId(), slug);
+    }
+
+    private void evict(UUID courseId, String slug) {
+        evict(CacheConstants.COURSE_BY_ID, courseId);
+        evict(CacheConstants.COURSE_INFO_BY_ID, courseId);
+        if (slug != null) {
+            evict(CacheConstants.COURSE_DETAILS, slug);
+        }
+        log.debug("Evicted course {} ({}) from caches", courseId, slug);
+    }
+
+    private void evict(String cacheName, Object key) {
+        CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+        Cache cache = cacheManager != null ? cacheManager.getCache(cacheName) : null;
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
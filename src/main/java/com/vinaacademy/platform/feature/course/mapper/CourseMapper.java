@@ -7,6 +7,7 @@ import com.vinaacademy.platform.feature.course.dto.CourseRequest;
 import com.vinaacademy.platform.feature.course.entity.Course;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -15,6 +16,13 @@ public interface CourseMapper {
 
     @Mapping(source = "category.name", target = "categoryName")
     CourseDto toDTO(Course course);
+
+    // Learning view: sections come from the cached curriculum snapshot, avoid walking the entity graph
+    @Named("toLearningDTO")
+    @Mapping(source = "category.name", target = "categoryName")
+    @Mapping(target = "sections", ignore = true)
+    @Mapping(target = "progress", ignore = true)
+    CourseDto toLearningDTO(Course course);
     
     @Mapping(source = "category.name", target = "categoryName")
     @Mapping(source = "category.slug", target = "categorySlug")
@@ -0,0 +1,13 @@
+package com.vinaacademy.platform.feature.course.projection;
+
+import java.util.UUID;
+
+/**
+ * Minimal per-lesson progress row of one user, used to overlay progress on the cached curriculum.
+ */
+public interface LessonProgressProjection {
+
+    UUID getLessonId();
+    Boolean getCompleted();
+    Long getLastWatchedTime();
+}
@@ -0,0 +1,12 @@
+package com.vinaacademy.platform.feature.course.projection;
+
+import java.util.UUID;
+
+/**
+ * Id and stored position of a section or lesson, used to diff a requested order against the current one.
+ */
+public interface OrderIndexProjection {
+
+    UUID getId();
+    Integer getOrderIndex();
+}
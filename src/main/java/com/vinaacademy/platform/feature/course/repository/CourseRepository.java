@@ -22,6 +22,9 @@ public interface CourseRepository extends JpaRepository<Course, UUID>, JpaSpecif
 
     Optional<Course> findBySlug(String slug);
 
+    @Query("SELECT c.slug FROM Course c WHERE c.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
+
     /**
      * Check if a course exists with the given slug excluding a specific course ID
      * Used for slug uniqueness validation during updates
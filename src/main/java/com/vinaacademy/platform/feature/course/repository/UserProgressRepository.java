@@ -1,5 +1,6 @@
 package com.vinaacademy.platform.feature.course.repository;
 
+import com.vinaacademy.platform.feature.course.projection.LessonProgressProjection;
 import com.vinaacademy.platform.feature.lesson.entity.Lesson;
 import com.vinaacademy.platform.feature.lesson.entity.UserProgress;
 import com.vinaacademy.platform.feature.user.entity.User;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +21,11 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
 
     Optional<UserProgress> findByLessonIdAndUserId(UUID lessonId, UUID userId);
 
+    @Query("SELECT up.lesson.id AS lessonId, up.completed AS completed, up.lastWatchedTime AS lastWatchedTime " +
+            "FROM UserProgress up WHERE up.user.id = :userId AND up.lesson.id IN :lessonIds")
+    List<LessonProgressProjection> findProgressByUserIdAndLessonIds(@Param("userId") UUID userId,
+                                                                    @Param("lessonIds") Collection<UUID> lessonIds);
+
     UUID user(User user);
 
     @Query("SELECT COUNT(up) FROM UserProgress up " +
@@ -9,6 +9,7 @@ import com.vinaacademy.platform.feature.course.dto.CourseDto;
 import com.vinaacademy.platform.feature.course.dto.CourseRequest;
 import com.vinaacademy.platform.feature.course.entity.Course;
 import com.vinaacademy.platform.feature.course.enums.CourseStatus;
+import com.vinaacademy.platform.feature.course.event.CourseChangedEvent;
 import com.vinaacademy.platform.feature.course.event.CourseStatusChangedEvent;
 import com.vinaacademy.platform.feature.course.event.CourseSubmittedForReviewEvent;
 import com.vinaacademy.platform.feature.course.mapper.CourseMapper;
@@ -21,7 +22,6 @@ import com.vinaacademy.platform.feature.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -48,7 +48,6 @@ public class CourseCommandServiceImpl implements CourseCommandService {
 
     @Override
     @Transactional
-    @CacheEvict(value = {"coursesByCategory", "courseDetails", "courseExists", "courseById", "courseSlugById"}, allEntries = true)
     public CourseDto createCourse(CourseRequest request) {
         log.debug("Creating course with name: {}", request.getName());
 
@@ -75,13 +74,13 @@ public class CourseCommandServiceImpl implements CourseCommandService {
 
         Course savedCourse = courseRepository.save(course);
         log.info("Course created successfully with ID: {} and slug: {}", savedCourse.getId(), savedCourse.getSlug());
+        publishCourseChangedEvent(savedCourse, null);
 
         return courseMapper.toDTO(savedCourse);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {"coursesByCategory", "courseDetails", "courseExists", "courseById", "courseSlugById"}, allEntries = true)
     public CourseDto updateCourse(UUID id, CourseRequest request) {
         log.debug("Updating course with id: {}", id);
 
@@ -96,6 +95,7 @@ public class CourseCommandServiceImpl implements CourseCommandService {
         }
 
         // Handle slug update with improved logic
+        String previousSlug = course.getSlug();
         String newSlug = generateUpdatedSlug(course, request);
 
         Category category = categoryRepository.findBySlug(request.getCategorySlug())
@@ -113,13 +113,13 @@ public class CourseCommandServiceImpl implements CourseCommandService {
 
         Course savedCourse = courseRepository.save(course);
         log.info("Course updated successfully with ID: {} and slug: {}", savedCourse.getId(), savedCourse.getSlug());
+        publishCourseChangedEvent(savedCourse, previousSlug);
 
         return courseMapper.toDTO(savedCourse);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {"coursesByCategory", "courseDetails", "courseExists", "courseById", "courseSlugById"}, allEntries = true)
     public void deleteCourse(UUID id) {
         log.debug("Deleting course with id: {}", id);
 
@@ -147,13 +147,13 @@ public class CourseCommandServiceImpl implements CourseCommandService {
         }
 
         courseRepository.delete(course);
+        publishCourseChangedEvent(course, null);
         log.info("Course deleted successfully with ID: {} and slug: {} by user: {}",
                 course.getId(), course.getSlug(), currentUser.getId());
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = {"coursesByCategory", "courseDetails", "courseExists", "courseById", "courseSlugById"}, allEntries = true)
     public Boolean updateStatusCourse(UUID id, CourseStatus status) {
         log.debug("Updating status for course with id: {} to status: {}", id, status);
 
@@ -171,6 +171,7 @@ public class CourseCommandServiceImpl implements CourseCommandService {
         CourseStatus previousStatus = course.getStatus();
         course.setStatus(status);
         courseRepository.save(course);
+        publishCourseChangedEvent(course, null);
 
         // Publish domain event for status change
         publishCourseStatusChangedEvent(course, previousStatus, status);
@@ -183,7 +184,6 @@ public class CourseCommandServiceImpl implements CourseCommandService {
 
     @Override
     @Transactional
-    @CacheEvict(value = {"coursesByCategory", "courseDetails", "courseExists", "courseById", "courseSlugById"}, allEntries = true)
     public Boolean submitCourseForReview(UUID courseId) {
         log.debug("Submitting course for review with ID: {}", courseId);
 
@@ -200,6 +200,7 @@ public class CourseCommandServiceImpl implements CourseCommandService {
         CourseStatus previousStatus = course.getStatus();
         course.setStatus(CourseStatus.PENDING);
         courseRepository.save(course);
+        publishCourseChangedEvent(course, null);
 
         // Publish domain event for course submission
         publishCourseSubmittedForReviewEvent(course, currentUser);
@@ -244,6 +245,17 @@ public class CourseCommandServiceImpl implements CourseCommandService {
         return newSlug;
     }
 
+    /**
+     * Publish course changed event; caches are evicted for this course only, after commit
+     */
+    private void publishCourseChangedEvent(Course course, String previousSlug) {
+        eventPublisher.publishEvent(CourseChangedEvent.builder()
+                .courseId(course.getId())
+                .slug(course.getSlug())
+                .previousSlug(previousSlug)
+                .build());
+    }
+
     /**
      * Publish course status changed event
      */
@@ -1,7 +1,11 @@
 package com.vinaacademy.platform.feature.course.service;
 
+import com.vinaacademy.platform.configuration.cache.CacheConstants;
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.feature.course.assembler.CourseAssembler;
+import com.vinaacademy.platform.feature.course.curriculum.CourseCurriculum;
+import com.vinaacademy.platform.feature.course.curriculum.CourseCurriculumCache;
+import com.vinaacademy.platform.feature.course.curriculum.LessonProgressOverlay;
 import com.vinaacademy.platform.feature.course.dto.CourseCountStatusDto;
 import com.vinaacademy.platform.feature.course.dto.CourseDetailsResponse;
 import com.vinaacademy.platform.feature.course.dto.CourseDto;
@@ -16,18 +20,12 @@ import com.vinaacademy.platform.feature.enrollment.Enrollment;
 import com.vinaacademy.platform.feature.enrollment.dto.EnrollmentProgressDto;
 import com.vinaacademy.platform.feature.enrollment.mapper.EnrollmentMapper;
 import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentRepository;
-import com.vinaacademy.platform.feature.instructor.CourseInstructor;
-import com.vinaacademy.platform.feature.lesson.entity.Lesson;
-import com.vinaacademy.platform.feature.lesson.entity.UserProgress;
-import com.vinaacademy.platform.feature.section.dto.SectionDto;
-import com.vinaacademy.platform.feature.section.entity.Section;
+import com.vinaacademy.platform.feature.instructor.repository.CourseInstructorRepository;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.constant.AuthConstants;
 import com.vinaacademy.platform.feature.user.entity.User;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -50,9 +48,11 @@ public class CourseQueryServiceImpl implements CourseQueryService {
   private final CourseMapper courseMapper;
   private final SecurityHelper securityHelper;
   private final CourseAssembler courseAssembler;
+  private final CourseCurriculumCache courseCurriculumCache;
+  private final CourseInstructorRepository courseInstructorRepository;
 
   @Override
-  @Cacheable(value = "courseDetails", key = "#slug", unless = "#result == null")
+  @Cacheable(value = CacheConstants.COURSE_DETAILS, key = "#slug", sync = true)
   public CourseDetailsResponse getCourseBySlug(String slug) {
     log.debug("Fetching course details for slug: {}", slug);
 
@@ -65,7 +65,7 @@ public class CourseQueryServiceImpl implements CourseQueryService {
   }
 
   @Override
-  @Cacheable(value = "courseById", key = "#id", unless = "#result == null")
+  @Cacheable(value = CacheConstants.COURSE_BY_ID, key = "#id", sync = true)
   public CourseDetailsResponse getCourseById(UUID id) {
     log.debug("Fetching course details by ID: {}", id);
 
@@ -78,7 +78,7 @@ public class CourseQueryServiceImpl implements CourseQueryService {
   }
 
   @Override
-  @Cacheable(value = "courseInfoById", key = "#id", unless = "#result == null")
+  @Cacheable(value = CacheConstants.COURSE_INFO_BY_ID, key = "#id", sync = true)
   public CourseDto getCourseInfoById(UUID id) {
     log.debug("Fetching course info by ID: {}", id);
 
@@ -114,20 +114,19 @@ public class CourseQueryServiceImpl implements CourseQueryService {
   }
 
   private CourseDto processCourseLearning(Course course) {
-    CourseDto courseDto = courseMapper.toDTO(course);
-
     if (course.getStatus() != CourseStatus.PUBLISHED) {
       throw BadRequestException.messageKey("course.not_published");
     }
 
+    // Sections are served from the curriculum snapshot, not mapped from the entity graph
+    CourseDto courseDto = courseMapper.toLearningDTO(course);
+
     User currentUser = securityHelper.getCurrentUser();
 
     // Set enrollment progress
-    List<User> instructors =
-        course.getInstructors().stream().map(CourseInstructor::getInstructor).toList();
-
     if (!securityHelper.hasAnyRole(AuthConstants.ADMIN_ROLE, AuthConstants.STAFF_ROLE)
-        && !instructors.contains(currentUser)) {
+        && !courseInstructorRepository.existsByCourseIdAndInstructorId(
+            course.getId(), currentUser.getId())) {
       Enrollment courseEnrollment =
           enrollmentRepository
               .findByCourseAndUser(course, currentUser)
@@ -137,28 +136,19 @@ public class CourseQueryServiceImpl implements CourseQueryService {
       courseDto.setProgress(new EnrollmentProgressDto());
     }
 
-    // Process sections and lessons with user progress
-    List<Section> sections = course.getSections();
-
-    // Collect all lessons from all sections
-    List<Lesson> allLessons =
-        sections.stream().flatMap(section -> section.getLessons().stream()).toList();
-
-    // Fetch all user progress records in a single query
-    List<UserProgress> allUserProgress =
-        lessonProgressRepository.findByUserAndLessonIn(currentUser, allLessons);
-
-    // Create a map for quick lookup: lessonId -> UserProgress
-    Map<UUID, UserProgress> progressMap =
-        allUserProgress.stream()
-            .collect(
-                Collectors.toMap(progress -> progress.getLesson().getId(), progress -> progress));
+    // Shared, pre-ordered curriculum tree (near cache -> Redis -> DB)
+    CourseCurriculum curriculum = courseCurriculumCache.getCurriculum(course);
 
-    // Get sorted sections and lessons using the assembler
-    List<SectionDto> sectionDtos =
-        courseAssembler.processSectionsAndLessonsWithProgress(sections, progressMap);
+    // Only the current user's progress is fetched per request, keyed by the snapshot's lesson ids
+    List<UUID> lessonIds = curriculum.lessonIds();
+    LessonProgressOverlay progress =
+        LessonProgressOverlay.from(
+            lessonIds.isEmpty()
+                ? List.of()
+                : lessonProgressRepository.findProgressByUserIdAndLessonIds(
+                    currentUser.getId(), lessonIds));
 
-    courseDto.setSections(sectionDtos);
+    courseDto.setSections(courseAssembler.assembleLearningSections(course, curriculum, progress));
     return courseDto;
   }
 
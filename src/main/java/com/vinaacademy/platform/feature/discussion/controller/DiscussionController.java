@@ -17,9 +17,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.common.response.CursorResponse;
 import com.vinaacademy.platform.feature.discussion.dto.DiscussionDto;
 import com.vinaacademy.platform.feature.discussion.dto.request.DiscussionRequest;
 import com.vinaacademy.platform.feature.discussion.service.DiscussionService;
+import com.vinaacademy.platform.feature.ratelimit.annotation.RateLimited;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -36,6 +39,7 @@ public class DiscussionController {
     private final DiscussionService discussionService;
     
     @PostMapping
+    @RateLimited(RateLimitProperties.DISCUSSION_POST)
     @Operation(summary = "Tạo bình luận thảo luận")
     public ApiResponse<DiscussionDto> createDiscussion(@Valid @RequestBody  DiscussionRequest request) {
     	return ApiResponse.success(discussionService.createDiscussion(request));
@@ -71,6 +75,24 @@ public class DiscussionController {
         return ApiResponse.success(discussionService.getRepliesWithReplyCount(parentId, pageable));
     }
     
+    @GetMapping("/{lessonId}/cursor")
+    @Operation(summary = "Lấy danh sách Root các thảo luận (phân trang theo cursor, mới nhất trước)")
+    public ApiResponse<CursorResponse<DiscussionDto>> getRootCommentsByCursor(
+            @PathVariable UUID lessonId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ApiResponse.success(discussionService.getRootComments(lessonId, cursor, size));
+    }
+
+    @GetMapping("/{parentId}/replies/cursor")
+    @Operation(summary = "Lấy danh sách các phản hồi của thảo luận (phân trang theo cursor, cũ nhất trước)")
+    public ApiResponse<CursorResponse<DiscussionDto>> getRepliesByCursor(
+            @PathVariable UUID parentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ApiResponse.success(discussionService.getReplies(parentId, cursor, size));
+    }
+
     @PostMapping("/delete/{discussionId}")
     @Operation(summary = "Xóa bình luận thảo luận")
     public ApiResponse<String> deleteDiscussion(@PathVariable UUID discussionId) {
@@ -5,6 +5,7 @@ import com.vinaacademy.platform.feature.lesson.entity.Lesson;
 import com.vinaacademy.platform.feature.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,7 +18,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "discussions")
+@Table(name = "discussions", indexes = {
+        @Index(name = "idx_discussions_lesson_parent_created", columnList = "lesson_id, parent_comment_id, created_date"),
+        @Index(name = "idx_discussions_parent_created", columnList = "parent_comment_id, created_date")
+})
 public class Discussion extends BaseEntity {
 
     @Id
@@ -39,6 +43,17 @@ public class Discussion extends BaseEntity {
     @JoinColumn(name = "parent_comment_id")
     private Discussion parentComment;
 
+    // Denormalized counters, maintained atomically by DiscussionRepository#adjustReplyCount/#adjustLikeCount
+    @Builder.Default
+    @Column(name = "reply_count", nullable = false)
+    @ColumnDefault("0")
+    private long replyCount = 0;
+
+    @Builder.Default
+    @Column(name = "like_count", nullable = false)
+    @ColumnDefault("0")
+    private long likeCount = 0;
+
     @OneToMany(mappedBy = "parentComment")
     private List<Discussion> replies;
     
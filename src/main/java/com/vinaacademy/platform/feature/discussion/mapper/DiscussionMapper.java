@@ -14,10 +14,10 @@ public interface DiscussionMapper {
 	@Mapping(target = "parentCommentId", source = "parentComment.id")
 	@Mapping(target = "lessonId", source = "lesson.id" )
 	@Mapping(target = "userId", source = "user.id" )
-	@Mapping(target = "replyCount", ignore = true )
-	@Mapping(target = "favoriteCount", ignore = true )
-	@Mapping(target = "avatarUrl", source = "user.fullName" )
-	@Mapping(target = "userFullName", source = "user.avatarUrl" )
+	@Mapping(target = "replyCount", source = "replyCount" )
+	@Mapping(target = "favoriteCount", source = "likeCount" )
+	@Mapping(target = "avatarUrl", source = "user.avatarUrl" )
+	@Mapping(target = "userFullName", source = "user.fullName" )
 	@Mapping(target = "likedByCurrentUser", ignore = true )
     DiscussionDto toDto(Discussion entity);    
 	 
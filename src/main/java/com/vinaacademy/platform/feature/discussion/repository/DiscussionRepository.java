@@ -1,54 +1,94 @@
 // DiscussionRepository.java
 package com.vinaacademy.platform.feature.discussion.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.vinaacademy.platform.feature.discussion.entity.Discussion;
 
 public interface DiscussionRepository extends JpaRepository<Discussion, UUID> {
-	// Lấy danh sách Root comment + tổng số reply + tổng số like
+	// Lấy danh sách Root comment (số reply/like đọc từ cột đếm sẵn)
+	@EntityGraph(attributePaths = "user")
+	Page<Discussion> findByLessonIdAndParentCommentIsNull(UUID lessonId, Pageable pageable);
+
+	// Lấy danh sách reply cho 1 comment
+	@EntityGraph(attributePaths = "user")
+	Page<Discussion> findByParentCommentId(UUID parentId, Pageable pageable);
+
+	// Keyset: trang đầu của root comment, mới nhất trước
+	@Query("""
+			SELECT d FROM Discussion d JOIN FETCH d.user
+			WHERE d.lesson.id = :lessonId AND d.parentComment IS NULL
+			ORDER BY d.createdDate DESC, d.id DESC
+			""")
+	List<Discussion> findLatestRootComments(@Param("lessonId") UUID lessonId, Limit limit);
+
+	// Keyset: root comment sau con trỏ (createdDate, id)
 	@Query("""
-			SELECT d.id,
-			       d.comment,
-			       d.lesson.id,
-			       d.user.id,
-			       COUNT(DISTINCT r.id) AS replyCount,
-			       COUNT(DISTINCT f.id) AS favoriteCount,
-			       d.user.fullName,
-			       d.user.avatarUrl,
-			       d.createdDate
-			FROM Discussion d
-			    LEFT JOIN Discussion r ON r.parentComment.id = d.id
-			    LEFT JOIN Favorite   f ON f.comment.id     = d.id
+			SELECT d FROM Discussion d JOIN FETCH d.user
 			WHERE d.lesson.id = :lessonId
 			  AND d.parentComment IS NULL
-			GROUP BY d.id, d.comment, d.lesson.id, d.user.id, d.user.fullName, d.user.avatarUrl, d.createdDate
+			  AND (d.createdDate < :cursorDate OR (d.createdDate = :cursorDate AND d.id < :cursorId))
+			ORDER BY d.createdDate DESC, d.id DESC
+			""")
+	List<Discussion> findRootCommentsBefore(@Param("lessonId") UUID lessonId,
+											@Param("cursorDate") LocalDateTime cursorDate,
+											@Param("cursorId") UUID cursorId,
+											Limit limit);
+
+	// Keyset: trang đầu của reply, cũ nhất trước
+	@Query("""
+			SELECT d FROM Discussion d JOIN FETCH d.user
+			WHERE d.parentComment.id = :parentId
+			ORDER BY d.createdDate ASC, d.id ASC
 			""")
-	Page<Object[]> findRootCommentsWithCounts(@Param("lessonId") UUID lessonId, Pageable pageable);
+	List<Discussion> findFirstReplies(@Param("parentId") UUID parentId, Limit limit);
 
-	// Lấy danh sách reply cho 1 comment + tổng số reply con + tổng số like
+	// Keyset: reply sau con trỏ (createdDate, id)
 	@Query("""
-			SELECT d.id,
-			       d.comment,
-			       d.lesson.id,
-			       d.user.id,
-			       COUNT(DISTINCT r.id) AS replyCount,
-			       COUNT(DISTINCT f.id) AS favoriteCount,
-			       d.user.fullName,
-			       d.user.avatarUrl,
-			       d.createdDate
-			FROM Discussion d
-			    LEFT JOIN Discussion r ON r.parentComment.id = d.id
-			    LEFT JOIN Favorite   f ON f.comment.id     = d.id
+			SELECT d FROM Discussion d JOIN FETCH d.user
 			WHERE d.parentComment.id = :parentId
-			GROUP BY d.id, d.comment, d.lesson.id, d.user.id, d.user.fullName, d.user.avatarUrl, d.createdDate
+			  AND (d.createdDate > :cursorDate OR (d.createdDate = :cursorDate AND d.id > :cursorId))
+			ORDER BY d.createdDate ASC, d.id ASC
+			""")
+	List<Discussion> findRepliesAfter(@Param("parentId") UUID parentId,
+									  @Param("cursorDate") LocalDateTime cursorDate,
+									  @Param("cursorId") UUID cursorId,
+									  Limit limit);
+
+	@Modifying
+	@Query("UPDATE Discussion d SET d.replyCount = d.replyCount + :delta WHERE d.id = :id AND d.replyCount + :delta >= 0")
+	int adjustReplyCount(@Param("id") UUID id, @Param("delta") long delta);
+
+	@Modifying
+	@Query("UPDATE Discussion d SET d.likeCount = d.likeCount + :delta WHERE d.id = :id AND d.likeCount + :delta >= 0")
+	int adjustLikeCount(@Param("id") UUID id, @Param("delta") long delta);
+
+	// Đồng bộ lại cột đếm nếu bị lệch (chỉ ghi những dòng sai)
+	@Modifying
+	@Query("""
+			UPDATE Discussion d
+			SET d.replyCount = (SELECT COUNT(r) FROM Discussion r WHERE r.parentComment.id = d.id)
+			WHERE d.replyCount <> (SELECT COUNT(r) FROM Discussion r WHERE r.parentComment.id = d.id)
+			""")
+	int reconcileReplyCounts();
+
+	@Modifying
+	@Query("""
+			UPDATE Discussion d
+			SET d.likeCount = (SELECT COUNT(f) FROM Favorite f WHERE f.comment.id = d.id)
+			WHERE d.likeCount <> (SELECT COUNT(f) FROM Favorite f WHERE f.comment.id = d.id)
 			""")
-	Page<Object[]> findRepliesWithCounts(@Param("parentId") UUID parentId, Pageable pageable);
+	int reconcileLikeCounts();
 
 }
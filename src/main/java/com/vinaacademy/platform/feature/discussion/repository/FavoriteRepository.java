@@ -1,15 +1,25 @@
 // FavoriteRepository.java
 package com.vinaacademy.platform.feature.discussion.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.vinaacademy.platform.feature.discussion.entity.Favorite;
 
 public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
-    Optional<Favorite> findByUserIdAndCommentId(UUID userId, UUID commentId);
     boolean existsByUserIdAndCommentId(UUID userId, UUID commentId);
-//    @Query("SELECT COUNT(f) FROM Favorite f WHERE f.comment.id = :commentId")
-//    long countByCommentId(@Param("commentId") UUID commentId);
+
+    // Các comment (trong trang hiện tại) mà user đã thích, 1 query cho cả trang
+    @Query("SELECT f.comment.id FROM Favorite f WHERE f.user.id = :userId AND f.comment.id IN :commentIds")
+    Set<UUID> findLikedCommentIds(@Param("userId") UUID userId, @Param("commentIds") Collection<UUID> commentIds);
+
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.comment.id = :commentId")
+    int deleteByUserIdAndCommentId(@Param("userId") UUID userId, @Param("commentId") UUID commentId);
 }
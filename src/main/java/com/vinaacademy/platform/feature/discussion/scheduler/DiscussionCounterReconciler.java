@@ -0,0 +1,42 @@
+package com.vinaacademy.platform.feature.discussion.scheduler;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.vinaacademy.platform.feature.discussion.repository.DiscussionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Đồng bộ lại reply_count/like_count với dữ liệu thật. Bộ đếm được cập nhật nguyên tử khi ghi,
+ * job này chỉ sửa các dòng bị lệch (dữ liệu cũ trước khi có cột, xóa thủ công...).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DiscussionCounterReconciler {
+
+    private final DiscussionRepository discussionRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "0 30 3 * * ?") // 3h30 mỗi ngày
+    @Transactional
+    public void reconcileDaily() {
+        reconcile();
+    }
+
+    private void reconcile() {
+        int replies = discussionRepository.reconcileReplyCounts();
+        int likes = discussionRepository.reconcileLikeCounts();
+        log.info("Discussion counters reconciled: {} reply counts, {} like counts fixed", replies, likes);
+    }
+}
@@ -1,6 +1,7 @@
 // DiscussionService.java
 package com.vinaacademy.platform.feature.discussion.service;
 
+import com.vinaacademy.platform.feature.common.response.CursorResponse;
 import com.vinaacademy.platform.feature.discussion.dto.DiscussionDto;
 import com.vinaacademy.platform.feature.discussion.dto.request.DiscussionRequest;
 
@@ -13,6 +14,8 @@ public interface DiscussionService {
     DiscussionDto createDiscussion(DiscussionRequest request);
     Page<DiscussionDto> getRepliesWithReplyCount(UUID parentId, Pageable pageable);
     Page<DiscussionDto> getRootCommentsWithReplyCount(UUID lessonId, Pageable pageable);
+    CursorResponse<DiscussionDto> getRootComments(UUID lessonId, String cursor, int size);
+    CursorResponse<DiscussionDto> getReplies(UUID parentId, String cursor, int size);
     void deleteDiscussion(UUID id);
     
 }
@@ -1,15 +1,20 @@
-// DiscussionServiceImpl.java
 package com.vinaacademy.platform.feature.discussion.service;
 
-import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.NotFoundException;
+import com.vinaacademy.platform.feature.common.dto.KeysetCursor;
+import com.vinaacademy.platform.feature.common.response.CursorResponse;
 import com.vinaacademy.platform.feature.discussion.dto.DiscussionDto;
 import com.vinaacademy.platform.feature.discussion.dto.request.DiscussionRequest;
 import com.vinaacademy.platform.feature.discussion.entity.Discussion;
@@ -27,12 +32,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class DiscussionServiceImpl implements DiscussionService {
 
+	private static final int MAX_CURSOR_PAGE_SIZE = 50;
+
 	private final LessonRepository lessonRepository;
 	private final SecurityHelper securityHelper;
 	private final DiscussionRepository discussionRepository;
 	private final FavoriteRepository favoriteRepository;
 
 	@Override
+	@Transactional
 	public DiscussionDto createDiscussion(DiscussionRequest request) {
 		User user = securityHelper.getCurrentUser();
 		Lesson lesson = lessonRepository.findById(request.getLessonId())
@@ -45,62 +53,49 @@ public class DiscussionServiceImpl implements DiscussionService {
 		Discussion discussion = Discussion.builder().lesson(lesson).user(user).comment(request.getComment())
 				.parentComment(parentComment).build();
 		Discussion saveDiscussion = discussionRepository.save(discussion);
-		DiscussionDto discussionDto = DiscussionMapper.INSTANCE.toDto(saveDiscussion);
-		discussionDto.setAvatarUrl(user.getAvatarUrl());
-		discussionDto.setUserFullName(user.getFullName());
-		return discussionDto;
+		if (parentComment != null)
+			discussionRepository.adjustReplyCount(parentComment.getId(), 1);
+		return DiscussionMapper.INSTANCE.toDto(saveDiscussion);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<DiscussionDto> getRepliesWithReplyCount(UUID parentId, Pageable pageable) {
+		return toDtoPage(discussionRepository.findByParentCommentId(parentId, pageable));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<DiscussionDto> getRootCommentsWithReplyCount(UUID lessonId, Pageable pageable) {
+		return toDtoPage(discussionRepository.findByLessonIdAndParentCommentIsNull(lessonId, pageable));
 	}
 
 	@Override
-    public Page<DiscussionDto> getRepliesWithReplyCount(UUID parentId, Pageable pageable) {
-		Page<Object[]> pageResult = discussionRepository.findRepliesWithCounts(parentId, pageable);
-        UUID currentUserId = securityHelper.getCurrentUser().getId();
-        
-        return pageResult.map(record -> {
-        	UUID discussionId = (UUID) record[0];
-            boolean likedByCurrentUser =
-            		favoriteRepository.existsByUserIdAndCommentId(currentUserId, discussionId);
-
-            return DiscussionDto.builder()
-            		.id(discussionId)
-            		.comment((String) record[1])
-            		.lessonId((UUID) record[2])
-            		.userId((UUID) record[3])
-            		.replyCount((Long) record[4])
-            		.favoriteCount((Long) record[5])
-            		.userFullName((String) record[6])
-	            	.avatarUrl((String) record[7])
-            		.createdDate((LocalDateTime) record[8])
-            		.likedByCurrentUser(likedByCurrentUser)
-            		.build();
-        });
-    }
+	@Transactional(readOnly = true)
+	public CursorResponse<DiscussionDto> getRootComments(UUID lessonId, String cursor, int size) {
+		int limit = clampSize(size);
+		KeysetCursor position = KeysetCursor.decode(cursor);
+		List<Discussion> rows = position == null
+				? discussionRepository.findLatestRootComments(lessonId, Limit.of(limit + 1))
+				: discussionRepository.findRootCommentsBefore(lessonId, position.createdDate(), position.id(),
+						Limit.of(limit + 1));
+		return toCursorResponse(rows, limit);
+	}
 
 	@Override
-    public Page<DiscussionDto> getRootCommentsWithReplyCount(UUID lessonId, Pageable pageable) {
-        Page<Object[]> pageResult = discussionRepository.findRootCommentsWithCounts(lessonId, pageable);
-        UUID currentUserId = securityHelper.getCurrentUser().getId();
-        
-        return pageResult.map(record -> {
-            UUID discussionId = (UUID) record[0];
-            boolean likedByCurrentUser =
-                    favoriteRepository.existsByUserIdAndCommentId(currentUserId, discussionId);
-            return DiscussionDto.builder()
-            		.id(discussionId)
-            		.comment((String) record[1])
-            		.lessonId((UUID) record[2])
-	            	.userId((UUID) record[3])
-	            	.replyCount((Long) record[4])
-	            	.favoriteCount((Long) record[5])
-	            	.userFullName((String) record[6])
-	            	.avatarUrl((String) record[7])
-	            	.createdDate((LocalDateTime) record[8])
-	            	.likedByCurrentUser(likedByCurrentUser)
-	            	.build();
-        });
-    }
+	@Transactional(readOnly = true)
+	public CursorResponse<DiscussionDto> getReplies(UUID parentId, String cursor, int size) {
+		int limit = clampSize(size);
+		KeysetCursor position = KeysetCursor.decode(cursor);
+		List<Discussion> rows = position == null
+				? discussionRepository.findFirstReplies(parentId, Limit.of(limit + 1))
+				: discussionRepository.findRepliesAfter(parentId, position.createdDate(), position.id(),
+						Limit.of(limit + 1));
+		return toCursorResponse(rows, limit);
+	}
 
 	@Override
+	@Transactional
 	public void deleteDiscussion(UUID id) {
 		User user = securityHelper.getCurrentUser();
 		Discussion discussion = discussionRepository.findById(id)
@@ -108,5 +103,49 @@ public class DiscussionServiceImpl implements DiscussionService {
 		if (!discussion.getUser().equals(user))
 			throw BadRequestException.message("Bạn không có quyền xóa thảo luận này");
 		discussionRepository.deleteById(id);
+		if (discussion.getParentComment() != null)
+			discussionRepository.adjustReplyCount(discussion.getParentComment().getId(), -1);
+	}
+
+	private Page<DiscussionDto> toDtoPage(Page<Discussion> page) {
+		Set<UUID> liked = findLikedIds(page.getContent());
+		return page.map(discussion -> toDto(discussion, liked));
+	}
+
+	// Lấy dư 1 dòng để biết còn trang sau hay không, không cần COUNT(*)
+	private CursorResponse<DiscussionDto> toCursorResponse(List<Discussion> rows, int limit) {
+		boolean hasNext = rows.size() > limit;
+		List<Discussion> content = hasNext ? rows.subList(0, limit) : rows;
+		Set<UUID> liked = findLikedIds(content);
+		String nextCursor = null;
+		if (hasNext) {
+			Discussion last = content.get(content.size() - 1);
+			nextCursor = new KeysetCursor(last.getCreatedDate(), last.getId()).encode();
+		}
+		return CursorResponse.<DiscussionDto>builder()
+				.content(content.stream().map(discussion -> toDto(discussion, liked)).toList())
+				.nextCursor(nextCursor)
+				.hasNext(hasNext)
+				.size(content.size())
+				.build();
+	}
+
+	// Một query IN cho cả trang thay vì existsBy... cho từng dòng
+	private Set<UUID> findLikedIds(List<Discussion> discussions) {
+		if (discussions.isEmpty())
+			return Collections.emptySet();
+		UUID currentUserId = securityHelper.getCurrentUser().getId();
+		List<UUID> ids = discussions.stream().map(Discussion::getId).toList();
+		return favoriteRepository.findLikedCommentIds(currentUserId, ids);
+	}
+
+	private DiscussionDto toDto(Discussion discussion, Set<UUID> liked) {
+		DiscussionDto dto = DiscussionMapper.INSTANCE.toDto(discussion);
+		dto.setLikedByCurrentUser(liked.contains(discussion.getId()));
+		return dto;
+	}
+
+	private static int clampSize(int size) {
+		return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
 	}
 }
@@ -1,9 +1,8 @@
 // FavoriteServiceImpl.java
 package com.vinaacademy.platform.feature.discussion.service;
 
-import java.util.Optional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.NotFoundException;
@@ -29,6 +28,7 @@ public class FavoriteServiceImpl implements FavoriteService {
 	private final DiscussionRepository discussionRepository;
 
 	@Override
+	@Transactional
 	public FavoriteDto createFavorite(FavoriteRequest request) {
 		User user = securityHelper.getCurrentUser();
 		
@@ -40,16 +40,22 @@ public class FavoriteServiceImpl implements FavoriteService {
 			throw BadRequestException.message("Thảo luận này bạn đã thích rồi!!");
 		
 		Favorite favoriteNew = Favorite.builder().user(user).comment(discussion).build();
-		return favoriteMapper.toDto(favoriteRepository.save(favoriteNew));
+		// saveAndFlush để vi phạm unique (user_id, comment_id) nổ ra trước khi tăng bộ đếm
+		FavoriteDto favoriteDto = favoriteMapper.toDto(favoriteRepository.saveAndFlush(favoriteNew));
+		discussionRepository.adjustLikeCount(discussion.getId(), 1);
+		return favoriteDto;
 	}
 
 	@Override
+	@Transactional
 	public void deleteFavorite(FavoriteRequest favoriteRequest) {
 		User user = securityHelper.getCurrentUser();
 		
-		Favorite favorite = favoriteRepository.findByUserIdAndCommentId(user.getId(), favoriteRequest.getCommentId())
-				.orElseThrow(() -> NotFoundException.message("Không tìm thấy lượt yêu thích này"));
+		// Chỉ giảm bộ đếm khi thật sự xóa được 1 dòng, tránh giảm 2 lần khi unlike đồng thời
+		int deleted = favoriteRepository.deleteByUserIdAndCommentId(user.getId(), favoriteRequest.getCommentId());
+		if (deleted == 0)
+			throw NotFoundException.message("Không tìm thấy lượt yêu thích này");
 		
-		favoriteRepository.delete(favorite);
+		discussionRepository.adjustLikeCount(favoriteRequest.getCommentId(), -1);
 	}
 }
@@ -2,6 +2,10 @@ package com.vinaacademy.platform.feature.email.mq.redis;
 
 import com.vinaacademy.platform.feature.email.dto.EmailMessage;
 import com.vinaacademy.platform.feature.email.service.EmailService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -21,12 +25,38 @@ public class EmailConsumer {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void registerQueueGauge() {
+        if (redisTemplate != null) {
+            // LLEN là O(1); chỉ gọi khi Prometheus scrape
+            Gauge.builder("email.queue.size", redisTemplate, t -> {
+                        Long size = t.opsForList().size(EMAIL_QUEUE);
+                        return size != null ? size : Double.NaN;
+                    })
+                    .register(meterRegistry);
+        }
+    }
+
     public void processEmailQueue() {
         log.info("start send email.... ");
         EmailMessage emailMessage = (EmailMessage) redisTemplate.opsForList().rightPop(EMAIL_QUEUE, 5, TimeUnit.SECONDS);
         if (emailMessage != null) {
-            emailService.sendEmailWithoutMQ(emailMessage.getTo(), emailMessage.getSubject(), emailMessage.getBody(),
-                    emailMessage.isEnableHtml());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String exception = "none";
+            try {
+                emailService.sendEmailWithoutMQ(emailMessage.getTo(), emailMessage.getSubject(), emailMessage.getBody(),
+                        emailMessage.isEnableHtml());
+            } catch (RuntimeException e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(Timer.builder("email.send")
+                        .tag("exception", exception)
+                        .register(meterRegistry));
+            }
             log.info("Processed email to: " + emailMessage.getTo());
         }
     }
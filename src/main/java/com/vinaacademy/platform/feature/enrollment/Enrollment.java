@@ -17,6 +17,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "enrollments", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"user_id", "course_id"})
+}, indexes = {
+        @Index(name = "idx_enrollments_course_user", columnList = "course_id, user_id")
 })
 public class Enrollment {
     @Id
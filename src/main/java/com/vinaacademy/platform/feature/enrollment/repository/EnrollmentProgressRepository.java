@@ -0,0 +1,162 @@
+package com.vinaacademy.platform.feature.enrollment.repository;
+
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository.CompletedLesson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Atomic maintenance of {@code enrollments.completed_lessons} and the derived progress columns.
+ * <p>
+ * The counter is only moved when a {@code user_progress} row becomes completed (or a completed lesson is
+ * deleted); the denominator is the course's cached {@code total_lesson}. Progress is recomputed inside the
+ * same {@code UPDATE} so concurrent completions never overwrite each other.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentProgressRepository {
+
+    // %1$s = số bài đã hoàn thành mới, %2$s = tổng số bài của khóa học, %3$s = trạng thái khi chưa xong
+    private static final String PROGRESS_SET_TEMPLATE = """
+            progress_percentage = CASE WHEN %2$s > 0 THEN LEAST(100.0, %1$s * 100.0 / %2$s) ELSE 0 END,
+            status = CASE WHEN %2$s > 0 AND %1$s >= %2$s THEN 'COMPLETED' ELSE %3$s END,
+            complete_at = CASE WHEN %2$s > 0 AND %1$s >= %2$s THEN COALESCE(e.complete_at, ?) ELSE NULL END
+            """;
+    // Học lại một bài đưa học viên về IN_PROGRESS; khi chỉ tính lại thì giữ nguyên DROPPED
+    private static final String KEEP_DROPPED = "CASE WHEN e.status = 'DROPPED' THEN e.status ELSE 'IN_PROGRESS' END";
+
+    private static final String INCREMENT_SQL_TEMPLATE = """
+            WITH input (user_id, lesson_id) AS (VALUES %s),
+            done AS (
+                SELECT i.user_id, s.course_id, COUNT(*) AS cnt
+                FROM input i
+                JOIN lessons l ON l.id = i.lesson_id
+                JOIN sections s ON s.id = l.section_id
+                GROUP BY i.user_id, s.course_id
+            )
+            UPDATE enrollments e
+            SET completed_lessons = e.completed_lessons + d.cnt,
+            """ + PROGRESS_SET_TEMPLATE.formatted("(e.completed_lessons + d.cnt)", "c.total_lesson", "'IN_PROGRESS'") + """
+            FROM done d JOIN courses c ON c.id = d.course_id
+            WHERE e.user_id = d.user_id AND e.course_id = d.course_id
+            """;
+    private static final String VALUES_ROW = "(CAST(? AS uuid), CAST(? AS uuid))";
+
+    // Chạy trước khi xóa bài học: những học viên đã hoàn thành bài này mất một bài đã hoàn thành
+    private static final String LESSON_REMOVED_SQL = """
+            UPDATE enrollments e
+            SET completed_lessons = GREATEST(e.completed_lessons - 1, 0)
+            FROM user_progress up
+            WHERE up.lesson_id = ? AND up.completed AND e.user_id = up.user_id AND e.course_id = ?
+            """;
+
+    // Tính lại phần trăm khi tổng số bài thay đổi; chỉ ghi các dòng bị lệch
+    private static final String RESCALE_SQL = """
+            UPDATE enrollments e
+            SET
+            """ + PROGRESS_SET_TEMPLATE.formatted("e.completed_lessons", "c.total_lesson", KEEP_DROPPED) + """
+            FROM courses c
+            WHERE c.id = e.course_id AND e.course_id = ?
+              AND e.progress_percentage IS DISTINCT FROM
+                  CASE WHEN c.total_lesson > 0 THEN LEAST(100.0, e.completed_lessons * 100.0 / c.total_lesson) ELSE 0 END
+            """;
+
+    private static final String RECONCILE_TOTAL_LESSONS_SQL = """
+            UPDATE courses c
+            SET total_lesson = x.cnt
+            FROM (
+                SELECT c2.id, COUNT(l.id) AS cnt
+                FROM courses c2
+                LEFT JOIN sections s ON s.course_id = c2.id
+                LEFT JOIN lessons l ON l.section_id = s.id
+                GROUP BY c2.id
+            ) x
+            WHERE x.id = c.id AND c.total_lesson <> x.cnt
+            """;
+
+    private static final String RECONCILE_ENROLLMENTS_SQL = """
+            UPDATE enrollments e
+            SET completed_lessons = x.done,
+            """ + PROGRESS_SET_TEMPLATE.formatted("x.done", "x.total", KEEP_DROPPED) + """
+            FROM (
+                SELECT e2.id, c.total_lesson AS total, COUNT(up.id) AS done
+                FROM enrollments e2
+                JOIN courses c ON c.id = e2.course_id
+                LEFT JOIN sections s ON s.course_id = e2.course_id
+                LEFT JOIN lessons l ON l.section_id = s.id
+                LEFT JOIN user_progress up ON up.lesson_id = l.id AND up.user_id = e2.user_id AND up.completed
+                GROUP BY e2.id, c.total_lesson
+            ) x
+            WHERE x.id = e.id
+              AND (e.completed_lessons <> x.done
+                   OR e.progress_percentage IS DISTINCT FROM
+                      CASE WHEN x.total > 0 THEN LEAST(100.0, x.done * 100.0 / x.total) ELSE 0 END)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add the newly completed lessons to their enrollments, grouped per (user, course) in one statement.
+     *
+     * @param completed pairs that just moved from incomplete to completed
+     * @return number of enrollments updated
+     */
+    @Transactional
+    public int applyCompletedLessons(Collection<CompletedLesson> completed) {
+        if (completed.isEmpty()) {
+            return 0;
+        }
+        String sql = INCREMENT_SQL_TEMPLATE.formatted(
+                String.join(",", Collections.nCopies(completed.size(), VALUES_ROW)));
+
+        List<Object> args = new ArrayList<>(completed.size() * 2 + 1);
+        for (CompletedLesson lesson : completed) {
+            args.add(lesson.userId());
+            args.add(lesson.lessonId());
+        }
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /**
+     * Remove a lesson that is about to be deleted from the counters of the students who completed it.
+     * Percentages are rescaled once {@code total_lesson} has been updated, see {@link #rescaleProgress(UUID)}.
+     */
+    @Transactional
+    public int lessonRemoved(UUID courseId, UUID lessonId) {
+        return jdbcTemplate.update(LESSON_REMOVED_SQL, lessonId, courseId);
+    }
+
+    /**
+     * Recompute percentage/status of a course's enrollments against its current {@code total_lesson}.
+     */
+    @Transactional
+    public int rescaleProgress(UUID courseId) {
+        return jdbcTemplate.update(RESCALE_SQL, Timestamp.valueOf(LocalDateTime.now()), courseId);
+    }
+
+    /**
+     * Recount {@code courses.total_lesson} from the lessons table, only touching drifted rows.
+     */
+    @Transactional
+    public int reconcileTotalLessons() {
+        return jdbcTemplate.update(RECONCILE_TOTAL_LESSONS_SQL);
+    }
+
+    /**
+     * Recount every enrollment from {@code user_progress}, only touching drifted rows.
+     */
+    @Transactional
+    public int reconcileEnrollments() {
+        return jdbcTemplate.update(RECONCILE_ENROLLMENTS_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
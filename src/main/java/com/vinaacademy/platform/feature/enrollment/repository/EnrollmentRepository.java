@@ -14,8 +14,10 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -85,6 +87,10 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, J
     Optional<Enrollment> findByCourseAndUser(Course course, User currentUser);
 
     boolean existsByCourseIdAndUserId(UUID courseId, UUID studentId);
+
+    //Lấy các khóa học trong danh sách mà người dùng đã đăng ký
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.user.id = :userId AND e.course.id IN :courseIds")
+    Set<UUID> findEnrolledCourseIds(@Param("userId") UUID userId, @Param("courseIds") Collection<UUID> courseIds);
     
     Long countByUserAndStatus(User user, ProgressStatus status);
     
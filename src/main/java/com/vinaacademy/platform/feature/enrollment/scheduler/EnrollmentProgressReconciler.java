@@ -0,0 +1,45 @@
+package com.vinaacademy.platform.feature.enrollment.scheduler;
+
+import com.vinaacademy.platform.feature.course.event.CurriculumChangedEvent;
+import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Sửa độ lệch của tiến độ học. completed_lessons được tăng nguyên tử khi một bài chuyển sang hoàn thành;
+ * khi khóa học thêm/xóa bài thì mẫu số đổi nên phần trăm được tính lại theo khóa học, còn job hằng ngày
+ * đếm lại toàn bộ từ user_progress (dữ liệu cũ, xóa section, sửa tay...).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentProgressReconciler {
+
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
+
+    @Async
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        int updated = enrollmentProgressRepository.rescaleProgress(event.getCourseId());
+        if (updated > 0) {
+            log.info("Rescaled progress of {} enrollments after curriculum change of course {}",
+                    updated, event.getCourseId());
+        }
+    }
+
+    @Scheduled(cron = "0 45 3 * * ?") // 3h45 mỗi ngày
+    @Transactional
+    public void reconcileDaily() {
+        int courses = enrollmentProgressRepository.reconcileTotalLessons();
+        int enrollments = enrollmentProgressRepository.reconcileEnrollments();
+        log.info("Enrollment progress reconciled: {} course lesson counts, {} enrollments fixed",
+                courses, enrollments);
+    }
+}
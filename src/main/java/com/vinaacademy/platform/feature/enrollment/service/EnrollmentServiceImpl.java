@@ -5,6 +5,7 @@ import com.vinaacademy.platform.feature.common.exception.ResourceNotFoundExcepti
 import com.vinaacademy.platform.feature.common.response.PaginationResponse;
 import com.vinaacademy.platform.feature.course.entity.Course;
 import com.vinaacademy.platform.feature.course.enums.CourseStatus;
+import com.vinaacademy.platform.feature.course.event.CourseChangedEvent;
 import com.vinaacademy.platform.feature.course.repository.CourseRepository;
 import com.vinaacademy.platform.feature.enrollment.Enrollment;
 import com.vinaacademy.platform.feature.enrollment.dto.EnrollmentRequest;
@@ -16,6 +17,7 @@ import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentReposito
 import com.vinaacademy.platform.feature.user.UserRepository;
 import com.vinaacademy.platform.feature.user.entity.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -45,6 +47,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 	private final CourseInstructorRepository courseInstructorRepository;
 	private final StudentProgressMapper studentProgressMapper;
 	private final OrderRepository orderRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Override
 	@Transactional
@@ -86,6 +89,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 		// Cập nhật số lượng học viên của khóa học
 		course.setTotalStudent(course.getTotalStudent() + 1);
 		courseRepository.save(course);
+		publishCourseChangedEvent(course);
 
 		// Chuyển đổi và trả về response
 		return enrollmentMapper.toDto(savedEnrollment);
@@ -171,6 +175,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 		Course course = enrollment.getCourse();
 		course.setTotalStudent(course.getTotalStudent() - 1);
 		courseRepository.save(course);
+		publishCourseChangedEvent(course);
 
 		// Xóa đăng ký
 		enrollmentRepository.delete(enrollment);
@@ -288,4 +293,14 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 		// Lấy danh sách khóa học mà instructor giảng dạy
 		return courseInstructorRepository.findCourseIdsByInstructorId(instructorId);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Chi tiết khóa học được cache có kèm số học viên: xóa cache của khóa học này sau khi commit
+	 */
+	private void publishCourseChangedEvent(Course course) {
+		eventPublisher.publishEvent(CourseChangedEvent.builder()
+				.courseId(course.getId())
+				.slug(course.getSlug())
+				.build());
+	}
+}
@@ -1,6 +1,10 @@
 package com.vinaacademy.platform.feature.image;
 
+import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.image.config.ImageProperties;
+import com.vinaacademy.platform.feature.image.dto.DerivedImage;
+import com.vinaacademy.platform.feature.image.enums.ImagePreset;
 import com.vinaacademy.platform.feature.image.service.ImageService;
 import com.vinaacademy.platform.feature.storage.dto.MediaFileDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +17,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +35,7 @@ import java.util.UUID;
 @Tag(name = "Image API", description = "API endpoints for image upload and retrieval operations")
 public class ImageController {
     private final ImageService imageService;
+    private final ImageProperties imageProperties;
 
     @Operation(
             summary = "Upload an image",
@@ -55,18 +62,37 @@ public class ImageController {
 
     @Operation(
             summary = "View an image",
-            description = "Retrieve and display an image by its ID. Public endpoint - no authentication required."
+            description = "Retrieve and display an image by its ID. With `size`, a cropped and resized variant is returned "
+                    + "as AVIF/WebP when accepted by the client, otherwise progressive JPEG (PNG for transparent images). "
+                    + "Public endpoint - no authentication required."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Image retrieved successfully",
                     content = @Content(mediaType = "image/*")),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Variant unchanged (If-None-Match)"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown size preset"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Image not found"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Error retrieving the image")
     })
     @GetMapping("/view/{id}")
     public ResponseEntity<Resource> viewImage(
             @Parameter(description = "ID of the image to view", required = true)
-            @PathVariable UUID id) throws IOException {
+            @PathVariable UUID id,
+            @Parameter(description = "Optional preset size: thumb (160x160), card (480x270) or hero (1280x720)")
+            @RequestParam(required = false) String size,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        if (size != null) {
+            ImagePreset preset = ImagePreset.fromValue(size)
+                    .orElseThrow(() -> BadRequestException.message("Kích thước ảnh không hợp lệ: " + size));
+            DerivedImage image = imageService.viewImage(id, preset, accept);
+            // ETag trùng If-None-Match thì Spring tự trả 304 không kèm nội dung
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(image.getMimeType()))
+                    .eTag(image.getContentHash())
+                    .cacheControl(CacheControl.maxAge(imageProperties.getCacheMaxAge()).cachePublic())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(new ByteArrayResource(image.getContent()));
+        }
         MediaFileDto mediaFileDto = imageService.viewImage(id);
         String contentType = mediaFileDto.getMimeType() != null ?
                 mediaFileDto.getMimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
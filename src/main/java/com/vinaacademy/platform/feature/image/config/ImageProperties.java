@@ -0,0 +1,33 @@
+package com.vinaacademy.platform.feature.image.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(ImageProperties.class)
+@ConfigurationProperties(prefix = "application.image")
+@Data
+@NoArgsConstructor
+public class ImageProperties {
+    /**
+     * Directory holding generated variants; defaults to {@code <uploadDir>/derived} when blank.
+     */
+    private String derivedDir;
+    /**
+     * JPEG/WebP quality of generated variants, between 0 and 1.
+     */
+    private float quality = 0.82f;
+    /**
+     * Sources with more pixels are refused instead of decoded, to bound memory per request.
+     */
+    private long maxSourcePixels = 40_000_000L;
+    /**
+     * Browser cache lifetime of a variant. Media files are immutable, so this can be long.
+     */
+    private Duration cacheMaxAge = Duration.ofDays(30);
+}
@@ -0,0 +1,19 @@
+package com.vinaacademy.platform.feature.image.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DerivedImage {
+    private byte[] content;
+    private String mimeType;
+    /**
+     * Hex SHA-256 of {@link #content}, used as a strong ETag.
+     */
+    private String contentHash;
+}
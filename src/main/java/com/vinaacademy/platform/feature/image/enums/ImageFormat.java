@@ -0,0 +1,22 @@
+package com.vinaacademy.platform.feature.image.enums;
+
+import lombok.Getter;
+
+/**
+ * Encodings a derived image can be written in, in order of preference.
+ */
+@Getter
+public enum ImageFormat {
+    AVIF("image/avif", "avif"),
+    WEBP("image/webp", "webp"),
+    JPEG("image/jpeg", "jpg"),
+    PNG("image/png", "png");
+
+    private final String mimeType;
+    private final String extension;
+
+    ImageFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+}
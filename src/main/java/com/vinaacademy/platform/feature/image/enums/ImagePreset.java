@@ -0,0 +1,31 @@
+package com.vinaacademy.platform.feature.image.enums;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Fixed output sizes served by {@code /api/v1/images/view/{id}?size=...}. Only presets are accepted so the
+ * derived-image cache holds a bounded number of variants per image.
+ */
+@Getter
+public enum ImagePreset {
+    THUMB("thumb", 160, 160),   // avatar, ảnh nhỏ trong danh sách
+    CARD("card", 480, 270),     // thẻ khóa học trên trang danh mục
+    HERO("hero", 1280, 720);    // banner trang chi tiết khóa học
+
+    private final String value;
+    private final int width;
+    private final int height;
+
+    ImagePreset(String value, int width, int height) {
+        this.value = value;
+        this.width = width;
+        this.height = height;
+    }
+
+    public static Optional<ImagePreset> fromValue(String value) {
+        return Arrays.stream(values()).filter(v -> v.value.equalsIgnoreCase(value)).findFirst();
+    }
+}
@@ -0,0 +1,25 @@
+package com.vinaacademy.platform.feature.image.event.listener;
+
+import com.vinaacademy.platform.feature.image.service.ImageService;
+import com.vinaacademy.platform.feature.storage.enums.FileType;
+import com.vinaacademy.platform.feature.storage.event.MediaFileDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Removes the preset variants of a deleted image. Runs after commit so a rolled-back delete keeps them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageVariantCleanupListener {
+
+    private final ImageService imageService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleMediaFileDeleted(MediaFileDeletedEvent event) {
+        if (event.getFileType() == FileType.IMAGE) {
+            imageService.deleteVariants(event.getMediaFileId());
+        }
+    }
+}
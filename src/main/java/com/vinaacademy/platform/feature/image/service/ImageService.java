@@ -1,5 +1,7 @@
 package com.vinaacademy.platform.feature.image.service;
 
+import com.vinaacademy.platform.feature.image.dto.DerivedImage;
+import com.vinaacademy.platform.feature.image.enums.ImagePreset;
 import com.vinaacademy.platform.feature.storage.dto.MediaFileDto;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -9,4 +11,15 @@ public interface ImageService {
     MediaFileDto uploadImage(MultipartFile file);
 
     MediaFileDto viewImage(UUID id);
+
+    /**
+     * Return {@code id} cropped and scaled to {@code preset}, encoded in the best format allowed by the
+     * {@code Accept} header. Variants are generated once and then served from the derived-image cache.
+     */
+    DerivedImage viewImage(UUID id, ImagePreset preset, String acceptHeader);
+
+    /**
+     * Delete every generated variant of {@code id}, in all presets and formats.
+     */
+    void deleteVariants(UUID id);
 }
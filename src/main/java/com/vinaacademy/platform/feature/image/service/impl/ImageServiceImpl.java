@@ -1,24 +1,55 @@
 package com.vinaacademy.platform.feature.image.service.impl;
 
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.image.config.ImageProperties;
+import com.vinaacademy.platform.feature.image.dto.DerivedImage;
+import com.vinaacademy.platform.feature.image.enums.ImageFormat;
+import com.vinaacademy.platform.feature.image.enums.ImagePreset;
 import com.vinaacademy.platform.feature.image.service.ImageService;
+import com.vinaacademy.platform.feature.image.utils.ImageTransformUtils;
 import com.vinaacademy.platform.feature.storage.dto.MediaFileDto;
 import com.vinaacademy.platform.feature.storage.enums.FileType;
+import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
 import com.vinaacademy.platform.feature.storage.service.StorageService;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.entity.User;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ImageServiceImpl implements ImageService {
+    // Biến thể "legacy" có thể là JPEG hoặc PNG (ảnh trong suốt) tùy ảnh gốc
+    private static final List<ImageFormat> LEGACY_FORMATS = List.of(ImageFormat.JPEG, ImageFormat.PNG);
+
     private final StorageService storageService;
 
     private final SecurityHelper securityHelper;
+    private final StorageProperties storageProperties;
+    private final ImageProperties imageProperties;
+
+    // Gộp các request đồng thời cho cùng một biến thể chưa có trong cache
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
 
     @Override
     public MediaFileDto uploadImage(MultipartFile file) {
@@ -41,4 +72,132 @@ public class ImageServiceImpl implements ImageService {
         }
         return mediaFileDto;
     }
+
+    @Override
+    public DerivedImage viewImage(UUID id, ImagePreset preset, String acceptHeader) {
+        ImageFormat requested = ImageTransformUtils.negotiate(acceptHeader);
+        Path variant = findVariant(id, preset, requested);
+        if (variant == null) {
+            variant = generateOnce(id, preset, requested);
+        }
+        try {
+            byte[] content = Files.readAllBytes(variant);
+            // Biến thể chỉ vài chục KB nên băm lại mỗi lần rẻ hơn giữ thêm một chỉ mục ETag
+            return DerivedImage.builder()
+                    .content(content)
+                    .mimeType(formatOf(variant).getMimeType())
+                    .contentHash(DigestUtils.sha256Hex(content))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read image variant " + variant, e);
+        }
+    }
+
+    @Override
+    public void deleteVariants(UUID id) {
+        Path dir = derivedDir().resolve(id.toString());
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> variants = Files.list(dir)) {
+            for (Path variant : variants.toList()) {
+                Files.deleteIfExists(variant);
+            }
+            Files.deleteIfExists(dir);
+            log.debug("Deleted variants of image {}", id);
+        } catch (IOException e) {
+            // Chạy sau commit nên không thể rollback việc xóa ảnh gốc, chỉ ghi log để dọn tay
+            log.warn("Failed to delete variants of image {}: {}", id, e.getMessage());
+        }
+    }
+
+    private Path generateOnce(UUID id, ImagePreset preset, ImageFormat requested) {
+        String key = id + "/" + preset.getValue() + "/" + (requested != null ? requested : "legacy");
+        CompletableFuture<Path> generating = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, generating);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            Path variant = findVariant(id, preset, requested);
+            if (variant == null) {
+                variant = generate(id, preset, requested);
+            }
+            generating.complete(variant);
+            return variant;
+        } catch (RuntimeException e) {
+            generating.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, generating);
+        }
+    }
+
+    private Path generate(UUID id, ImagePreset preset, ImageFormat requested) {
+        MediaFileDto source = storageService.getMediaFileById(id);
+        if (source.getFileType() != FileType.IMAGE) {
+            throw BadRequestException.message("Tệp không phải là ảnh");
+        }
+        long start = System.nanoTime();
+        try {
+            BufferedImage image = ImageTransformUtils.read(Paths.get(source.getFilePath()),
+                    preset.getWidth(), preset.getHeight(), imageProperties.getMaxSourcePixels());
+            BufferedImage resized = ImageTransformUtils.resizeCover(image, preset.getWidth(), preset.getHeight());
+            ImageFormat format = requested != null ? requested : ImageTransformUtils.legacyFormat(resized);
+            byte[] encoded = ImageTransformUtils.encode(resized, format, imageProperties.getQuality());
+
+            Path target = variantPath(id, preset, format);
+            Files.createDirectories(target.getParent());
+            // Ghi ra tệp tạm rồi đổi tên để request khác không bao giờ đọc phải tệp ghi dở
+            Path temp = Files.createTempFile(target.getParent(), preset.getValue(), ".tmp");
+            Files.write(temp, encoded);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Generated {} variant of image {} as {} ({} -> {} bytes) in {} ms", preset, id, format,
+                    source.getFileSize(), encoded.length, (System.nanoTime() - start) / 1_000_000);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not generate " + preset + " variant of image " + id, e);
+        }
+    }
+
+    private Path findVariant(UUID id, ImagePreset preset, ImageFormat requested) {
+        for (ImageFormat format : requested != null ? List.of(requested) : LEGACY_FORMATS) {
+            Path path = variantPath(id, preset, format);
+            if (Files.isRegularFile(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private Path variantPath(UUID id, ImagePreset preset, ImageFormat format) {
+        return derivedDir().resolve(id.toString()).resolve(preset.getValue() + "." + format.getExtension());
+    }
+
+    private Path derivedDir() {
+        String dir = imageProperties.getDerivedDir();
+        return StringUtils.isNotBlank(dir) ? Paths.get(dir) : Paths.get(storageProperties.getUploadDir(), "derived");
+    }
+
+    private static ImageFormat formatOf(Path variant) {
+        String name = variant.getFileName().toString();
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        for (ImageFormat format : ImageFormat.values()) {
+            if (format.getExtension().equals(extension)) {
+                return format;
+            }
+        }
+        throw new IllegalStateException("Unknown image variant extension: " + name);
+    }
+
+    private static Path await(CompletableFuture<Path> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
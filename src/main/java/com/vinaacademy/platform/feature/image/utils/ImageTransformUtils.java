@@ -0,0 +1,197 @@
+package com.vinaacademy.platform.feature.image.utils;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.image.enums.ImageFormat;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Pure-Java (ImageIO/Java2D) decoding, cover-cropping, downscaling and encoding of images.
+ * <p>
+ * JPEG and PNG are always available. WebP and AVIF are only produced when an ImageIO writer for them is on
+ * the classpath; otherwise {@link #negotiate} never selects them.
+ */
+public final class ImageTransformUtils {
+
+    // Các định dạng hiện đại chỉ được chọn khi client khai báo rõ trong Accept (không tính */*)
+    private static final List<ImageFormat> MODERN_FORMATS = List.of(ImageFormat.AVIF, ImageFormat.WEBP);
+
+    private ImageTransformUtils() {
+    }
+
+    /**
+     * Pick the output format: AVIF or WebP when the client lists it and a writer exists, otherwise
+     * {@code null}, meaning "JPEG, or PNG if the image has transparency" (see {@link #legacyFormat}).
+     */
+    public static ImageFormat negotiate(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(acceptHeader);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        for (ImageFormat format : MODERN_FORMATS) {
+            MediaType type = MediaType.parseMediaType(format.getMimeType());
+            boolean listed = accepted.stream()
+                    .anyMatch(a -> !a.isWildcardSubtype() && a.includes(type) && a.getQualityValue() > 0);
+            if (listed && canWrite(format)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    public static ImageFormat legacyFormat(BufferedImage image) {
+        return image.getColorModel().hasAlpha() ? ImageFormat.PNG : ImageFormat.JPEG;
+    }
+
+    public static boolean canWrite(ImageFormat format) {
+        return ImageIO.getImageWritersByMIMEType(format.getMimeType()).hasNext();
+    }
+
+    /**
+     * Decode {@code source} for a {@code width x height} target. Images above {@code maxPixels} are refused
+     * from their header alone; large sources are subsampled while decoding (to at least twice the target)
+     * so multi-megapixel uploads never get fully materialized.
+     */
+    public static BufferedImage read(Path source, int width, int height, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw BadRequestException.message("Định dạng ảnh không được hỗ trợ");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxPixels) {
+                    throw BadRequestException.message("Ảnh quá lớn để tạo kích thước thu nhỏ");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.min(sourceWidth / (2 * width), sourceHeight / (2 * height)));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Center-crop {@code source} to the aspect ratio of {@code width x height} and scale it down to that
+     * size. Smaller sources are cropped but never upscaled.
+     */
+    public static BufferedImage resizeCover(BufferedImage source, int width, int height) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        double targetRatio = (double) width / height;
+
+        int cropWidth = sourceWidth;
+        int cropHeight = sourceHeight;
+        if ((double) sourceWidth / sourceHeight > targetRatio) {
+            cropWidth = (int) Math.round(sourceHeight * targetRatio);
+        } else {
+            cropHeight = (int) Math.round(sourceWidth / targetRatio);
+        }
+        BufferedImage current = source.getSubimage(
+                (sourceWidth - cropWidth) / 2, (sourceHeight - cropHeight) / 2, cropWidth, cropHeight);
+
+        int outWidth = Math.min(width, cropWidth);
+        int outHeight = Math.min(height, cropHeight);
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        // Thu nhỏ từng nửa một: bilinear một bước từ ảnh lớn bỏ qua quá nhiều điểm ảnh và gây răng cưa
+        int currentWidth = cropWidth;
+        int currentHeight = cropHeight;
+        do {
+            currentWidth = Math.max(outWidth, currentWidth / 2);
+            currentHeight = Math.max(outHeight, currentHeight / 2);
+            current = scale(current, currentWidth, currentHeight, type);
+        } while (currentWidth != outWidth || currentHeight != outHeight);
+        return current;
+    }
+
+    /**
+     * Encode {@code image}; JPEG output is progressive, so a partially received card already shows up.
+     */
+    public static byte[] encode(BufferedImage image, ImageFormat format, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(format.getMimeType());
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + format.getMimeType());
+        }
+        ImageWriter writer = writers.next();
+        BufferedImage output = format == ImageFormat.JPEG ? withoutAlpha(image) : image;
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (format == ImageFormat.JPEG && param.canWriteProgressive()) {
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        }
+        if (format != ImageFormat.PNG && param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            param.setCompressionQuality(quality);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(output, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static BufferedImage withoutAlpha(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+}
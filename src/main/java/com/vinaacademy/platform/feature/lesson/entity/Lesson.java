@@ -1,7 +1,9 @@
 package com.vinaacademy.platform.feature.lesson.entity;
 
 import com.vinaacademy.platform.feature.common.entity.BaseEntity;
+import com.vinaacademy.platform.feature.course.curriculum.CurriculumChangeListener;
 import com.vinaacademy.platform.feature.course.enums.LessonType;
+import com.vinaacademy.platform.feature.log.annotation.AuditedEntity;
 import com.vinaacademy.platform.feature.section.entity.Section;
 import com.vinaacademy.platform.feature.storage.entity.MediaFile;
 import com.vinaacademy.platform.feature.user.entity.User;
@@ -17,7 +19,9 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
+@AuditedEntity(value = "Lesson", hashed = {"description", "content"})
 @Entity
+@EntityListeners(CurriculumChangeListener.class)
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "lesson_type", discriminatorType = DiscriminatorType.STRING)
 @Table(name = "lessons")
@@ -14,7 +14,10 @@ import lombok.*;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "user_progress")
+@Table(name = "user_progress", uniqueConstraints = {
+        // Một dòng tiến độ cho mỗi (user, lesson); cũng là đích ON CONFLICT của write-behind flush
+        @UniqueConstraint(name = "uk_user_progress_user_lesson", columnNames = {"user_id", "lesson_id"})
+})
 public class UserProgress extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
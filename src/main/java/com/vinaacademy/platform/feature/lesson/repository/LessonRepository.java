@@ -1,5 +1,6 @@
 package com.vinaacademy.platform.feature.lesson.repository;
 
+import com.vinaacademy.platform.feature.course.projection.OrderIndexProjection;
 import com.vinaacademy.platform.feature.lesson.entity.Lesson;
 import com.vinaacademy.platform.feature.lesson.repository.projection.LessonAccessInfoDto;
 import com.vinaacademy.platform.feature.section.entity.Section;
@@ -40,6 +41,12 @@ public interface LessonRepository extends JpaRepository<Lesson, UUID> {
      */
     long countBySection(Section section);
 
+    /**
+     * Lesson ids and positions of a section, without loading the entities
+     */
+    @Query("SELECT l.id AS id, l.orderIndex AS orderIndex FROM Lesson l WHERE l.section.id = :sectionId")
+    List<OrderIndexProjection> findOrderBySectionId(@Param("sectionId") UUID sectionId);
+
     /**
      * Find free lessons in a course
      */
@@ -0,0 +1,156 @@
+package com.vinaacademy.platform.feature.lesson.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC upsert of playback positions into {@code user_progress}, one statement per batch.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class UserProgressBatchRepository {
+
+    /**
+     * One row to upsert. {@code completed} only ever turns a row complete, never back.
+     */
+    public record ProgressRow(UUID userId, UUID lessonId, long lastWatchedTime, boolean completed) {
+    }
+
+    /**
+     * (user, lesson) pair whose progress went from incomplete (or missing) to completed.
+     */
+    public record CompletedLesson(UUID userId, UUID lessonId) {
+    }
+
+    // "prev" đọc snapshot trước khi upsert (cùng một câu lệnh) để biết dòng nào vừa chuyển sang hoàn thành
+    private static final String UPSERT_SQL_TEMPLATE = """
+            WITH input (user_id, lesson_id, last_watched_time, completed) AS (VALUES %s),
+            prev AS (
+                SELECT up.user_id, up.lesson_id, up.completed
+                FROM user_progress up JOIN input i ON up.user_id = i.user_id AND up.lesson_id = i.lesson_id
+            ),
+            upserted AS (
+                INSERT INTO user_progress (user_id, lesson_id, last_watched_time, completed, created_date, updated_date)
+                SELECT user_id, lesson_id, last_watched_time, completed, ?, ? FROM input
+                ON CONFLICT (user_id, lesson_id) DO UPDATE
+                SET last_watched_time = EXCLUDED.last_watched_time,
+                    completed = user_progress.completed OR EXCLUDED.completed,
+                    updated_date = EXCLUDED.updated_date
+                RETURNING user_id, lesson_id, completed
+            )
+            SELECT u.user_id, u.lesson_id FROM upserted u
+            LEFT JOIN prev p ON p.user_id = u.user_id AND p.lesson_id = u.lesson_id
+            WHERE u.completed AND NOT COALESCE(p.completed, false)
+            """;
+    // Trả về một dòng khi và chỉ khi tiến độ vừa chuyển sang hoàn thành (chèn mới hoặc false -> true)
+    private static final String MARK_COMPLETED_SQL = """
+            INSERT INTO user_progress (user_id, lesson_id, completed, created_date, updated_date)
+            VALUES (?, ?, true, ?, ?)
+            ON CONFLICT (user_id, lesson_id) DO UPDATE
+            SET completed = true, updated_date = EXCLUDED.updated_date
+            WHERE NOT user_progress.completed
+            RETURNING lesson_id
+            """;
+    // Khóa advisory cố định cho bước tạo ràng buộc unique, chỉ một node chạy tại một thời điểm
+    private static final long UNIQUE_MIGRATION_LOCK_KEY = 0x5550524F47554E51L; // "UPROGUNQ"
+    private static final String UNIQUE_CONSTRAINT = "uk_user_progress_user_lesson";
+    private static final String HAS_UNIQUE_CONSTRAINT_SQL = """
+            SELECT EXISTS (SELECT 1 FROM pg_constraint
+                           WHERE conrelid = 'user_progress'::regclass AND conname = ?)
+            """;
+    // Giữ dòng cập nhật gần nhất của mỗi (user, lesson); dòng giữ lại là hoàn thành nếu một bản trùng bất kỳ đã
+    // hoàn thành
+    private static final String DEDUPLICATE_SQL = """
+            WITH ranked AS (
+                SELECT id,
+                       ROW_NUMBER() OVER (PARTITION BY user_id, lesson_id
+                                          ORDER BY updated_date DESC NULLS LAST, id DESC) AS rn,
+                       BOOL_OR(completed) OVER (PARTITION BY user_id, lesson_id) AS any_completed
+                FROM user_progress
+            ), merged AS (
+                UPDATE user_progress up SET completed = true
+                FROM ranked r
+                WHERE up.id = r.id AND r.rn = 1 AND r.any_completed AND NOT up.completed
+            )
+            DELETE FROM user_progress up
+            USING ranked r
+            WHERE up.id = r.id AND r.rn > 1
+            """;
+    private static final String VALUES_ROW = "(CAST(? AS uuid), CAST(? AS uuid), CAST(? AS bigint), CAST(? AS boolean))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Make sure {@code user_progress} has the unique (user, lesson) constraint the upserts rely on. The schema
+     * is managed by {@code ddl-auto: update}, which cannot add the constraint while duplicate rows exist and
+     * only logs that failure; here the duplicates are merged first, under a table lock so none reappear before
+     * the constraint is added.
+     *
+     * @return number of duplicate rows removed
+     */
+    @Transactional
+    public int ensureUniqueConstraint() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, UNIQUE_MIGRATION_LOCK_KEY);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_UNIQUE_CONSTRAINT_SQL, Boolean.class,
+                UNIQUE_CONSTRAINT))) {
+            return 0;
+        }
+        jdbcTemplate.execute("LOCK TABLE user_progress IN SHARE ROW EXCLUSIVE MODE");
+        int removed = jdbcTemplate.update(DEDUPLICATE_SQL);
+        jdbcTemplate.execute("ALTER TABLE user_progress ADD CONSTRAINT " + UNIQUE_CONSTRAINT
+                + " UNIQUE (user_id, lesson_id)");
+        log.warn("Added {} to user_progress after removing {} duplicate rows", UNIQUE_CONSTRAINT, removed);
+        return removed;
+    }
+
+    /**
+     * Upsert the rows in a single statement. Rows must be unique per (user, lesson).
+     *
+     * @return the pairs that became completed by this upsert
+     */
+    @Transactional
+    public List<CompletedLesson> upsertProgress(List<ProgressRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        String sql = UPSERT_SQL_TEMPLATE.formatted(String.join(",", Collections.nCopies(rows.size(), VALUES_ROW)));
+
+        List<Object> args = new ArrayList<>(rows.size() * 4 + 2);
+        for (ProgressRow row : rows) {
+            args.add(row.userId());
+            args.add(row.lessonId());
+            args.add(row.lastWatchedTime());
+            args.add(row.completed());
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        args.add(now);
+        args.add(now);
+
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new CompletedLesson(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)),
+                args.toArray());
+    }
+
+    /**
+     * Mark one lesson completed for a user.
+     *
+     * @return {@code true} if the row moved from incomplete (or missing) to completed, {@code false} if it was
+     * already completed
+     */
+    @Transactional
+    public boolean markCompleted(UUID userId, UUID lessonId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return !jdbcTemplate.queryForList(MARK_COMPLETED_SQL, UUID.class, userId, lessonId, now, now).isEmpty();
+    }
+}
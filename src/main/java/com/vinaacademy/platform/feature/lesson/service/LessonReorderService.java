@@ -2,7 +2,8 @@ package com.vinaacademy.platform.feature.lesson.service;
 
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.NotFoundException;
-import com.vinaacademy.platform.feature.lesson.entity.Lesson;
+import com.vinaacademy.platform.feature.course.curriculum.CurriculumOrderingService;
+import com.vinaacademy.platform.feature.course.projection.OrderIndexProjection;
 import com.vinaacademy.platform.feature.lesson.repository.LessonRepository;
 import com.vinaacademy.platform.feature.section.entity.Section;
 import com.vinaacademy.platform.feature.section.repository.SectionRepository;
@@ -28,6 +29,7 @@ public class LessonReorderService {
     private final LessonRepository lessonRepository;
     private final SectionRepository sectionRepository;
     private final AuthorizationService authorizationService;
+    private final CurriculumOrderingService curriculumOrderingService;
 
     /**
      * Sắp xếp lại thứ tự các bài học trong một section
@@ -44,12 +46,15 @@ public class LessonReorderService {
         Section section = sectionRepository.findById(sectionId)
                 .orElseThrow(() -> new NotFoundException("Section not found with id: " + sectionId));
 
-        // Get all lessons for the section
-        List<Lesson> lessons = lessonRepository.findBySectionOrderByOrderIndex(section);
+        UUID courseId = section.getCourse().getId();
+        curriculumOrderingService.lockCourse(courseId);
+
+        // Chỉ đọc id + vị trí hiện tại, không load entity
+        List<OrderIndexProjection> currentOrder = lessonRepository.findOrderBySectionId(sectionId);
 
         // Validate that all lesson IDs belong to the section
-        Set<UUID> sectionLessonIds = lessons.stream()
-                .map(Lesson::getId)
+        Set<UUID> sectionLessonIds = currentOrder.stream()
+                .map(OrderIndexProjection::getId)
                 .collect(Collectors.toSet());
 
         if (!sectionLessonIds.containsAll(lessonIds)) {
@@ -57,25 +62,12 @@ public class LessonReorderService {
         }
 
         // Validate that all lessons are included
-        if (lessons.size() != lessonIds.size()) {
+        if (currentOrder.size() != lessonIds.size() || new HashSet<>(lessonIds).size() != lessonIds.size()) {
             throw BadRequestException.message("The list does not include all lessons in the section");
         }
 
-        // Create a map for quick lookup
-        Map<UUID, Lesson> lessonMap = new HashMap<>();
-        lessons.forEach(lesson -> lessonMap.put(lesson.getId(), lesson));
-
-        // Batch update all lessons with their new order indices
-        List<Lesson> updatedLessons = new ArrayList<>();
-        for (int i = 0; i < lessonIds.size(); i++) {
-            UUID lessonId = lessonIds.get(i);
-            Lesson lesson = lessonMap.get(lessonId);
-            lesson.setOrderIndex(i);
-            updatedLessons.add(lesson);
-        }
-
-        // Save all lessons in a batch operation
-        lessonRepository.saveAll(updatedLessons);
+        // One UPDATE ... CASE for the lessons whose position actually changed
+        curriculumOrderingService.applyLessonOrder(courseId, sectionId, currentOrder, lessonIds);
 
         log.info("Lessons reordered for section: {}", section.getTitle());
     }
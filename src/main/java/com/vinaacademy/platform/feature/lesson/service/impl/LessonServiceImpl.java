@@ -3,23 +3,23 @@ package com.vinaacademy.platform.feature.lesson.service.impl;
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.NotFoundException;
 import com.vinaacademy.platform.exception.ValidationException;
+import com.vinaacademy.platform.feature.course.curriculum.CurriculumOrderingService;
 import com.vinaacademy.platform.feature.course.entity.Course;
 import com.vinaacademy.platform.feature.course.enums.CourseStatus;
 import com.vinaacademy.platform.feature.course.enums.LessonType;
 import com.vinaacademy.platform.feature.course.repository.CourseRepository;
-import com.vinaacademy.platform.feature.course.repository.UserProgressRepository;
-import com.vinaacademy.platform.feature.enrollment.Enrollment;
-import com.vinaacademy.platform.feature.enrollment.enums.ProgressStatus;
+import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentProgressRepository;
 import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentRepository;
 import com.vinaacademy.platform.feature.enrollment.service.EnrollmentService;
 import com.vinaacademy.platform.feature.lesson.dto.LessonDto;
 import com.vinaacademy.platform.feature.lesson.dto.LessonRequest;
 import com.vinaacademy.platform.feature.lesson.entity.Lesson;
-import com.vinaacademy.platform.feature.lesson.entity.UserProgress;
 import com.vinaacademy.platform.feature.lesson.factory.LessonCreator;
 import com.vinaacademy.platform.feature.lesson.factory.LessonCreatorFactory;
 import com.vinaacademy.platform.feature.lesson.mapper.LessonMapper;
 import com.vinaacademy.platform.feature.lesson.repository.LessonRepository;
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository;
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository.CompletedLesson;
 import com.vinaacademy.platform.feature.lesson.service.LessonService;
 import com.vinaacademy.platform.feature.log.service.LogService;
 import com.vinaacademy.platform.feature.section.entity.Section;
@@ -35,9 +35,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -50,10 +48,12 @@ public class LessonServiceImpl implements LessonService {
     private final SectionRepository sectionRepository;
     private final AuthorizationService authorizationService;
     private final LogService logService;
-    private final UserProgressRepository userProgressRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentService enrollmentService;
+    private final CurriculumOrderingService curriculumOrderingService;
+    private final UserProgressBatchRepository userProgressBatchRepository;
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
 
     @Autowired
     private LessonMapper lessonMapper;
@@ -93,8 +93,8 @@ public class LessonServiceImpl implements LessonService {
         Section section = findSectionById(request.getSectionId());
 
         // Luôn tạo lesson mới ở cuối danh sách
-        List<Lesson> existingLessons = lessonRepository.findBySectionOrderByOrderIndex(section);
-        request.setOrderIndex(existingLessons.size()); // Đặt ở vị trí cuối cùng
+        curriculumOrderingService.lockCourse(section.getCourse().getId());
+        request.setOrderIndex((int) lessonRepository.countBySection(section)); // Đặt ở vị trí cuối cùng
 
         // Tạo lesson mới
         LessonDto newLesson = createLesson(request, currentUser);
@@ -177,7 +177,7 @@ public class LessonServiceImpl implements LessonService {
         }
 
         validateLessonRequest(request);
-        validateOrderIndex(request.getOrderIndex(), section, id);
+        validateOrderIndex(request.getOrderIndex(), section, existingLesson);
 
         // Basic update for common fields
         existingLesson.setTitle(request.getTitle());
@@ -232,17 +232,15 @@ public class LessonServiceImpl implements LessonService {
 
         LessonDto lessonData = lessonMapper.lessonToLessonDto(lesson);
 
+        curriculumOrderingService.lockCourse(course.getId());
+        // Trừ bài này khỏi số bài đã hoàn thành trước khi user_progress bị xóa theo bài học
+        enrollmentProgressRepository.lessonRemoved(course.getId(), lesson.getId());
         lessonRepository.delete(lesson);
+        course.setTotalLesson(Math.max(0, course.getTotalLesson() - 1));
+        courseRepository.save(course);
 
-        // Cập nhật lại orderIndex cho các lesson sau lesson bị xóa
-        List<Lesson> lessonsToUpdate = lessonRepository.findBySectionOrderByOrderIndex(section).stream()
-                .filter(l -> l.getOrderIndex() > deletedOrderIndex)
-                .collect(Collectors.toList());
-
-        for (Lesson lessonToUpdate : lessonsToUpdate) {
-            lessonToUpdate.setOrderIndex(lessonToUpdate.getOrderIndex() - 1);
-            lessonRepository.save(lessonToUpdate);
-        }
+        // Cập nhật lại orderIndex cho các lesson sau lesson bị xóa (một câu UPDATE)
+        curriculumOrderingService.closeLessonGap(course.getId(), section.getId(), deletedOrderIndex);
 
         // Cập nhật trạng thái khóa học sau khi xóa bài học
         updateCourseStatusAfterModifyingLessons(course);
@@ -290,43 +288,19 @@ public class LessonServiceImpl implements LessonService {
     }
 
     public void markLessonCompleted(Lesson lesson, User currentUser) {
-        // 1. Mark lesson completed if not already
-        Optional<UserProgress> userProgressOpt = userProgressRepository
-                .findByLessonIdAndUserId(lesson.getId(), currentUser.getId())
-                .filter(UserProgress::isCompleted);
-        if (userProgressOpt.isPresent()) {
-            throw BadRequestException.message("Học viên đã hoàn thành bài học này");
-        }
-
-        UserProgress userProgress = userProgressOpt.orElseGet(() ->
-                userProgressRepository.save(UserProgress.builder()
-                        .lesson(lesson)
-                        .user(currentUser)
-                        .completed(true)
-                        .build())
-        );
-        userProgressRepository.save(userProgress);
-
-        // 2. Update enrollment progress
         UUID courseId = lesson.getSection().getCourse().getId();
-        Enrollment enrollment = enrollmentRepository.findByUserIdAndCourseId(currentUser.getId(), courseId)
-                .orElseThrow(() -> BadRequestException.message("Học viên chưa đăng ký khóa học này"));
-
-        long totalLessons = lessonRepository.countBySectionCourseId(courseId);
-        long completedLessons = userProgressRepository.countCompletedByUserIdAndCourseId(currentUser.getId(), courseId);
-
-        if (totalLessons == 0) {
-            throw new ValidationException("Không thể tính tiến độ: khóa học không có bài học nào");
+        if (!enrollmentRepository.existsByUserIdAndCourseId(currentUser.getId(), courseId)) {
+            throw BadRequestException.message("Học viên chưa đăng ký khóa học này");
         }
 
-        double progressPercentage = (completedLessons * 1.0 / totalLessons) * 100;
-
-        enrollment.setProgressPercentage(progressPercentage);
-        enrollment.setStatus(progressPercentage >= 100 ? ProgressStatus.COMPLETED : ProgressStatus.IN_PROGRESS);
-        enrollment.setCompleteAt(progressPercentage >= 100 ? LocalDateTime.now() : null);
-        enrollment.setCompletedLessons(completedLessons);
+        // 1. Mark lesson completed; only an incomplete -> completed transition counts
+        if (!userProgressBatchRepository.markCompleted(currentUser.getId(), lesson.getId())) {
+            throw BadRequestException.message("Học viên đã hoàn thành bài học này");
+        }
 
-        enrollmentRepository.save(enrollment);
+        // 2. Update enrollment progress incrementally against the course's cached lesson count
+        enrollmentProgressRepository.applyCompletedLessons(
+                List.of(new CompletedLesson(currentUser.getId(), lesson.getId())));
     }
 
     private Lesson findLessonById(UUID id) {
@@ -388,29 +362,23 @@ public class LessonServiceImpl implements LessonService {
     }
 
     /**
-     * Validates that the order index is appropriate for the section
+     * Validates that the order index is appropriate for the section and shifts the siblings
+     * so that the lesson can take it. The lesson's own index is left to the caller.
      *
      * @param orderIndex the requested order index
      * @param section    the section where the lesson belongs
-     * @param lessonId   the ID of the lesson being updated (null for creation)
+     * @param lesson     the lesson being updated (null for creation)
      */
-    // For LessonServiceImpl.java
-    private void validateOrderIndex(int orderIndex, Section section, UUID lessonId) {
-        List<Lesson> existingLessons = lessonRepository.findBySectionOrderByOrderIndex(section);
-
-        // For updates, exclude the current lesson from duplicate check
-        if (lessonId != null) {
-            existingLessons = existingLessons.stream()
-                    .filter(lesson -> !lesson.getId().equals(lessonId))
-                    .toList();
-        }
+    private void validateOrderIndex(int orderIndex, Section section, Lesson lesson) {
+        UUID courseId = section.getCourse().getId();
+        Section currentSection = lesson != null ? lesson.getSection() : null;
+        boolean sameSection = currentSection != null && currentSection.getId().equals(section.getId());
 
-        // Calculate the expected maximum order index
-        int maxAllowedIndex = existingLessons.size();
-        if (lessonId != null) {
-            // When updating, we can use the same index or one more than the current size
-            maxAllowedIndex++;
-        }
+        lockCourses(courseId, currentSection != null ? currentSection.getCourse().getId() : courseId);
+
+        // For updates within the same section the lesson already occupies one slot
+        long siblingCount = lessonRepository.countBySection(section);
+        long maxAllowedIndex = sameSection ? siblingCount - 1 : siblingCount;
 
         // Ensure the order index is within valid range
         if (orderIndex < 0 || orderIndex > maxAllowedIndex) {
@@ -419,20 +387,31 @@ public class LessonServiceImpl implements LessonService {
                             orderIndex, maxAllowedIndex, section.getTitle()));
         }
 
-        // If the orderIndex is already used, shift the existing ones
-        boolean isOrderIndexUsed = existingLessons.stream()
-                .anyMatch(lesson -> lesson.getOrderIndex() == orderIndex);
-
-        if (isOrderIndexUsed) {
-            // Shift existing lessons from the insertion point onwards
-            List<Lesson> lessonsToUpdate = existingLessons.stream()
-                    .filter(lesson -> lesson.getOrderIndex() >= orderIndex)
-                    .collect(Collectors.toList());
+        if (sameSection) {
+            curriculumOrderingService.moveLesson(courseId, section.getId(), lesson.getId(),
+                    lesson.getOrderIndex(), orderIndex);
+            return;
+        }
+        if (currentSection != null) {
+            // Chuyển sang section khác: đóng khoảng trống ở section cũ
+            curriculumOrderingService.closeLessonGap(currentSection.getCourse().getId(), currentSection.getId(),
+                    lesson.getOrderIndex());
+        }
+        if (orderIndex < siblingCount) {
+            curriculumOrderingService.openLessonGap(courseId, section.getId(), orderIndex);
+        }
+    }
 
-            for (Lesson lesson : lessonsToUpdate) {
-                lesson.setOrderIndex(lesson.getOrderIndex() + 1);
-                lessonRepository.save(lesson);
-            }
+    // Khóa theo thứ tự id cố định để hai thao tác chéo khóa học không deadlock
+    private void lockCourses(UUID first, UUID second) {
+        if (first.compareTo(second) > 0) {
+            UUID tmp = first;
+            first = second;
+            second = tmp;
+        }
+        curriculumOrderingService.lockCourse(first);
+        if (!second.equals(first)) {
+            curriculumOrderingService.lockCourse(second);
         }
     }
 
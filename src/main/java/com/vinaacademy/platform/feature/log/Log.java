@@ -15,7 +15,9 @@ import org.hibernate.type.SqlTypes;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "logs")
+@Table(name = "logs", indexes = {
+        @Index(name = "idx_logs_entity", columnList = "name, entity_id, created_date")
+})
 public class Log extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -24,9 +26,15 @@ public class Log extends BaseEntity {
     @Column(name = "name")
     private String name;
 
+    @Column(name = "entity_id")
+    private String entityId;
+
     @Column(name = "action")
     private String action;
 
+    @Column(name = "description")
+    private String description;
+
     @Column(name = "old_data", columnDefinition = DatabaseConstants.JSON_TYPE)
     @JdbcTypeCode(SqlTypes.JSON)
     private String oldData;
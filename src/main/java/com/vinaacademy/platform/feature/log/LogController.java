@@ -1,23 +1,37 @@
 package com.vinaacademy.platform.feature.log;
 
+import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.log.dto.LogDto;
+import com.vinaacademy.platform.feature.log.dto.LogSearchRequest;
 import com.vinaacademy.platform.feature.log.service.LogService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.bind.annotation.CrossOrigin;
+import com.vinaacademy.platform.feature.user.auth.annotation.HasAnyRole;
+import com.vinaacademy.platform.feature.user.constant.AuthConstants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
-@RequestMapping("/v1/log")
-@CrossOrigin("*")
+@RequestMapping("/api/v1/admin/logs")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@HasAnyRole({AuthConstants.ADMIN_ROLE})
 public class LogController {
 
-    @Autowired
-    private LogService logService;
+    private final LogService logService;
 
-
-//    @CheckPrivilege(value = {PermissionEnum.LOG_VIEW})
-//    @PostMapping("/search")
-//    public ResponseEntity<Page<LogDto>> search(@RequestBody SearchRequest request) {
-//        return ResponseEntity.ok(logService.search(request));
-//    }
-}
\ No newline at end of file
+    @Operation(summary = "Tra cứu nhật ký hệ thống", description = "Lọc theo đối tượng, id, hành động, người thực hiện và thời gian")
+    @GetMapping
+    public ApiResponse<Page<LogDto>> search(
+            @ModelAttribute LogSearchRequest request,
+            @PageableDefault(size = 20, sort = "createdDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ApiResponse.success(logService.search(request, pageable));
+    }
+}
@@ -2,13 +2,17 @@ package com.vinaacademy.platform.feature.log;
 
 import com.vinaacademy.platform.feature.log.dto.LogDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
 public interface LogMapper {
     LogMapper INSTANCE = Mappers.getMapper(LogMapper.class);
 
+    @Mapping(target = "action", source = "event")
     Log toEntity(LogDto logDto);
 
+    @Mapping(target = "event", source = "action")
+    @Mapping(target = "username", source = "createdBy")
     LogDto toDto(Log log);
 }	
@@ -0,0 +1,62 @@
+package com.vinaacademy.platform.feature.log;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public class LogSpecification {
+
+    public static Specification<Log> hasName(String name) {
+        return (root, query, criteriaBuilder) -> {
+            if (name == null || name.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.equal(root.get("name"), name);
+        };
+    }
+
+    public static Specification<Log> hasEntityId(String entityId) {
+        return (root, query, criteriaBuilder) -> {
+            if (entityId == null || entityId.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.equal(root.get("entityId"), entityId);
+        };
+    }
+
+    public static Specification<Log> hasAction(String action) {
+        return (root, query, criteriaBuilder) -> {
+            if (action == null || action.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.equal(root.get("action"), action);
+        };
+    }
+
+    public static Specification<Log> hasUsername(String username) {
+        return (root, query, criteriaBuilder) -> {
+            if (username == null || username.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.equal(root.get("createdBy"), username);
+        };
+    }
+
+    public static Specification<Log> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, criteriaBuilder) -> {
+            if (from == null && to == null) {
+                return criteriaBuilder.conjunction();
+            }
+            if (from == null) {
+                return criteriaBuilder.lessThan(root.get("createdDate"), to);
+            }
+            if (to == null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("createdDate"), from);
+            }
+            return criteriaBuilder.and(
+                    criteriaBuilder.greaterThanOrEqualTo(root.get("createdDate"), from),
+                    criteriaBuilder.lessThan(root.get("createdDate"), to)
+            );
+        };
+    }
+}
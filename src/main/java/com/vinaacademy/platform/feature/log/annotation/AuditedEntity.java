@@ -0,0 +1,40 @@
+package com.vinaacademy.platform.feature.log.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a JPA entity whose inserts, updates and deletes are written to the audit log
+ * with field-level diffs. Collections are never audited; associations are logged by id.
+ * Inherited, so annotating the root of an entity hierarchy covers its subclasses.
+ * <p>
+ * Only writes that go through the Hibernate session are audited. Bulk statements issued with
+ * {@code JdbcTemplate} bypass the listener: the {@code order_index} shifts of
+ * {@code CurriculumOrderingService} (lessons and sections other than the one being moved), the
+ * {@code user_progress} upserts of {@code UserProgressBatchRepository} and the {@code enrollments}
+ * counters of {@code EnrollmentProgressRepository} leave no audit entry.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface AuditedEntity {
+
+    /**
+     * Name stored in the log's {@code name} column. Defaults to the entity's simple class name.
+     */
+    String value() default "";
+
+    /**
+     * Properties that must never reach the audit log (secrets, large text blobs...).
+     */
+    String[] exclude() default {};
+
+    /**
+     * Large text properties whose changes should still be traced without copying the body into every
+     * log row: only their SHA-256 and length are stored.
+     */
+    String[] hashed() default {};
+}
@@ -0,0 +1,33 @@
+package com.vinaacademy.platform.feature.log.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(AuditLogProperties.class)
+@ConfigurationProperties(prefix = "application.audit-log")
+@Data
+@NoArgsConstructor
+public class AuditLogProperties {
+    /**
+     * Max buffered events; rounded up to a power of two. Events beyond this are dropped and counted.
+     */
+    private int bufferSize = 16384;
+    /**
+     * Max rows written per flush.
+     */
+    private int batchSize = 500;
+    /**
+     * Max time an event waits in the buffer before being flushed.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /**
+     * How long shutdown waits for the flusher to drain the buffer.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,31 @@
+package com.vinaacademy.platform.feature.log.config;
+
+import com.vinaacademy.platform.feature.log.listener.EntityAuditListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers {@link EntityAuditListener} on Hibernate's post-commit insert/update/delete events.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class EntityAuditConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityAuditListener entityAuditListener;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, entityAuditListener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, entityAuditListener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, entityAuditListener);
+    }
+}
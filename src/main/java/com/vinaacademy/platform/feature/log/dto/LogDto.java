@@ -15,6 +15,7 @@ import lombok.experimental.SuperBuilder;
 public class LogDto extends BaseDto {
     private Long id;
     private String name;
+    private String entityId;
     private String event;
     private String description;
     private String username;
@@ -0,0 +1,18 @@
+package com.vinaacademy.platform.feature.log.dto;
+
+/**
+ * Immutable audit event captured on the calling thread. Payloads are already serialized to JSON
+ * so the buffered event does not hold on to (possibly lazy or mutable) entities.
+ */
+public record LogEvent(
+        String name,
+        String entityId,
+        String action,
+        String description,
+        String username,
+        String oldData,
+        String newData,
+        String ipAddress,
+        String userAgent
+) {
+}
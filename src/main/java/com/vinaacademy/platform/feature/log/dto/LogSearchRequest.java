@@ -0,0 +1,29 @@
+package com.vinaacademy.platform.feature.log.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogSearchRequest {
+    /**
+     * Entity or feature name, e.g. {@code Course} or {@code authentication}
+     */
+    private String name;
+    private String entityId;
+    private String action;
+    private String username;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
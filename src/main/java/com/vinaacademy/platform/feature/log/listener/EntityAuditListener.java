@@ -0,0 +1,172 @@
+package com.vinaacademy.platform.feature.log.listener;
+
+import com.vinaacademy.platform.feature.log.annotation.AuditedEntity;
+import com.vinaacademy.platform.feature.log.constant.LogConstants;
+import com.vinaacademy.platform.feature.log.service.LogService;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes field-level diffs of {@link AuditedEntity} entities to the audit log once the transaction
+ * has committed. Old values come from the state Hibernate already holds in the persistence context,
+ * so no extra SELECT is issued.
+ * <p>
+ * Bulk {@code JdbcTemplate} statements never reach this listener; see {@link AuditedEntity}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityAuditListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    /**
+     * Maintained by {@code BaseEntity} on every write; they would turn every update into noise.
+     */
+    private static final Set<String> IGNORED_PROPERTIES = Set.of("createdDate", "updatedDate", "createdBy", "lastModifiedBy");
+
+    private final LogService logService;
+    private final Map<Class<?>, AuditMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return metadata(persister) != null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        AuditMetadata metadata = metadata(event.getPersister());
+        if (metadata == null) return;
+
+        Map<String, Object> newData = new LinkedHashMap<>();
+        String[] names = event.getPersister().getPropertyNames();
+        Type[] types = event.getPersister().getPropertyTypes();
+        PersistenceUnitUtil unitUtil = event.getSession().getFactory().getPersistenceUnitUtil();
+        for (int i = 0; i < names.length; i++) {
+            if (metadata.isAudited(names[i], types[i]) && event.getState()[i] != null) {
+                newData.put(names[i], metadata.toAuditValue(names[i], types[i], event.getState()[i], unitUtil));
+            }
+        }
+        logService.logEntityChange(metadata.name(), event.getId(), LogConstants.ADD_ACTION, null, newData);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        AuditMetadata metadata = metadata(event.getPersister());
+        int[] dirty = event.getDirtyProperties();
+        if (metadata == null || dirty == null) return;
+
+        Object[] oldState = event.getOldState();
+        Map<String, Object> oldData = new LinkedHashMap<>();
+        Map<String, Object> newData = new LinkedHashMap<>();
+        String[] names = event.getPersister().getPropertyNames();
+        Type[] types = event.getPersister().getPropertyTypes();
+        PersistenceUnitUtil unitUtil = event.getSession().getFactory().getPersistenceUnitUtil();
+        for (int i : dirty) {
+            if (!metadata.isAudited(names[i], types[i])) continue;
+            if (oldState != null) {
+                oldData.put(names[i], metadata.toAuditValue(names[i], types[i], oldState[i], unitUtil));
+            }
+            newData.put(names[i], metadata.toAuditValue(names[i], types[i], event.getState()[i], unitUtil));
+        }
+        if (newData.isEmpty()) return;
+
+        logService.logEntityChange(metadata.name(), event.getId(), LogConstants.UPDATE_ACTION,
+                oldState != null ? oldData : null, newData);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        AuditMetadata metadata = metadata(event.getPersister());
+        if (metadata == null) return;
+
+        Map<String, Object> oldData = new LinkedHashMap<>();
+        Object[] deletedState = event.getDeletedState();
+        if (deletedState != null) {
+            String[] names = event.getPersister().getPropertyNames();
+            Type[] types = event.getPersister().getPropertyTypes();
+            PersistenceUnitUtil unitUtil = event.getSession().getFactory().getPersistenceUnitUtil();
+            for (int i = 0; i < names.length; i++) {
+                if (metadata.isAudited(names[i], types[i]) && deletedState[i] != null) {
+                    oldData.put(names[i], metadata.toAuditValue(names[i], types[i], deletedState[i], unitUtil));
+                }
+            }
+        }
+        logService.logEntityChange(metadata.name(), event.getId(), LogConstants.DELETE_ACTION, oldData, null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    private AuditMetadata metadata(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        AuditMetadata metadata = metadataCache.computeIfAbsent(entityClass, AuditMetadata::of);
+        return metadata.enabled() ? metadata : null;
+    }
+
+    private record AuditMetadata(boolean enabled, String name, Set<String> excluded, Set<String> hashed) {
+        private static final AuditMetadata DISABLED = new AuditMetadata(false, null, Set.of(), Set.of());
+
+        static AuditMetadata of(Class<?> entityClass) {
+            AuditedEntity annotation = entityClass.getAnnotation(AuditedEntity.class);
+            if (annotation == null) {
+                return DISABLED;
+            }
+            String name = annotation.value().isEmpty() ? entityClass.getSimpleName() : annotation.value();
+            Set<String> excluded = Stream.concat(Arrays.stream(annotation.exclude()), IGNORED_PROPERTIES.stream())
+                    .collect(Collectors.toUnmodifiableSet());
+            return new AuditMetadata(true, name, excluded, Set.of(annotation.hashed()));
+        }
+
+        boolean isAudited(String property, Type type) {
+            return !type.isCollectionType() && !excluded.contains(property);
+        }
+
+        /**
+         * Associations are reduced to their identifier (read from the proxy when uninitialized), hashed
+         * text properties to their digest and length; everything else is left to the JSON serializer.
+         */
+        Object toAuditValue(String property, Type type, Object value, PersistenceUnitUtil unitUtil) {
+            if (value == null) return null;
+            if (type.isEntityType()) {
+                return unitUtil.getIdentifier(value);
+            }
+            if (hashed.contains(property)) {
+                String text = value.toString();
+                // Đủ để biết nội dung có đổi hay không mà không chép cả bài đọc vào mỗi dòng log
+                return Map.of("sha256", DigestUtils.sha256Hex(text), "length", text.length());
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.vinaacademy.platform.feature.log.service;
+
+import com.vinaacademy.platform.feature.common.utils.BoundedRingBuffer;
+import com.vinaacademy.platform.feature.log.config.AuditLogProperties;
+import com.vinaacademy.platform.feature.log.dto.LogEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffers audit events in a lock-free ring buffer and writes them in batches from a single
+ * flusher thread. When the buffer is full new events are dropped (and counted) instead of
+ * blocking the request thread. The buffer is drained on shutdown.
+ */
+@Slf4j
+@Component
+class AuditLogWriter implements SmartLifecycle {
+    private final InternalLogService internalLogService;
+    private final AuditLogProperties properties;
+    private final BoundedRingBuffer<LogEvent> buffer;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    AuditLogWriter(InternalLogService internalLogService, AuditLogProperties properties, MeterRegistry meterRegistry) {
+        this.internalLogService = internalLogService;
+        this.properties = properties;
+        this.buffer = new BoundedRingBuffer<>(properties.getBufferSize());
+
+        this.enqueuedCounter = meterRegistry.counter("audit.log.events", "result", "enqueued");
+        this.droppedCounter = meterRegistry.counter("audit.log.events", "result", "dropped");
+        this.flushedCounter = meterRegistry.counter("audit.log.events", "result", "flushed");
+        this.failedCounter = meterRegistry.counter("audit.log.events", "result", "failed");
+        Gauge.builder("audit.log.buffer.size", buffer, BoundedRingBuffer::size)
+                .description("Audit events waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} when the buffer is full and the event was dropped
+     */
+    boolean enqueue(LogEvent event) {
+        if (!running) {
+            // No flusher (startup or shutdown): write through so the event is not stranded in the buffer
+            writeThrough(event);
+            return true;
+        }
+        if (!buffer.offer(event)) {
+            droppedCounter.increment();
+            log.warn("Audit log buffer full ({}), dropping event {}:{}", buffer.capacity(), event.name(), event.action());
+            wakeUpFlusher();
+            return false;
+        }
+        enqueuedCounter.increment();
+        if (buffer.size() >= properties.getBatchSize()) {
+            wakeUpFlusher();
+        }
+        return true;
+    }
+
+    // Best-effort như đường ghi theo batch: lỗi ghi log audit không được làm hỏng request đang xử lý
+    private void writeThrough(LogEvent event) {
+        try {
+            internalLogService.saveAll(List.of(event));
+            flushedCounter.increment();
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Error when writing audit log {}:{}: {}", event.name(), event.action(), e.getMessage());
+        }
+    }
+
+    private void wakeUpFlusher() {
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void runFlushLoop() {
+        long intervalNanos = properties.getFlushInterval().toNanos();
+        while (running) {
+            if (flushBatch() < properties.getBatchSize()) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+        }
+        // Final drain after stop() was requested
+        while (flushBatch() > 0) {
+            // keep draining
+        }
+    }
+
+    private int flushBatch() {
+        List<LogEvent> batch = new ArrayList<>(Math.min(buffer.size(), properties.getBatchSize()));
+        int drained = buffer.drainTo(batch, properties.getBatchSize());
+        if (drained == 0) {
+            return 0;
+        }
+        try {
+            internalLogService.saveAll(batch);
+            flushedCounter.increment(drained);
+        } catch (Exception e) {
+            failedCounter.increment(drained);
+            log.error("Error when flushing {} audit logs: {}", drained, e.getMessage());
+        }
+        return drained;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runFlushLoop, "audit-log-flusher");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = flusher;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit log flusher did not finish within {}, {} events may be lost",
+                    properties.getShutdownTimeout(), buffer.size());
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server has drained in-flight requests; the DataSource is only closed
+     * once every lifecycle bean has stopped.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
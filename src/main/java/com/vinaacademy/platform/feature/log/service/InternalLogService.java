@@ -1,42 +1,53 @@
 package com.vinaacademy.platform.feature.log.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.vinaacademy.platform.feature.common.utils.JsonUtils;
 import com.vinaacademy.platform.feature.log.Log;
 import com.vinaacademy.platform.feature.log.LogRepository;
-import jakarta.servlet.http.HttpServletRequest;
+import com.vinaacademy.platform.feature.log.dto.LogEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 class InternalLogService {
     private final LogRepository logRepository;
-    private final ObjectMapper objectMapper;
 
-    private final HttpServletRequest httpServletRequest;
+    @PersistenceContext
+    private EntityManager entityManager;
 
+    /**
+     * Persist a batch of audit events in one transaction. The JDBC batch size is raised to the
+     * batch length so the inserts go out as a single batch (rewritten into multi-row INSERTs by
+     * the PostgreSQL driver when {@code reWriteBatchedInserts} is on).
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void saveLog(String name, String event, String username, String description, Object oldData, Object newData) {
-        String ipAddress = httpServletRequest.getRemoteAddr();
-        String userAgent = httpServletRequest.getHeader("User-Agent");
+    public void saveAll(List<LogEvent> events) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(events.size());
+        List<Log> logs = events.stream().map(InternalLogService::toEntity).toList();
+        logRepository.saveAll(logs);
+    }
 
-        try {
-            Log log = Log.builder()
-                    .name(name)
-                    .action(event)
-                    .oldData(JsonUtils.object2Json(objectMapper, oldData))
-                    .newData(JsonUtils.object2Json(objectMapper, newData))
-                    .ipAddress(ipAddress)
-                    .userAgent(userAgent)
-                    .build();
-            logRepository.save(log);
-        } catch (Exception e) {
-            log.error("Error when add log {}", e.getMessage());
-        }
+    private static Log toEntity(LogEvent event) {
+        Log log = Log.builder()
+                .name(event.name())
+                .entityId(event.entityId())
+                .action(event.action())
+                .description(event.description())
+                .oldData(event.oldData())
+                .newData(event.newData())
+                .ipAddress(event.ipAddress())
+                .userAgent(event.userAgent())
+                .build();
+        log.setCreatedBy(event.username());
+        log.setLastModifiedBy(event.username());
+        return log;
     }
-}
\ No newline at end of file
+}
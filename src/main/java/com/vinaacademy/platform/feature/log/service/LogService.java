@@ -1,10 +1,23 @@
 package com.vinaacademy.platform.feature.log.service;
 
+import com.vinaacademy.platform.feature.log.dto.LogDto;
+import com.vinaacademy.platform.feature.log.dto.LogSearchRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+
 public interface LogService {
     void log(String name, String event, Object oldData, Object newData);
 
     void log(String name, String event, String description, Object oldData, Object newData);
 
-//    Page<LogDto> search(SearchRequest request);
+    /**
+     * Record a field-level change of an audited entity; only the changed fields are passed.
+     */
+    void logEntityChange(String entity, Object entityId, String event,
+                         Map<String, Object> oldData, Map<String, Object> newData);
+
+    Page<LogDto> search(LogSearchRequest request, Pageable pageable);
 
 }
@@ -2,60 +2,112 @@ package com.vinaacademy.platform.feature.log.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.vinaacademy.platform.feature.common.utils.CommonUtils;
+import com.vinaacademy.platform.feature.common.utils.JsonUtils;
+import com.vinaacademy.platform.feature.log.Log;
+import com.vinaacademy.platform.feature.log.LogMapper;
+import com.vinaacademy.platform.feature.log.LogRepository;
+import com.vinaacademy.platform.feature.log.LogSpecification;
 import com.vinaacademy.platform.feature.log.constant.LogConstants;
-import com.vinaacademy.platform.feature.user.auth.service.JwtService;
+import com.vinaacademy.platform.feature.log.dto.LogDto;
+import com.vinaacademy.platform.feature.log.dto.LogEvent;
+import com.vinaacademy.platform.feature.log.dto.LogSearchRequest;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Captures audit events on the calling thread (actor, client info, serialized payloads) and hands
+ * them to {@link AuditLogWriter}, which persists them in batches.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LogServiceImpl implements LogService {
-    private final InternalLogService internalLogService;
+    private final AuditLogWriter auditLogWriter;
     private final ObjectMapper objectMapper;
-    private final HttpServletRequest request;
-    private final JwtService jwtService;
+    private final AuditorAware<String> auditorProvider;
+    private final LogRepository logRepository;
 
     @Value("${app.enableLog:true}")
     private boolean isLogEnabled;
 
     @Override
     public void log(String name, String event, Object oldData, Object newData) {
-        doLog(name, event, null, oldData, newData);
+        doLog(name, null, event, null, oldData, newData);
     }
 
-    @Async("logTaskExecutor")
     @Override
     public void log(String name, String event, String description, Object oldData, Object newData) {
-        doLog(name, event, description, oldData, newData);
+        doLog(name, null, event, description, oldData, newData);
     }
 
-    protected void doLog(String name, String event, String description, Object oldData, Object newData) {
+    @Override
+    public void logEntityChange(String entity, Object entityId, String event,
+                                Map<String, Object> oldData, Map<String, Object> newData) {
+        doLog(entity, entityId != null ? entityId.toString() : null, event, null, oldData, newData);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LogDto> search(LogSearchRequest request, Pageable pageable) {
+        Specification<Log> spec = Specification.where(LogSpecification.hasName(request.getName()))
+                .and(LogSpecification.hasEntityId(request.getEntityId()))
+                .and(LogSpecification.hasAction(request.getAction()))
+                .and(LogSpecification.hasUsername(request.getUsername()))
+                .and(LogSpecification.createdBetween(request.getFrom(), request.getTo()));
+        return logRepository.findAll(spec, pageable).map(LogMapper.INSTANCE::toDto);
+    }
+
+    protected void doLog(String name, String entityId, String event, String description, Object oldData, Object newData) {
         if (!isLogEnabled) {
             return;
         }
-        String username = getUsername(event, newData);
-        internalLogService.saveLog(name, event, username, description, oldData, newData);
+        HttpServletRequest request = currentRequest();
+        auditLogWriter.enqueue(new LogEvent(
+                name,
+                entityId,
+                event,
+                description,
+                getUsername(event, newData),
+                JsonUtils.object2Json(objectMapper, oldData),
+                JsonUtils.object2Json(objectMapper, newData),
+                request != null ? request.getRemoteAddr() : null,
+                request != null ? request.getHeader("User-Agent") : null
+        ));
     }
 
     private String getUsername(String event, Object newData) {
-        if (LogConstants.LOGIN_ACTION.equalsIgnoreCase(event)) {
+        if (LogConstants.LOGIN_ACTION.equalsIgnoreCase(event) && newData != null) {
             Map<String, String> map = Optional.ofNullable(objectMapper
                     .convertValue(newData, new TypeReference<Map<String, String>>() {
                     })).orElse(new HashMap<>());
             return map.get("username");
         }
-        return Optional.ofNullable(CommonUtils.getJwtFromRequest(request))
-                .map(jwtService::extractUsername)
-                .orElse(null);
+        return auditorProvider.getCurrentAuditor().orElse(null);
+    }
+
+    /**
+     * Observers and listeners may log from worker threads, where there is no bound request.
+     */
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest();
+        }
+        return null;
     }
 }
@@ -1,6 +1,7 @@
 package com.vinaacademy.platform.feature.notification;
 
 import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.notification.dto.NotificationBroadcastRequest;
 import com.vinaacademy.platform.feature.notification.dto.NotificationCreateDTO;
 import com.vinaacademy.platform.feature.notification.dto.NotificationDTO;
 import com.vinaacademy.platform.feature.notification.enums.NotificationType;
@@ -9,6 +10,7 @@ import com.vinaacademy.platform.feature.user.auth.annotation.HasAnyRole;
 import com.vinaacademy.platform.feature.user.constant.AuthConstants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -78,7 +80,14 @@ public class NotificationController {
         notificationService.deleteNotification(notificationId);
         log.debug("Mark delete notification {}", notificationId);
     }
-    
-    
-    
-}
\ No newline at end of file
+
+    @HasAnyRole({AuthConstants.INSTRUCTOR_ROLE, AuthConstants.ADMIN_ROLE, AuthConstants.STAFF_ROLE})
+    @Operation(summary = "Gửi thông báo khóa học", description = "Gửi thông báo tới tất cả học viên của khóa học")
+    @PostMapping("/courses/{courseId}/broadcast")
+    public ApiResponse<Integer> broadcastToCourse(@PathVariable UUID courseId,
+                                                  @RequestBody @Valid NotificationBroadcastRequest request) {
+        log.debug("Broadcast notification to students of course {}", courseId);
+        return ApiResponse.success(notificationService.broadcastToCourse(courseId, request));
+    }
+
+}
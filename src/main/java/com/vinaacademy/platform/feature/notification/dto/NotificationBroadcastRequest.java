@@ -0,0 +1,28 @@
+package com.vinaacademy.platform.feature.notification.dto;
+
+import com.vinaacademy.platform.feature.notification.enums.NotificationType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationBroadcastRequest {
+    @NotBlank(message = "Tiêu đề không được để trống")
+    @Size(max = 255, message = "Tiêu đề không được vượt quá 255 ký tự")
+    private String title;
+
+    @NotBlank(message = "Nội dung không được để trống")
+    @Size(max = 255, message = "Nội dung không được vượt quá 255 ký tự")
+    private String content;
+
+    private String targetUrl;
+
+    @Builder.Default
+    private NotificationType type = NotificationType.SYSTEM;
+}
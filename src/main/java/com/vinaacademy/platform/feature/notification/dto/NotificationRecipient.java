@@ -0,0 +1,12 @@
+package com.vinaacademy.platform.feature.notification.dto;
+
+import java.util.UUID;
+
+/**
+ * Minimal recipient projection used when fanning out one notification to many users.
+ */
+public interface NotificationRecipient {
+    UUID getUserId();
+
+    String getEmail();
+}
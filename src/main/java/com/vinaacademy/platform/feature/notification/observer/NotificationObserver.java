@@ -2,8 +2,25 @@ package com.vinaacademy.platform.feature.notification.observer;
 
 import com.vinaacademy.platform.feature.notification.dto.NotificationDTO;
 
+import java.util.List;
+import java.util.UUID;
+
 public interface NotificationObserver {
     void onNotificationCreated(NotificationDTO notification);
     void onNotificationRead(NotificationDTO notification);
     void onNotificationDeleted(NotificationDTO notification);
-}
\ No newline at end of file
+
+    /**
+     * Called once per inserted batch of a fan-out. Observers that can handle a batch
+     * more cheaply than row by row should override this.
+     */
+    default void onNotificationsCreated(List<NotificationDTO> notifications) {
+        notifications.forEach(this::onNotificationCreated);
+    }
+
+    /**
+     * Called after a set-based "mark all as read" for a user.
+     */
+    default void onAllNotificationsRead(UUID userId, int count) {
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Component
 @Slf4j
@@ -53,4 +54,32 @@ public class NotificationPublisher implements NotificationSubject {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    @Async("notificationExecutor")
+    public void notifyObservers(List<NotificationDTO> notifications, String action) {
+        if (!NotificationAction.CREATE.equals(action)) {
+            notifications.forEach(notification -> notifyObservers(notification, action));
+            return;
+        }
+        for (NotificationObserver observer : observers) {
+            try {
+                observer.onNotificationsCreated(notifications);
+            } catch (Exception e) {
+                log.error("Error notifying observer {}: {}", observer.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    @Async("notificationExecutor")
+    public void notifyAllRead(UUID userId, int count) {
+        for (NotificationObserver observer : observers) {
+            try {
+                observer.onAllNotificationsRead(userId, count);
+            } catch (Exception e) {
+                log.error("Error notifying observer {}: {}", observer.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.vinaacademy.platform.feature.notification.observer;
 
 import com.vinaacademy.platform.feature.notification.dto.NotificationDTO;
 
+import java.util.List;
+import java.util.UUID;
+
 public interface NotificationSubject {
     void addObserver(NotificationObserver observer);
     void removeObserver(NotificationObserver observer);
     void notifyObservers(NotificationDTO notification, String action);
-}
\ No newline at end of file
+    void notifyObservers(List<NotificationDTO> notifications, String action);
+    void notifyAllRead(UUID userId, int count);
+}
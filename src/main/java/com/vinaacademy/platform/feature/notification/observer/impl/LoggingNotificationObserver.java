@@ -7,6 +7,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
@@ -33,4 +37,19 @@ public class LoggingNotificationObserver implements NotificationObserver {
         logService.log("Notification", "DELETE",
                 "Notification deleted", null, notification);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void onNotificationsCreated(List<NotificationDTO> notifications) {
+        log.debug("Notification batch created: {} rows", notifications.size());
+        NotificationDTO first = notifications.get(0);
+        logService.log("Notification", "CREATE_BATCH", "Notification batch created", null,
+                Map.of("count", notifications.size(), "title", first.getTitle(), "type", first.getType()));
+    }
+
+    @Override
+    public void onAllNotificationsRead(UUID userId, int count) {
+        log.debug("All notifications read for user {}: {} rows", userId, count);
+        logService.log("Notification", "READ_ALL", "All notifications marked as read", null,
+                Map.of("userId", userId, "count", count));
+    }
+}
@@ -0,0 +1,66 @@
+package com.vinaacademy.platform.feature.notification.repository;
+
+import com.vinaacademy.platform.feature.notification.dto.NotificationDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC batch writer for notification fan-out. Bypasses the persistence context so that
+ * inserting thousands of rows does not build up managed entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO notifications " +
+            "(id, created_at, content, is_read, recipient, target_url, title, type, deleted, " +
+            "created_date, updated_date, created_by, updated_by) " +
+            "VALUES (?, ?, ?, false, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert one batch of notifications and commit it independently of the caller,
+     * so observers can be dispatched for rows that are already visible.
+     *
+     * @param notifications notifications with pre-generated ids
+     * @param recipients    recipient user id per notification, same order as {@code notifications}
+     * @param createdBy     auditor name written to {@code created_by}/{@code updated_by}
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void insertBatch(List<NotificationDTO> notifications, List<UUID> recipients, String createdBy) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                NotificationDTO notification = notifications.get(i);
+                Timestamp createdAt = Timestamp.valueOf(notification.getCreatedAt());
+                ps.setObject(1, notification.getId());
+                ps.setTimestamp(2, createdAt);
+                ps.setString(3, notification.getContent());
+                ps.setObject(4, recipients.get(i));
+                ps.setString(5, notification.getTargetUrl());
+                ps.setString(6, notification.getTitle());
+                ps.setString(7, notification.getType().name());
+                ps.setTimestamp(8, createdAt);
+                ps.setTimestamp(9, createdAt);
+                ps.setString(10, createdBy);
+                ps.setString(11, createdBy);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return notifications.size();
+            }
+        });
+    }
+}
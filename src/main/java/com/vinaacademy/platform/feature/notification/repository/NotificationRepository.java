@@ -1,5 +1,6 @@
 package com.vinaacademy.platform.feature.notification.repository;
 
+import com.vinaacademy.platform.feature.notification.dto.NotificationRecipient;
 import com.vinaacademy.platform.feature.notification.entity.Notification;
 import com.vinaacademy.platform.feature.notification.enums.NotificationType;
 import com.vinaacademy.platform.feature.user.entity.User;
@@ -8,9 +9,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,12 +32,16 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.user = :user AND n.isRead = false")
     int markUnreadAsRead(User user);
 
-    List<Notification> findByIsReadAndUser(boolean isRead, User user);
-
-    @Modifying
-    @Transactional
-    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE " +
-            "n.id IN :notifications AND n.isRead = false")
-    int markRead(List<Notification> notifications);
+    /**
+     * Keyset page over the enrolled students of a course, used by the bulk fan-out.
+     */
+    @Query("SELECT u.id AS userId, u.email AS email FROM Enrollment e JOIN e.user u " +
+            "WHERE e.course.id = :courseId AND u.id > :afterUserId ORDER BY u.id")
+    List<NotificationRecipient> findCourseRecipients(@Param("courseId") UUID courseId,
+                                                     @Param("afterUserId") UUID afterUserId,
+                                                     Pageable pageable);
+
+    @Query("SELECT u.id AS userId, u.email AS email FROM User u WHERE u.id IN :userIds")
+    List<NotificationRecipient> findRecipientsByUserIds(@Param("userIds") Collection<UUID> userIds);
 
 }
\ No newline at end of file
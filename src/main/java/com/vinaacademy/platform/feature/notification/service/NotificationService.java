@@ -1,11 +1,13 @@
 package com.vinaacademy.platform.feature.notification.service;
 
+import com.vinaacademy.platform.feature.notification.dto.NotificationBroadcastRequest;
 import com.vinaacademy.platform.feature.notification.dto.NotificationCreateDTO;
 import com.vinaacademy.platform.feature.notification.dto.NotificationDTO;
 import com.vinaacademy.platform.feature.notification.enums.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface NotificationService {
@@ -14,4 +16,18 @@ public interface NotificationService {
     void markAsRead(UUID notificationId);
     void deleteNotification(UUID notificationId);
     void markReadAll();
+
+    /**
+     * Fan out one notification to every student enrolled in a course.
+     *
+     * @return number of notifications created
+     */
+    int broadcastToCourse(UUID courseId, NotificationBroadcastRequest request);
+
+    /**
+     * Fan out one notification to the given users.
+     *
+     * @return number of notifications created
+     */
+    int createNotifications(Collection<UUID> userIds, NotificationBroadcastRequest request);
 }
\ No newline at end of file
@@ -2,21 +2,28 @@ package com.vinaacademy.platform.feature.notification.service.impl;
 
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.UnauthorizedException;
+import com.vinaacademy.platform.feature.notification.dto.NotificationBroadcastRequest;
 import com.vinaacademy.platform.feature.notification.dto.NotificationCreateDTO;
 import com.vinaacademy.platform.feature.notification.dto.NotificationDTO;
+import com.vinaacademy.platform.feature.notification.dto.NotificationRecipient;
 import com.vinaacademy.platform.feature.notification.entity.Notification;
 import com.vinaacademy.platform.feature.notification.enums.NotificationType;
 import com.vinaacademy.platform.feature.notification.mapper.NotificationMapper;
 import com.vinaacademy.platform.feature.notification.observer.NotificationAction;
 import com.vinaacademy.platform.feature.notification.observer.NotificationPublisher;
 import com.vinaacademy.platform.feature.notification.observer.NotificationSubject;
+import com.vinaacademy.platform.feature.notification.repository.NotificationBatchRepository;
 import com.vinaacademy.platform.feature.notification.repository.NotificationRepository;
 import com.vinaacademy.platform.feature.notification.service.NotificationService;
 import com.vinaacademy.platform.feature.user.UserRepository;
+import com.vinaacademy.platform.feature.user.auth.annotation.RequiresResourcePermission;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
+import com.vinaacademy.platform.feature.user.constant.ResourceConstants;
 import com.vinaacademy.platform.feature.user.entity.User;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -24,14 +31,21 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int FANOUT_BATCH_SIZE = 1000;
+    private static final UUID FANOUT_START_CURSOR = new UUID(0L, 0L);
+
     private final NotificationRepository notificationRepository;
+    private final NotificationBatchRepository notificationBatchRepository;
     private final UserRepository userRepository;
     private final SecurityHelper securityHelper;
 
@@ -114,18 +128,71 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public void markReadAll() {
         User user = findUser();
-        List<Notification> unreadNotis = notificationRepository.findByIsReadAndUser(false, user);
+        int updated = notificationRepository.markUnreadAsRead(user);
+
+        if (updated == 0) return;
+
+        notificationPublisher.notifyAllRead(user.getId(), updated);
+    }
 
-        if (unreadNotis.isEmpty()) return;
+    @Override
+    @RequiresResourcePermission(resourceType = ResourceConstants.COURSE, permission = ResourceConstants.EDIT)
+    public int broadcastToCourse(UUID courseId, NotificationBroadcastRequest request) {
+        String createdBy = findUser().getEmail();
+        Pageable batch = PageRequest.of(0, FANOUT_BATCH_SIZE);
+        UUID cursor = FANOUT_START_CURSOR;
+        int total = 0;
+
+        List<NotificationRecipient> recipients;
+        do {
+            recipients = notificationRepository.findCourseRecipients(courseId, cursor, batch);
+            if (recipients.isEmpty()) break;
+
+            total += fanOut(recipients, request, createdBy);
+            cursor = recipients.get(recipients.size() - 1).getUserId();
+        } while (recipients.size() == FANOUT_BATCH_SIZE);
+
+        log.info("Broadcast {} notifications to students of course {}", total, courseId);
+        return total;
+    }
 
-        notificationRepository.markRead(unreadNotis); // marks in DB in a transaction
+    @Override
+    public int createNotifications(Collection<UUID> userIds, NotificationBroadcastRequest request) {
+        List<UUID> ids = List.copyOf(userIds);
+        int total = 0;
+        for (int from = 0; from < ids.size(); from += FANOUT_BATCH_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + FANOUT_BATCH_SIZE, ids.size()));
+            total += fanOut(notificationRepository.findRecipientsByUserIds(chunk), request, null);
+        }
+        return total;
+    }
+
+    /**
+     * Insert one batch with a single JDBC batch statement and dispatch observers once for it.
+     */
+    private int fanOut(List<NotificationRecipient> recipients, NotificationBroadcastRequest request, String createdBy) {
+        if (recipients.isEmpty()) return 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationDTO> notifications = new ArrayList<>(recipients.size());
+        List<UUID> recipientIds = new ArrayList<>(recipients.size());
+        for (NotificationRecipient recipient : recipients) {
+            notifications.add(NotificationDTO.builder()
+                    .id(UUID.randomUUID())
+                    .title(request.getTitle())
+                    .content(request.getContent())
+                    .targetUrl(request.getTargetUrl())
+                    .type(request.getType())
+                    .isRead(false)
+                    .createdAt(now)
+                    .email(recipient.getEmail())
+                    .build());
+            recipientIds.add(recipient.getUserId());
+        }
 
-        unreadNotis.forEach(notification ->
-                notificationPublisher.notifyObservers(
-                        NotificationMapper.INSTANCE.toDTO(notification),
-                        NotificationAction.READ
-                )
-        );
+        notificationBatchRepository.insertBatch(notifications, recipientIds, createdBy);
+        notificationPublisher.notifyObservers(notifications, NotificationAction.CREATE);
+        return notifications.size();
     }
 
     public User findUser() {
@@ -0,0 +1,37 @@
+package com.vinaacademy.platform.feature.order_payment.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(OrderExpiryProperties.class)
+@ConfigurationProperties(prefix = "application.order-expiry")
+@Data
+@NoArgsConstructor
+public class OrderExpiryProperties {
+    /**
+     * Delay between two expiry sweeps, in milliseconds.
+     */
+    private long sweepIntervalMs = 120_000;
+    /**
+     * A pending payment older than this is cancelled.
+     */
+    private Duration paymentTtl = Duration.ofMinutes(15);
+    /**
+     * A pending order without payment, untouched for this long, is failed.
+     */
+    private Duration orderTtl = Duration.ofMinutes(90);
+    /**
+     * Max rows expired per transaction.
+     */
+    private int batchSize = 200;
+    /**
+     * Max batches per sweep, so one sweep cannot monopolize the scheduler thread.
+     */
+    private int maxBatchesPerRun = 50;
+}
@@ -0,0 +1,41 @@
+package com.vinaacademy.platform.feature.order_payment.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(PaymentOutboxProperties.class)
+@ConfigurationProperties(prefix = "application.payment-outbox")
+@Data
+@NoArgsConstructor
+public class PaymentOutboxProperties {
+    /**
+     * Delay between two polls of the outbox, in milliseconds.
+     */
+    private long pollIntervalMs = 5_000;
+    /**
+     * Max messages claimed per poll.
+     */
+    private int batchSize = 50;
+    /**
+     * How long a claimed message stays invisible to other nodes while it is being processed.
+     */
+    private Duration lease = Duration.ofMinutes(5);
+    /**
+     * Delay before the first retry, doubled after every failed attempt.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(30);
+    /**
+     * Upper bound of the retry delay.
+     */
+    private Duration maxBackoff = Duration.ofHours(1);
+    /**
+     * Attempts after which a message is marked DEAD and left for manual handling.
+     */
+    private int maxAttempts = 10;
+}
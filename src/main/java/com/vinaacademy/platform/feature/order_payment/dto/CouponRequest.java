@@ -23,4 +23,5 @@ public class CouponRequest {
     private BigDecimal minOrderValue;
     private LocalDateTime startedAt;
     private Long usageLimit;
+    private Long perUserLimit;
 } 
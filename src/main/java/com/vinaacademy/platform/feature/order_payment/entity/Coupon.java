@@ -54,6 +54,10 @@ public class Coupon extends BaseEntity {
     @Column(name = "used_count")
     private Long usedCount = 0L;
 
+    // Số lượt tối đa một học viên được dùng coupon này, null = không giới hạn
+    @Column(name = "per_user_limit")
+    private Long perUserLimit;
+
     @OneToMany(mappedBy = "coupon")
     private List<Cart> carts;
     // private Order orders;
@@ -0,0 +1,55 @@
+package com.vinaacademy.platform.feature.order_payment.entity;
+
+import com.vinaacademy.platform.feature.common.entity.BaseEntity;
+import com.vinaacademy.platform.feature.order_payment.enums.CouponRedemptionStatus;
+import com.vinaacademy.platform.feature.user.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.util.UUID;
+
+/**
+ * Một lượt dùng coupon của một đơn hàng. Lượt được giữ (RESERVED) khi tạo đơn, chuyển sang CONSUMED khi
+ * thanh toán thành công và RELEASED khi đơn thất bại; RESERVED và CONSUMED được tính vào giới hạn của coupon.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "coupon_redemptions", indexes = {
+        @Index(name = "idx_coupon_redemptions_order", columnList = "order_id"),
+        @Index(name = "idx_coupon_redemptions_coupon_user", columnList = "coupon_id, user_id, status")
+})
+public class CouponRedemption extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "coupon_id", nullable = false)
+    private Coupon coupon;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private CouponRedemptionStatus status;
+
+    @Override
+    public String toString() {
+        return "CouponRedemption{" +
+                "id=" + id +
+                ", status=" + status +
+                '}';
+    }
+}
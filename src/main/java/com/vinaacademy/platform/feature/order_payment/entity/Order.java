@@ -1,6 +1,7 @@
 package com.vinaacademy.platform.feature.order_payment.entity;
 
 import com.vinaacademy.platform.feature.common.entity.BaseEntity;
+import com.vinaacademy.platform.feature.log.annotation.AuditedEntity;
 import com.vinaacademy.platform.feature.order_payment.discount.DiscountStrategy;
 import com.vinaacademy.platform.feature.order_payment.discount.DiscountStrategyFactory;
 import com.vinaacademy.platform.feature.order_payment.enums.DiscountType;
@@ -22,6 +23,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
+@AuditedEntity
 @Entity
 @Table(name = "orders")
 public class Order extends BaseEntity {
@@ -74,11 +76,12 @@ public class Order extends BaseEntity {
             this.subTotal = orderItems.stream()
                 .map(OrderItem::getPrice)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
-        } else 
+        } else if (this.subTotal == null)
+            // Lúc checkout các item được ghi riêng bằng một câu INSERT, giữ subTotal đã tính sẵn
             this.subTotal = BigDecimal.ZERO;
         
         
-        if (coupon != null && Utils.isCouponValid(coupon)) {
+        if (coupon != null && Utils.isCouponInPeriod(coupon)) {
             if (coupon.getMinOrderValue() != null && this.subTotal.compareTo(coupon.getMinOrderValue()) < 0) {
                 this.discountAmount = BigDecimal.ZERO;
             } else {
@@ -0,0 +1,37 @@
+package com.vinaacademy.platform.feature.order_payment.entity;
+
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng cho mỗi vnp_TxnRef đã nhận callback hợp lệ. VNPay gửi lại IPN khi không nhận được phản hồi và
+ * trang return cũng gọi lại cùng giao dịch, nên chỉ lần nhận đầu tiên được xử lý, các lần sau trả về kết quả đã lưu.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "payment_callback_inbox")
+public class PaymentCallbackInbox {
+
+    @Id
+    @Column(name = "txn_ref", length = 100)
+    private String txnRef;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "result")
+    private PaymentStatus result;
+
+    @Column(name = "delivery_count", nullable = false)
+    private int deliveryCount;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
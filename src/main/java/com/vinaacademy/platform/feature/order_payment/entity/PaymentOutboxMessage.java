@@ -0,0 +1,54 @@
+package com.vinaacademy.platform.feature.order_payment.entity;
+
+import com.vinaacademy.platform.feature.order_payment.enums.OutboxStatus;
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentOutboxType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Việc cần làm sau khi thanh toán thành công (ghi danh, chia doanh thu), được ghi cùng transaction với
+ * callback và thực thi bất đồng bộ, có thử lại, bởi {@code PaymentOutboxRelay}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "payment_outbox", indexes = {
+        @Index(name = "idx_payment_outbox_due", columnList = "status, next_attempt_at")
+})
+public class PaymentOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private UUID paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private PaymentOutboxType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,5 @@
+package com.vinaacademy.platform.feature.order_payment.enums;
+
+public enum OutboxStatus {
+    PENDING, DONE, DEAD
+}
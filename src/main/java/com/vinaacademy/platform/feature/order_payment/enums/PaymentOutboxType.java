@@ -0,0 +1,5 @@
+package com.vinaacademy.platform.feature.order_payment.enums;
+
+public enum PaymentOutboxType {
+    ENROLL_COURSES, DISTRIBUTE_REVENUE
+}
@@ -0,0 +1,30 @@
+package com.vinaacademy.platform.feature.order_payment.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Domain event published, inside the expiring transaction, for each pending order that was failed
+ * because it was never paid. Listeners release whatever the order was holding.
+ */
+@Data
+@Builder
+public class OrderExpiredEvent {
+
+    /**
+     * The ID of the expired order
+     */
+    private final UUID orderId;
+
+    /**
+     * The ID of the user who placed the order
+     */
+    private final UUID userId;
+
+    /**
+     * The coupon applied to the order, null if none
+     */
+    private final UUID couponId;
+}
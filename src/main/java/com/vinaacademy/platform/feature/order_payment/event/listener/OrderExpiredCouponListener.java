@@ -0,0 +1,24 @@
+package com.vinaacademy.platform.feature.order_payment.event.listener;
+
+import com.vinaacademy.platform.feature.order_payment.event.OrderExpiredEvent;
+import com.vinaacademy.platform.feature.order_payment.service.CouponRedemptionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives the coupon usage held by an expired order back, in the same transaction that failed the order.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderExpiredCouponListener {
+
+    private final CouponRedemptionService couponRedemptionService;
+
+    @EventListener
+    public void handleOrderExpired(OrderExpiredEvent event) {
+        if (event.getCouponId() != null) {
+            couponRedemptionService.release(event.getOrderId());
+        }
+    }
+}
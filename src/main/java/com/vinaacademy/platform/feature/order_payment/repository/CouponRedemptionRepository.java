@@ -0,0 +1,46 @@
+package com.vinaacademy.platform.feature.order_payment.repository;
+
+import com.vinaacademy.platform.feature.order_payment.entity.CouponRedemption;
+import com.vinaacademy.platform.feature.order_payment.enums.CouponRedemptionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, UUID> {
+
+    long countByCoupon_IdAndUser_IdAndStatusIn(UUID couponId, UUID userId,
+                                               Collection<CouponRedemptionStatus> statuses);
+
+    @Modifying
+    @Query("""
+        UPDATE CouponRedemption r
+        SET r.status = :to
+        WHERE r.order.id = :orderId
+          AND r.status = :from
+    """)
+    int transitionByOrderId(@Param("orderId") UUID orderId,
+                            @Param("from") CouponRedemptionStatus from,
+                            @Param("to") CouponRedemptionStatus to);
+
+    // Trả lượt giữ chỗ của một đơn và giảm used_count của coupon trong cùng một câu lệnh
+    @Modifying
+    @Query(value = """
+        WITH released AS (
+            UPDATE coupon_redemptions r
+            SET status = 'RELEASED', updated_date = now()
+            WHERE r.order_id = :orderId AND r.status = 'RESERVED'
+            RETURNING r.coupon_id
+        )
+        UPDATE coupons c
+        SET used_count = GREATEST(c.used_count - 1, 0)
+        FROM released x
+        WHERE c.id = x.coupon_id
+    """, nativeQuery = true)
+    int releaseByOrderId(@Param("orderId") UUID orderId);
+}
@@ -2,6 +2,7 @@ package com.vinaacademy.platform.feature.order_payment.repository;
 
 import com.vinaacademy.platform.feature.order_payment.entity.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -42,4 +43,14 @@ public interface CouponRepository extends JpaRepository<Coupon, UUID> {
            "AND c.expiredAt > :currentDateTime " +
            "AND (c.usageLimit IS NULL OR c.usedCount < c.usageLimit)")
     boolean isCouponValid(@Param("id") UUID id, @Param("currentDateTime") LocalDateTime currentDateTime);
-}
\ No newline at end of file
+
+    // Giữ một lượt dùng: chỉ tăng khi coupon còn hạn và còn lượt, trả về 0 nếu đã hết.
+    // Câu UPDATE khóa dòng coupon tới cuối transaction nên các lượt giữ cùng coupon được tuần tự hóa.
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + 1 " +
+           "WHERE c.id = :id " +
+           "AND (c.startedAt IS NULL OR c.startedAt <= :currentDateTime) " +
+           "AND (c.expiredAt IS NULL OR c.expiredAt > :currentDateTime) " +
+           "AND (c.usageLimit IS NULL OR c.usedCount < c.usageLimit)")
+    int reserveUsage(@Param("id") UUID id, @Param("currentDateTime") LocalDateTime currentDateTime);
+}
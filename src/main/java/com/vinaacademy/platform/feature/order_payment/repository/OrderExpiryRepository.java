@@ -0,0 +1,146 @@
+package com.vinaacademy.platform.feature.order_payment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expires pending payments and orders in bounded batches. Rows are claimed with
+ * {@code FOR UPDATE SKIP LOCKED} so a sweep never waits on (or double-processes) rows held by a checkout,
+ * a payment callback or another sweeper, and every batch walks the partial pending indexes only.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderExpiryRepository {
+
+    /**
+     * An order failed by {@link #failExpiredOrders(LocalDateTime, int)}.
+     */
+    public record ExpiredOrder(UUID orderId, UUID userId, UUID couponId) {
+    }
+
+    /**
+     * Result of {@link #cancelExpiredPayments(LocalDateTime, int)}: how many payments were cancelled, and the
+     * orders failed along with them.
+     */
+    public record CancelledPayments(int cancelled, List<ExpiredOrder> failedOrders) {
+    }
+
+    // Khóa advisory cố định cho job quét đơn hết hạn, chỉ một node chạy tại một thời điểm
+    private static final long SWEEP_LOCK_KEY = 0x4F52444552455850L; // "ORDEREXP"
+
+    // Chỉ đánh index các dòng còn PENDING nên index nhỏ và luôn nằm trong bộ nhớ
+    private static final List<String> INDEX_DDL = List.of(
+            """
+            CREATE INDEX IF NOT EXISTS idx_orders_pending_expiry
+            ON orders (status, updated_date)
+            WHERE status = 'PENDING' AND payment_id IS NULL
+            """,
+            """
+            CREATE INDEX IF NOT EXISTS idx_payments_pending_expiry
+            ON payments (payment_status, created_at)
+            WHERE payment_status = 'PENDING'
+            """);
+
+    // Hủy payment quá hạn và làm FAILED đơn của nó trong cùng câu lệnh; mỗi payment bị hủy trả về một dòng,
+    // order_failed = false khi đơn không còn PENDING (đã được xử lý ở nơi khác)
+    private static final String CANCEL_PAYMENTS_SQL = """
+            WITH expired AS (
+                SELECT p.id FROM payments p
+                JOIN orders o ON o.id = p.order_id
+                WHERE p.payment_status = 'PENDING' AND p.created_at <= ?
+                ORDER BY p.created_at
+                LIMIT ?
+                FOR UPDATE OF p, o SKIP LOCKED
+            ), cancelled AS (
+                UPDATE payments p
+                SET payment_status = 'CANCELLED', updated_date = ?
+                FROM expired e
+                WHERE p.id = e.id
+                RETURNING p.order_id
+            ), failed AS (
+                UPDATE orders o
+                SET status = 'FAILED', updated_date = ?
+                FROM cancelled c
+                WHERE o.id = c.order_id AND o.status = 'PENDING'
+                RETURNING o.id, o.user_id, o.coupon_id
+            )
+            SELECT c.order_id AS id, f.user_id, f.coupon_id, f.id IS NOT NULL AS order_failed
+            FROM cancelled c
+            LEFT JOIN failed f ON f.id = c.order_id
+            """;
+
+    private static final String FAIL_ORDERS_SQL = """
+            WITH expired AS (
+                SELECT id FROM orders
+                WHERE status = 'PENDING' AND payment_id IS NULL AND updated_date <= ?
+                ORDER BY updated_date
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE orders o
+            SET status = 'FAILED', updated_date = ?
+            FROM expired e
+            WHERE o.id = e.id
+            RETURNING o.id, o.user_id, o.coupon_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void createIndexes() {
+        INDEX_DDL.forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * Try to become the sweeper for the current transaction; the lock is released on commit/rollback.
+     *
+     * @return false when another node is sweeping
+     */
+    public boolean tryLockSweep() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                SWEEP_LOCK_KEY);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    /**
+     * Cancel up to {@code limit} pending payments created at or before {@code cutoff}, and fail their orders
+     * when still pending: an order with a cancelled payment can never be paid.
+     */
+    public CancelledPayments cancelExpiredPayments(LocalDateTime cutoff, int limit) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<ExpiredOrder> failedOrders = new ArrayList<>();
+        int[] cancelled = {0};
+        jdbcTemplate.query(CANCEL_PAYMENTS_SQL, rs -> {
+            cancelled[0]++;
+            if (rs.getBoolean("order_failed")) {
+                failedOrders.add(new ExpiredOrder(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getObject("coupon_id", UUID.class)));
+            }
+        }, Timestamp.valueOf(cutoff), limit, now, now);
+        return new CancelledPayments(cancelled[0], failedOrders);
+    }
+
+    /**
+     * Fail up to {@code limit} unpaid pending orders last updated at or before {@code cutoff}.
+     */
+    public List<ExpiredOrder> failExpiredOrders(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(FAIL_ORDERS_SQL,
+                (rs, rowNum) -> new ExpiredOrder(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getObject("coupon_id", UUID.class)),
+                Timestamp.valueOf(cutoff), limit, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.vinaacademy.platform.feature.order_payment.repository;
+
+import com.vinaacademy.platform.feature.order_payment.entity.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Inserts the items of a new order in one statement. {@code order_items} uses an identity key, which
+ * Hibernate cannot batch, so cascading from {@code Order} would cost one round trip per item.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderItemBatchRepository {
+
+    private static final String INSERT_SQL_TEMPLATE = """
+            INSERT INTO order_items (order_id, course_id, price)
+            VALUES %s
+            RETURNING id, course_id
+            """;
+    private static final String VALUES_ROW = "(CAST(? AS uuid), CAST(? AS uuid), ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the items of an already persisted order and assign their generated ids.
+     * Items must reference the order and be unique per course.
+     */
+    @Transactional
+    public void insertAll(UUID orderId, List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        String sql = INSERT_SQL_TEMPLATE.formatted(String.join(",", Collections.nCopies(items.size(), VALUES_ROW)));
+
+        List<Object> args = new ArrayList<>(items.size() * 3);
+        for (OrderItem item : items) {
+            args.add(orderId);
+            args.add(item.getCourse().getId());
+            args.add(item.getPrice());
+        }
+        Map<UUID, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            ids.put(rs.getObject("course_id", UUID.class), rs.getLong("id"));
+        }, args.toArray());
+        items.forEach(item -> item.setId(ids.get(item.getCourse().getId())));
+    }
+}
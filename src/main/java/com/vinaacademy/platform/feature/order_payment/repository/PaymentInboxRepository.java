@@ -0,0 +1,56 @@
+package com.vinaacademy.platform.feature.order_payment.repository;
+
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Deduplicates VNPay callbacks on {@code vnp_TxnRef}. The first delivery inserts the inbox row and keeps it
+ * locked until its transaction commits, so a concurrent duplicate waits and then sees the stored result.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class PaymentInboxRepository {
+
+    /**
+     * Outcome of {@link #claim(String)}: {@code first} is true for the delivery that must be processed,
+     * otherwise {@code result} holds what the first delivery returned.
+     */
+    public record Claim(boolean first, PaymentStatus result) {
+    }
+
+    // xmax = 0 chỉ đúng với dòng vừa được INSERT, dòng đi qua nhánh DO UPDATE có xmax khác 0
+    private static final String CLAIM_SQL = """
+            INSERT INTO payment_callback_inbox (txn_ref, delivery_count, received_at)
+            VALUES (?, 1, ?)
+            ON CONFLICT (txn_ref) DO UPDATE
+            SET delivery_count = payment_callback_inbox.delivery_count + 1
+            RETURNING (xmax = 0) AS inserted, result
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE payment_callback_inbox
+            SET result = ?, processed_at = ?
+            WHERE txn_ref = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Claim claim(String txnRef) {
+        return jdbcTemplate.queryForObject(CLAIM_SQL, (rs, rowNum) -> {
+            String result = rs.getString("result");
+            return new Claim(rs.getBoolean("inserted"), result != null ? PaymentStatus.valueOf(result) : null);
+        }, txnRef, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public void complete(String txnRef, PaymentStatus result) {
+        jdbcTemplate.update(COMPLETE_SQL, result.name(), Timestamp.valueOf(LocalDateTime.now()), txnRef);
+    }
+}
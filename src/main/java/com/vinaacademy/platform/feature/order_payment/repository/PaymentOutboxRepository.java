@@ -0,0 +1,107 @@
+package com.vinaacademy.platform.feature.order_payment.repository;
+
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentOutboxType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox of the work that follows a successful payment. Messages are written in the callback
+ * transaction and claimed by the relay with {@code FOR UPDATE SKIP LOCKED}; a claim pushes
+ * {@code next_attempt_at} forward by a lease so other nodes leave the message alone while it runs.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class PaymentOutboxRepository {
+
+    /**
+     * A claimed message; {@code attempts} counts the attempts made before this one.
+     */
+    public record OutboxMessage(long id, UUID paymentId, PaymentOutboxType type, int attempts) {
+    }
+
+    private static final String ENQUEUE_SQL_TEMPLATE = """
+            INSERT INTO payment_outbox (payment_id, type, status, attempts, next_attempt_at, created_at)
+            VALUES %s
+            """;
+    private static final String VALUES_ROW = "(CAST(? AS uuid), ?, 'PENDING', 0, ?, ?)";
+
+    private static final String CLAIM_SQL = """
+            WITH due AS (
+                SELECT id FROM payment_outbox
+                WHERE status = 'PENDING' AND next_attempt_at <= ?
+                ORDER BY next_attempt_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE payment_outbox o
+            SET next_attempt_at = ?
+            FROM due
+            WHERE o.id = due.id
+            RETURNING o.id, o.payment_id, o.type, o.attempts
+            """;
+
+    private static final String MARK_DONE_SQL = """
+            UPDATE payment_outbox
+            SET status = 'DONE', attempts = attempts + 1, processed_at = ?, last_error = NULL
+            WHERE id = ?
+            """;
+
+    private static final String MARK_FAILED_SQL = """
+            UPDATE payment_outbox
+            SET status = ?, attempts = attempts + 1, next_attempt_at = ?, last_error = ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void enqueue(UUID paymentId, Collection<PaymentOutboxType> types) {
+        if (types.isEmpty()) {
+            return;
+        }
+        String sql = ENQUEUE_SQL_TEMPLATE.formatted(String.join(",", Collections.nCopies(types.size(), VALUES_ROW)));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object> args = new ArrayList<>(types.size() * 4);
+        for (PaymentOutboxType type : types) {
+            args.add(paymentId);
+            args.add(type.name());
+            args.add(now);
+            args.add(now);
+        }
+        jdbcTemplate.update(sql, args.toArray());
+    }
+
+    public List<OutboxMessage> claimDue(int limit, LocalDateTime leaseUntil) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getObject("payment_id", UUID.class),
+                        PaymentOutboxType.valueOf(rs.getString("type")),
+                        rs.getInt("attempts")),
+                Timestamp.valueOf(LocalDateTime.now()), limit, Timestamp.valueOf(leaseUntil));
+    }
+
+    public void markDone(long id) {
+        jdbcTemplate.update(MARK_DONE_SQL, Timestamp.valueOf(LocalDateTime.now()), id);
+    }
+
+    /**
+     * Record a failed attempt; a {@code dead} message is never picked up again.
+     */
+    public void markFailed(long id, LocalDateTime nextAttemptAt, String error, boolean dead) {
+        jdbcTemplate.update(MARK_FAILED_SQL, dead ? "DEAD" : "PENDING", Timestamp.valueOf(nextAttemptAt),
+                error, id);
+    }
+}
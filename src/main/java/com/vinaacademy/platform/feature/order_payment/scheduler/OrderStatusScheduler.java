@@ -2,47 +2,89 @@ package com.vinaacademy.platform.feature.order_payment.scheduler;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.vinaacademy.platform.feature.order_payment.entity.Order;
-import com.vinaacademy.platform.feature.order_payment.entity.Payment;
-import com.vinaacademy.platform.feature.order_payment.enums.OrderStatus;
-import com.vinaacademy.platform.feature.order_payment.enums.PaymentStatus;
-import com.vinaacademy.platform.feature.order_payment.repository.OrderRepository;
-import com.vinaacademy.platform.feature.order_payment.repository.PaymentRepository;
+import com.vinaacademy.platform.feature.order_payment.config.OrderExpiryProperties;
+import com.vinaacademy.platform.feature.order_payment.event.OrderExpiredEvent;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository.CancelledPayments;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository.ExpiredOrder;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Hủy payment/đơn hàng PENDING quá hạn theo từng lô nhỏ, mỗi lô một transaction. Mỗi lô giữ advisory lock
+ * của job nên khi chạy nhiều node thì chỉ một node quét, các node khác bỏ qua lượt đó.
+ */
 @Component
 @EnableScheduling
 @RequiredArgsConstructor
 @Slf4j
 public class OrderStatusScheduler {
 
-    private final PaymentRepository paymentRepository;
-    private final OrderRepository orderRepository;
+    private final OrderExpiryRepository orderExpiryRepository;
+    private final OrderExpiryProperties orderExpiryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Scheduled(fixedRate = 120000) // mỗi 2p
-    @Transactional
+    private record SweepResult(int cancelled, int failed, boolean full) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        orderExpiryRepository.createIndexes();
+    }
+
+    @Scheduled(fixedDelayString = "${application.order-expiry.sweep-interval-ms:120000}") // mặc định mỗi 2p
     public void checkPendingOrders() {
-    	LocalDateTime cutoffPayment = LocalDateTime.now().minusMinutes(15); //15p truoc
-        LocalDateTime cutoffOrder   = LocalDateTime.now().minusMinutes(90); //90p truoc
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoffPayment = now.minus(orderExpiryProperties.getPaymentTtl());
+        LocalDateTime cutoffOrder = now.minus(orderExpiryProperties.getOrderTtl());
+        int batchSize = orderExpiryProperties.getBatchSize();
 
-        int cancelled = paymentRepository.cancelExpiredPendingPayments(
-                PaymentStatus.CANCELLED,
-                PaymentStatus.PENDING,
-                cutoffPayment); 
+        int cancelled = 0;
+        int failed = 0;
+        for (int batch = 0; batch < orderExpiryProperties.getMaxBatchesPerRun(); batch++) {
+            SweepResult result = transactionTemplate.execute(status -> sweepBatch(cutoffPayment, cutoffOrder, batchSize));
+            if (result == null) {
+                log.debug("Order expiry sweep skipped, another node holds the lock");
+                break;
+            }
+            cancelled += result.cancelled();
+            failed += result.failed();
+            if (!result.full()) {
+                break;
+            }
+        }
 
-        int failed = orderRepository.failOldUnpaidOrders(
-                OrderStatus.FAILED,
-                OrderStatus.PENDING,
-                cutoffOrder);
+        if (cancelled > 0 || failed > 0) {
+            log.info("Scheduler: {} payments cancelled, {} orders failed", cancelled, failed);
+        }
+    }
 
-        log.info("Scheduler: {} payments cancelled, {} orders failed", cancelled, failed);
+    private SweepResult sweepBatch(LocalDateTime cutoffPayment, LocalDateTime cutoffOrder, int batchSize) {
+        if (!orderExpiryRepository.tryLockSweep()) {
+            return null;
+        }
+        CancelledPayments cancelled = orderExpiryRepository.cancelExpiredPayments(cutoffPayment, batchSize);
+        List<ExpiredOrder> unpaid = orderExpiryRepository.failExpiredOrders(cutoffOrder, batchSize);
+        // Listener chạy trong cùng transaction nên đơn chỉ FAILED khi mọi thứ nó giữ đã được trả lại
+        Stream.concat(cancelled.failedOrders().stream(), unpaid.stream())
+                .forEach(order -> eventPublisher.publishEvent(OrderExpiredEvent.builder()
+                        .orderId(order.orderId())
+                        .userId(order.userId())
+                        .couponId(order.couponId())
+                        .build()));
+        return new SweepResult(cancelled.cancelled(), cancelled.failedOrders().size() + unpaid.size(),
+                cancelled.cancelled() >= batchSize || unpaid.size() >= batchSize);
     }
 }
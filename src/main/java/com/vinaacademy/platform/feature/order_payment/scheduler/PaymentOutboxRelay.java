@@ -0,0 +1,82 @@
+package com.vinaacademy.platform.feature.order_payment.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.vinaacademy.platform.feature.order_payment.config.PaymentOutboxProperties;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentOutboxRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentOutboxRepository.OutboxMessage;
+import com.vinaacademy.platform.feature.order_payment.service.PaymentOutboxProcessor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chạy các việc sau thanh toán đã ghi vào payment outbox. Mỗi message chạy trong transaction riêng cùng với
+ * việc đánh dấu DONE; khi lỗi thì thử lại với thời gian chờ tăng gấp đôi, quá số lần cho phép thì chuyển DEAD.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final PaymentOutboxProcessor paymentOutboxProcessor;
+    private final PaymentOutboxProperties paymentOutboxProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${application.payment-outbox.poll-interval-ms:5000}")
+    public void relay() {
+        LocalDateTime leaseUntil = LocalDateTime.now().plus(paymentOutboxProperties.getLease());
+        List<OutboxMessage> messages = transactionTemplate.execute(
+                status -> paymentOutboxRepository.claimDue(paymentOutboxProperties.getBatchSize(), leaseUntil));
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        int done = 0;
+        for (OutboxMessage message : messages) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    paymentOutboxProcessor.process(message);
+                    paymentOutboxRepository.markDone(message.id());
+                });
+                done++;
+            } catch (RuntimeException e) {
+                recordFailure(message, e);
+            }
+        }
+        log.debug("Payment outbox: {}/{} messages processed", done, messages.size());
+    }
+
+    private void recordFailure(OutboxMessage message, RuntimeException e) {
+        int attempt = message.attempts() + 1;
+        boolean dead = attempt >= paymentOutboxProperties.getMaxAttempts();
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempt));
+        String error = String.valueOf(e);
+        String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        transactionTemplate.executeWithoutResult(
+                status -> paymentOutboxRepository.markFailed(message.id(), nextAttemptAt, truncated, dead));
+        if (dead) {
+            log.error("Payment outbox message {} ({} of payment {}) gave up after {} attempts",
+                    message.id(), message.type(), message.paymentId(), attempt, e);
+        } else {
+            log.warn("Payment outbox message {} ({} of payment {}) failed, attempt {}, retry at {}",
+                    message.id(), message.type(), message.paymentId(), attempt, nextAttemptAt, e);
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        Duration delay = paymentOutboxProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempt - 1, 20));
+        Duration max = paymentOutboxProperties.getMaxBackoff();
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+}
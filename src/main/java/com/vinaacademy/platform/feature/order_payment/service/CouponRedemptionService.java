@@ -0,0 +1,24 @@
+package com.vinaacademy.platform.feature.order_payment.service;
+
+import java.util.UUID;
+
+import com.vinaacademy.platform.feature.order_payment.entity.Order;
+
+public interface CouponRedemptionService {
+
+	/**
+	 * Giữ một lượt dùng coupon của đơn hàng (nếu có), ném BadRequestException khi coupon đã hết lượt
+	 * hoặc học viên đã dùng hết số lượt cho phép. Phải chạy trong transaction của việc tạo đơn.
+	 */
+	void reserve(Order order);
+
+	/**
+	 * Trả lại lượt đang giữ của đơn hàng, bỏ qua nếu đơn không giữ lượt nào.
+	 */
+	void release(UUID orderId);
+
+	/**
+	 * Chốt lượt đang giữ khi đơn hàng đã thanh toán.
+	 */
+	void consume(UUID orderId);
+}
@@ -0,0 +1,82 @@
+package com.vinaacademy.platform.feature.order_payment.service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.order_payment.entity.Coupon;
+import com.vinaacademy.platform.feature.order_payment.entity.CouponRedemption;
+import com.vinaacademy.platform.feature.order_payment.entity.Order;
+import com.vinaacademy.platform.feature.order_payment.enums.CouponRedemptionStatus;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRedemptionRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Giữ/trả lượt dùng coupon bằng câu UPDATE có điều kiện trên {@code coupons.used_count}, nên không bao giờ
+ * vượt quá usage_limit dù nhiều đơn được tạo cùng lúc.
+ * <p>
+ * Giới hạn theo học viên được kiểm tra sau khi đã tăng used_count: lúc đó dòng coupon đang bị khóa bởi
+ * transaction hiện tại, nên các lượt giữ cùng coupon không thể đếm chồng lên nhau. Nếu vượt giới hạn thì
+ * exception làm rollback cả lượt vừa tăng.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CouponRedemptionServiceImpl implements CouponRedemptionService {
+
+	private static final Set<CouponRedemptionStatus> ACTIVE_STATUSES =
+			EnumSet.of(CouponRedemptionStatus.RESERVED, CouponRedemptionStatus.CONSUMED);
+
+	private final CouponRepository couponRepository;
+
+	private final CouponRedemptionRepository couponRedemptionRepository;
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void reserve(Order order) {
+		Coupon coupon = order.getCoupon();
+		if (coupon == null)
+			return;
+
+		if (couponRepository.reserveUsage(coupon.getId(), LocalDateTime.now()) == 0)
+			throw BadRequestException.message("Coupon đã hết lượt sử dụng hoặc hết hạn");
+
+		if (coupon.getPerUserLimit() != null) {
+			long used = couponRedemptionRepository.countByCoupon_IdAndUser_IdAndStatusIn(
+					coupon.getId(), order.getUser().getId(), ACTIVE_STATUSES);
+			if (used >= coupon.getPerUserLimit())
+				throw BadRequestException.message("Bạn đã dùng hết số lượt cho phép của coupon này");
+		}
+
+		couponRedemptionRepository.save(CouponRedemption.builder()
+				.coupon(coupon)
+				.user(order.getUser())
+				.order(order)
+				.status(CouponRedemptionStatus.RESERVED)
+				.build());
+		log.debug("Reserved coupon {} for order {}", coupon.getId(), order.getId());
+	}
+
+	@Override
+	@Transactional
+	public void release(UUID orderId) {
+		if (couponRedemptionRepository.releaseByOrderId(orderId) > 0)
+			log.debug("Released coupon reservation of order {}", orderId);
+	}
+
+	@Override
+	@Transactional
+	public void consume(UUID orderId) {
+		couponRedemptionRepository.transitionByOrderId(orderId,
+				CouponRedemptionStatus.RESERVED, CouponRedemptionStatus.CONSUMED);
+	}
+}
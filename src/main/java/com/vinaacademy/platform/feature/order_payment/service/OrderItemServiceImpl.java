@@ -50,7 +50,7 @@ public class OrderItemServiceImpl implements OrderItemService{
 				() -> BadRequestException.message("Không tìm thấy order id này"));
 		
 		User user = securityHelper.getCurrentUser();
-		if (user.getId() != order.getUser().getId())
+		if (!user.getId().equals(order.getUser().getId()))
 			throw BadRequestException.message("Bạn không phải người sở hữu order này");
 		
 		List<OrderItemDto> orderItemDtos = orderItemMapper.toOrderItemDtoList(order.getOrderItems());
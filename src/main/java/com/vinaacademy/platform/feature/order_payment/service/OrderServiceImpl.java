@@ -5,8 +5,8 @@ import com.vinaacademy.platform.feature.cart.entity.Cart;
 import com.vinaacademy.platform.feature.cart.entity.CartItem;
 import com.vinaacademy.platform.feature.cart.repository.CartItemRepository;
 import com.vinaacademy.platform.feature.cart.repository.CartRepository;
-import com.vinaacademy.platform.feature.cart.service.CartItemService;
 import com.vinaacademy.platform.feature.course.enums.CourseStatus;
+import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentRepository;
 import com.vinaacademy.platform.feature.order_payment.dto.OrderCouponRequest;
 import com.vinaacademy.platform.feature.order_payment.dto.OrderDto;
 import com.vinaacademy.platform.feature.order_payment.dto.OrderRequest;
@@ -18,6 +18,7 @@ import com.vinaacademy.platform.feature.order_payment.enums.OrderStatus;
 import com.vinaacademy.platform.feature.order_payment.mapper.OrderItemMapper;
 import com.vinaacademy.platform.feature.order_payment.mapper.OrderMapper;
 import com.vinaacademy.platform.feature.order_payment.repository.CouponRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderItemBatchRepository;
 import com.vinaacademy.platform.feature.order_payment.repository.OrderItemRepository;
 import com.vinaacademy.platform.feature.order_payment.repository.OrderRepository;
 import com.vinaacademy.platform.feature.order_payment.utils.Utils;
@@ -43,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.stream.Collector;
@@ -57,57 +59,78 @@ public class OrderServiceImpl implements OrderService {
 
 	private final OrderItemRepository orderItemRepository;
 
+	private final OrderItemBatchRepository orderItemBatchRepository;
+
+	private final EnrollmentRepository enrollmentRepository;
+
 	private final OrderRepository orderRepository;
 
 	private final CartRepository cartRepository;
 
 	private final CartItemRepository cartItemRepository;
 	
-	private final CartItemService cartItemService;
-
 	private final OrderItemMapper orderItemMapper;
 
 	private final OrderMapper orderMapper;
 
 	private final CouponRepository couponRepository;
 
+	private final CouponRedemptionService couponRedemptionService;
+
 	private final SecurityHelper securityHelper;
 	
 	private final Utils utils;
 
+	@Transactional
 	@Override
 	public OrderDto createOrder() {
 		User user = securityHelper.getCurrentUser();
 
 		Cart cart = cartRepository.findByUserId(user.getId())
 				.orElseThrow(() -> BadRequestException.message("Không tìm thấy Cart của user id này"));
-		List<CartItem> cartItems = cartItemRepository.findByCartId(cart.getId());
+		List<CartItem> cartItems = cartItemRepository.findWithCourseByCartId(cart.getId());
 		if (cartItems.size() == 0)
 			throw BadRequestException.message("Cart không có gì cả");
-		
+
+		Set<UUID> ownedCourseIds = enrollmentRepository.findEnrolledCourseIds(user.getId(),
+				cartItems.stream().map(cartItem -> cartItem.getCourse().getId()).toList());
+
 		Order order = Order.builder().status(OrderStatus.PENDING).coupon(cart.getCoupon()).payment(null)
 				.orderItems(new ArrayList<>()).user(user).build();
-		order = orderRepository.save(order);
-		List<OrderItem> orderItems = orderItemMapper.toOrderItemList(cartItems, order);
-		
-		orderItems = orderItems.stream()
-				.filter(orderItem -> orderItem.getCourse().getStatus() == CourseStatus.PUBLISHED).toList();
+		// Giá lấy theo khóa học hiện tại, không tin giá lưu trong cart
+		List<OrderItem> orderItems = cartItems.stream()
+				.filter(cartItem -> cartItem.getCourse().getStatus() == CourseStatus.PUBLISHED)
+				.filter(cartItem -> !ownedCourseIds.contains(cartItem.getCourse().getId()))
+				.map(cartItem -> {
+					if (cartItem.getPrice().compareTo(cartItem.getCourse().getPrice()) != 0)
+						log.debug("Cart item {} price {} differs from course price {}", cartItem.getId(),
+								cartItem.getPrice(), cartItem.getCourse().getPrice());
+					return OrderItem.builder().order(order).course(cartItem.getCourse())
+							.price(cartItem.getCourse().getPrice()).build();
+				})
+				.toList();
 		log.debug(orderItems.size() + " size order");
 		
 		if (orderItems.size() == 0)
 			throw BadRequestException.message("Không có order item nào cả");
 		orderItems.forEach(order::addOrderItem);
 		order.calculateAmounts();
-		order = orderRepository.save(order);
-
-//		xoa all item trong cart
-		
-		for (CartItem cartitem: cartItems) {
-			log.debug("Xóa "+cartitem.getId());
-			cartItemService.deleteCartItem(cartitem.getId());
+		// Coupon không áp dụng được (chưa đủ giá trị tối thiểu, hết hạn) thì không giữ lượt
+		if (order.getCoupon() != null && order.getDiscountAmount().signum() == 0) {
+			order.setCoupon(null);
+			order.calculateAmounts();
 		}
 
-		OrderDto orderDto = orderMapper.toOrderDto(order);
+		// Các item được ghi bằng một câu INSERT thay vì cascade từng dòng
+		order.setOrderItems(new ArrayList<>());
+		Order savedOrder = orderRepository.saveAndFlush(order);
+		orderItemBatchRepository.insertAll(savedOrder.getId(), orderItems);
+		couponRedemptionService.reserve(savedOrder);
+
+		int removed = cartItemRepository.deleteAllByCartId(cart.getId());
+		log.debug("Removed {} items from cart {}", removed, cart.getId());
+
+		OrderDto orderDto = orderMapper.toOrderDto(savedOrder);
 		orderDto.setOrderItemsDto(orderItemMapper.toOrderItemDtoList(orderItems));
 		return orderDto;
 
@@ -142,7 +165,7 @@ public class OrderServiceImpl implements OrderService {
 				.orElseThrow(() -> BadRequestException.message("Không tìm thấy order id này"));
 
 		User user = securityHelper.getCurrentUser();
-		if (order.getUser().getId() != user.getId())
+		if (!order.getUser().getId().equals(user.getId()))
 			throw BadRequestException.message("Bạn không phải người sở hữu order này");
 
 		OrderDto orderDto = orderMapper.toOrderDto(order);
@@ -168,9 +191,12 @@ public class OrderServiceImpl implements OrderService {
 				.orElseThrow(() -> BadRequestException.message("Không tìm thấy order id này"));
 		
 		User user = securityHelper.getCurrentUser();
-		if (order.getUser().getId() != user.getId())
+		if (!order.getUser().getId().equals(user.getId()))
 			throw BadRequestException.message("Bạn không phải người sở hữu order này");
+		if (order.getStatus() != OrderStatus.PENDING)
+			throw BadRequestException.message("Chỉ có thể đổi coupon của order đang chờ thanh toán");
 		
+		couponRedemptionService.release(order.getId());
 		order.setCoupon(null);
 		if (orderCouponRequest.getCouponId() != null) {
 			Coupon coupon = couponRepository.findById(orderCouponRequest.getCouponId())
@@ -182,6 +208,7 @@ public class OrderServiceImpl implements OrderService {
 		
 		order.calculateAmounts();
 		order = orderRepository.save(order);
+		couponRedemptionService.reserve(order);
 		OrderDto orderDto = orderMapper.toOrderDto(order);
 		orderDto.setOrderItemsDto(orderItemMapper.toOrderItemDtoList(order.getOrderItems()));
 		return orderDto;
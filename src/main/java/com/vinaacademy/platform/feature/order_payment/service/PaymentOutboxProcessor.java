@@ -0,0 +1,72 @@
+package com.vinaacademy.platform.feature.order_payment.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinaacademy.platform.feature.enrollment.dto.EnrollmentRequest;
+import com.vinaacademy.platform.feature.enrollment.service.EnrollmentService;
+import com.vinaacademy.platform.feature.order_payment.entity.Payment;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentOutboxRepository.OutboxMessage;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentRepository;
+import com.vinaacademy.platform.feature.revenue.service.RevenueDistributionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thực thi một message của payment outbox. Mỗi loại việc phải idempotent vì message có thể được chạy lại
+ * sau khi lỗi: ghi danh bỏ qua khóa học đã ghi danh, chia doanh thu tự kiểm tra bản ghi đã tồn tại.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentOutboxProcessor {
+
+	private static final TypeReference<Map<String, String>> PARAMS_TYPE = new TypeReference<>() {
+	};
+
+	private final PaymentRepository paymentRepository;
+
+	private final EnrollmentService enrollmentService;
+
+	private final RevenueDistributionService revenueDistributionService;
+
+	private final ObjectMapper objectMapper;
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void process(OutboxMessage message) {
+		Payment payment = paymentRepository.findById(message.paymentId())
+				.orElseThrow(() -> new IllegalStateException("Payment not found: " + message.paymentId()));
+
+		switch (message.type()) {
+			case ENROLL_COURSES -> enrollCourses(payment);
+			case DISTRIBUTE_REVENUE -> {
+				revenueDistributionService.distributeRevenue(payment, vnpayResponse(payment));
+				log.info("Successfully distributed revenue for payment {} - Order {}",
+						payment.getId(), payment.getOrder().getId());
+			}
+		}
+	}
+
+	private void enrollCourses(Payment payment) {
+		UUID userId = payment.getOrder().getUser().getId();
+		payment.getOrder().getOrderItems().forEach(oi -> {
+			EnrollmentRequest enrollrequest = EnrollmentRequest.builder().courseId(oi.getCourse().getId()).build();
+			if (!enrollmentService.isEnrolled(userId, enrollrequest.getCourseId()))
+				enrollmentService.enrollCourse(enrollrequest, userId);
+		});
+	}
+
+	// Các tham số VNPay đã được lưu vào paymentData lúc nhận callback
+	private Map<String, String> vnpayResponse(Payment payment) {
+		if (payment.getPaymentData() == null)
+			return Map.of();
+		return objectMapper.convertValue(payment.getPaymentData(), PARAMS_TYPE);
+	}
+}
@@ -4,20 +4,21 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.vinaacademy.platform.exception.BadRequestException;
-import com.vinaacademy.platform.feature.enrollment.dto.EnrollmentRequest;
-import com.vinaacademy.platform.feature.enrollment.service.EnrollmentService;
 import com.vinaacademy.platform.feature.order_payment.dto.PaymentDto;
 import com.vinaacademy.platform.feature.order_payment.dto.PaymentRequest;
 import com.vinaacademy.platform.feature.order_payment.entity.Order;
 import com.vinaacademy.platform.feature.order_payment.entity.Payment;
 import com.vinaacademy.platform.feature.order_payment.enums.OrderStatus;
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentOutboxType;
 import com.vinaacademy.platform.feature.order_payment.enums.PaymentStatus;
 import com.vinaacademy.platform.feature.order_payment.mapper.PaymentMapper;
 import com.vinaacademy.platform.feature.order_payment.repository.OrderRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentInboxRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentInboxRepository.Claim;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentOutboxRepository;
 import com.vinaacademy.platform.feature.order_payment.repository.PaymentRepository;
 import com.vinaacademy.platform.feature.order_payment.utils.Utils;
 import com.vinaacademy.platform.feature.order_payment.utils.VNPayConfig;
-import com.vinaacademy.platform.feature.revenue.service.RevenueDistributionService;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.entity.User;
 
@@ -50,13 +51,15 @@ public class PaymentServiceImpl implements PaymentService {
 
 	private final SecurityHelper securityHelper;
 
-	private final EnrollmentService enrollmentService;
-	
 	private final VNPayConfig vnPayConfig;
 	
 	private final Utils utils;
 
-	private final RevenueDistributionService revenueDistributionService;
+	private final PaymentInboxRepository paymentInboxRepository;
+
+	private final PaymentOutboxRepository paymentOutboxRepository;
+
+	private final CouponRedemptionService couponRedemptionService;
 
 	@Override
 	public PaymentDto createPayment(UUID orderId, HttpServletRequest request) {
@@ -66,10 +69,14 @@ public class PaymentServiceImpl implements PaymentService {
 //			throw BadRequestException.message("Url checking trống!");
 		
 		User user = securityHelper.getCurrentUser();
-		if (user.getId() != order.getUser().getId())
+		if (!user.getId().equals(order.getUser().getId()))
 			throw BadRequestException.message("Bạn không phải người sở hữu order này");
 		
-		if (order.getCoupon() != null && !utils.isCouponValid(order.getCoupon(), order.getTotalAmount()))
+		// Mỗi đơn chỉ có một payment (payments.order_id unique): đơn đã thanh toán hoặc đã hết hạn thì phải tạo đơn mới
+		if (order.getStatus() != OrderStatus.PENDING || order.getPayment() != null)
+			throw BadRequestException.message("Đơn hàng đã được thanh toán hoặc đã hết hạn, vui lòng tạo đơn mới");
+		
+		if (order.getCoupon() != null && !utils.isReservedCouponValid(order.getCoupon(), order.getTotalAmount()))
 			throw BadRequestException.message("Coupon không hợp lệ, vui lòng thử lại");
 		
 		String url = vnPayConfig.createPaymentRedirect(order.getTotalAmount().longValue(),
@@ -118,30 +125,45 @@ public class PaymentServiceImpl implements PaymentService {
 				.orElseThrow(() -> BadRequestException.message("Không tìm thấy payment id này"));
 
 		User user = securityHelper.getCurrentUser();
-		if (user.getId() != payment.getOrder().getUser().getId())
+		if (!user.getId().equals(payment.getOrder().getUser().getId()))
 			throw BadRequestException.message("Bạn không phải người sở hữu payment này");
 
 		PaymentDto paymentDto = paymentMapper.toDTO(payment);
 		return paymentDto;
 	}
 
+	/**
+	 * Xử lý callback của VNPay (IPN hoặc return). Mỗi vnp_TxnRef chỉ được xử lý một lần nhờ inbox, các lần gửi
+	 * lại nhận kết quả đã lưu. Ghi danh và chia doanh thu được ghi vào outbox trong cùng transaction và chạy
+	 * bất đồng bộ bởi PaymentOutboxRelay.
+	 */
 	@Override
 	@Transactional
 	public PaymentStatus validPayment(Map<String, String> requestParams) {
-		Optional<Payment> payment = null;
+		String vnp_ref = requestParams.get("vnp_TxnRef");
+		if (vnp_ref == null)
+			return PaymentStatus.FAILED;
 
-		if (requestParams.containsKey("vnp_TxnRef")) {
-			String vnp_ref = requestParams.get("vnp_TxnRef");
+		PaymentStatus result = utils.orderReturn(requestParams);
+		if (result == PaymentStatus.FAILED) {
+			// Sai chữ ký: không tin request này, không đổi trạng thái đơn hàng
+			log.warn("VNPay callback with invalid signature for txnRef {}", vnp_ref);
+			return PaymentStatus.FAILED;
+		}
 
-			payment = paymentRepository.findByTransactionId(vnp_ref);
-			if (payment.isPresent()) {
+		Claim claim = paymentInboxRepository.claim(vnp_ref);
+		if (!claim.first()) {
+			log.info("Duplicate VNPay callback for txnRef {}, returning {}", vnp_ref, claim.result());
+			return claim.result();
+		}
 
-			} else
-				return PaymentStatus.FAILED;
+		Optional<Payment> payment = paymentRepository.findByTransactionId(vnp_ref);
+		if (payment.isEmpty()) {
+			paymentInboxRepository.complete(vnp_ref, PaymentStatus.FAILED);
+			return PaymentStatus.FAILED;
 		}
 		Payment pay = payment.get();
 
-		PaymentStatus result = utils.orderReturn(requestParams);
 		pay.setPaymentStatus(result);
 		String transactionId = requestParams.get("vnp_TransactionNo");
 		pay.setTransactionId(result == PaymentStatus.COMPLETED ? transactionId : pay.getTransactionId());
@@ -150,37 +172,22 @@ public class PaymentServiceImpl implements PaymentService {
 			requestParams.forEach(objectNode::put);
 			pay.setPaymentData(objectNode);
 		}
-		Boolean updateEnroll = false;
 		if (result == PaymentStatus.COMPLETED) {
-			updateEnroll = true;		
 			pay.getOrder().setStatus(OrderStatus.PAID);
+			couponRedemptionService.consume(pay.getOrder().getId());
 		}
 
 		else {
 			pay.getOrder().setStatus(OrderStatus.FAILED);
-
+			couponRedemptionService.release(pay.getOrder().getId());
 		}
 		paymentRepository.save(pay);
-		if (updateEnroll) {
-			// 1. Tự động ghi danh khóa học
-			pay.getOrder().getOrderItems().forEach(oi -> {
-				EnrollmentRequest enrollrequest = EnrollmentRequest.builder().courseId(oi.getCourse().getId()).build();
-				UUID userId = pay.getOrder().getUser().getId();
-				if (!enrollmentService.isEnrolled(userId, enrollrequest.getCourseId()))
-					enrollmentService.enrollCourse(enrollrequest, pay.getOrder().getUser().getId());
-			});
-			
-			// 2. Phân chia doanh thu - Tạo lịch sử giao dịch và cộng tiền vào ví
-			try {
-				revenueDistributionService.distributeRevenue(pay, requestParams);
-				log.info("Successfully distributed revenue for payment {} - Order {}", 
-						pay.getId(), pay.getOrder().getId());
-			} catch (Exception e) {
-				log.error("Failed to distribute revenue for payment {} - Order {}: {}", 
-						pay.getId(), pay.getOrder().getId(), e.getMessage(), e);
-				// Không throw exception để không ảnh hưởng đến flow thanh toán chính
-			}
+		if (result == PaymentStatus.COMPLETED) {
+			// 1. Tự động ghi danh khóa học, 2. Phân chia doanh thu - chạy sau khi commit, có thử lại
+			paymentOutboxRepository.enqueue(pay.getId(),
+					List.of(PaymentOutboxType.ENROLL_COURSES, PaymentOutboxType.DISTRIBUTE_REVENUE));
 		}
+		paymentInboxRepository.complete(vnp_ref, result);
 		log.debug("update payment {} with status {} ", pay.getId(), result);
 
 		return result;
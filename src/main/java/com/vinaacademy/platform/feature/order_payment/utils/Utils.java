@@ -23,6 +23,17 @@ public class Utils {
 	private final VNPayConfig vnPayConfig;
 	
 	public static boolean isCouponValid(Coupon coupon) {
+        if (!isCouponInPeriod(coupon)) {
+            return false; 
+        }
+        if (coupon.getUsageLimit() != null && coupon.getUsedCount() >= coupon.getUsageLimit()) {
+            return false; 
+        }
+        return true;
+    }
+	
+	// Chỉ kiểm tra thời hạn, dùng cho đơn đã giữ lượt: lượt của đơn đã nằm trong used_count
+	public static boolean isCouponInPeriod(Coupon coupon) {
         LocalDateTime now = LocalDateTime.now(); 
         if (coupon.getStartedAt() != null && coupon.getStartedAt().isAfter(now)) {
             return false; 
@@ -30,9 +41,6 @@ public class Utils {
         if (coupon.getExpiredAt() != null && coupon.getExpiredAt().isBefore(now)) {
             return false; 
         }
-        if (coupon.getUsageLimit() != null && coupon.getUsedCount() >= coupon.getUsageLimit()) {
-            return false; 
-        }
         return true;
     }
 	
@@ -40,6 +48,10 @@ public class Utils {
 		return totalPrice.compareTo(coupon.getMinOrderValue()) >= 0 && isCouponValid(coupon);
     }
 	
+	public boolean isReservedCouponValid(Coupon coupon, BigDecimal totalPrice) {
+		return totalPrice.compareTo(coupon.getMinOrderValue()) >= 0 && isCouponInPeriod(coupon);
+    }
+	
 	public PaymentStatus orderReturn(Map<String, String> requestParams) {
 		Map<String, String> fields = new HashMap<>();
 		
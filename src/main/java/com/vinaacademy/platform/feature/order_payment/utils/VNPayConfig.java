@@ -1,6 +1,7 @@
 package com.vinaacademy.platform.feature.order_payment.utils;
 
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -12,6 +13,7 @@ import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
@@ -31,6 +33,11 @@ public class VNPayConfig {
     public String urlReturn;
     @Value("${vnpay.ipn-url:}") 
     public String ipnUrl;
+
+    private static final HexFormat HEX = HexFormat.of();
+    // Khởi tạo lười nên đọc vnp_HashSecret sau khi đã được inject
+    @Getter(AccessLevel.NONE)
+    private final ThreadLocal<Mac> secretMac = ThreadLocal.withInitial(() -> newHmacSHA512(vnp_HashSecret));
     
 
     public String md5(String message) { 
@@ -96,23 +103,26 @@ public class VNPayConfig {
             if (key == null || data == null) {
                 throw new NullPointerException();
             }
-            final Mac hmac512 = Mac.getInstance("HmacSHA512");
-            byte[] hmacKeyBytes = key.getBytes();
-            final SecretKeySpec secretKey = new SecretKeySpec(hmacKeyBytes, "HmacSHA512");
-            hmac512.init(secretKey);
-            byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
-            byte[] result = hmac512.doFinal(dataBytes);
-            StringBuilder sb = new StringBuilder(2 * result.length);
-            for (byte b : result) {
-                sb.append(String.format("%02x", b & 0xff));
-            }
-            return sb.toString();
+            // Mac không thread-safe và Mac.getInstance/init tốn kém, nên mỗi thread giữ sẵn một Mac cho secret của VNPay
+            final Mac hmac512 = key.equals(vnp_HashSecret) ? secretMac.get() : newHmacSHA512(key);
+            byte[] result = hmac512.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(result);
 
         } catch (Exception ex) {
             return "";
         }
     }
 
+    private static Mac newHmacSHA512(String key) {
+        try {
+            Mac hmac512 = Mac.getInstance("HmacSHA512");
+            hmac512.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            return hmac512;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot initialize HmacSHA512", ex);
+        }
+    }
+
     
 
     public  String getIpAddress(HttpServletRequest request) {
@@ -10,6 +10,9 @@ import com.vinaacademy.platform.feature.quiz.enums.QuestionType;
 import com.vinaacademy.platform.feature.quiz.repository.QuestionRepository;
 import com.vinaacademy.platform.feature.quiz.service.internal.QuizGradingService;
 import com.vinaacademy.platform.feature.quiz.strategy.GradingStrategy;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -22,9 +25,20 @@ public class QuizGradingServiceImpl implements QuizGradingService {
 
     private final List<GradingStrategy> gradingStrategies;
     private final QuestionRepository questionRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public double calculateScore(Quiz quiz, QuizSubmission submission, List<UserAnswerRequest> answers) {
+        DistributionSummary.builder("quiz.grading.answers")
+                .register(meterRegistry)
+                .record(answers.size());
+        return Timer.builder("quiz.grading")
+                .description("Time to grade a whole submission, question lookups included")
+                .register(meterRegistry)
+                .record(() -> grade(submission, answers));
+    }
+
+    private double grade(QuizSubmission submission, List<UserAnswerRequest> answers) {
         double earnedPoints = 0;
 
         for (UserAnswerRequest answerRequest : answers) {
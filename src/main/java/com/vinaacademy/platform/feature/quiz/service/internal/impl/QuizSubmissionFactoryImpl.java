@@ -54,7 +54,8 @@ public class QuizSubmissionFactoryImpl implements QuizSubmissionFactory {
         // Mark lesson as completed if passed
         if (submission.isPassed()) {
             Optional<UserProgress> existingProgress = userProgressRepository
-                    .findByLessonIdAndUserId(quiz.getId(), user.getId());
+                    .findByLessonIdAndUserId(quiz.getId(), user.getId())
+                    .filter(UserProgress::isCompleted);
             
             if (existingProgress.isEmpty()) {
                 lessonService.markLessonCompleted(quiz, user);
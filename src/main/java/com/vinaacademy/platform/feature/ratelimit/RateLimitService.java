@@ -0,0 +1,88 @@
+package com.vinaacademy.platform.feature.ratelimit;
+
+import com.vinaacademy.platform.feature.ratelimit.RateLimiter.Decision;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Policy;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Applies the named policies of {@link RateLimitProperties}: authenticated callers are limited per user
+ * with the quota of their most generous role, anonymous callers per client IP with the policy default.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    /**
+     * Take one permit of the policy for the caller.
+     *
+     * @throws IllegalArgumentException if no policy has that name
+     */
+    public Decision acquire(String policyName, Authentication authentication, String clientIp) {
+        return acquire(policyName, authentication, clientIp, false);
+    }
+
+    /**
+     * Like {@link #acquire(String, Authentication, String)}, but an authenticated caller is limited per name
+     * and address together. Meant for machine clients that all authenticate with the same credentials, so
+     * each caller instance gets its own quota instead of sharing one.
+     *
+     * @throws IllegalArgumentException if no policy has that name
+     */
+    public Decision acquirePerAddress(String policyName, Authentication authentication, String clientAddress) {
+        return acquire(policyName, authentication, clientAddress, true);
+    }
+
+    private Decision acquire(String policyName, Authentication authentication, String clientIp,
+                             boolean perAddress) {
+        if (!properties.isEnabled()) {
+            return Decision.UNLIMITED;
+        }
+        Policy policy = properties.getPolicies().get(policyName);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown rate limit policy: " + policyName);
+        }
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        if (!authenticated) {
+            return rateLimiter.tryAcquire(KEY_PREFIX + policyName + ":ip:" + clientIp, policy.getDefaults());
+        }
+        if (perAddress) {
+            return rateLimiter.tryAcquire(
+                    KEY_PREFIX + policyName + ":client:" + authentication.getName() + ":" + clientIp,
+                    quotaFor(policy, authentication));
+        }
+        return rateLimiter.tryAcquire(KEY_PREFIX + policyName + ":user:" + authentication.getName(),
+                quotaFor(policy, authentication));
+    }
+
+    static Quota quotaFor(Policy policy, Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(Objects::nonNull)
+                .map(RateLimitService::roleName)
+                .map(policy.getRoles()::get)
+                .filter(Objects::nonNull)
+                .max(Comparator.comparingDouble(Quota::ratePerSecond))
+                .filter(quota -> quota.ratePerSecond() > policy.getDefaults().ratePerSecond())
+                .orElse(policy.getDefaults());
+    }
+
+    private static String roleName(String authority) {
+        return authority.replaceFirst("^(SCOPE_|ROLE_)", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,149 @@
+package com.vinaacademy.platform.feature.ratelimit;
+
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+import com.vinaacademy.platform.feature.ratelimit.store.RateLimitStore;
+import com.vinaacademy.platform.feature.ratelimit.store.RateLimitStore.Grant;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-node front of a shared {@link RateLimitStore}. Permits are taken from the store in small leases and
+ * handed out locally, so most allowed requests need no store round trip; a denial is remembered until the
+ * store's retry time, so a client hammering a closed bucket does not reach the store either. Every permit
+ * handed out was taken from the store first, so the limit holds across nodes; leases only make it
+ * stricter, since permits left in an expired lease are dropped.
+ * <p>
+ * To keep those dropped permits from starving a client that stays under its limit, a node leases only
+ * while the shared bucket last had more than half the quota left; closer to the limit it takes one
+ * permit per request, so every permit taken is used.
+ */
+public class RateLimiter {
+
+    /**
+     * Result of one request, with the values for the {@code RateLimit-*} headers.
+     */
+    public record Decision(boolean allowed, long limit, long windowSeconds, long remaining, long resetSeconds,
+                           long retryAfterSeconds) {
+
+        /**
+         * Decision when rate limiting is turned off; produces no headers.
+         */
+        public static final Decision UNLIMITED = new Decision(true, -1, 0, 0, 0, 0);
+
+        /**
+         * {@code RateLimit-Limit}, {@code RateLimit-Remaining}, {@code RateLimit-Reset} and
+         * {@code RateLimit-Policy} as in the IETF RateLimit header draft, plus {@code Retry-After} when denied.
+         */
+        public Map<String, String> headers() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (limit < 0) {
+                return headers;
+            }
+            headers.put("RateLimit-Limit", String.valueOf(limit));
+            headers.put("RateLimit-Remaining", String.valueOf(remaining));
+            headers.put("RateLimit-Reset", String.valueOf(resetSeconds));
+            headers.put("RateLimit-Policy", limit + ";w=" + windowSeconds);
+            if (!allowed) {
+                headers.put("Retry-After", String.valueOf(retryAfterSeconds));
+            }
+            return headers;
+        }
+    }
+
+    // Quá ngưỡng này thì dọn các lease đã hết hạn
+    private static final int MAX_LEASES = 100_000;
+
+    // Phần hạn mức luôn để lại trong bucket chung khi lấy lease
+    private static final double LEASE_RESERVE_RATIO = 0.5;
+
+    private static final class Lease {
+        private long permits;
+        private long expiresAt;
+        // Chưa hỏi store lần nào thì coi như bucket còn đầy
+        private long sharedRemaining = Long.MAX_VALUE;
+        private long resetAt;
+        private long blockedUntil;
+    }
+
+    private final RateLimitStore store;
+    private final double leaseRatio;
+    private final long leaseTtlMicros;
+    private final LongSupplier clockMicros;
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitStore store, double leaseRatio, long leaseTtlMicros, LongSupplier clockMicros) {
+        this.store = store;
+        this.leaseRatio = leaseRatio;
+        this.leaseTtlMicros = leaseTtlMicros;
+        this.clockMicros = clockMicros;
+    }
+
+    public static long currentTimeMicros() {
+        return System.currentTimeMillis() * 1000;
+    }
+
+    /**
+     * Take one permit of the key.
+     */
+    public Decision tryAcquire(String key, Quota quota) {
+        long now = clockMicros.getAsLong();
+        Lease lease = leases.computeIfAbsent(key, k -> new Lease());
+        Decision decision;
+        // Khóa theo key: các request cùng key trên một node chỉ gọi store một lần cho mỗi lease
+        synchronized (lease) {
+            decision = acquire(lease, key, quota, now);
+        }
+        if (leases.size() > MAX_LEASES) {
+            leases.values().removeIf(l -> l.expiresAt <= now && l.blockedUntil <= now);
+        }
+        return decision;
+    }
+
+    private Decision acquire(Lease lease, String key, Quota quota, long now) {
+        if (lease.blockedUntil > now) {
+            return denied(quota, lease.blockedUntil - now, lease.resetAt - now);
+        }
+        if (lease.permits > 0 && lease.expiresAt > now) {
+            lease.permits--;
+            return allowed(quota, lease.sharedRemaining + lease.permits, lease.resetAt - now);
+        }
+
+        Grant grant = store.acquire(key, quota, leaseSize(lease, quota), now);
+        lease.resetAt = now + grant.resetMicros();
+        if (grant.granted() == 0) {
+            lease.permits = 0;
+            lease.sharedRemaining = 0;
+            lease.blockedUntil = now + grant.retryAfterMicros();
+            return denied(quota, grant.retryAfterMicros(), grant.resetMicros());
+        }
+        lease.permits = grant.granted() - 1;
+        lease.expiresAt = now + leaseTtlMicros;
+        lease.sharedRemaining = grant.remaining();
+        return allowed(quota, grant.remaining() + lease.permits, grant.resetMicros());
+    }
+
+    // Lease không được lấy vào phần dự trữ; sát hạn mức thì chỉ lấy một permit
+    private long leaseSize(Lease lease, Quota quota) {
+        long size = (long) (quota.getLimit() * leaseRatio);
+        long surplus = lease.sharedRemaining - (long) (quota.getLimit() * LEASE_RESERVE_RATIO);
+        return Math.max(1, Math.min(size, surplus));
+    }
+
+    private static Decision allowed(Quota quota, long remaining, long resetMicros) {
+        return new Decision(true, quota.getLimit(), quota.getPeriod().toSeconds(), remaining,
+                toSeconds(resetMicros), 0);
+    }
+
+    private static Decision denied(Quota quota, long retryAfterMicros, long resetMicros) {
+        return new Decision(false, quota.getLimit(), quota.getPeriod().toSeconds(), 0,
+                toSeconds(resetMicros), Math.max(1, toSeconds(retryAfterMicros)));
+    }
+
+    // Làm tròn lên để client không thử lại quá sớm
+    private static long toSeconds(long micros) {
+        return Math.max(0, (micros + 999_999) / 1_000_000);
+    }
+}
@@ -0,0 +1,19 @@
+package com.vinaacademy.platform.feature.ratelimit.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limit calls of the annotated controller method with a named policy of {@code application.rate-limit}.
+ * A rejected call gets HTTP 429 with {@code Retry-After}; every call gets the {@code RateLimit-*} headers.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+    /**
+     * Policy name, e.g. {@code RateLimitProperties.SEARCH}.
+     */
+    String value();
+}
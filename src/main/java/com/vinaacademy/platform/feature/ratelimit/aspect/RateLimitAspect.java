@@ -0,0 +1,54 @@
+package com.vinaacademy.platform.feature.ratelimit.aspect;
+
+import com.vinaacademy.platform.exception.TooManyRequestsException;
+import com.vinaacademy.platform.feature.common.utils.CommonUtils;
+import com.vinaacademy.platform.feature.ratelimit.RateLimitService;
+import com.vinaacademy.platform.feature.ratelimit.RateLimiter.Decision;
+import com.vinaacademy.platform.feature.ratelimit.annotation.RateLimited;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Enforces {@link RateLimited} on controller methods and adds the {@code RateLimit-*} headers.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RateLimitAspect {
+
+    private final RateLimitService rateLimitService;
+
+    @Before("@annotation(rateLimited)")
+    public void checkRateLimit(RateLimited rateLimited) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Decision decision = rateLimitService.acquire(rateLimited.value(),
+                SecurityContextHolder.getContext().getAuthentication(), clientIp(request));
+
+        // Header được giữ lại khi GlobalExceptionHandler trả về 429
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null) {
+            decision.headers().forEach(response::setHeader);
+        }
+        if (!decision.allowed()) {
+            throw TooManyRequestsException.retryAfter(decision.retryAfterSeconds(),
+                    "Bạn gửi quá nhiều yêu cầu, vui lòng thử lại sau " + decision.retryAfterSeconds() + " giây");
+        }
+    }
+
+    private static String clientIp(HttpServletRequest request) {
+        String ip = CommonUtils.getClientIp(request);
+        // X-Forwarded-For có thể chứa cả chuỗi proxy, địa chỉ đầu tiên là client
+        return ip == null ? "unknown" : ip.split(",")[0].trim();
+    }
+}
@@ -0,0 +1,38 @@
+package com.vinaacademy.platform.feature.ratelimit.config;
+
+import com.vinaacademy.platform.feature.ratelimit.RateLimiter;
+import com.vinaacademy.platform.feature.ratelimit.store.LocalRateLimitStore;
+import com.vinaacademy.platform.feature.ratelimit.store.RateLimitStore;
+import com.vinaacademy.platform.feature.ratelimit.store.RedisRateLimitStore;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+@Log4j2
+public class RateLimitConfig {
+
+    /**
+     * Buckets in Redis, shared by all nodes; per-node buckets in memory when {@code spring.data.redis.enabled}
+     * is false.
+     */
+    @Bean
+    public RateLimitStore rateLimitStore(@Value("${spring.data.redis.enabled:false}") boolean redisEnabled,
+                                         ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        StringRedisTemplate redisTemplate = redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        if (redisTemplate == null) {
+            log.info("Redis disabled, rate limits are enforced per node");
+            return new LocalRateLimitStore();
+        }
+        return new RedisRateLimitStore(redisTemplate);
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitStore rateLimitStore, RateLimitProperties properties) {
+        return new RateLimiter(rateLimitStore, properties.getLocalLeaseRatio(),
+                properties.getLocalLeaseTtl().toNanos() / 1000, RateLimiter::currentTimeMicros);
+    }
+}
@@ -0,0 +1,104 @@
+package com.vinaacademy.platform.feature.ratelimit.config;
+
+import com.vinaacademy.platform.feature.user.constant.AuthConstants;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "application.rate-limit")
+@Data
+@NoArgsConstructor
+public class RateLimitProperties {
+
+    public static final String VIDEO_SEGMENT = "video-segment";
+    public static final String CHUNK_UPLOAD = "chunk-upload";
+    public static final String SEARCH = "search";
+    public static final String DISCUSSION_POST = "discussion-post";
+    public static final String GRPC = "grpc";
+
+    /**
+     * Turn off to let every request through (e.g. for load tests).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Share of a quota a node takes from Redis in one call and then serves locally, so most allowed
+     * requests skip the Redis hop. Unused permits of an expired lease are lost, never reused, so leases
+     * are only taken while more than half the quota is left; past that each request takes one permit.
+     */
+    private double localLeaseRatio = 0.05;
+
+    /**
+     * How long a node may serve permits from its lease.
+     */
+    private Duration localLeaseTtl = Duration.ofSeconds(1);
+
+    /**
+     * Policies by name, as referenced by {@code @RateLimited}. Entries from configuration are added to
+     * (or replace) these defaults.
+     */
+    private Map<String, Policy> policies = new HashMap<>(Map.of(
+            VIDEO_SEGMENT, new Policy(new Quota(300, Duration.ofMinutes(1)), Map.of(
+                    AuthConstants.INSTRUCTOR_ROLE, new Quota(600, Duration.ofMinutes(1)),
+                    AuthConstants.ADMIN_ROLE, new Quota(3000, Duration.ofMinutes(1)))),
+            CHUNK_UPLOAD, new Policy(new Quota(60, Duration.ofMinutes(1)), Map.of(
+                    AuthConstants.INSTRUCTOR_ROLE, new Quota(600, Duration.ofMinutes(1)),
+                    AuthConstants.ADMIN_ROLE, new Quota(1200, Duration.ofMinutes(1)))),
+            SEARCH, new Policy(new Quota(60, Duration.ofMinutes(1)), Map.of(
+                    AuthConstants.STUDENT_ROLE, new Quota(120, Duration.ofMinutes(1)),
+                    AuthConstants.ADMIN_ROLE, new Quota(600, Duration.ofMinutes(1)))),
+            DISCUSSION_POST, new Policy(new Quota(5, Duration.ofMinutes(1)), Map.of(
+                    AuthConstants.STAFF_ROLE, new Quota(60, Duration.ofMinutes(1)),
+                    AuthConstants.ADMIN_ROLE, new Quota(60, Duration.ofMinutes(1)))),
+            GRPC, new Policy(new Quota(600, Duration.ofMinutes(1)), Map.of(
+                    "api.read", new Quota(6000, Duration.ofMinutes(1))))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        /**
+         * Quota of anonymous callers and of users without any of the roles below.
+         */
+        private Quota defaults;
+
+        /**
+         * Quotas by role or scope (without the {@code SCOPE_}/{@code ROLE_} prefix). A user with several
+         * roles gets the most generous one.
+         */
+        private Map<String, Quota> roles = new HashMap<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Quota {
+        /**
+         * Requests allowed per period; also the largest burst.
+         */
+        private long limit;
+
+        private Duration period;
+
+        /**
+         * Time between two requests at the sustained rate, rounded up to whole microseconds.
+         */
+        public long emissionIntervalMicros() {
+            long periodMicros = period.toNanos() / 1000;
+            return Math.max(1, (periodMicros + limit - 1) / limit);
+        }
+
+        public double ratePerSecond() {
+            return (double) limit / period.toMillis() * 1000;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.vinaacademy.platform.feature.ratelimit.store;
+
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link RateLimitStore}, used when Redis is disabled and as the fallback while Redis is
+ * unreachable. Limits then hold per node only. Same arithmetic as the Lua script of
+ * {@link RedisRateLimitStore}.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    // Quá ngưỡng này thì dọn các key đã đầy lại
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final ConcurrentHashMap<String, Long> arrivals = new ConcurrentHashMap<>();
+
+    @Override
+    public Grant acquire(String key, Quota quota, long permits, long nowMicros) {
+        long interval = quota.emissionIntervalMicros();
+        long window = interval * quota.getLimit();
+        Grant[] result = new Grant[1];
+        arrivals.compute(key, (k, storedTat) -> {
+            long tat = storedTat == null ? nowMicros : Math.max(storedTat, nowMicros);
+            long available = (nowMicros + window - tat) / interval;
+            long granted = Math.min(permits, available);
+            if (granted <= 0) {
+                result[0] = new Grant(0, 0, tat + interval - window - nowMicros, tat - nowMicros);
+                return storedTat;
+            }
+            tat += granted * interval;
+            result[0] = new Grant(granted, available - granted, 0, tat - nowMicros);
+            return tat;
+        });
+        if (arrivals.size() > MAX_ENTRIES) {
+            arrivals.values().removeIf(tat -> tat <= nowMicros);
+        }
+        return result[0];
+    }
+}
@@ -0,0 +1,28 @@
+package com.vinaacademy.platform.feature.ratelimit.store;
+
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+
+/**
+ * Shared GCRA (generic cell rate algorithm) state per rate-limit key. Each key stores only its theoretical
+ * arrival time (TAT): the instant the bucket would be full again. A permit costs one emission interval;
+ * permits are available while the TAT is less than one period ahead of now.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Outcome of {@link #acquire}. Nothing was granted when {@code granted} is 0; {@code retryAfterMicros}
+     * is then the wait until one permit is available.
+     *
+     * @param granted          permits taken, between 0 and the requested number
+     * @param remaining        permits still available right after this call
+     * @param retryAfterMicros wait until the next permit, 0 when something was granted
+     * @param resetMicros      wait until the bucket is full again
+     */
+    record Grant(long granted, long remaining, long retryAfterMicros, long resetMicros) {
+    }
+
+    /**
+     * Atomically take up to {@code permits} permits of the key.
+     */
+    Grant acquire(String key, Quota quota, long permits, long nowMicros);
+}
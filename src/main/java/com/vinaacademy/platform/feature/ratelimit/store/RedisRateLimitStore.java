@@ -0,0 +1,65 @@
+package com.vinaacademy.platform.feature.ratelimit.store;
+
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * {@link RateLimitStore} shared by every node. The TAT of each key is read and advanced by one Lua script,
+ * so concurrent requests from many nodes cannot take the same permit twice. The key expires when its
+ * bucket is full again. While Redis is unreachable the store falls back to a {@link LocalRateLimitStore}.
+ */
+@Slf4j
+public class RedisRateLimitStore implements RateLimitStore {
+
+    // Cùng phép tính với LocalRateLimitStore.acquire; thời gian tính bằng micro giây
+    private static final RedisScript<List> ACQUIRE = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local interval = tonumber(ARGV[2])
+            local window = interval * tonumber(ARGV[3])
+            local permits = tonumber(ARGV[4])
+            local tat = tonumber(redis.call('GET', KEYS[1])) or now
+            if tat < now then
+                tat = now
+            end
+            local available = math.floor((now + window - tat) / interval)
+            local granted = math.min(permits, available)
+            if granted <= 0 then
+                return {0, 0, tat + interval - window - now, tat - now}
+            end
+            tat = tat + granted * interval
+            redis.call('SET', KEYS[1], string.format('%d', tat), 'PX', math.ceil((tat - now) / 1000))
+            return {granted, available - granted, 0, tat - now}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalRateLimitStore fallback = new LocalRateLimitStore();
+
+    public RedisRateLimitStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Grant acquire(String key, Quota quota, long permits, long nowMicros) {
+        try {
+            List<?> result = redisTemplate.execute(ACQUIRE, List.of(key),
+                    String.valueOf(nowMicros),
+                    String.valueOf(quota.emissionIntervalMicros()),
+                    String.valueOf(quota.getLimit()),
+                    String.valueOf(permits));
+            return new Grant(number(result, 0), number(result, 1), number(result, 2), number(result, 3));
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for rate limiting, using local buckets: {}", e.getMessage());
+            return fallback.acquire(key, quota, permits, nowMicros);
+        }
+    }
+
+    private static long number(List<?> result, int index) {
+        return ((Number) result.get(index)).longValue();
+    }
+}
@@ -3,6 +3,7 @@ package com.vinaacademy.platform.feature.review.service;
 import com.vinaacademy.platform.exception.UnauthorizedException;
 import com.vinaacademy.platform.feature.common.exception.ResourceNotFoundException;
 import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.course.event.CourseChangedEvent;
 import com.vinaacademy.platform.feature.course.repository.CourseRepository;
 import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentRepository;
 import com.vinaacademy.platform.feature.review.dto.CourseReviewDto;
@@ -16,6 +17,7 @@ import com.vinaacademy.platform.feature.user.entity.User;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -38,6 +40,7 @@ public class CourseReviewServiceImpl implements CourseReviewService {
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -202,12 +205,17 @@ public class CourseReviewServiceImpl implements CourseReviewService {
     private void updateCourseAverageRating(UUID courseId) {
         Double averageRating = courseReviewRepository.calculateAverageRatingByCourseId(courseId);
 
-        if (averageRating != null) {
-            Course course = courseRepository.findById(courseId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy khóa học với ID: " + courseId));
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy khóa học với ID: " + courseId));
 
-            course.setRating(averageRating);
-            courseRepository.save(course);
-        }
+        // Xóa đánh giá cuối cùng thì đưa rating về 0, không giữ lại giá trị cũ
+        course.setRating(averageRating != null ? averageRating : 0.0);
+        courseRepository.save(course);
+
+        // Chi tiết khóa học có kèm đánh giá: xóa cache của khóa học này sau khi commit
+        eventPublisher.publishEvent(CourseChangedEvent.builder()
+                .courseId(course.getId())
+                .slug(course.getSlug())
+                .build());
     }
 }
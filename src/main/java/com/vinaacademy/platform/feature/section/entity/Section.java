@@ -1,6 +1,7 @@
 package com.vinaacademy.platform.feature.section.entity;
 
 import com.vinaacademy.platform.feature.common.entity.BaseEntity;
+import com.vinaacademy.platform.feature.course.curriculum.CurriculumChangeListener;
 import com.vinaacademy.platform.feature.course.entity.Course;
 import com.vinaacademy.platform.feature.lesson.entity.Lesson;
 import jakarta.persistence.*;
@@ -16,6 +17,7 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(CurriculumChangeListener.class)
 @Table(name = "sections")
 public class Section extends BaseEntity {
     @Id
@@ -1,8 +1,11 @@
 package com.vinaacademy.platform.feature.section.repository;
 
 import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.course.projection.OrderIndexProjection;
 import com.vinaacademy.platform.feature.section.entity.Section;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +22,15 @@ public interface SectionRepository extends JpaRepository<Section, UUID> {
      * Check if a section with the given title exists in a course
      */
     boolean existsByTitleAndCourse(String title, Course course);
+
+    /**
+     * Count sections in a course
+     */
+    long countByCourse(Course course);
+
+    /**
+     * Section ids and positions of a course, without loading the entities
+     */
+    @Query("SELECT s.id AS id, s.orderIndex AS orderIndex FROM Section s WHERE s.course.id = :courseId")
+    List<OrderIndexProjection> findOrderByCourseId(@Param("courseId") UUID courseId);
 }
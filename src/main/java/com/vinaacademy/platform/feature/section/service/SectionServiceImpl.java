@@ -2,7 +2,9 @@ package com.vinaacademy.platform.feature.section.service;
 
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.NotFoundException;
+import com.vinaacademy.platform.feature.course.curriculum.CurriculumOrderingService;
 import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.course.projection.OrderIndexProjection;
 import com.vinaacademy.platform.feature.course.repository.CourseRepository;
 import com.vinaacademy.platform.feature.instructor.repository.CourseInstructorRepository;
 import com.vinaacademy.platform.feature.section.dto.SectionDto;
@@ -29,6 +31,7 @@ public class SectionServiceImpl implements SectionService {
     private final CourseInstructorRepository courseInstructorRepository;
     private final SectionMapper sectionMapper;
     private final SecurityHelper securityHelper;
+    private final CurriculumOrderingService curriculumOrderingService;
 
     @Override
     @Transactional(readOnly = true)
@@ -65,9 +68,10 @@ public class SectionServiceImpl implements SectionService {
         // Check if user has permission to modify this course
         checkCoursePermission(course);
 
+        curriculumOrderingService.lockCourse(course.getId());
+
         // Luôn đặt section mới ở cuối danh sách, bỏ qua orderIndex được cung cấp
-        List<Section> existingSections = sectionRepository.findByCourseOrderByOrderIndex(course);
-        int newOrderIndex = existingSections.size(); // Đặt ở vị trí cuối cùng
+        int newOrderIndex = (int) sectionRepository.countByCourse(course); // Đặt ở vị trí cuối cùng
 
         // Check for duplicate title in the same course
         if (sectionRepository.existsByTitleAndCourse(request.getTitle(), course)) {
@@ -98,8 +102,9 @@ public class SectionServiceImpl implements SectionService {
         // Check if user has permission to modify this course
         checkCoursePermission(course);
 
-        // Check if the order index is changing
-        if (section.getOrderIndex() != request.getOrderIndex()) {
+        // Check if the order index (or the course) is changing
+        if (section.getOrderIndex() != request.getOrderIndex()
+                || !section.getCourse().getId().equals(course.getId())) {
             handleOrderIndexChange(section, request.getOrderIndex(), course);
         }
 
@@ -139,17 +144,11 @@ public class SectionServiceImpl implements SectionService {
             throw BadRequestException.message("Không thể xóa mục có bài học. Xóa tất cả bài học trước");
         }
 
+        curriculumOrderingService.lockCourse(course.getId());
         sectionRepository.delete(section);
 
-        // Update order index for sections after the deleted one
-        List<Section> sectionsToUpdate = sectionRepository.findByCourseOrderByOrderIndex(course).stream()
-                .filter(s -> s.getOrderIndex() > deletedOrderIndex)
-                .collect(Collectors.toList());
-
-        for (Section sectionToUpdate : sectionsToUpdate) {
-            sectionToUpdate.setOrderIndex(sectionToUpdate.getOrderIndex() - 1);
-            sectionRepository.save(sectionToUpdate);
-        }
+        // Update order index for sections after the deleted one (một câu UPDATE)
+        curriculumOrderingService.closeSectionGap(course.getId(), deletedOrderIndex);
 
         log.info("Section deleted with id: {}", id);
     }
@@ -178,71 +177,65 @@ public class SectionServiceImpl implements SectionService {
         // Check if user has permission to modify this course
         checkCoursePermission(course);
 
-        // Get all sections for the course
-        List<Section> sections = sectionRepository.findByCourseOrderByOrderIndex(course);
+        curriculumOrderingService.lockCourse(course.getId());
+
+        // Chỉ đọc id + vị trí hiện tại, không load entity
+        List<OrderIndexProjection> currentOrder = sectionRepository.findOrderByCourseId(course.getId());
 
         // Validate that all section IDs belong to the course
-        Set<UUID> courseSectionIds = sections.stream().map(Section::getId).collect(Collectors.toSet());
+        Set<UUID> courseSectionIds = currentOrder.stream()
+                .map(OrderIndexProjection::getId)
+                .collect(Collectors.toSet());
         if (!courseSectionIds.containsAll(sectionIds)) {
             throw BadRequestException.message("Danh sách ID không hợp lệ");
         }
 
         // Validate that all sections are included
-        if (sections.size() != sectionIds.size()) {
+        if (currentOrder.size() != sectionIds.size() || new HashSet<>(sectionIds).size() != sectionIds.size()) {
             throw BadRequestException.message("Danh sách không đầy đủ các mục");
         }
 
-        // Create a map for quick lookup
-        Map<UUID, Section> sectionMap = new HashMap<>();
-        sections.forEach(section -> sectionMap.put(section.getId(), section));
-
-        // Batch update all sections with their new order indices
-        List<Section> updatedSections = new ArrayList<>();
-        for (int i = 0; i < sectionIds.size(); i++) {
-            UUID sectionId = sectionIds.get(i);
-            Section section = sectionMap.get(sectionId);
-            section.setOrderIndex(i);
-            updatedSections.add(section);
-        }
-
-        // Save all sections in a batch operation
-        sectionRepository.saveAll(updatedSections);
+        // Một câu UPDATE ... CASE cho các mục thực sự đổi vị trí
+        curriculumOrderingService.applySectionOrder(course.getId(), currentOrder, sectionIds);
 
         log.info("Sections reordered for course: {}", course.getName());
     }
 
     private void handleOrderIndexChange(Section section, int newOrderIndex, Course course) {
         int oldOrderIndex = section.getOrderIndex();
-        List<Section> sections = sectionRepository.findByCourseOrderByOrderIndex(course);
-
-        // Di chuyển lên (giảm orderIndex)
-        if (newOrderIndex < oldOrderIndex) {
-            for (Section s : sections) {
-                if (s.getId().equals(section.getId())) {
-                    continue; // Bỏ qua section hiện tại
-                }
-                if (s.getOrderIndex() >= newOrderIndex && s.getOrderIndex() < oldOrderIndex) {
-                    s.setOrderIndex(s.getOrderIndex() + 1);
-                    sectionRepository.save(s);
-                }
-            }
-        }
-        // Di chuyển xuống (tăng orderIndex)
-        else if (newOrderIndex > oldOrderIndex) {
-            for (Section s : sections) {
-                if (s.getId().equals(section.getId())) {
-                    continue; // Bỏ qua section hiện tại
-                }
-                if (s.getOrderIndex() <= newOrderIndex && s.getOrderIndex() > oldOrderIndex) {
-                    s.setOrderIndex(s.getOrderIndex() - 1);
-                    sectionRepository.save(s);
-                }
-            }
+        Course currentCourse = section.getCourse();
+
+        if (currentCourse.getId().equals(course.getId())) {
+            curriculumOrderingService.lockCourse(course.getId());
+            validateOrderIndex(newOrderIndex, sectionRepository.countByCourse(course) - 1);
+            // Dịch các section nằm giữa vị trí cũ và mới bằng một câu UPDATE
+            curriculumOrderingService.moveSection(course.getId(), section.getId(), oldOrderIndex, newOrderIndex);
+        } else {
+            // Chuyển sang khóa học khác: khóa theo thứ tự id cố định để tránh deadlock
+            lockCourses(currentCourse.getId(), course.getId());
+            validateOrderIndex(newOrderIndex, sectionRepository.countByCourse(course));
+            curriculumOrderingService.closeSectionGap(currentCourse.getId(), oldOrderIndex);
+            curriculumOrderingService.openSectionGap(course.getId(), newOrderIndex);
         }
 
         // Cập nhật section hiện tại
         section.setOrderIndex(newOrderIndex);
-        sectionRepository.save(section);
+    }
+
+    private void lockCourses(UUID first, UUID second) {
+        if (first.compareTo(second) > 0) {
+            UUID tmp = first;
+            first = second;
+            second = tmp;
+        }
+        curriculumOrderingService.lockCourse(first);
+        curriculumOrderingService.lockCourse(second);
+    }
+
+    private void validateOrderIndex(int orderIndex, long maxAllowedIndex) {
+        if (orderIndex < 0 || orderIndex > maxAllowedIndex) {
+            throw BadRequestException.message("Vị trí của mục không hợp lệ, tối đa là " + maxAllowedIndex);
+        }
     }
 
     private Section findSectionById(UUID id) {
@@ -1,6 +1,8 @@
 package com.vinaacademy.platform.feature.storage;
 
 import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.ratelimit.annotation.RateLimited;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
 import com.vinaacademy.platform.feature.storage.dto.UploadResult;
 import com.vinaacademy.platform.feature.storage.dto.UploadSessionDto;
 import com.vinaacademy.platform.feature.storage.request.ChunkUploadRequest;
@@ -31,6 +33,7 @@ public class ChunkUploadController {
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("isAuthenticated()")
+    @RateLimited(RateLimitProperties.CHUNK_UPLOAD)
     public ApiResponse<UploadResult> uploadChunk(
             @RequestParam("chunk") MultipartFile chunkFile,
             @ModelAttribute ChunkUploadRequest request) {
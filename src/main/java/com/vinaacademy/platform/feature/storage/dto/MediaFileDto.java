@@ -24,5 +24,7 @@ public class MediaFileDto implements UploadResult {
     private long fileSize;
     @JsonIgnore
     private String filePath;
+    @JsonIgnore
+    private String contentHash;
     private Resource fileResource;
 }
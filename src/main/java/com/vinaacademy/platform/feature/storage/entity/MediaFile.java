@@ -17,7 +17,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "media_files")
+@Table(name = "media_files", indexes = {
+        @Index(name = "idx_media_files_content_hash", columnList = "content_hash")
+})
 public class MediaFile {
 
     @Id
@@ -59,6 +61,10 @@ public class MediaFile {
     @Column(name = "file_hash")
     private String fileHash;
 
+    // SHA-256 do server tính; khác null khi filePath trỏ vào blob dùng chung (xem StorageBlob)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
     private UploadStatus status;
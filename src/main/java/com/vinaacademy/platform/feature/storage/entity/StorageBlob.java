@@ -0,0 +1,41 @@
+package com.vinaacademy.platform.feature.storage.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Nội dung tệp lưu một lần theo SHA-256, dùng chung cho mọi {@link MediaFile} có cùng {@code content_hash}.
+ * {@code ref_count} đếm số MediaFile còn tham chiếu; khi về 0 thì {@code unreferenced_since} được ghi lại và
+ * job dọn rác xóa blob sau thời gian chờ.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "storage_blobs", indexes = {
+        @Index(name = "idx_storage_blobs_unreferenced", columnList = "ref_count, unreferenced_since")
+})
+public class StorageBlob {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "file_path", nullable = false)
+    private String filePath;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "unreferenced_since")
+    private LocalDateTime unreferencedSince;
+}
@@ -0,0 +1,26 @@
+package com.vinaacademy.platform.feature.storage.event;
+
+import com.vinaacademy.platform.feature.storage.enums.FileType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Domain event published when a media file row is deleted, so features keeping files derived from it
+ * can remove them.
+ */
+@Data
+@Builder
+public class MediaFileDeletedEvent {
+
+    /**
+     * The ID of the deleted media file
+     */
+    private final UUID mediaFileId;
+
+    /**
+     * The type of the deleted media file
+     */
+    private final FileType fileType;
+}
@@ -15,6 +15,8 @@ public class StorageProperties {
     private String hlsDir;
     @Value("${application.storage.tempDir:${application.storage.uploadDir}/temp}")
     private String tempDir;
+    @Value("${application.storage.blobDir:${application.storage.uploadDir}/blobs}")
+    private String blobDir;
     private String videoDir;
     private String imageDir;
     private String thumbnailDir;
@@ -12,4 +12,6 @@ public interface MediaFileRepository extends JpaRepository<MediaFile, UUID> {
     List<MediaFile> findByUserIdAndStatus(UUID userId, MediaFile.UploadStatus status);
 
     Optional<MediaFile> findByFileHashAndUserIdAndStatus(String fileHash, UUID userId, MediaFile.UploadStatus status);
+
+    boolean existsByContentHashAndUserId(String contentHash, UUID userId);
 }
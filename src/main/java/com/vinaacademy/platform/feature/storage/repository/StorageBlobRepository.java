@@ -0,0 +1,127 @@
+package com.vinaacademy.platform.feature.storage.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reference counting of {@code storage_blobs}. Every method runs inside the caller's transaction: the blob
+ * row stays locked until commit, which is what keeps a store and a garbage collection of the same hash from
+ * interleaving (see {@code BlobStoreServiceImpl}).
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class StorageBlobRepository {
+
+    public record GarbageBlob(String sha256, String filePath) {
+    }
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO storage_blobs (sha256, size, file_path, ref_count, created_at)
+            VALUES (?, ?, ?, 1, ?)
+            ON CONFLICT (sha256) DO UPDATE
+            SET ref_count = storage_blobs.ref_count + 1, unreferenced_since = NULL
+            RETURNING file_path
+            """;
+
+    private static final String ACQUIRE_EXISTING_SQL = """
+            UPDATE storage_blobs
+            SET ref_count = ref_count + 1, unreferenced_since = NULL
+            WHERE sha256 = ? AND size = ?
+            RETURNING file_path
+            """;
+
+    // Dòng đã có (store khác của cùng nội dung vừa commit) thì tệp thuộc về dòng đó, không đánh dấu gì thêm
+    private static final String MARK_ORPHAN_SQL = """
+            INSERT INTO storage_blobs (sha256, size, file_path, ref_count, created_at, unreferenced_since)
+            VALUES (?, ?, ?, 0, ?, ?)
+            ON CONFLICT (sha256) DO NOTHING
+            """;
+
+    // Chỉ giảm khi MediaFile thực sự còn giữ tham chiếu, nên gọi lại lần hai không làm lệch bộ đếm
+    private static final String RELEASE_SQL = """
+            WITH released AS (
+                UPDATE media_files SET content_hash = NULL
+                WHERE id = ? AND content_hash IS NOT NULL
+                RETURNING content_hash
+            )
+            UPDATE storage_blobs b
+            SET ref_count = GREATEST(b.ref_count - 1, 0),
+                unreferenced_since = CASE WHEN b.ref_count <= 1 THEN ? ELSE NULL END
+            FROM released r
+            WHERE b.sha256 = r.content_hash
+            """;
+
+    // NOT EXISTS chặn trường hợp bộ đếm lệch (sửa tay, dữ liệu cũ): không bao giờ xóa blob còn được tham chiếu
+    private static final String CLAIM_GARBAGE_SQL = """
+            SELECT b.sha256, b.file_path
+            FROM storage_blobs b
+            WHERE b.ref_count = 0 AND b.unreferenced_since < ?
+              AND NOT EXISTS (SELECT 1 FROM media_files m WHERE m.content_hash = b.sha256)
+            ORDER BY b.unreferenced_since
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add a reference to {@code sha256}, creating the blob row when it is new.
+     *
+     * @return the blob's file path, which is the stored one if the blob already existed
+     */
+    public String acquire(String sha256, long size, String filePath) {
+        return jdbcTemplate.queryForObject(ACQUIRE_SQL, String.class,
+                sha256, size, filePath, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Add a reference to an existing blob of the given size.
+     *
+     * @return the blob's file path, empty when no such blob exists
+     */
+    public Optional<String> acquireExisting(String sha256, long size) {
+        return jdbcTemplate.queryForList(ACQUIRE_EXISTING_SQL, String.class, sha256, size).stream().findFirst();
+    }
+
+    /**
+     * Record a blob file whose creating transaction rolled back, as unreferenced so the garbage collector
+     * deletes it once the grace period has passed.
+     */
+    public void markOrphan(String sha256, long size, String filePath) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(MARK_ORPHAN_SQL, sha256, size, filePath, now, now);
+    }
+
+    /**
+     * Drop the reference held by a media file, if it still holds one.
+     *
+     * @return true when a reference was released
+     */
+    public boolean release(UUID mediaFileId) {
+        return jdbcTemplate.update(RELEASE_SQL, mediaFileId, Timestamp.valueOf(LocalDateTime.now())) > 0;
+    }
+
+    /**
+     * Lock up to {@code limit} blobs unreferenced since before {@code cutoff}; rows locked by another node or
+     * by a concurrent {@link #acquire} are skipped.
+     */
+    public List<GarbageBlob> claimGarbage(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(CLAIM_GARBAGE_SQL,
+                (rs, i) -> new GarbageBlob(rs.getString("sha256"), rs.getString("file_path")),
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    public void delete(String sha256) {
+        jdbcTemplate.update("DELETE FROM storage_blobs WHERE sha256 = ?", sha256);
+    }
+}
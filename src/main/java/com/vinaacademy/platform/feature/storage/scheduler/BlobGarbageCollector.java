@@ -0,0 +1,67 @@
+package com.vinaacademy.platform.feature.storage.scheduler;
+
+import com.vinaacademy.platform.feature.storage.repository.StorageBlobRepository;
+import com.vinaacademy.platform.feature.storage.repository.StorageBlobRepository.GarbageBlob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Xóa các blob không còn MediaFile nào tham chiếu sau thời gian chờ. Mỗi lô một transaction: dòng blob bị khóa
+ * (SKIP LOCKED) trong lúc xóa tệp rồi mới xóa dòng, nên một lượt tải lên cùng nội dung hoặc chờ lô này xong
+ * rồi ghi lại tệp, hoặc giữ khóa trước và blob không còn là rác.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlobGarbageCollector {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final StorageBlobRepository storageBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Thời gian chờ cho phép hủy nhầm một phiên tải lên rồi tải lại mà vẫn khớp nội dung cũ
+    @Value("${application.storage.blob-gc.grace:PT24H}")
+    private Duration grace;
+
+    @Scheduled(fixedDelayString = "${application.storage.blob-gc.interval-ms:3600000}") // mặc định mỗi giờ
+    public void collect() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(grace);
+        int deleted = 0;
+        Integer batch;
+        do {
+            batch = transactionTemplate.execute(status -> collectBatch(cutoff));
+            deleted += batch != null ? batch : 0;
+        } while (batch != null && batch == BATCH_SIZE);
+
+        if (deleted > 0) {
+            log.info("Blob GC: {} unreferenced blobs deleted", deleted);
+        }
+    }
+
+    private int collectBatch(LocalDateTime cutoff) {
+        List<GarbageBlob> garbage = storageBlobRepository.claimGarbage(cutoff, BATCH_SIZE);
+        for (GarbageBlob blob : garbage) {
+            try {
+                Files.deleteIfExists(Paths.get(blob.filePath()));
+            } catch (IOException e) {
+                // Rollback cả lô: dòng blob còn lại thì lượt sau thử xóa lại
+                throw new UncheckedIOException("Failed to delete blob " + blob.sha256(), e);
+            }
+            storageBlobRepository.delete(blob.sha256());
+        }
+        return garbage.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.vinaacademy.platform.feature.storage.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Content-addressed storage of uploaded bytes: identical content is kept once, under its SHA-256, and shared
+ * by every {@code MediaFile} referencing it through {@code content_hash}.
+ */
+public interface BlobStoreService {
+
+    /**
+     * A blob a media file now references.
+     *
+     * @param sha256   lowercase hex SHA-256 of the content
+     * @param filePath local path of the shared content
+     */
+    record StoredBlob(String sha256, String filePath) {
+    }
+
+    /**
+     * Move {@code file} into the store and take a reference on it. If the same content is already stored,
+     * {@code file} is deleted and the existing blob is referenced instead.
+     *
+     * @param file   a temporary file, owned by the store once this returns
+     * @param sha256 hash of {@code file} already computed by the caller, or {@code null} to compute it here
+     */
+    StoredBlob store(Path file, String sha256) throws IOException;
+
+    /**
+     * Take a reference on already stored content without receiving the bytes again.
+     *
+     * @return the blob, empty if this content (with this size) is not stored
+     */
+    Optional<StoredBlob> reuse(String sha256, long size);
+
+    /**
+     * Drop the reference {@code mediaFileId} holds, if any. The bytes are removed by the garbage collector
+     * once no media file references them anymore.
+     */
+    void release(UUID mediaFileId);
+
+    /**
+     * @return true if {@code path} is managed by the store and must not be deleted by its users
+     */
+    boolean isBlob(Path path);
+}
@@ -2,9 +2,31 @@ package com.vinaacademy.platform.feature.storage.service;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface S3Service {
+
+    /**
+ * An object listed from the bucket.
+ *
+ * @param key          the object key
+ * @param size         size in bytes
+ * @param lastModified last modification time reported by the store
+ */
+    record StoredObject(String key, long size, Instant lastModified) {
+    }
+
+    /**
+ * A presigned GET URL.
+ *
+ * @param url       the URL, usable without credentials
+ * @param expiresAt when the URL stops being accepted
+ */
+    record PresignedUrl(String url, Instant expiresAt) {
+    }
     
     /**
  * Uploads a local file to S3/MinIO and returns its public URL.
@@ -61,6 +83,26 @@ public interface S3Service {
  * @return a presigned HTTP URL for accessing the object
  */
     String generatePresignedUrl(String key, int expirationInSeconds);
+
+    /**
+ * Same as {@link #generatePresignedUrl(String, int)}, also returning when the URL expires. URLs are reused
+ * while they remain valid for most of the requested duration, so the expiry may be earlier than
+ * {@code now + expirationInSeconds}.
+ *
+ * @param key the object key in the bucket
+ * @param expirationInSeconds requested validity in seconds
+ * @return the presigned URL and its expiry
+ */
+    PresignedUrl presign(String key, int expirationInSeconds);
+
+    /**
+ * Presign GET URLs for many objects at once, e.g. every segment of an HLS playlist.
+ *
+ * @param keys the object keys in the bucket
+ * @param expirationInSeconds requested validity in seconds
+ * @return the presigned URL of each key, in the iteration order of {@code keys}
+ */
+    Map<String, String> generatePresignedUrls(Collection<String> keys, int expirationInSeconds);
     
     /**
  * Delete the object identified by the given key from S3/MinIO.
@@ -76,11 +118,54 @@ public interface S3Service {
     /**
  * Delete all objects whose keys start with the given prefix.
  *
- * <p>If no objects match the prefix the method performs no action.</p>
+ * <p>Every page of the listing is deleted, however many objects the prefix holds.
+ * If no objects match the prefix the method performs no action.</p>
  *
  * @param keyPrefix prefix of object keys to delete (all objects with keys that begin with this value)
  */
     void deleteDirectory(String keyPrefix);
+
+    /**
+ * Delete the given objects, in as few requests as the store allows.
+ *
+ * @param keys object keys to delete; keys that do not exist are ignored
+ * @return the number of keys deleted
+ */
+    int deleteObjects(Collection<String> keys);
+
+    /**
+ * Copy an object within the bucket without downloading it.
+ *
+ * @param sourceKey key of the object to copy
+ * @param targetKey key of the copy; an existing object is overwritten
+ */
+    void copyFile(String sourceKey, String targetKey);
+
+    /**
+ * Copy every object under {@code sourcePrefix} to the same relative key under {@code targetPrefix}, without
+ * downloading them.
+ *
+ * @param sourcePrefix prefix of the objects to copy, normally ending with '/'
+ * @param targetPrefix prefix of the copies, normally ending with '/'
+ * @return the number of objects copied
+ */
+    int copyDirectory(String sourcePrefix, String targetPrefix);
+
+    /**
+ * List every object whose key starts with the given prefix, following the listing across all pages.
+ *
+ * @param keyPrefix prefix of the object keys to list
+ * @return the matching objects, in key order
+ */
+    List<StoredObject> listObjects(String keyPrefix);
+
+    /**
+ * List the immediate "sub-directories" of a prefix, i.e. the distinct key prefixes up to the next '/'.
+ *
+ * @param keyPrefix parent prefix, normally ending with '/'
+ * @return the sub-prefixes, each ending with '/'
+ */
+    List<String> listPrefixes(String keyPrefix);
     
     /**
  * Returns true if an object with the given S3/MinIO key exists.
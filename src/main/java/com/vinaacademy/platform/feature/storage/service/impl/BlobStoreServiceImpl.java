@@ -0,0 +1,133 @@
+package com.vinaacademy.platform.feature.storage.service.impl;
+
+import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
+import com.vinaacademy.platform.feature.storage.repository.StorageBlobRepository;
+import com.vinaacademy.platform.feature.storage.service.BlobStoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Blobs live under {@code <blobDir>/ab/cd/<sha256>}, so the path of some content is known from its hash alone.
+ * <p>
+ * The blob row is locked (upserted) before the file is touched and the garbage collector deletes the file
+ * while holding the same row lock, so a store never races with the deletion of the content it re-references.
+ * <p>
+ * A file moved into place by a transaction that then rolls back has lost its row with the rollback. It is not
+ * deleted directly, because a concurrent store of the same content may already have seen it; instead an
+ * unreferenced row is recorded for it so the garbage collector reclaims it under the usual lock and grace period.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BlobStoreServiceImpl implements BlobStoreService {
+    private final StorageBlobRepository storageBlobRepository;
+    private final StorageProperties storageProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    @Transactional
+    public StoredBlob store(Path file, String sha256) throws IOException {
+        String hash = sha256 != null ? sha256.toLowerCase(Locale.ROOT) : hash(file);
+        long size = Files.size(file);
+
+        Path storedPath = Paths.get(storageBlobRepository.acquire(hash, size, blobPath(hash).toString()));
+        if (Files.exists(storedPath)) {
+            Files.deleteIfExists(file);
+            log.debug("Deduplicated upload of {} bytes onto blob {}", size, hash);
+        } else {
+            Files.createDirectories(storedPath.getParent());
+            try {
+                Files.move(file, storedPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Thư mục tạm nằm trên ổ khác: chép sang cạnh đích rồi đổi tên để không lộ tệp ghi dở
+                Path partial = storedPath.resolveSibling(storedPath.getFileName() + ".part");
+                Files.copy(file, partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, storedPath, StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(file);
+            }
+            reclaimOnRollback(hash, size, storedPath);
+        }
+        return new StoredBlob(hash, storedPath.toString());
+    }
+
+    @Override
+    @Transactional
+    public Optional<StoredBlob> reuse(String sha256, long size) {
+        String hash = sha256.toLowerCase(Locale.ROOT);
+        // Tệp chưa có thì không tăng bộ đếm; nếu GC đang xóa blob này, acquireExisting chờ rồi không thấy dòng
+        if (!Files.isRegularFile(blobPath(hash))) {
+            return Optional.empty();
+        }
+        return storageBlobRepository.acquireExisting(hash, size)
+                .map(path -> new StoredBlob(hash, path));
+    }
+
+    @Override
+    @Transactional
+    public void release(UUID mediaFileId) {
+        if (storageBlobRepository.release(mediaFileId)) {
+            log.debug("Media file {} released its blob", mediaFileId);
+        }
+    }
+
+    private void reclaimOnRollback(String hash, long size, Path storedPath) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    TransactionTemplate orphanTx = new TransactionTemplate(transactionManager);
+                    orphanTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    orphanTx.executeWithoutResult(
+                            s -> storageBlobRepository.markOrphan(hash, size, storedPath.toString()));
+                    log.debug("Upload of blob {} rolled back; left for garbage collection", hash);
+                } catch (RuntimeException e) {
+                    log.warn("Could not record orphaned blob {} at {}", hash, storedPath, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean isBlob(Path path) {
+        return path.toAbsolutePath().normalize().startsWith(blobRoot());
+    }
+
+    private Path blobPath(String hash) {
+        return blobRoot().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path blobRoot() {
+        return Paths.get(storageProperties.getBlobDir()).toAbsolutePath().normalize();
+    }
+
+    private static String hash(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return DigestUtils.sha256Hex(in);
+        }
+    }
+}
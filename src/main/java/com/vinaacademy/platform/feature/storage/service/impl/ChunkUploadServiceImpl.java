@@ -4,20 +4,26 @@ import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.feature.storage.dto.UploadResult;
 import com.vinaacademy.platform.feature.storage.dto.UploadSessionDto;
 import com.vinaacademy.platform.feature.storage.entity.MediaFile;
+import com.vinaacademy.platform.feature.storage.event.MediaFileDeletedEvent;
 import com.vinaacademy.platform.feature.storage.mapper.UploadSessionMapper;
 import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
 import com.vinaacademy.platform.feature.storage.repository.MediaFileRepository;
 import com.vinaacademy.platform.feature.storage.request.ChunkUploadRequest;
 import com.vinaacademy.platform.feature.storage.request.InitiateUploadRequest;
+import com.vinaacademy.platform.feature.storage.service.BlobStoreService;
 import com.vinaacademy.platform.feature.storage.service.ChunkUploadService;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.entity.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,14 +36,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChunkUploadServiceImpl implements ChunkUploadService {
     private final MediaFileRepository mediaFileRepository;
+    private final MeterRegistry meterRegistry;
+    private final BlobStoreService blobStoreService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${application.upload.chunk.default-size:1048576}") // Default 1MB
     private long defaultChunkSize;
@@ -50,6 +61,7 @@ public class ChunkUploadServiceImpl implements ChunkUploadService {
     private StorageProperties storageProperties;
 
     @Override
+    @Transactional
     public UploadSessionDto initiateUpload(InitiateUploadRequest request) {
         User currentUser = securityHelper.getCurrentUser();
 
@@ -63,6 +75,15 @@ public class ChunkUploadServiceImpl implements ChunkUploadService {
                 log.info("Resuming existing upload session for file hash: {}", request.getFileHash());
                 return UploadSessionMapper.INSTANCE.toDto(existingSessionOpt.get());
             }
+
+            // Người dùng đã từng tải lên đúng nội dung này: hoàn tất ngay, không nhận lại byte nào.
+            // Chỉ so với tệp của chính người dùng, nếu không chỉ cần biết hash là lấy được tệp của người khác.
+            Optional<MediaFile> reused = reuseOwnContent(request, currentUser);
+            if (reused.isPresent()) {
+                log.info("Upload of {} completed instantly from existing content {}",
+                        request.getFilename(), reused.get().getContentHash());
+                return UploadSessionMapper.INSTANCE.toDto(reused.get());
+            }
         }
         // 2. create new session
         MediaFile uploadSession = MediaFile.builder()
@@ -120,6 +141,7 @@ public class ChunkUploadServiceImpl implements ChunkUploadService {
         validateChunk(chunkFile, request.getChunkNumber(), uploadSession);
 
         // write chunk to temp file
+        long writeStart = System.nanoTime();
         try {
             Path tempFilePath = Paths.get(uploadSession.getFilePath());
             try (RandomAccessFile raf = new RandomAccessFile(tempFilePath.toFile(), "rw")) {
@@ -129,19 +151,37 @@ public class ChunkUploadServiceImpl implements ChunkUploadService {
         } catch (IOException e) {
             log.error("Failed to write chunk to temporary file: {}", e.getMessage());
             throw BadRequestException.message("Không thể ghi chunk vào tệp tạm thời: " + e.getMessage());
+        } finally {
+            Timer.builder("upload.chunk")
+                    .description("Time to persist one uploaded chunk to the temporary file")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - writeStart, TimeUnit.NANOSECONDS);
         }
+        DistributionSummary.builder("upload.chunk.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(chunkFile.getSize());
 
         // update session
         boolean isLastChunk = request.getChunkNumber() == uploadSession.getTotalChunks() - 1;
         uploadSession.setUploadedChunks(uploadSession.getUploadedChunks() + 1);
         if (isLastChunk) {
             uploadSession.setStatus(MediaFile.UploadStatus.COMPLETED);
+            Path tempFilePath = Paths.get(uploadSession.getFilePath());
+            String actualHash = sha256(tempFilePath);
             // check hash match if provided
-            if (StringUtils.isNotBlank(uploadSession.getFileHash())) {
-                boolean hashMatch = checkHashMatch(Paths.get(uploadSession.getFilePath()), uploadSession.getFileHash());
-                if (!hashMatch) {
-                    throw BadRequestException.message("Hash của tệp tải lên không khớp");
-                }
+            if (StringUtils.isNotBlank(uploadSession.getFileHash())
+                    && !actualHash.equalsIgnoreCase(uploadSession.getFileHash())) {
+                throw BadRequestException.message("Hash của tệp tải lên không khớp");
+            }
+            // Chuyển tệp đã ghép vào kho theo nội dung; trùng nội dung thì tệp tạm bị xóa và dùng lại blob cũ
+            try {
+                BlobStoreService.StoredBlob blob = blobStoreService.store(tempFilePath, actualHash);
+                uploadSession.setFilePath(blob.filePath());
+                uploadSession.setContentHash(blob.sha256());
+            } catch (IOException e) {
+                log.error("Failed to store uploaded file {}: {}", tempFilePath, e.getMessage());
+                throw BadRequestException.message("Không thể lưu tệp tải lên: " + e.getMessage());
             }
         } else {
             uploadSession.setStatus(MediaFile.UploadStatus.IN_PROGRESS);
@@ -155,13 +195,36 @@ public class ChunkUploadServiceImpl implements ChunkUploadService {
         return UploadSessionMapper.INSTANCE.toDto(uploadSession);
     }
 
-    private boolean checkHashMatch(Path tempFilePath, String expectedHash) {
+    private Optional<MediaFile> reuseOwnContent(InitiateUploadRequest request, User currentUser) {
+        String hash = request.getFileHash().toLowerCase(Locale.ROOT);
+        if (!mediaFileRepository.existsByContentHashAndUserId(hash, currentUser.getId())) {
+            return Optional.empty();
+        }
+        return blobStoreService.reuse(hash, request.getFileSize())
+                .map(blob -> {
+                    int totalChunks = (int) Math.ceil((double) request.getFileSize() / request.getChunkSize());
+                    return mediaFileRepository.save(MediaFile.builder()
+                            .fileName(request.getFilename())
+                            .fileSize(request.getFileSize())
+                            .fileHash(request.getFileHash())
+                            .contentHash(blob.sha256())
+                            .filePath(blob.filePath())
+                            .fileType(request.getFileType())
+                            .status(MediaFile.UploadStatus.COMPLETED)
+                            .uploadedChunks(totalChunks)
+                            .chunkSize(request.getChunkSize())
+                            .totalChunks(totalChunks)
+                            .userId(currentUser.getId())
+                            .build());
+                });
+    }
+
+    private String sha256(Path tempFilePath) {
         try (InputStream is = Files.newInputStream(tempFilePath)) {
-            String actualHash = DigestUtils.sha256Hex(is);
-            return actualHash.equalsIgnoreCase(expectedHash);
+            return DigestUtils.sha256Hex(is);
         } catch (IOException e) {
             log.error("Failed to read temporary file for hash check: {}", e.getMessage());
-            return false;
+            throw BadRequestException.message("Không thể đọc tệp tải lên: " + e.getMessage());
         }
     }
 
@@ -220,16 +283,24 @@ public class ChunkUploadServiceImpl implements ChunkUploadService {
             throw BadRequestException.message("Bạn không có quyền hủy phiên tải lên này");
         }
 
-        // 2. remove temporary files
-        try {
-            Path path = Paths.get(uploadSession.getFilePath());
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            log.warn("Failed to delete temporary file for upload session {}: {}", sessionId, e.getMessage());
+        // 2. remove temporary files; a completed upload only drops its reference to the shared blob
+        if (uploadSession.getContentHash() != null) {
+            blobStoreService.release(uploadSession.getId());
+        } else {
+            try {
+                Path path = Paths.get(uploadSession.getFilePath());
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete temporary file for upload session {}: {}", sessionId, e.getMessage());
+            }
         }
 
         // 3. delete upload session
         mediaFileRepository.delete(uploadSession);
+        eventPublisher.publishEvent(MediaFileDeletedEvent.builder()
+                .mediaFileId(uploadSession.getId())
+                .fileType(uploadSession.getFileType())
+                .build());
         log.info("Upload session {} has been cancelled and deleted", sessionId);
     }
 }
@@ -1,24 +1,32 @@
 package com.vinaacademy.platform.feature.storage.service.impl;
 
 import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.storage.utils.S3UrlSigner;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 import software.amazon.awssdk.transfer.s3.S3TransferManager;
 import software.amazon.awssdk.transfer.s3.model.CompletedDirectoryUpload;
 import software.amazon.awssdk.transfer.s3.model.UploadDirectoryRequest;
@@ -29,8 +37,14 @@ import software.amazon.awssdk.transfer.s3.model.UploadFileRequest;
 @RequiredArgsConstructor
 public class S3ServiceImpl implements S3Service {
 
+  // Giới hạn số key của một request DeleteObjects (S3 và MinIO)
+  private static final int DELETE_BATCH_SIZE = 1000;
+  private static final int MAX_CONCURRENT_DELETES = 4;
+  private static final int MAX_CONCURRENT_COPIES = 16;
+
   private final S3Client s3Client;
-  private final S3Presigner s3Presigner;
+  private final S3AsyncClient s3AsyncClient;
+  private final S3UrlSigner s3UrlSigner;
   private final S3TransferManager s3TransferManager;
 
   @Value("${minio.bucket}")
@@ -270,7 +284,7 @@ public class S3ServiceImpl implements S3Service {
    * Generate a presigned GET URL for an object stored in the configured bucket.
    *
    * The returned URL grants temporary, time-limited access to the object identified
-   * by `key`. The URL will expire after `expirationInSeconds` seconds.
+   * by `key`. URLs are cached and reused while valid for at least 3/4 of `expirationInSeconds`.
    *
    * @param key the object key (path) in the bucket
    * @param expirationInSeconds lifetime of the presigned URL in seconds
@@ -279,27 +293,26 @@ public class S3ServiceImpl implements S3Service {
    */
   @Override
   public String generatePresignedUrl(String key, int expirationInSeconds) {
+    return presign(key, expirationInSeconds).url();
+  }
+
+  /**
+   * Presign a GET of one object, returning the URL together with its expiry.
+   *
+   * @param key the object key (path) in the bucket
+   * @param expirationInSeconds requested lifetime in seconds
+   * @return the presigned URL and the instant it expires
+   * @throws RuntimeException if presigned URL generation fails
+   */
+  @Override
+  public PresignedUrl presign(String key, int expirationInSeconds) {
     try {
       log.debug(
           "Generating presigned URL: bucket={}, key={}, expiration={}",
           bucketName,
           key,
           expirationInSeconds);
-
-      GetObjectRequest getObjectRequest =
-          GetObjectRequest.builder().bucket(bucketName).key(key).build();
-
-      GetObjectPresignRequest presignRequest =
-          GetObjectPresignRequest.builder()
-              .signatureDuration(Duration.ofSeconds(expirationInSeconds))
-              .getObjectRequest(getObjectRequest)
-              .build();
-
-      PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
-      String url = presignedRequest.url().toString();
-
-      log.debug("Generated presigned URL: {}", url);
-      return url;
+      return s3UrlSigner.presign(bucketName, key, Duration.ofSeconds(expirationInSeconds));
 
     } catch (Exception e) {
       log.error(
@@ -312,6 +325,34 @@ public class S3ServiceImpl implements S3Service {
     }
   }
 
+  /**
+   * Presign GET URLs for many objects with a single signing time and derived signing key.
+   *
+   * @param keys object keys (paths) in the bucket
+   * @param expirationInSeconds requested lifetime in seconds
+   * @return the presigned URL of each key, in the iteration order of {@code keys}
+   * @throws RuntimeException if presigned URL generation fails
+   */
+  @Override
+  public Map<String, String> generatePresignedUrls(Collection<String> keys, int expirationInSeconds) {
+    try {
+      Map<String, String> urls = new LinkedHashMap<>();
+      s3UrlSigner
+          .presign(bucketName, keys, Duration.ofSeconds(expirationInSeconds))
+          .forEach((key, presigned) -> urls.put(key, presigned.url()));
+      return urls;
+
+    } catch (Exception e) {
+      log.error(
+          "Failed to generate presigned URLs: bucket={}, count={}, error={}",
+          bucketName,
+          keys.size(),
+          e.getMessage(),
+          e);
+      throw new RuntimeException("Failed to generate presigned URLs", e);
+    }
+  }
+
   /**
    * Delete the object identified by the given key from the configured S3 bucket.
    *
@@ -343,42 +384,29 @@ public class S3ServiceImpl implements S3Service {
   /**
    * Deletes all objects in the configured bucket that have keys starting with the provided prefix.
    *
-   * The method lists objects matching the prefix and issues a single bulk delete request for those
-   * objects. If no objects are found for the prefix, the method returns without error.
+   * <p>The listing is followed page by page through its continuation tokens; keys are grouped into
+   * {@value #DELETE_BATCH_SIZE}-key {@code DeleteObjects} requests sent on the async client while the next page
+   * is being listed. If no objects are found for the prefix, the method returns without error.
    *
    * @param keyPrefix prefix of object keys to remove (treated as a path-like prefix)
-   * @throws RuntimeException if listing or deletion from the S3 bucket fails
+   * @throws RuntimeException if listing fails or any object could not be deleted
    */
   @Override
   public void deleteDirectory(String keyPrefix) {
     try {
       log.debug("Deleting directory from S3: bucket={}, keyPrefix={}", bucketName, keyPrefix);
 
-      // List all objects with the prefix
-      ListObjectsV2Request listRequest =
-          ListObjectsV2Request.builder().bucket(bucketName).prefix(keyPrefix).build();
+      BatchDeleter deleter = new BatchDeleter();
+      forEachPage(
+          ListObjectsV2Request.builder().bucket(bucketName).prefix(keyPrefix),
+          page -> page.contents().forEach(s3Object -> deleter.add(s3Object.key())));
+      int deleted = deleter.finish();
 
-      ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
-
-      if (listResponse.contents().isEmpty()) {
+      if (deleted == 0) {
         log.debug("No objects found with prefix: {}", keyPrefix);
         return;
       }
-
-      // Create delete request
-      List<ObjectIdentifier> objectsToDelete =
-          listResponse.contents().stream()
-              .map(s3Object -> ObjectIdentifier.builder().key(s3Object.key()).build())
-              .toList();
-
-      Delete delete = Delete.builder().objects(objectsToDelete).build();
-
-      DeleteObjectsRequest deleteRequest =
-          DeleteObjectsRequest.builder().bucket(bucketName).delete(delete).build();
-
-      s3Client.deleteObjects(deleteRequest);
-      log.debug(
-          "Successfully deleted {} objects with prefix: {}", objectsToDelete.size(), keyPrefix);
+      log.debug("Successfully deleted {} objects with prefix: {}", deleted, keyPrefix);
 
     } catch (Exception e) {
       log.error(
@@ -391,6 +419,234 @@ public class S3ServiceImpl implements S3Service {
     }
   }
 
+  /**
+   * Deletes the given objects with {@value #DELETE_BATCH_SIZE}-key {@code DeleteObjects} requests, up to
+   * {@value #MAX_CONCURRENT_DELETES} of them in flight at once.
+   *
+   * @param keys object keys to delete
+   * @return the number of keys deleted
+   * @throws RuntimeException if any object could not be deleted
+   */
+  @Override
+  public int deleteObjects(Collection<String> keys) {
+    try {
+      BatchDeleter deleter = new BatchDeleter();
+      keys.forEach(deleter::add);
+      return deleter.finish();
+    } catch (Exception e) {
+      log.error(
+          "Failed to delete objects from S3: bucket={}, count={}, error={}",
+          bucketName,
+          keys.size(),
+          e.getMessage(),
+          e);
+      throw new RuntimeException("Failed to delete objects from S3", e);
+    }
+  }
+
+  /**
+   * Copies one object within the configured bucket, server side.
+   *
+   * @param sourceKey key of the object to copy
+   * @param targetKey key of the copy
+   * @throws RuntimeException if the copy fails, including when the source does not exist
+   */
+  @Override
+  public void copyFile(String sourceKey, String targetKey) {
+    try {
+      s3Client.copyObject(copyRequest(sourceKey, targetKey));
+      log.debug("Copied S3 object {} to {}", sourceKey, targetKey);
+    } catch (Exception e) {
+      log.error(
+          "Failed to copy S3 object: bucket={}, sourceKey={}, targetKey={}, error={}",
+          bucketName,
+          sourceKey,
+          targetKey,
+          e.getMessage(),
+          e);
+      throw new RuntimeException("Failed to copy file in S3", e);
+    }
+  }
+
+  /**
+   * Copies every object under {@code sourcePrefix} to the same relative key under {@code targetPrefix},
+   * server side, with up to {@value #MAX_CONCURRENT_COPIES} {@code CopyObject} requests in flight on the async
+   * client.
+   *
+   * @param sourcePrefix prefix of the objects to copy
+   * @param targetPrefix prefix replacing {@code sourcePrefix} in the copied keys
+   * @return the number of objects copied
+   * @throws RuntimeException if listing or any copy fails
+   */
+  @Override
+  public int copyDirectory(String sourcePrefix, String targetPrefix) {
+    Deque<CompletableFuture<CopyObjectResponse>> inFlight = new ArrayDeque<>();
+    int[] copied = {0};
+    try {
+      forEachPage(
+          ListObjectsV2Request.builder().bucket(bucketName).prefix(sourcePrefix),
+          page ->
+              page.contents()
+                  .forEach(
+                      o -> {
+                        if (inFlight.size() == MAX_CONCURRENT_COPIES) {
+                          inFlight.poll().join();
+                        }
+                        String targetKey = targetPrefix + o.key().substring(sourcePrefix.length());
+                        inFlight.add(s3AsyncClient.copyObject(copyRequest(o.key(), targetKey)));
+                        copied[0]++;
+                      }));
+      CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+      log.debug("Copied {} objects from {} to {}", copied[0], sourcePrefix, targetPrefix);
+      return copied[0];
+    } catch (Exception e) {
+      // Không bỏ lửng các request đang chạy trước khi báo lỗi
+      inFlight.forEach(f -> f.exceptionally(t -> null).join());
+      log.error(
+          "Failed to copy directory in S3: bucket={}, sourcePrefix={}, targetPrefix={}, error={}",
+          bucketName,
+          sourcePrefix,
+          targetPrefix,
+          e.getMessage(),
+          e);
+      throw new RuntimeException("Failed to copy directory in S3", e);
+    }
+  }
+
+  private CopyObjectRequest copyRequest(String sourceKey, String targetKey) {
+    return CopyObjectRequest.builder()
+        .sourceBucket(bucketName)
+        .sourceKey(sourceKey)
+        .destinationBucket(bucketName)
+        .destinationKey(targetKey)
+        .build();
+  }
+
+  /**
+   * Lists all objects under a prefix, following continuation tokens until the listing is exhausted.
+   *
+   * @param keyPrefix prefix of the object keys to list
+   * @return the matching objects with their size and last modification time
+   */
+  @Override
+  public List<StoredObject> listObjects(String keyPrefix) {
+    List<StoredObject> objects = new ArrayList<>();
+    forEachPage(
+        ListObjectsV2Request.builder().bucket(bucketName).prefix(keyPrefix),
+        page ->
+            page.contents()
+                .forEach(
+                    o ->
+                        objects.add(
+                            new StoredObject(
+                                o.key(), o.size() != null ? o.size() : 0L, o.lastModified()))));
+    return objects;
+  }
+
+  /**
+   * Lists the common prefixes directly under {@code keyPrefix} using '/' as delimiter, across all pages.
+   *
+   * @param keyPrefix parent prefix
+   * @return the sub-prefixes, each ending with '/'
+   */
+  @Override
+  public List<String> listPrefixes(String keyPrefix) {
+    List<String> prefixes = new ArrayList<>();
+    forEachPage(
+        ListObjectsV2Request.builder().bucket(bucketName).prefix(keyPrefix).delimiter("/"),
+        page -> page.commonPrefixes().forEach(p -> prefixes.add(p.prefix())));
+    return prefixes;
+  }
+
+  /**
+   * Runs a ListObjectsV2 request and hands every page to {@code consumer}, passing the continuation token
+   * of each truncated page to the next request. A single call returns at most 1000 keys.
+   */
+  private void forEachPage(
+      ListObjectsV2Request.Builder request, Consumer<ListObjectsV2Response> consumer) {
+    String continuationToken = null;
+    do {
+      ListObjectsV2Response page =
+          s3Client.listObjectsV2(request.continuationToken(continuationToken).build());
+      consumer.accept(page);
+      continuationToken =
+          Boolean.TRUE.equals(page.isTruncated()) ? page.nextContinuationToken() : null;
+    } while (continuationToken != null);
+  }
+
+  /**
+   * Groups keys into {@code DeleteObjects} batches and sends them on the async client, waiting for the oldest
+   * batch once {@value #MAX_CONCURRENT_DELETES} are in flight. Per-key failures reported in the responses are
+   * collected and raised by {@link #finish()} once every batch has completed.
+   */
+  private final class BatchDeleter {
+    private final Deque<PendingDelete> inFlight = new ArrayDeque<>();
+    private final List<S3Error> errors = new ArrayList<>();
+    private List<ObjectIdentifier> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+    private RuntimeException failure;
+    private int deleted;
+
+    void add(String key) {
+      batch.add(ObjectIdentifier.builder().key(key).build());
+      if (batch.size() == DELETE_BATCH_SIZE) {
+        send();
+      }
+    }
+
+    int finish() {
+      send();
+      while (!inFlight.isEmpty()) {
+        await(inFlight.poll());
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      if (!errors.isEmpty()) {
+        S3Error first = errors.get(0);
+        throw new IllegalStateException(
+            String.format(
+                "%d objects not deleted, first: %s (%s: %s)",
+                errors.size(), first.key(), first.code(), first.message()));
+      }
+      return deleted;
+    }
+
+    private void send() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      if (inFlight.size() == MAX_CONCURRENT_DELETES) {
+        await(inFlight.poll());
+      }
+      // quiet: MinIO/S3 chỉ trả về các key lỗi, tránh phản hồi dài 1000 dòng cho mỗi lô
+      DeleteObjectsRequest request =
+          DeleteObjectsRequest.builder()
+              .bucket(bucketName)
+              .delete(Delete.builder().objects(batch).quiet(true).build())
+              .build();
+      inFlight.add(new PendingDelete(batch.size(), s3AsyncClient.deleteObjects(request)));
+      batch = new ArrayList<>(DELETE_BATCH_SIZE);
+    }
+
+    private void await(PendingDelete pending) {
+      try {
+        DeleteObjectsResponse response = pending.response().join();
+        errors.addAll(response.errors());
+        deleted += pending.size() - response.errors().size();
+      } catch (CompletionException e) {
+        // Chờ các lô còn lại xong rồi mới báo lỗi, không bỏ lửng request đang chạy
+        if (failure == null) {
+          failure =
+              e.getCause() instanceof RuntimeException cause
+                  ? cause
+                  : new RuntimeException(e.getCause());
+        }
+      }
+    }
+  }
+
+  private record PendingDelete(int size, CompletableFuture<DeleteObjectsResponse> response) {}
+
   /**
    * Checks whether an object with the given key exists in the configured bucket.
    *
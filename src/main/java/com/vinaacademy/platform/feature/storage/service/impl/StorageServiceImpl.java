@@ -4,21 +4,27 @@ import com.vinaacademy.platform.feature.storage.dto.MediaFileDto;
 import com.vinaacademy.platform.feature.storage.entity.MediaFile;
 import com.vinaacademy.platform.feature.storage.enums.FileType;
 import com.vinaacademy.platform.feature.storage.mapper.MediaFileMapper;
+import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
 import com.vinaacademy.platform.feature.storage.repository.MediaFileRepository;
+import com.vinaacademy.platform.feature.storage.service.BlobStoreService;
 import com.vinaacademy.platform.feature.storage.service.StorageService;
 import com.vinaacademy.platform.feature.storage.utils.StorageUtils;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDate;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.UUID;
 
 @Service
@@ -27,30 +33,43 @@ public class StorageServiceImpl implements StorageService {
     private final StorageUtils storageUtils;
 
     private final MediaFileRepository mediaFileRepository;
+    private final BlobStoreService blobStoreService;
+    private final StorageProperties storageProperties;
 
+    /**
+     * Streams the upload to a temporary file while hashing it, then hands it to the blob store: content
+     * uploaded before (by anyone) is not stored a second time.
+     */
     @Override
+    @Transactional
     public MediaFileDto uploadFile(MultipartFile file, FileType fileType, String userId) throws IOException {
         if (file.isEmpty() || file.getSize() == 0 || file.getOriginalFilename() == null) {
             throw new IllegalArgumentException("File is empty");
         }
-        String dateFolder = LocalDate.now().toString();
-        String uploadDir = storageUtils.getUploadDirByType(fileType);
-        String fileName = String.format("%s_%s", UUID.randomUUID(),
-                StringUtils.cleanPath(file.getOriginalFilename()));
+        Path tempDir = Paths.get(storageProperties.getTempDir());
+        Files.createDirectories(tempDir);
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".tmp");
 
-        Path userPath = Paths.get(uploadDir, userId, dateFolder);
-        Files.createDirectories(userPath);
-
-        Path filePath = userPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        BlobStoreService.StoredBlob blob;
+        try {
+            MessageDigest digest = DigestUtils.getSha256Digest();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            blob = blobStoreService.store(tempFile, Hex.encodeHexString(digest.digest()));
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
 
         MediaFile mediaFile = MediaFile.builder()
                 .fileName(file.getOriginalFilename())
-                .filePath(filePath.toString())
+                .filePath(blob.filePath())
+                .contentHash(blob.sha256())
                 .fileSize(file.getSize())
                 .fileType(fileType)
                 .mimeType(file.getContentType())
                 .userId(UUID.fromString(userId))
+                .status(MediaFile.UploadStatus.COMPLETED)
                 .build();
         mediaFile = mediaFileRepository.save(mediaFile);
         return MediaFileMapper.INSTANCE.toDto(mediaFile);
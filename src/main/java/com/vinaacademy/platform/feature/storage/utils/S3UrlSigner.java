@@ -0,0 +1,228 @@
+package com.vinaacademy.platform.feature.storage.utils;
+
+import com.vinaacademy.platform.feature.storage.service.S3Service.PresignedUrl;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Presigns S3 GET URLs (SigV4 query signing, {@code UNSIGNED-PAYLOAD}) with a signing key derived once per day
+ * instead of once per URL.
+ *
+ * <p>The signing time is rounded down to a window of a quarter of the requested expiry, so every URL handed
+ * out stays valid for at least three quarters of it and the URL of a key is identical for the whole window:
+ * it is cached by (bucket, key, expiry, window) and repeated requests, on this node or in a browser/CDN cache,
+ * reuse it. Batches sign all their cache misses with one {@link Mac}, which turns presigning a 1000-segment
+ * playlist into string building plus one HMAC per segment.
+ */
+public final class S3UrlSigner {
+
+  private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+  private static final String SERVICE = "s3";
+  private static final String HMAC_SHA256 = "HmacSHA256";
+  private static final DateTimeFormatter DATE =
+      DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+  private static final DateTimeFormatter DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+  // Giới hạn của X-Amz-Expires
+  private static final long MAX_EXPIRY_SECONDS = Duration.ofDays(7).toSeconds();
+
+  private record CacheKey(String bucket, String key, long expirySeconds, long window) {}
+
+  private record SigningKey(String date, byte[] key) {}
+
+  private final String scheme;
+  private final String host;
+  private final String region;
+  private final String accessKey;
+  private final String secretKey;
+  private final boolean pathStyle;
+  private final Clock clock;
+  private final Map<CacheKey, PresignedUrl> cache;
+
+  // Khóa ký chỉ đổi theo ngày (date/region/service), tính lại khi sang ngày mới
+  private volatile SigningKey signingKey;
+
+  public S3UrlSigner(
+      String endpoint,
+      String region,
+      String accessKey,
+      String secretKey,
+      boolean pathStyle,
+      int cacheSize,
+      Clock clock) {
+    URI uri = URI.create(endpoint);
+    boolean defaultPort =
+        uri.getPort() < 0
+            || ("http".equals(uri.getScheme()) && uri.getPort() == 80)
+            || ("https".equals(uri.getScheme()) && uri.getPort() == 443);
+    this.scheme = uri.getScheme();
+    this.host = defaultPort ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    this.region = region;
+    this.accessKey = accessKey;
+    this.secretKey = secretKey;
+    this.pathStyle = pathStyle;
+    this.clock = clock;
+    this.cache =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<CacheKey, PresignedUrl> eldest) {
+                return size() > cacheSize;
+              }
+            });
+  }
+
+  /**
+   * Presign a GET of one object.
+   *
+   * @param expiry requested validity; the returned URL is valid for at least 3/4 of it
+   */
+  public PresignedUrl presign(String bucket, String key, Duration expiry) {
+    return presign(bucket, List.of(key), expiry).get(key);
+  }
+
+  /**
+   * Presign a GET of each key with the same signing time and key.
+   *
+   * @return the URLs by key, in the iteration order of {@code keys}
+   */
+  public Map<String, PresignedUrl> presign(String bucket, Collection<String> keys, Duration expiry) {
+    long expirySeconds = Math.min(Math.max(expiry.toSeconds(), 1), MAX_EXPIRY_SECONDS);
+    long windowSeconds = Math.max(expirySeconds / 4, 1);
+    long window = clock.instant().getEpochSecond() / windowSeconds;
+    Instant signedAt = Instant.ofEpochSecond(window * windowSeconds);
+    Instant expiresAt = signedAt.plusSeconds(expirySeconds);
+
+    Map<String, PresignedUrl> urls = new LinkedHashMap<>();
+    Signing signing = null;
+    for (String key : keys) {
+      CacheKey cacheKey = new CacheKey(bucket, key, expirySeconds, window);
+      PresignedUrl url = cache.get(cacheKey);
+      if (url == null) {
+        if (signing == null) {
+          signing = new Signing(signedAt, expirySeconds);
+        }
+        url = new PresignedUrl(signing.sign(bucket, key), expiresAt);
+        cache.put(cacheKey, url);
+      }
+      urls.put(key, url);
+    }
+    return urls;
+  }
+
+  /** State shared by the URLs of one batch: timestamp, credential scope and the initialized HMAC. */
+  private final class Signing {
+    private final String amzDate;
+    private final String scope;
+    private final String queryPrefix;
+    private final Mac mac;
+    private final MessageDigest sha256;
+
+    Signing(Instant signedAt, long expirySeconds) {
+      String date = DATE.format(signedAt);
+      this.amzDate = DATE_TIME.format(signedAt);
+      this.scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+      // Tham số đã theo thứ tự bảng chữ cái, đúng dạng canonical query string
+      this.queryPrefix =
+          "X-Amz-Algorithm="
+              + ALGORITHM
+              + "&X-Amz-Credential="
+              + encode(accessKey + "/" + scope, true)
+              + "&X-Amz-Date="
+              + amzDate
+              + "&X-Amz-Expires="
+              + expirySeconds
+              + "&X-Amz-SignedHeaders=host";
+      try {
+        this.mac = Mac.getInstance(HMAC_SHA256);
+        this.mac.init(new SecretKeySpec(signingKey(date), HMAC_SHA256));
+        this.sha256 = MessageDigest.getInstance("SHA-256");
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("SigV4 signing is unavailable", e);
+      }
+    }
+
+    String sign(String bucket, String key) {
+      String objectHost = pathStyle ? host : bucket + "." + host;
+      String path = (pathStyle ? "/" + encode(bucket, true) : "") + "/" + encode(key, false);
+      String canonicalRequest =
+          "GET\n"
+              + path
+              + "\n"
+              + queryPrefix
+              + "\nhost:"
+              + objectHost
+              + "\n\nhost\nUNSIGNED-PAYLOAD";
+      String stringToSign =
+          ALGORITHM
+              + "\n"
+              + amzDate
+              + "\n"
+              + scope
+              + "\n"
+              + HexFormat.of().formatHex(sha256.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+      String signature =
+          HexFormat.of().formatHex(mac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8)));
+      return scheme + "://" + objectHost + path + "?" + queryPrefix + "&X-Amz-Signature=" + signature;
+    }
+  }
+
+  private byte[] signingKey(String date) throws GeneralSecurityException {
+    SigningKey current = signingKey;
+    if (current == null || !current.date().equals(date)) {
+      byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+      key = hmac(key, region);
+      key = hmac(key, SERVICE);
+      key = hmac(key, "aws4_request");
+      current = new SigningKey(date, key);
+      signingKey = current;
+    }
+    return current.key();
+  }
+
+  private static byte[] hmac(byte[] key, String data) throws GeneralSecurityException {
+    Mac mac = Mac.getInstance(HMAC_SHA256);
+    mac.init(new SecretKeySpec(key, HMAC_SHA256));
+    return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * URI-encode as SigV4 requires: every byte except the unreserved characters {@code A-Za-z0-9-._~}, and '/'
+   * only when {@code encodeSlash}.
+   */
+  static String encode(String value, boolean encodeSlash) {
+    StringBuilder sb = new StringBuilder(value.length() + 16);
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xff);
+      if ((c >= 'A' && c <= 'Z')
+          || (c >= 'a' && c <= 'z')
+          || (c >= '0' && c <= '9')
+          || c == '-'
+          || c == '.'
+          || c == '_'
+          || c == '~'
+          || (c == '/' && !encodeSlash)) {
+        sb.append(c);
+      } else {
+        sb.append('%').append(Character.toUpperCase(Character.forDigit((c >> 4) & 0xf, 16)))
+            .append(Character.toUpperCase(Character.forDigit(c & 0xf, 16)));
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -2,9 +2,12 @@ package com.vinaacademy.platform.feature.user;
 
 import com.vinaacademy.platform.feature.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,4 +34,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
+
+    // Chỉ lưu thời điểm hết khóa; bộ đếm đăng nhập sai nằm ở LoginAttemptStore, không ghi vào bảng users
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lockTime = :lockTime WHERE u.email = :email AND (u.lockTime IS NULL OR u.lockTime < :lockTime)")
+    int extendLockTime(@Param("email") String email, @Param("lockTime") LocalDateTime lockTime);
 }
@@ -0,0 +1,31 @@
+package com.vinaacademy.platform.feature.user.auth.config;
+
+import com.vinaacademy.platform.feature.user.auth.throttle.LocalLoginAttemptStore;
+import com.vinaacademy.platform.feature.user.auth.throttle.LoginAttemptStore;
+import com.vinaacademy.platform.feature.user.auth.throttle.RedisLoginAttemptStore;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+@Log4j2
+public class LoginThrottleConfig {
+
+    /**
+     * Failed-login counters in Redis, shared by all nodes; per-node counters in memory when
+     * {@code spring.data.redis.enabled} is false.
+     */
+    @Bean
+    public LoginAttemptStore loginAttemptStore(@Value("${spring.data.redis.enabled:false}") boolean redisEnabled,
+                                               ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        StringRedisTemplate redisTemplate = redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        if (redisTemplate == null) {
+            log.info("Redis disabled, login throttling uses in-memory counters");
+            return new LocalLoginAttemptStore();
+        }
+        return new RedisLoginAttemptStore(redisTemplate);
+    }
+}
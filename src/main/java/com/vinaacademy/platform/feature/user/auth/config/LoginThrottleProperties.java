@@ -0,0 +1,51 @@
+package com.vinaacademy.platform.feature.user.auth.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(LoginThrottleProperties.class)
+@ConfigurationProperties(prefix = "application.auth.login-throttle")
+@Data
+@NoArgsConstructor
+public class LoginThrottleProperties {
+
+    /**
+     * Failed-login budget of one account or one client IP: a token bucket of {@code maxFailures} tokens
+     * refilled over {@code window}. The failure that empties it locks the key for {@code baseLockout},
+     * doubled on every further lockout up to {@code maxLockout}; the lockout count is forgotten after
+     * {@code resetAfter} without failures.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int maxFailures;
+        private Duration window;
+        private Duration baseLockout;
+        private Duration maxLockout;
+        private Duration resetAfter;
+    }
+
+    /**
+     * Turn login throttling off entirely.
+     */
+    private boolean enabled = true;
+    /**
+     * Budget per account (email). Lockouts are also written to the user's lock time.
+     */
+    private Limit account = new Limit(5, Duration.ofMinutes(15), Duration.ofMinutes(5), Duration.ofHours(24),
+            Duration.ofHours(24));
+    /**
+     * Budget per client IP, across all accounts. Larger than the account budget since many users may share
+     * an address behind NAT.
+     */
+    private Limit ip = new Limit(50, Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofHours(1),
+            Duration.ofHours(6));
+}
@@ -0,0 +1,28 @@
+package com.vinaacademy.platform.feature.user.auth.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RefreshTokenProperties.class)
+@ConfigurationProperties(prefix = "application.auth.refresh-token")
+@Data
+@NoArgsConstructor
+public class RefreshTokenProperties {
+    /**
+     * Keep the current token hash of every active family in Redis, so a refresh is validated without
+     * reading the database. Ignored when {@code spring.data.redis.enabled} is false.
+     */
+    private boolean cacheEnabled = true;
+    /**
+     * Max expired tokens deleted per statement by the cleanup job.
+     */
+    private int cleanupBatchSize = 1000;
+    /**
+     * Max cleanup batches per run, so one run cannot monopolize the scheduler thread.
+     */
+    private int cleanupMaxBatchesPerRun = 100;
+}
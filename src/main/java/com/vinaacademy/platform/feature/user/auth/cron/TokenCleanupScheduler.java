@@ -1,27 +1,41 @@
 package com.vinaacademy.platform.feature.user.auth.cron;
 
+import com.vinaacademy.platform.feature.user.auth.config.RefreshTokenProperties;
 import com.vinaacademy.platform.feature.user.auth.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 
+/**
+ * Xóa refresh token hết hạn theo từng lô, mỗi lô một câu lệnh (và một transaction) ngắn để không giữ khóa
+ * trên bảng lâu và không chặn các request đăng nhập/làm mới token.
+ */
 @Component
 @Log4j2
+@RequiredArgsConstructor
 public class TokenCleanupScheduler {
 
-    @Autowired
-    private RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenProperties refreshTokenProperties;
 
     @Scheduled(cron = "0 0 0/23 * * ?")
 //    @Scheduled(cron = "0 * * * * ?")
     public void scheduleRefreshTokenCleanup() {
         log.info("----------start clean up refresh tokens----------");
         LocalDateTime now = LocalDateTime.now();
-        refreshTokenRepository.deleteExpiredTokens(now);
-        log.info("----------end clean up refresh tokens------------");
+        int batchSize = refreshTokenProperties.getCleanupBatchSize();
 
+        int deleted = 0;
+        for (int batch = 0; batch < refreshTokenProperties.getCleanupMaxBatchesPerRun(); batch++) {
+            int count = refreshTokenRepository.deleteExpiredBatch(now, batchSize);
+            deleted += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        log.info("----------end clean up refresh tokens: {} deleted------------", deleted);
     }
 }
@@ -9,14 +9,24 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 
+/**
+ * One refresh token of a rotating family. Only the SHA-256 digest of the token is stored; a token is
+ * marked rotated (not deleted) when it is exchanged, so presenting it again is detected as reuse and
+ * revokes every token of its family.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "refresh_token")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "uk_refresh_tokens_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expire", columnList = "expire_time")
+})
 @Entity
 public class RefreshToken extends BaseEntity {
     @Id
@@ -25,11 +35,17 @@ public class RefreshToken extends BaseEntity {
     private Long id;
     @Column(name = "username", nullable = false)
     private String username;
-    @Column(name = "token", nullable = false, unique = true, length = 1000)
-    private String token;
+    // SHA-256 của token dạng hex, không lưu token gốc
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
 
     @JsonSerialize(using = LocalDateTimeSerializer.class)
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     @Column(name = "expire_time")
     private LocalDateTime expireTime;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
 }
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Utility class for security-related operations.
@@ -55,6 +56,29 @@ public class SecurityHelper {
                 .orElseThrow(() -> new UnauthorizedException("User not found"));
     }
 
+    /**
+     * Get the id of the currently authenticated user. Read from the access token's {@code userId} claim
+     * when present, so hot paths (e.g. playback heartbeats) avoid the user lookup of {@link #getCurrentUser()}.
+     *
+     * @return The current user's id
+     * @throws UnauthorizedException if no user is authenticated
+     */
+    public UUID getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof Jwt jwt) {
+            String userId = jwt.getClaimAsString("userId");
+            if (userId != null) {
+                try {
+                    return UUID.fromString(userId);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid userId claim in token: {}", userId);
+                }
+            }
+        }
+        return getCurrentUser().getId();
+    }
+
     /**
      * Check if the current user has a specific role
      *
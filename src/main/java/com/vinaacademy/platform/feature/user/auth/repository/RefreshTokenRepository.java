@@ -4,20 +4,42 @@ import com.vinaacademy.platform.feature.user.auth.entity.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    void deleteByToken(String token);
 
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    Optional<RefreshToken> findByTokenHashAndUsername(String tokenHash, String username);
+
+    /**
+     * Mark the token rotated unless it already is; 0 means another request exchanged it first.
+     */
     @Modifying
-    @Transactional
-    @Query("DELETE FROM RefreshToken t WHERE t.expireTime < :now")
-    void deleteExpiredTokens(LocalDateTime now);
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now WHERE t.tokenHash = :tokenHash AND t.rotatedAt IS NULL")
+    int markRotated(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
 
-    Optional<RefreshToken> findByToken(String refreshToken);
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
 
-    Optional<RefreshToken> findByTokenAndUsername(String refreshToken, String username);
+    // Xóa tối đa :limit token hết hạn; bỏ qua dòng đang bị khóa thay vì chờ
+    @Modifying
+    @Transactional
+    @Query(value = """
+        DELETE FROM refresh_tokens
+        WHERE id IN (
+            SELECT id FROM refresh_tokens
+            WHERE expire_time < :now
+            ORDER BY expire_time
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
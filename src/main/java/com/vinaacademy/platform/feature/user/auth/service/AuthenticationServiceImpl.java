@@ -3,6 +3,7 @@ package com.vinaacademy.platform.feature.user.auth.service;
 import com.vinaacademy.platform.exception.BadRequestException;
 import com.vinaacademy.platform.exception.RetryableException;
 import com.vinaacademy.platform.feature.common.constant.RetryConstants;
+import com.vinaacademy.platform.feature.common.utils.CommonUtils;
 import com.vinaacademy.platform.feature.common.utils.RandomUtils;
 import com.vinaacademy.platform.feature.email.config.UrlBuilder;
 import com.vinaacademy.platform.feature.email.service.EmailService;
@@ -12,11 +13,10 @@ import com.vinaacademy.platform.feature.user.UserMapper;
 import com.vinaacademy.platform.feature.user.UserRepository;
 import com.vinaacademy.platform.feature.user.auth.dto.*;
 import com.vinaacademy.platform.feature.user.auth.entity.ActionToken;
-import com.vinaacademy.platform.feature.user.auth.entity.RefreshToken;
 import com.vinaacademy.platform.feature.user.auth.enums.ActionTokenType;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.auth.repository.ActionTokenRepository;
-import com.vinaacademy.platform.feature.user.auth.repository.RefreshTokenRepository;
+import com.vinaacademy.platform.feature.user.auth.throttle.LoginThrottleService;
 import com.vinaacademy.platform.feature.user.auth.utils.JwtUtils;
 import com.vinaacademy.platform.feature.user.constant.AuthConstants;
 import com.vinaacademy.platform.feature.user.entity.User;
@@ -45,7 +45,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserDetailsService userDetailsService;
     private final JwtService jwtService;
     private final EmailService emailService;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ActionTokenRepository actionTokenRepository;
@@ -55,6 +55,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final HttpServletRequest httpServletRequest;
     private final RoleRepository roleRepository;
     private final SecurityHelper securityHelper;
+    private final LoginThrottleService loginThrottleService;
 
 
     /**
@@ -129,7 +130,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * @throws BadRequestException if the user is not found, not enabled, or locked.
      */
     public AuthenticationResponse login(AuthenticationRequest loginRequest) {
-      authenticateUser(loginRequest.getEmail(), loginRequest.getPassword());
+      String clientIp = clientIp();
+      // Kiểm tra khóa trước khi băm mật khẩu, request bị chặn không tốn chi phí bcrypt
+      loginThrottleService.checkAllowed(loginRequest.getEmail(), clientIp);
+      authenticateUser(loginRequest.getEmail(), loginRequest.getPassword(), clientIp);
 
       UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getEmail());
         if (userDetails == null) {
@@ -146,15 +150,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
 
         String accessToken = jwtService.generateAccessToken(userDetails);
-        String refreshToken = jwtService.generateRefreshToken(userDetails);
-
-
-        RefreshToken token = RefreshToken.builder()
-                .token(refreshToken)
-                .username(userDetails.getUsername())
-                .expireTime(jwtService.getExpirationTime(refreshToken))
-                .build();
-        refreshTokenRepository.save(token);
+        String refreshToken = refreshTokenService.issue(userDetails);
 
         logService.log(LogConstants.AUTH_KEY, LogConstants.LOGIN_ACTION, null, null);
         return new AuthenticationResponse(accessToken, refreshToken);
@@ -164,20 +160,27 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * Authenticates a user by email and password and stores the resulting Authentication in the SecurityContext.
      *
      * On authentication failure this method throws a BadRequestException with a user-facing message.
-     * If the account is disabled, it invokes the disabled-account handler before throwing.
+     * If the account is disabled, it invokes the disabled-account handler before throwing. Wrong passwords and
+     * unknown emails are counted by the login throttle; a successful login clears the account's failures.
      *
      * @param email    the user's email (used as the principal)
      * @param password the user's plain-text password
+     * @param clientIp the client address the attempt is counted against
      * @throws BadRequestException if authentication fails for any reason (bad credentials, locked/expired/disabled account, etc.)
      */
-    private void authenticateUser(String email, String password) {
+    private void authenticateUser(String email, String password, String clientIp) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, password)
             );
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            loginThrottleService.recordSuccess(email);
 
         } catch (AuthenticationException ex) {
+            // Email không tồn tại: CustomUserDetailService ném BadRequestException, được bọc lại
+            if (ex instanceof BadCredentialsException || ex.getCause() instanceof BadRequestException) {
+                loginThrottleService.recordFailure(email, clientIp);
+            }
             String message = authenticationExceptionMessage(ex);
             if (ex instanceof DisabledException) {
                 handleDisabledException(email);
@@ -186,6 +189,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
     }
 
+    private String clientIp() {
+        String ip = CommonUtils.getClientIp(httpServletRequest);
+        // X-Forwarded-For có thể chứa cả chuỗi proxy, địa chỉ đầu tiên là client
+        return ip == null ? null : ip.split(",")[0].trim();
+    }
+
     private void handleDisabledException(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> BadRequestException.message("Không tìm thấy người dùng"));
@@ -241,7 +250,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     }
 
     /**
-     * Logs out a user by invalidating the provided refresh token.
+     * Logs out a user by revoking the provided refresh token together with every token rotated from the same login.
      *
      * @param refreshToken The refresh token request to invalidate.
      * @throws BadRequestException if the token is invalid.
@@ -249,11 +258,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     public void logout(RefreshTokenRequest refreshToken) {
         String username = jwtService.extractUsername(JwtUtils.getJwtToken(httpServletRequest));
 
-        RefreshToken token = refreshTokenRepository.findByTokenAndUsername(refreshToken.getRefreshToken(),
-                        username)
-                .orElseThrow(() -> BadRequestException.message("Token không hợp lệ"));
-
-        refreshTokenRepository.delete(token);
+        refreshTokenService.revoke(refreshToken.getRefreshToken(), username);
 
         logService.log(LogConstants.AUTH_KEY, LogConstants.LOGOUT_ACTION, null, null);
     }
@@ -261,22 +266,18 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     /**
      * Refreshes the access token using the provided refresh token.
      *
+     * The refresh token is rotated: it is exchanged for a new one and cannot be used again. Reusing it revokes
+     * every refresh token issued since the same login.
+     *
      * @param refreshToken The refresh token request.
-     * @return An AuthenticationResponse containing a new access token and the provided refresh token.
-     * @throws BadRequestException if the token is invalid or expired.
+     * @return An AuthenticationResponse containing a new access token and the refresh token replacing the provided one.
+     * @throws BadRequestException if the token is invalid, expired or already used.
      */
     public AuthenticationResponse refreshToken(RefreshTokenRequest refreshToken) {
-        RefreshToken token = refreshTokenRepository.findByToken(refreshToken.getRefreshToken())
-                .orElseThrow(() -> BadRequestException.message("Token không hợp lệ"));
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken.getRefreshToken());
 
-        if (token.getExpireTime().isBefore(LocalDateTime.now())) {
-            throw BadRequestException.message("Token đã hết hạn");
-        }
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(token.getUsername());
-
-        String accessToken = jwtService.generateAccessToken(userDetails);
-        return new AuthenticationResponse(accessToken, refreshToken.getRefreshToken());
+        String accessToken = jwtService.generateAccessToken(rotation.userDetails());
+        return new AuthenticationResponse(accessToken, rotation.refreshToken());
     }
 
     /**
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +24,11 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class JwtService {
+  public static final String REFRESH_FAMILY_CLAIM = "fid";
+
+  /** Claims of a refresh token; {@code familyId} is null for tokens issued before rotation existed. */
+  public record RefreshTokenClaims(String username, UUID familyId, LocalDateTime expireTime) {}
+
   private final JwtEncoder jwtEncoder;
   private final JwtDecoder jwtDecoder;
 
@@ -55,18 +61,39 @@ public class JwtService {
   /**
    * Generates a signed refresh JWT for the given user.
    *
-   * The token contains the service's standard claims (issuer, subject, userId, email, roles, etc.)
-   * and is issued with the configured refresh token lifetime.
+   * The token contains the service's standard claims (issuer, subject, userId, email, roles, etc.), a unique id
+   * and the id of its rotation family, and is issued with the configured refresh token lifetime.
    *
    * @param userDetails the authenticated user's details (must be a User instance)
+   * @param familyId    the rotation family the token belongs to, stored in the {@value #REFRESH_FAMILY_CLAIM} claim
    * @return the encoded JWT refresh token string
    * @throws IllegalArgumentException if {@code userDetails} is null, not a supported User implementation,
    *                                  or if the configured refresh token expiration is not positive
    */
-  public String generateRefreshToken(UserDetails userDetails) {
-    return jwtEncoder
-        .encode(JwtEncoderParameters.from(createClaims(userDetails, refreshTokenExpirationTime)))
-        .getTokenValue();
+  public String generateRefreshToken(UserDetails userDetails, UUID familyId) {
+    // jti riêng để hai token xoay vòng trong cùng một giây vẫn khác nhau (và khác hash)
+    JwtClaimsSet claims =
+        JwtClaimsSet.from(createClaims(userDetails, refreshTokenExpirationTime))
+            .id(UUID.randomUUID().toString())
+            .claim(REFRESH_FAMILY_CLAIM, familyId.toString())
+            .build();
+    return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+  }
+
+  /**
+   * Decodes a refresh token, verifying its signature and expiry, and returns the claims needed to rotate it.
+   *
+   * @param token the refresh JWT
+   * @return the subject, token family and expiration of the token
+   * @throws org.springframework.security.oauth2.jwt.JwtException if the token is malformed, forged or expired
+   */
+  public RefreshTokenClaims decodeRefreshToken(String token) {
+    Map<String, Object> claims = extractClaims(token);
+    Object family = claims.get(REFRESH_FAMILY_CLAIM);
+    return new RefreshTokenClaims(
+        (String) claims.get("sub"),
+        family == null ? null : UUID.fromString(family.toString()),
+        LocalDateTime.ofInstant((Instant) claims.get("exp"), ZoneId.of(AppConstants.TIME_ZONE)));
   }
 
   /**
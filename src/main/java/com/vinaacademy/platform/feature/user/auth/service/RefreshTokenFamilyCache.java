@@ -0,0 +1,86 @@
+package com.vinaacademy.platform.feature.user.auth.service;
+
+import com.vinaacademy.platform.feature.common.constant.AppConstants;
+import com.vinaacademy.platform.feature.user.auth.config.RefreshTokenProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Redis copy of the current token hash of every active refresh token family, expiring with the token.
+ * A refresh whose hash matches needs no database read. Misses, Redis errors and a disabled cache all
+ * return null; on a miss or a different hash the caller checks the database, which stays the source of
+ * truth.
+ */
+@Slf4j
+@Component
+public class RefreshTokenFamilyCache {
+
+    private static final String FAMILY_KEY = "auth:refresh-family:";
+
+    // null khi Redis tắt hoặc cache bị tắt
+    private final StringRedisTemplate redisTemplate;
+
+    public RefreshTokenFamilyCache(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                   @Value("${spring.data.redis.enabled:false}") boolean redisEnabled,
+                                   RefreshTokenProperties properties) {
+        this.redisTemplate = redisEnabled && properties.isCacheEnabled()
+                ? redisTemplateProvider.getIfAvailable()
+                : null;
+    }
+
+    /**
+     * @return the hash of the family's current token, or null when unknown to the cache
+     */
+    public String currentHash(UUID familyId) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().get(FAMILY_KEY + familyId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read refresh token family {} from Redis: {}", familyId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Record {@code tokenHash} as the family's current token until {@code expireTime}.
+     */
+    public void put(UUID familyId, String tokenHash, LocalDateTime expireTime) {
+        if (redisTemplate == null) {
+            return;
+        }
+        Duration ttl = Duration.between(LocalDateTime.now(ZoneId.of(AppConstants.TIME_ZONE)), expireTime);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(FAMILY_KEY + familyId, tokenHash, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Failed to cache refresh token family {}: {}", familyId, e.getMessage());
+            // Không để lại hash của token cũ: lần xoay vòng sau sẽ đọc DB thay vì so với giá trị lỗi thời
+            evict(familyId);
+        }
+    }
+
+    public void evict(UUID familyId) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(FAMILY_KEY + familyId);
+        } catch (DataAccessException e) {
+            // Vẫn an toàn: các dòng của họ token đã bị xóa nên lần xoay vòng kế tiếp không đánh dấu được và bị từ chối
+            log.warn("Failed to evict refresh token family {}: {}", familyId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.vinaacademy.platform.feature.user.auth.service;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.user.auth.entity.RefreshToken;
+import com.vinaacademy.platform.feature.user.auth.repository.RefreshTokenRepository;
+import com.vinaacademy.platform.feature.user.auth.service.JwtService.RefreshTokenClaims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Each login starts a token family; every refresh exchanges the
+ * presented token for a new one of the same family and marks the old one rotated. Presenting a rotated
+ * token again means it was copied, so the whole family is revoked and its owner has to log in again.
+ * <p>
+ * Tokens are looked up by the SHA-256 of their value; the token itself is never stored.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    /**
+     * Result of a rotation: the token's owner and the refresh token replacing the presented one.
+     */
+    public record Rotation(UserDetails userDetails, String refreshToken) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenFamilyCache familyCache;
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    /**
+     * Start a new token family for the user and return its first refresh token.
+     */
+    @Transactional
+    public String issue(UserDetails userDetails) {
+        return issueInFamily(userDetails, UUID.randomUUID());
+    }
+
+    /**
+     * Exchange a refresh token for a new one of the same family.
+     *
+     * @throws BadRequestException if the token is invalid, expired, already rotated (the family is then
+     *                             revoked) or its owner's account is disabled
+     */
+    // Không rollback khi từ chối: việc thu hồi họ token phải được commit
+    @Transactional(noRollbackFor = BadRequestException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshTokenClaims claims = decode(refreshToken);
+        UUID familyId = claims.familyId();
+        String tokenHash = hash(refreshToken);
+
+        String currentHash = familyCache.currentHash(familyId);
+        // Khác hash trong cache chưa chắc là dùng lại: cache có thể cũ nếu lần ghi Redis trước thất bại,
+        // nên luôn đối chiếu với DB trước khi thu hồi cả họ token
+        if (!tokenHash.equals(currentHash)) {
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+            if (stored == null && currentHash == null) {
+                throw BadRequestException.message("Token không hợp lệ");
+            }
+            if (stored == null || stored.getRotatedAt() != null) {
+                throw reuseDetected(familyId);
+            }
+            if (currentHash != null) {
+                log.warn("Stale cached hash for refresh token family {}", familyId);
+            }
+        }
+        // Điều kiện rotated_at IS NULL chặn hai request dùng cùng một token song song
+        if (refreshTokenRepository.markRotated(tokenHash, LocalDateTime.now()) == 0) {
+            throw reuseDetected(familyId);
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.username());
+        // Khóa tạm thời do đăng nhập sai (lock_time) không đăng xuất các phiên đang có
+        if (!userDetails.isEnabled()) {
+            revokeFamily(familyId);
+            throw BadRequestException.message("Tài khoản đã bị khóa");
+        }
+        return new Rotation(userDetails, issueInFamily(userDetails, familyId));
+    }
+
+    /**
+     * Revoke the family of the given token (logout).
+     *
+     * @throws BadRequestException if the token does not exist or belongs to another user
+     */
+    @Transactional
+    public void revoke(String refreshToken, String username) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHashAndUsername(hash(refreshToken), username)
+                .orElseThrow(() -> BadRequestException.message("Token không hợp lệ"));
+        revokeFamily(stored.getFamilyId());
+    }
+
+    private String issueInFamily(UserDetails userDetails, UUID familyId) {
+        String refreshToken = jwtService.generateRefreshToken(userDetails, familyId);
+        RefreshTokenClaims claims = jwtService.decodeRefreshToken(refreshToken);
+        String tokenHash = hash(refreshToken);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .username(claims.username())
+                .tokenHash(tokenHash)
+                .familyId(familyId)
+                .expireTime(claims.expireTime())
+                .build());
+        cacheAfterCommit(familyId, tokenHash, claims.expireTime());
+        return refreshToken;
+    }
+
+    private RefreshTokenClaims decode(String refreshToken) {
+        RefreshTokenClaims claims;
+        try {
+            claims = jwtService.decodeRefreshToken(refreshToken);
+        } catch (JwtException e) {
+            throw BadRequestException.message("Token không hợp lệ hoặc đã hết hạn");
+        }
+        if (claims.familyId() == null) {
+            throw BadRequestException.message("Token không hợp lệ");
+        }
+        return claims;
+    }
+
+    private BadRequestException reuseDetected(UUID familyId) {
+        log.warn("Refresh token reuse detected, revoking family {}", familyId);
+        revokeFamily(familyId);
+        return BadRequestException.message("Token đã được sử dụng, vui lòng đăng nhập lại");
+    }
+
+    private void revokeFamily(UUID familyId) {
+        int revoked = refreshTokenRepository.deleteByFamilyId(familyId);
+        familyCache.evict(familyId);
+        log.debug("Revoked {} refresh tokens of family {}", revoked, familyId);
+    }
+
+    // Chỉ ghi Redis khi token mới đã được commit, nếu không cache có thể trỏ tới token không tồn tại
+    private void cacheAfterCommit(UUID familyId, String tokenHash, LocalDateTime expireTime) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            familyCache.put(familyId, tokenHash, expireTime);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                familyCache.put(familyId, tokenHash, expireTime);
+            }
+        });
+    }
+
+    static String hash(String refreshToken) {
+        return DigestUtils.sha256Hex(refreshToken);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vinaacademy.platform.feature.user.auth.throttle;
+
+import com.vinaacademy.platform.feature.user.auth.config.LoginThrottleProperties.Limit;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link LoginAttemptStore}, used when Redis is disabled and as the fallback while Redis is
+ * unreachable. Counters are per node; account lockouts still reach every node through the user's lock time.
+ * Same token-bucket rules as the Lua script of {@link RedisLoginAttemptStore}.
+ */
+public class LocalLoginAttemptStore implements LoginAttemptStore {
+
+    // Quá ngưỡng này thì dọn các trạng thái đã hết hạn
+    private static final int MAX_ENTRIES = 100_000;
+
+    private record State(double tokens, long updatedAt, long lockedUntil, int lockouts, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, State> states = new ConcurrentHashMap<>();
+
+    @Override
+    public long lockedForMillis(Collection<String> keys, long nowMillis) {
+        long remaining = 0;
+        for (String key : keys) {
+            State state = states.get(key);
+            if (state != null && state.expiresAt() > nowMillis) {
+                remaining = Math.max(remaining, state.lockedUntil() - nowMillis);
+            }
+        }
+        return remaining;
+    }
+
+    @Override
+    public Failure recordFailure(String key, Limit limit, long nowMillis) {
+        Failure[] result = new Failure[1];
+        states.compute(key, (k, state) -> {
+            if (state != null && state.expiresAt() <= nowMillis) {
+                state = null;
+            }
+            if (state != null && state.lockedUntil() > nowMillis) {
+                result[0] = new Failure(state.lockedUntil() - nowMillis, state.lockouts());
+                return state;
+            }
+            int capacity = limit.getMaxFailures();
+            double tokens = state == null
+                    ? capacity
+                    : Math.min(capacity, state.tokens()
+                            + (double) (nowMillis - state.updatedAt()) * capacity / limit.getWindow().toMillis());
+            tokens -= 1;
+            int lockouts = state == null ? 0 : state.lockouts();
+            long lockedUntil = 0;
+            long lockMillis = 0;
+            if (tokens < 1) {
+                lockMillis = lockoutMillis(limit, lockouts);
+                lockouts++;
+                lockedUntil = nowMillis + lockMillis;
+                tokens = capacity;
+            }
+            result[0] = new Failure(lockMillis, lockouts);
+            return new State(tokens, nowMillis, lockedUntil, lockouts,
+                    nowMillis + lockMillis + limit.getResetAfter().toMillis());
+        });
+        if (states.size() > MAX_ENTRIES) {
+            states.values().removeIf(state -> state.expiresAt() <= nowMillis);
+        }
+        return result[0];
+    }
+
+    @Override
+    public void reset(String key) {
+        states.remove(key);
+    }
+
+    /**
+     * Lockout after {@code previousLockouts} earlier ones: base * 2^n, capped at the maximum.
+     */
+    static long lockoutMillis(Limit limit, int previousLockouts) {
+        long max = limit.getMaxLockout().toMillis();
+        long lockout = limit.getBaseLockout().toMillis();
+        for (int i = 0; i < previousLockouts && lockout < max; i++) {
+            lockout *= 2;
+        }
+        return Math.min(max, lockout);
+    }
+}
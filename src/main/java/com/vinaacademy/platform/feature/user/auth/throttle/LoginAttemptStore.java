@@ -0,0 +1,35 @@
+package com.vinaacademy.platform.feature.user.auth.throttle;
+
+import com.vinaacademy.platform.feature.user.auth.config.LoginThrottleProperties.Limit;
+
+import java.util.Collection;
+
+/**
+ * Failed-login counters and lockouts, keyed by an opaque string (account or client IP).
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Outcome of a recorded failure.
+     *
+     * @param lockedForMillis how long the key is locked from now on, 0 if it is not
+     * @param lockouts        number of lockouts of the key since its state was last forgotten
+     */
+    record Failure(long lockedForMillis, int lockouts) {
+    }
+
+    /**
+     * @return the longest remaining lockout among {@code keys}, 0 if none is locked
+     */
+    long lockedForMillis(Collection<String> keys, long nowMillis);
+
+    /**
+     * Consume one token of the key's bucket and lock it if the bucket is empty.
+     */
+    Failure recordFailure(String key, Limit limit, long nowMillis);
+
+    /**
+     * Forget the key's failures and lockout count.
+     */
+    void reset(String key);
+}
@@ -0,0 +1,92 @@
+package com.vinaacademy.platform.feature.user.auth.throttle;
+
+import com.vinaacademy.platform.exception.TooManyRequestsException;
+import com.vinaacademy.platform.feature.user.UserRepository;
+import com.vinaacademy.platform.feature.user.auth.config.LoginThrottleProperties;
+import com.vinaacademy.platform.feature.user.auth.throttle.LoginAttemptStore.Failure;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Brute-force protection of the login endpoint. Failed logins are counted per account and per client IP
+ * in a {@link LoginAttemptStore}; a key that runs out of budget is locked with an exponentially growing
+ * lockout. Counting never touches the users table: only an account lockout is written, as the user's
+ * lock time, so it survives a Redis restart and is enforced by Spring Security on every node.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginThrottleService {
+
+    private static final String ACCOUNT_KEY = "auth:login:account:";
+    private static final String IP_KEY = "auth:login:ip:";
+
+    private final LoginAttemptStore loginAttemptStore;
+    private final LoginThrottleProperties properties;
+    private final UserRepository userRepository;
+
+    /**
+     * Reject the attempt before checking the password when the account or the IP is locked.
+     *
+     * @throws TooManyRequestsException with the remaining lockout as Retry-After
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long lockedForMillis = loginAttemptStore.lockedForMillis(
+                List.of(accountKey(email), ipKey(clientIp)), System.currentTimeMillis());
+        if (lockedForMillis > 0) {
+            long retryAfter = Math.max(1, Duration.ofMillis(lockedForMillis).toSeconds());
+            throw TooManyRequestsException.retryAfter(retryAfter,
+                    "Đăng nhập sai quá nhiều lần, vui lòng thử lại sau " + retryAfter + " giây");
+        }
+    }
+
+    /**
+     * Count a failed login (wrong password or unknown email) against the account and the IP.
+     */
+    public void recordFailure(String email, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Failure ip = loginAttemptStore.recordFailure(ipKey(clientIp), properties.getIp(), now);
+        if (ip.lockedForMillis() > 0) {
+            log.warn("Login from {} locked for {}s after repeated failures (lockout #{})",
+                    clientIp, ip.lockedForMillis() / 1000, ip.lockouts());
+        }
+
+        Failure account = loginAttemptStore.recordFailure(accountKey(email), properties.getAccount(), now);
+        if (account.lockedForMillis() > 0) {
+            log.warn("Account {} locked for {}s after repeated failures (lockout #{})",
+                    email, account.lockedForMillis() / 1000, account.lockouts());
+            // Ghi DB một lần cho mỗi lần khóa, không ghi cho từng lần đăng nhập sai
+            userRepository.extendLockTime(email, LocalDateTime.now().plus(Duration.ofMillis(account.lockedForMillis())));
+        }
+    }
+
+    /**
+     * Forget the account's failures after a successful login. The IP budget is left as is, so one valid
+     * account cannot be used to reset the budget of an address that is guessing others.
+     */
+    public void recordSuccess(String email) {
+        if (properties.isEnabled()) {
+            loginAttemptStore.reset(accountKey(email));
+        }
+    }
+
+    private static String accountKey(String email) {
+        return ACCOUNT_KEY + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return IP_KEY + (clientIp == null ? "unknown" : clientIp);
+    }
+}
@@ -0,0 +1,110 @@
+package com.vinaacademy.platform.feature.user.auth.throttle;
+
+import com.vinaacademy.platform.feature.user.auth.config.LoginThrottleProperties.Limit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link LoginAttemptStore} shared by every node. Each key is a hash (tokens, updated_at, locked_until,
+ * lockouts) updated atomically by a Lua script, so concurrent failures from many nodes cannot overspend a
+ * bucket. While Redis is unreachable the store falls back to a {@link LocalLoginAttemptStore}.
+ */
+@Slf4j
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+
+    // Cùng quy tắc với LocalLoginAttemptStore.recordFailure; trả về {lockedForMillis, lockouts}
+    private static final RedisScript<List> RECORD_FAILURE = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local capacity = tonumber(ARGV[2])
+            local window = tonumber(ARGV[3])
+            local base_lockout = tonumber(ARGV[4])
+            local max_lockout = tonumber(ARGV[5])
+            local reset_after = tonumber(ARGV[6])
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'updated_at', 'locked_until', 'lockouts')
+            local locked_until = tonumber(state[3]) or 0
+            local lockouts = tonumber(state[4]) or 0
+            if locked_until > now then
+                return {locked_until - now, lockouts}
+            end
+            local tokens = capacity
+            if state[1] then
+                tokens = math.min(capacity, tonumber(state[1]) + (now - tonumber(state[2])) * capacity / window)
+            end
+            tokens = tokens - 1
+            local lock = 0
+            if tokens < 1 then
+                lock = base_lockout
+                for i = 1, lockouts do
+                    if lock >= max_lockout then break end
+                    lock = lock * 2
+                end
+                lock = math.min(lock, max_lockout)
+                lockouts = lockouts + 1
+                locked_until = now + lock
+                tokens = capacity
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'updated_at', now,
+                    'locked_until', locked_until, 'lockouts', lockouts)
+            redis.call('PEXPIRE', KEYS[1], lock + reset_after)
+            return {lock, lockouts}
+            """, List.class);
+
+    private static final String LOCKED_UNTIL = "locked_until";
+
+    private final StringRedisTemplate redisTemplate;
+    private final LocalLoginAttemptStore fallback = new LocalLoginAttemptStore();
+
+    public RedisLoginAttemptStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long lockedForMillis(Collection<String> keys, long nowMillis) {
+        try {
+            long remaining = 0;
+            for (String key : keys) {
+                Object lockedUntil = redisTemplate.opsForHash().get(key, LOCKED_UNTIL);
+                if (lockedUntil != null) {
+                    remaining = Math.max(remaining, Long.parseLong(lockedUntil.toString()) - nowMillis);
+                }
+            }
+            return remaining;
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for login throttling, using local counters: {}", e.getMessage());
+            return fallback.lockedForMillis(keys, nowMillis);
+        }
+    }
+
+    @Override
+    public Failure recordFailure(String key, Limit limit, long nowMillis) {
+        try {
+            List<?> result = redisTemplate.execute(RECORD_FAILURE, List.of(key),
+                    String.valueOf(nowMillis),
+                    String.valueOf(limit.getMaxFailures()),
+                    String.valueOf(limit.getWindow().toMillis()),
+                    String.valueOf(limit.getBaseLockout().toMillis()),
+                    String.valueOf(limit.getMaxLockout().toMillis()),
+                    String.valueOf(limit.getResetAfter().toMillis()));
+            return new Failure(((Number) result.get(0)).longValue(), ((Number) result.get(1)).intValue());
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for login throttling, using local counters: {}", e.getMessage());
+            return fallback.recordFailure(key, limit, nowMillis);
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        fallback.reset(key);
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to reset login attempts of {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -16,8 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserDetailService implements UserDetailsService {
     private final UserRepository userRepository;
 
-    private static final int MAX_FAILED_ATTEMPTS = 5;
-    private static final long LOCK_TIME_DURATION = 15; /**
+    /**
      * Loads a UserDetails by username (email), unlocking the account if a prior lock has expired.
      *
      * Retrieves the user identified by the given username (email) and returns it as a UserDetails instance.
@@ -28,7 +27,6 @@ public class CustomUserDetailService implements UserDetailsService {
      * @return the found User as a UserDetails instance
      * @throws BadRequestException if no user with the given email is found
      */
-
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -40,47 +38,6 @@ public class CustomUserDetailService implements UserDetailsService {
         return user;
     }
 
-    /**
-     * Increments the stored failed-login counter for the user identified by the given email.
-     *
-     * If the user is not found this method returns silently. When the counter reaches or
-     * exceeds the configured maximum failed attempts the account is locked (disabled and
-     * lock time set); otherwise the updated counter is persisted.
-     *
-     * @param username the user's email (used as username) whose failed-attempt counter will be incremented
-     */
-    @Transactional
-    public void increaseFailedAttempts(String username) {
-        User user = userRepository.findByEmailWithRoles(username).orElse(null);
-        if (user == null) {
-            return;
-        }
-        int newFailedAttempts = user.getFailedAttempts() + 1;
-        user.setFailedAttempts(newFailedAttempts);
-
-        if (newFailedAttempts >= MAX_FAILED_ATTEMPTS) {
-            lockAccount(user);
-        } else {
-            userRepository.save(user);
-        }
-    }
-
-    @Transactional
-    public void resetFailedAttempts(String username) {
-        User user = userRepository.findByEmailWithRoles(username).orElse(null);
-        if (user == null) {
-            return;
-        }
-        user.setFailedAttempts(0);
-        userRepository.save(user);
-    }
-
-    private void lockAccount(User user) {
-        user.setEnabled(false);
-        user.setLockTime(LocalDateTime.now().plusMinutes(LOCK_TIME_DURATION));
-        userRepository.save(user);
-    }
-
     private boolean isLockTimeExpired(User user) {
         LocalDateTime lockTime = user.getLockTime();
         return lockTime != null && lockTime.isBefore(LocalDateTime.now());
@@ -1,6 +1,8 @@
 package com.vinaacademy.platform.feature.video;
 
 import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.ratelimit.annotation.RateLimited;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
 import com.vinaacademy.platform.feature.request.ProcessVideoRequest;
 import com.vinaacademy.platform.feature.user.auth.annotation.HasAnyRole;
 import com.vinaacademy.platform.feature.user.auth.annotation.RequiresResourcePermission;
@@ -158,6 +160,7 @@ public class VideoController {
       })
   @PreAuthorize("isAuthenticated()")
   @GetMapping("/{videoId}/**")
+  @RateLimited(RateLimitProperties.VIDEO_SEGMENT)
   @RequiresResourcePermission(resourceType = ResourceConstants.LESSON, idParam = "videoId")
   public ResponseEntity<Resource> getSegment(
       HttpServletRequest request, @PathVariable UUID videoId) throws IOException {
@@ -0,0 +1,42 @@
+package com.vinaacademy.platform.feature.video.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(VideoProgressProperties.class)
+@ConfigurationProperties(prefix = "application.video-progress")
+@Data
+@NoArgsConstructor
+public class VideoProgressProperties {
+    /**
+     * Delay between two flushes of dirty playback positions into user_progress, in milliseconds.
+     */
+    private long flushIntervalMs = 30_000;
+    /**
+     * Max positions upserted per statement.
+     */
+    private int batchSize = 1000;
+    /**
+     * Max batches per flush run, so one run cannot monopolize the scheduler thread.
+     */
+    private int maxBatchesPerRun = 20;
+    /**
+     * Fraction of the video duration after which the lesson is marked completed.
+     */
+    private double completionThreshold = 0.9;
+    /**
+     * How long a playback position stays in Redis after the last heartbeat.
+     */
+    private Duration ttl = Duration.ofDays(1);
+    /**
+     * How long popped positions may stay unacknowledged before they are put back for another flush, e.g.
+     * because the node flushing them died.
+     */
+    private Duration inFlightTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,34 @@
+package com.vinaacademy.platform.feature.video.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(VideoStorageSweepProperties.class)
+@ConfigurationProperties(prefix = "application.video-storage-sweep")
+@Data
+@NoArgsConstructor
+public class VideoStorageSweepProperties {
+    /**
+     * Delay between two sweeps of orphaned video objects in MinIO, in milliseconds.
+     */
+    private long intervalMs = 21_600_000;
+    /**
+     * Only report orphans without deleting them. On by default so a new deployment can review the report first.
+     */
+    private boolean dryRun = true;
+    /**
+     * Minimum age of the newest object of an orphan before it is deleted, covering uploads whose video row
+     * is not updated yet.
+     */
+    private Duration grace = Duration.ofDays(1);
+    /**
+     * Max orphans reported (and deleted) per sweep.
+     */
+    private int maxOrphansPerRun = 200;
+}
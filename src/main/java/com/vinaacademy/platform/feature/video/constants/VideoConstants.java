@@ -5,6 +5,9 @@ public class VideoConstants {
     public static final String HLS_SEGMENT_PATTERN = "segment_%03d.ts";
     public static final int HLS_SEGMENT_DURATION = 4;
     public static final String DEFAULT_THUMBNAIL_TIMESTAMP = "00:00:01";
+    // Key trên MinIO: videos/hls/{videoId}/... và videos/thumbnails/{videoId}.jpg
+    public static final String HLS_KEY_PREFIX = "videos/hls/";
+    public static final String THUMBNAIL_KEY_PREFIX = "videos/thumbnails/";
     
     public static class ContentTypes {
         public static final String M3U8 = "application/x-mpegURL";
@@ -19,14 +19,14 @@ public class VideoProgressController {
     @PostMapping("/{videoId}")
     public ResponseEntity<?> saveProgress(@PathVariable UUID videoId,
                                           @RequestParam Long lastWatchedTime) {
-        UUID userId = securityHelper.getCurrentUser().getId();
+        UUID userId = securityHelper.getCurrentUserId();
         videoProgressCacheService.saveProgress(userId, videoId, lastWatchedTime);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/{videoId}")
     public ResponseEntity<Long> getProgress(@PathVariable UUID videoId) {
-        UUID userId = securityHelper.getCurrentUser().getId();
+        UUID userId = securityHelper.getCurrentUserId();
         Long progress = videoProgressCacheService.getProgress(userId, videoId);
         return ResponseEntity.ok(progress);
     }
@@ -0,0 +1,30 @@
+package com.vinaacademy.platform.feature.video.controller;
+
+import com.vinaacademy.platform.feature.common.response.ApiResponse;
+import com.vinaacademy.platform.feature.user.auth.annotation.HasAnyRole;
+import com.vinaacademy.platform.feature.user.constant.AuthConstants;
+import com.vinaacademy.platform.feature.video.dto.OrphanSweepReport;
+import com.vinaacademy.platform.feature.video.scheduler.VideoStorageSweeper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/video-storage")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@HasAnyRole({AuthConstants.ADMIN_ROLE})
+public class VideoStorageAdminController {
+
+    private final VideoStorageSweeper videoStorageSweeper;
+
+    @Operation(summary = "Báo cáo tệp video mồ côi trên MinIO",
+            description = "Chạy thử (dry run) bộ dọn dẹp: liệt kê HLS và thumbnail không còn video nào tham chiếu, không xóa gì")
+    @GetMapping("/orphans")
+    public ApiResponse<OrphanSweepReport> orphans() {
+        return ApiResponse.success(videoStorageSweeper.sweep(true));
+    }
+}
@@ -0,0 +1,26 @@
+package com.vinaacademy.platform.feature.video.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of one sweep of MinIO video objects that no video references anymore.
+ *
+ * @param dryRun          true when nothing was deleted
+ * @param scanned         number of HLS prefixes and thumbnails compared against the database
+ * @param orphanBytes     total size of the orphans found
+ * @param deletedObjects  number of objects deleted, 0 on a dry run
+ * @param orphans         the orphans found, HLS prefixes first
+ */
+public record OrphanSweepReport(boolean dryRun, int scanned, long orphanBytes, int deletedObjects,
+                                List<Orphan> orphans) {
+
+    /**
+     * @param prefix       HLS prefix (ending with '/') or thumbnail key
+     * @param objects      number of objects under it
+     * @param bytes        their total size
+     * @param lastModified modification time of the newest of them
+     */
+    public record Orphan(String prefix, int objects, long bytes, Instant lastModified) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.vinaacademy.platform.feature.video.dto;
+
+import java.util.UUID;
+
+/**
+ * Playback position of one user on one video, as buffered in Redis.
+ */
+public record VideoProgressEntry(UUID userId, UUID videoId, long lastWatchedTime) {
+}
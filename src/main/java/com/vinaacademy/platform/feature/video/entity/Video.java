@@ -33,6 +33,10 @@ public class Video extends Lesson {
     @Column(name = "duration")
     private double duration;
 
+    // SHA-256 của tệp gốc đã encode; video khác có cùng nội dung chép HLS sang thư mục riêng thay vì encode lại
+    @Column(name = "source_hash", length = 64)
+    private String sourceHash;
+
     @OneToMany(mappedBy = "video", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<VideoNote> videoNotes;
 }
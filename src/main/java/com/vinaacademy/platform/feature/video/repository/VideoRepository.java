@@ -1,15 +1,19 @@
 package com.vinaacademy.platform.feature.video.repository;
 
 import com.vinaacademy.platform.feature.video.entity.Video;
-import io.lettuce.core.dynamic.annotation.Param;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import com.vinaacademy.platform.feature.video.repository.projection.VideoDurationProjection;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -26,6 +30,24 @@ public interface VideoRepository extends JpaRepository<Video, UUID> {
             "JOIN c.enrollments e WHERE l.id = :lessonId AND e.user.id = :userId")
     boolean isUserEnrolledInCourse(@Param("lessonId") UUID lessonId, @Param("userId") UUID userId);
 
+    @Query("SELECT v.id AS id, v.duration AS duration FROM Video v WHERE v.id IN :ids")
+    List<VideoDurationProjection> findDurationsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * A ready video transcoded from the same source content, whose HLS output can be copied instead of
+     * transcoding again.
+     */
+    Optional<Video> findFirstBySourceHashAndStatusAndIdNot(String sourceHash, VideoStatus status, UUID id);
+
+    @Query("SELECT v.hlsPath FROM Video v WHERE v.hlsPath IN :hlsPaths")
+    Set<String> findReferencedHlsPaths(@Param("hlsPaths") Collection<String> hlsPaths);
+
+    @Query("SELECT v.thumbnailUrl FROM Video v WHERE v.thumbnailUrl IN :thumbnailKeys")
+    Set<String> findReferencedThumbnails(@Param("thumbnailKeys") Collection<String> thumbnailKeys);
+
+    @Query("SELECT v.id FROM Video v WHERE v.id IN :ids AND v.status = :status")
+    Set<UUID> findIdsByIdInAndStatus(@Param("ids") Collection<UUID> ids, @Param("status") VideoStatus status);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT v FROM Video v WHERE v.id = :videoId")
     Optional<Video> findByIdWithLock(UUID videoId);
@@ -0,0 +1,9 @@
+package com.vinaacademy.platform.feature.video.repository.projection;
+
+import java.util.UUID;
+
+public interface VideoDurationProjection {
+
+    UUID getId();
+    Double getDuration();
+}
@@ -0,0 +1,113 @@
+package com.vinaacademy.platform.feature.video.scheduler;
+
+import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentProgressRepository;
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository;
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository.CompletedLesson;
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository.ProgressRow;
+import com.vinaacademy.platform.feature.video.config.VideoProgressProperties;
+import com.vinaacademy.platform.feature.video.dto.VideoProgressEntry;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import com.vinaacademy.platform.feature.video.repository.projection.VideoDurationProjection;
+import com.vinaacademy.platform.feature.video.service.VideoProgressCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Write-behind flush of playback positions buffered in Redis into {@code user_progress}.
+ * <p>
+ * Heartbeats only touch Redis; every run pops the (user, video) pairs that changed since the previous run
+ * and upserts their latest position in batches, so many heartbeats on the same video collapse into one
+ * row write. A lesson is marked completed once the position passes
+ * {@link VideoProgressProperties#getCompletionThreshold()} of the video duration, and the lessons that just
+ * became completed are added to their enrollments' progress. Popping moves the pairs into an in-flight set
+ * (so the work is disjoint across nodes) and they leave it only once written; pairs of a node that died
+ * mid-flush go back to the dirty set after {@link VideoProgressProperties#getInFlightTimeout()}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VideoProgressFlushScheduler {
+
+    private final VideoProgressCacheService videoProgressCacheService;
+    private final UserProgressBatchRepository userProgressBatchRepository;
+    private final VideoRepository videoRepository;
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
+    private final VideoProgressProperties properties;
+
+    // Upsert dựa vào ràng buộc unique (user_id, lesson_id); không tạo được thì dừng khởi động thay vì để
+    // mọi lần flush thất bại âm thầm
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureUniqueProgressRows() {
+        userProgressBatchRepository.ensureUniqueConstraint();
+    }
+
+    @Scheduled(fixedDelayString = "${application.video-progress.flush-interval-ms:30000}")
+    public void flushVideoProgress() {
+        int requeued = videoProgressCacheService.requeueStale(properties.getInFlightTimeout());
+        if (requeued > 0) {
+            log.warn("Re-queued {} video progress entries left unflushed by a previous run", requeued);
+        }
+        int flushed = 0;
+        int completed = 0;
+        for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+            List<VideoProgressEntry> entries = videoProgressCacheService.popDirtyProgress(properties.getBatchSize());
+            if (entries.isEmpty()) {
+                break;
+            }
+            try {
+                List<CompletedLesson> newlyCompleted = flushBatch(entries);
+                videoProgressCacheService.acknowledge(entries);
+                flushed += entries.size();
+                completed += newlyCompleted.size();
+                // Vị trí đã được ghi: lỗi ở bước này do job đối soát tiến độ sửa, không đưa lại vào hàng đợi
+                applyCompletions(newlyCompleted);
+            } catch (RuntimeException e) {
+                // Trả lại tập dirty để lần chạy sau thử lại
+                videoProgressCacheService.markDirty(entries);
+                log.error("Failed to flush {} video progress entries, re-queued", entries.size(), e);
+                break;
+            }
+        }
+        if (flushed > 0) {
+            log.info("Video progress flushed: {} positions, {} lessons auto-completed", flushed, completed);
+        }
+    }
+
+    private List<CompletedLesson> flushBatch(List<VideoProgressEntry> entries) {
+        Map<UUID, Double> durations = new HashMap<>();
+        List<UUID> videoIds = entries.stream().map(VideoProgressEntry::videoId).distinct().toList();
+        for (VideoDurationProjection video : videoRepository.findDurationsByIdIn(videoIds)) {
+            durations.put(video.getId(), video.getDuration());
+        }
+
+        List<ProgressRow> rows = new ArrayList<>(entries.size());
+        for (VideoProgressEntry entry : entries) {
+            Double duration = durations.get(entry.videoId());
+            if (duration == null) {
+                continue; // video đã bị xóa
+            }
+            boolean completed = duration > 0
+                    && entry.lastWatchedTime() >= duration * properties.getCompletionThreshold();
+            rows.add(new ProgressRow(entry.userId(), entry.videoId(), entry.lastWatchedTime(), completed));
+        }
+        return userProgressBatchRepository.upsertProgress(rows);
+    }
+
+    private void applyCompletions(List<CompletedLesson> newlyCompleted) {
+        try {
+            enrollmentProgressRepository.applyCompletedLessons(newlyCompleted);
+        } catch (RuntimeException e) {
+            log.error("Failed to update enrollment progress for {} completed lessons", newlyCompleted.size(), e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.vinaacademy.platform.feature.video.scheduler;
+
+import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.storage.service.S3Service.StoredObject;
+import com.vinaacademy.platform.feature.video.config.VideoStorageSweepProperties;
+import com.vinaacademy.platform.feature.video.constants.VideoConstants;
+import com.vinaacademy.platform.feature.video.dto.OrphanSweepReport;
+import com.vinaacademy.platform.feature.video.dto.OrphanSweepReport.Orphan;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds MinIO objects of videos that no {@code videos} row references anymore (deleted lessons, re-uploads,
+ * transcodes that failed after uploading) and deletes them, or only reports them in dry-run mode.
+ * <p>
+ * An HLS prefix {@code videos/hls/{id}/} is an orphan when no video has it as {@code hls_path} (several videos
+ * may share one since transcoded output is reused by content hash); a thumbnail {@code videos/thumbnails/{id}.jpg}
+ * when no video has it as {@code thumbnail_url}. Objects of a video still being processed, or written less than
+ * {@link VideoStorageSweepProperties#getGrace()} ago, are kept: the transcoder uploads them before the video row
+ * is updated. Deletion is idempotent, so nodes sweeping at the same time do not conflict.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VideoStorageSweeper {
+
+    // Số key mỗi truy vấn IN đối chiếu với bảng videos
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    private final S3Service s3Service;
+    private final VideoRepository videoRepository;
+    private final VideoStorageSweepProperties properties;
+
+    private record Candidate(Orphan orphan, List<String> keys) {
+    }
+
+    @Scheduled(fixedDelayString = "${application.video-storage-sweep.interval-ms:21600000}") // mặc định 6 giờ
+    public void scheduledSweep() {
+        OrphanSweepReport report = sweep(properties.isDryRun());
+        if (report.orphans().isEmpty()) {
+            return;
+        }
+        if (report.dryRun()) {
+            log.info("Video storage sweep (dry run): {} orphans, {} bytes out of {} scanned: {}",
+                    report.orphans().size(), report.orphanBytes(), report.scanned(),
+                    report.orphans().stream().map(Orphan::prefix).toList());
+        } else {
+            log.info("Video storage sweep: {} orphans, {} objects ({} bytes) deleted out of {} scanned",
+                    report.orphans().size(), report.deletedObjects(), report.orphanBytes(), report.scanned());
+        }
+    }
+
+    /**
+     * Compare the video objects in MinIO against the {@code videos} table.
+     *
+     * @param dryRun true to only report the orphans
+     */
+    public OrphanSweepReport sweep(boolean dryRun) {
+        Instant cutoff = Instant.now().minus(properties.getGrace());
+        int limit = properties.getMaxOrphansPerRun();
+        List<Candidate> candidates = new ArrayList<>();
+
+        List<String> hlsPrefixes = s3Service.listPrefixes(VideoConstants.HLS_KEY_PREFIX);
+        for (int i = 0; i < hlsPrefixes.size() && candidates.size() < limit; i += LOOKUP_BATCH_SIZE) {
+            findHlsOrphans(hlsPrefixes.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, hlsPrefixes.size())),
+                    cutoff, limit, candidates);
+        }
+
+        List<StoredObject> thumbnails = s3Service.listObjects(VideoConstants.THUMBNAIL_KEY_PREFIX);
+        for (int i = 0; i < thumbnails.size() && candidates.size() < limit; i += LOOKUP_BATCH_SIZE) {
+            findThumbnailOrphans(thumbnails.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, thumbnails.size())),
+                    cutoff, limit, candidates);
+        }
+
+        int deleted = 0;
+        if (!dryRun) {
+            for (Candidate candidate : candidates) {
+                try {
+                    deleted += s3Service.deleteObjects(candidate.keys());
+                } catch (RuntimeException e) {
+                    // Lần quét sau thử lại, không dừng cả lượt vì một prefix
+                    log.warn("Failed to delete orphan {}: {}", candidate.orphan().prefix(), e.getMessage());
+                }
+            }
+        }
+
+        List<Orphan> orphans = candidates.stream().map(Candidate::orphan).toList();
+        long bytes = orphans.stream().mapToLong(Orphan::bytes).sum();
+        return new OrphanSweepReport(dryRun, hlsPrefixes.size() + thumbnails.size(), bytes, deleted, orphans);
+    }
+
+    private void findHlsOrphans(List<String> prefixes, Instant cutoff, int limit, List<Candidate> candidates) {
+        // hls_path được lưu không có dấu '/' cuối
+        List<String> paths = prefixes.stream().map(VideoStorageSweeper::hlsPath).toList();
+        Set<String> referenced = videoRepository.findReferencedHlsPaths(paths);
+        Set<UUID> processing = processingVideoIds(paths, VideoConstants.HLS_KEY_PREFIX, "");
+
+        for (String prefix : prefixes) {
+            if (candidates.size() >= limit) {
+                return;
+            }
+            String path = hlsPath(prefix);
+            if (referenced.contains(path) || isProcessing(path, VideoConstants.HLS_KEY_PREFIX, "", processing)) {
+                continue;
+            }
+            List<StoredObject> objects = s3Service.listObjects(prefix);
+            Instant newest = objects.stream().map(StoredObject::lastModified)
+                    .max(Comparator.naturalOrder()).orElse(null);
+            if (newest == null || newest.isAfter(cutoff)) {
+                continue;
+            }
+            long bytes = objects.stream().mapToLong(StoredObject::size).sum();
+            candidates.add(new Candidate(new Orphan(prefix, objects.size(), bytes, newest),
+                    objects.stream().map(StoredObject::key).toList()));
+        }
+    }
+
+    private void findThumbnailOrphans(List<StoredObject> thumbnails, Instant cutoff, int limit,
+                                      List<Candidate> candidates) {
+        List<String> keys = thumbnails.stream().map(StoredObject::key).toList();
+        Set<String> referenced = videoRepository.findReferencedThumbnails(keys);
+        Set<UUID> processing = processingVideoIds(keys, VideoConstants.THUMBNAIL_KEY_PREFIX, ".jpg");
+
+        for (StoredObject thumbnail : thumbnails) {
+            if (candidates.size() >= limit) {
+                return;
+            }
+            if (referenced.contains(thumbnail.key()) || thumbnail.lastModified().isAfter(cutoff)
+                    || isProcessing(thumbnail.key(), VideoConstants.THUMBNAIL_KEY_PREFIX, ".jpg", processing)) {
+                continue;
+            }
+            candidates.add(new Candidate(
+                    new Orphan(thumbnail.key(), 1, thumbnail.size(), thumbnail.lastModified()),
+                    List.of(thumbnail.key())));
+        }
+    }
+
+    private static String hlsPath(String prefix) {
+        return prefix.substring(0, prefix.length() - 1);
+    }
+
+    private Set<UUID> processingVideoIds(Iterable<String> keys, String prefix, String suffix) {
+        Set<UUID> ids = new HashSet<>();
+        for (String key : keys) {
+            UUID id = videoId(key, prefix, suffix);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids.isEmpty() ? Set.of() : videoRepository.findIdsByIdInAndStatus(ids, VideoStatus.PROCESSING);
+    }
+
+    private static boolean isProcessing(String key, String prefix, String suffix, Set<UUID> processing) {
+        UUID id = videoId(key, prefix, suffix);
+        return id != null && processing.contains(id);
+    }
+
+    /**
+     * @return the video id encoded in {@code prefix + id + suffix}, or null for a key not written by the transcoder
+     */
+    private static UUID videoId(String key, String prefix, String suffix) {
+        if (!key.startsWith(prefix) || !key.endsWith(suffix)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(key.substring(prefix.length(), key.length() - suffix.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -2,18 +2,18 @@ package com.vinaacademy.platform.feature.video.service;
 
 import com.vinaacademy.platform.feature.request.ProcessVideoRequest;
 
-import java.nio.file.Path;
 import java.util.UUID;
 
 public interface VideoProcessorService {
 
     /**
-     * Xử lý video bằng input file, thực hiện encode HLS và tạo thumbnail.
+     * Xử lý video từ tệp đã tải lên, thực hiện encode HLS và tạo thumbnail. Nếu một video khác đã được encode
+     * từ cùng nội dung thì dùng lại HLS của video đó.
      *
-     * @param videoId   ID của video
-     * @param inputFile Đường dẫn file gốc cần xử lý
+     * @param videoId     ID của video
+     * @param mediaFileId ID của MediaFile chứa tệp gốc cần xử lý
      */
-    void processVideo(UUID videoId, Path inputFile);
+    void processVideo(UUID videoId, UUID mediaFileId);
 
     /**
      * Xử lý video dựa trên request đầu vào (ví dụ: từ API trigger).
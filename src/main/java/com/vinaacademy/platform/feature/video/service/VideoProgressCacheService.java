@@ -1,9 +1,38 @@
 package com.vinaacademy.platform.feature.video.service;
 
+import com.vinaacademy.platform.feature.video.dto.VideoProgressEntry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface VideoProgressCacheService {
     void saveProgress(UUID userId, UUID videoId, Long lastWatchedTime);
 
     Long getProgress(UUID userId, UUID videoId);
+
+    /**
+     * Atomically move up to {@code maxEntries} positions changed since the last flush into the in-flight set
+     * and return them. They stay there until {@link #acknowledge} or {@link #markDirty}.
+     * Entries whose key already expired are skipped.
+     */
+    List<VideoProgressEntry> popDirtyProgress(int maxEntries);
+
+    /**
+     * Drop flushed entries from the in-flight set.
+     */
+    void acknowledge(Collection<VideoProgressEntry> entries);
+
+    /**
+     * Put entries back into the dirty set, e.g. after a failed flush.
+     */
+    void markDirty(Collection<VideoProgressEntry> entries);
+
+    /**
+     * Put entries popped more than {@code timeout} ago and never acknowledged back into the dirty set.
+     *
+     * @return number of entries put back
+     */
+    int requeueStale(Duration timeout);
 }
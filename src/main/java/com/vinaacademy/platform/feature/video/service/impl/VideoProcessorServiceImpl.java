@@ -7,7 +7,9 @@ import com.vinaacademy.platform.feature.request.ProcessVideoRequest;
 import com.vinaacademy.platform.feature.storage.entity.MediaFile;
 import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
 import com.vinaacademy.platform.feature.storage.repository.MediaFileRepository;
+import com.vinaacademy.platform.feature.storage.service.BlobStoreService;
 import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.video.constants.VideoConstants;
 import com.vinaacademy.platform.feature.video.entity.Video;
 import com.vinaacademy.platform.feature.video.enums.VideoStatus;
 import com.vinaacademy.platform.feature.video.repository.VideoRepository;
@@ -18,9 +20,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
@@ -39,6 +43,7 @@ public class VideoProcessorServiceImpl implements VideoProcessorService {
     private final NotificationService notificationService;
     private final StorageProperties storageProperties;
     private final S3Service s3Service;
+    private final BlobStoreService blobStoreService;
 
     @Value("${application.url.frontend}")
     private String frontendUrl;
@@ -48,42 +53,68 @@ public class VideoProcessorServiceImpl implements VideoProcessorService {
     private VideoProcessorService self;
 
     /**
-     * Asynchronously converts a local video file to adaptive HLS, uploads the result to S3, updates the
+     * Asynchronously converts an uploaded video to adaptive HLS, uploads the result to S3, updates the
      * corresponding Video entity, and notifies the author of success or failure.
      *
      * <p>Side effects:
-     * - Converts the file at {@code inputFile} to adaptive HLS and uploads segments/manifests to S3 (stores the
+     * - If another READY video was transcoded from the same content (same SHA-256), its HLS output and
+     *   generated thumbnail are copied into this video's own keys, its duration is reused and FFmpeg is not
+     *   run.
+     * - Otherwise converts the source to adaptive HLS and uploads segments/manifests to S3 (stores the
      *   returned S3 key prefix on the Video).
      * - Generates and stores a thumbnail key if one is not already present.
      * - Updates the Video status to READY on success or ERROR on failure and saves the entity.
      * - Sends a success or failure notification to the video author.
-     * - Deletes the original input file when processing completes successfully.
+     * - Releases the source when processing completes successfully: a content-addressed source drops its
+     *   reference to the shared blob, a legacy file is deleted.
      *
      * <p>This method runs asynchronously on the "videoTaskExecutor" and executes in a new transaction.
      *
-     * @param videoId   ID of the Video entity to update
-     * @param inputFile local filesystem path to the source video file to be processed
+     * @param videoId     ID of the Video entity to update
+     * @param mediaFileId ID of the MediaFile holding the source video
      */
     @Async("videoTaskExecutor")
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void processVideo(UUID videoId, Path inputFile) {
+    public void processVideo(UUID videoId, UUID mediaFileId) {
         Path outputDir = Paths.get(storageProperties.getHlsDir(), videoId.toString());
         Path thumbnailPath = Paths.get(storageProperties.getThumbnailDir(), videoId + ".jpg");
 
         try {
-            // Convert to HLS and upload to MinIO
-            String s3KeyPrefix = FFmpegUtils.convertToAdaptiveHLSAndUpload(inputFile, outputDir, thumbnailPath, s3Service, videoId);
-            
-            Video video = videoRepository.findByIdWithLock(videoId)
-                    .orElseThrow(() -> BadRequestException.message("Không tìm thấy video"));
+            MediaFile mediaFile = mediaFileRepository.findById(mediaFileId)
+                    .orElseThrow(() -> BadRequestException.message("Không tìm thấy tệp video"));
+            Path inputFile = Paths.get(mediaFile.getFilePath());
+            String sourceHash = mediaFile.getContentHash();
+
+            Optional<Video> transcoded = sourceHash != null
+                    ? videoRepository.findFirstBySourceHashAndStatusAndIdNot(sourceHash, VideoStatus.READY, videoId)
+                    : Optional.empty();
+
+            Optional<CopiedOutput> copied = transcoded.flatMap(source -> copyTranscoded(source, videoId));
 
-            updateVideoSuccess(video, s3KeyPrefix, thumbnailPath, inputFile);
+            Video video;
+            if (copied.isPresent()) {
+                video = videoRepository.findByIdWithLock(videoId)
+                        .orElseThrow(() -> BadRequestException.message("Không tìm thấy video"));
+                reuseTranscoded(video, transcoded.get(), copied.get());
+            } else {
+                // Convert to HLS and upload to MinIO
+                FFmpegUtils.HlsUpload upload = FFmpegUtils.convertToAdaptiveHLSAndUpload(inputFile, outputDir, thumbnailPath, s3Service, videoId);
+
+                video = videoRepository.findByIdWithLock(videoId)
+                        .orElseThrow(() -> BadRequestException.message("Không tìm thấy video"));
+                updateVideoSuccess(video, upload, inputFile);
+            }
+            video.setSourceHash(sourceHash);
             notifySuccess(video);
             log.debug("✅ Video {} processed successfully.", videoId);
             videoRepository.save(video);
 
-            // delete the original video file after processing
-            Files.deleteIfExists(inputFile);
+            // release the original video file after processing
+            if (sourceHash != null) {
+                blobStoreService.release(mediaFileId);
+            } else if (!blobStoreService.isBlob(inputFile)) {
+                Files.deleteIfExists(inputFile);
+            }
         } catch (Exception e) {
             log.error("❌ Error processing video {}: {}", videoId, e.getMessage(), e);
             Video video = videoRepository.findByIdWithLock(videoId)
@@ -94,29 +125,77 @@ public class VideoProcessorServiceImpl implements VideoProcessorService {
         }
     }
 
+    /**
+     * HLS output and thumbnail copied from a video transcoded from identical content.
+     *
+     * @param hlsPath      key prefix of the copied HLS output
+     * @param thumbnailKey key of the copied thumbnail, null when the source has no generated thumbnail
+     */
+    private record CopiedOutput(String hlsPath, String thumbnailKey) {
+    }
+
+    /**
+     * Copy the HLS output and generated thumbnail of {@code source} into {@code videoId}'s own keys, server
+     * side. Every video owns its prefix: reprocessing a video overwrites its objects in place, so sharing them
+     * would silently change the content of other videos, possibly in another instructor's course.
+     *
+     * @return the copied output, empty when the source output is gone and the video has to be transcoded
+     */
+    private Optional<CopiedOutput> copyTranscoded(Video source, UUID videoId) {
+        String sourcePrefix = StringUtils.removeEnd(source.getHlsPath(), "/");
+        String hlsPath = VideoConstants.HLS_KEY_PREFIX + videoId;
+        int objects = s3Service.copyDirectory(sourcePrefix + "/", hlsPath + "/");
+        if (objects == 0) {
+            log.warn("HLS output {} of video {} is missing, transcoding video {} instead",
+                    sourcePrefix, source.getId(), videoId);
+            return Optional.empty();
+        }
+
+        // Chỉ chép ảnh do bộ xử lý tạo ra; ảnh bìa tự chọn là của video nguồn
+        String sourceThumbnail = VideoConstants.THUMBNAIL_KEY_PREFIX + source.getId() + ".jpg";
+        String thumbnailKey = null;
+        if (s3Service.fileExists(sourceThumbnail)) {
+            thumbnailKey = VideoConstants.THUMBNAIL_KEY_PREFIX + videoId + ".jpg";
+            s3Service.copyFile(sourceThumbnail, thumbnailKey);
+        }
+        log.info("Video {} has the same content as video {}, copied {} HLS objects instead of transcoding",
+                videoId, source.getId(), objects);
+        return Optional.of(new CopiedOutput(hlsPath, thumbnailKey));
+    }
+
+    /**
+     * Apply the output copied from {@code source} to {@code video}.
+     */
+    private void reuseTranscoded(Video video, Video source, CopiedOutput copied) {
+        video.setStatus(VideoStatus.READY);
+        video.setHlsPath(copied.hlsPath());
+        video.setDuration(source.getDuration());
+        if (video.getThumbnailUrl() == null) {
+            video.setThumbnailUrl(copied.thumbnailKey());
+        }
+    }
+
     /**
      * Apply successful processing results to a Video entity.
      *
      * Sets the video's status to READY, stores the S3 HLS key prefix, updates duration
-     * from the provided input file, and, if missing, assigns a generated thumbnail S3 key
-     * in the form "videos/thumbnails/{videoId}.jpg".
+     * from the provided input file, and, if missing, assigns the generated thumbnail S3 key
+     * ("videos/thumbnails/{videoId}.jpg") when a thumbnail was actually uploaded.
      *
-     * @param video        the Video entity to update
-     * @param s3KeyPrefix  S3 key prefix where the generated HLS assets were uploaded
-     * @param thumbnailPath local thumbnail path (not persisted here; provided for callers that may need it)
-     * @param inputFile    original input file path used to derive the video's duration
+     * @param video     the Video entity to update
+     * @param upload    keys of the uploaded HLS output and thumbnail
+     * @param inputFile original input file path used to derive the video's duration
      * @throws IOException if reading the input file for duration fails
      * @throws InterruptedException if duration extraction is interrupted
      */
-    private void updateVideoSuccess(Video video, String s3KeyPrefix, Path thumbnailPath, Path inputFile) throws IOException, InterruptedException {
+    private void updateVideoSuccess(Video video, FFmpegUtils.HlsUpload upload, Path inputFile) throws IOException, InterruptedException {
         video.setStatus(VideoStatus.READY);
         // Store S3 key prefix instead of local path
-        video.setHlsPath(s3KeyPrefix);
+        video.setHlsPath(upload.hlsPath());
         video.setDuration(FFmpegUtils.getVideoDurationInSeconds(inputFile));
         if (video.getThumbnailUrl() == null) {
-            // Store MinIO thumbnail URL
-            String thumbnailKey = "videos/thumbnails/" + video.getId().toString() + ".jpg";
-            video.setThumbnailUrl(thumbnailKey);
+            // Chỉ lưu key khi ảnh đã thật sự được upload, vì getThumbnail không HEAD lại object
+            video.setThumbnailUrl(upload.thumbnailKey());
         }
     }
 
@@ -163,6 +242,6 @@ public class VideoProcessorServiceImpl implements VideoProcessorService {
         log.debug("Starting video processing for video: {}", video.getId());
         video.setStatus(VideoStatus.PROCESSING);
         videoRepository.save(video);
-        self.processVideo(video.getId(), inputFile);
+        self.processVideo(video.getId(), mediaFile.getId());
     }
 }
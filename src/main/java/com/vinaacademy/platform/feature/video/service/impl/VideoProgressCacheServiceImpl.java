@@ -1,29 +1,78 @@
 package com.vinaacademy.platform.feature.video.service.impl;
 
+import com.vinaacademy.platform.feature.course.repository.UserProgressRepository;
+import com.vinaacademy.platform.feature.lesson.entity.UserProgress;
+import com.vinaacademy.platform.feature.video.config.VideoProgressProperties;
+import com.vinaacademy.platform.feature.video.dto.VideoProgressEntry;
 import com.vinaacademy.platform.feature.video.service.VideoProgressCacheService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class VideoProgressCacheServiceImpl implements VideoProgressCacheService {
     private final RedisTemplate<String, Object> redisTemplate;
+    private final UserProgressRepository userProgressRepository;
+    private final VideoProgressProperties properties;
     private static final String VIDEO_PROGRESS_CACHE_KEY = "video:progress:";
-    private static final long VIDEO_PROGRESS_CACHE_EXPIRE_TIME = 60 * 60 * 24; // 1 day
+    // Tập "userId:videoId" có vị trí mới chưa ghi xuống DB
+    private static final String VIDEO_PROGRESS_DIRTY_KEY = "video:progress:dirty";
+    // Các member đã pop nhưng chưa flush xong, điểm là thời điểm pop (ms); node chết giữa chừng thì
+    // requeueStale trả chúng về tập dirty
+    private static final String VIDEO_PROGRESS_IN_FLIGHT_KEY = "video:progress:inflight";
+
+    private static final RedisScript<List> POP_DIRTY = new DefaultRedisScript<>("""
+            local members = redis.call('SPOP', KEYS[1], ARGV[1])
+            for _, member in ipairs(members) do
+                redis.call('ZADD', KEYS[2], ARGV[2], member)
+            end
+            return members
+            """, List.class);
+
+    private static final RedisScript<Long> REQUEUE_STALE = new DefaultRedisScript<>("""
+            local members = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, member in ipairs(members) do
+                redis.call('SADD', KEYS[1], member)
+                redis.call('ZREM', KEYS[2], member)
+            end
+            return #members
+            """, Long.class);
 
     private String getCacheKey(UUID userId, UUID videoId) {
         return String.format(VIDEO_PROGRESS_CACHE_KEY + "%s:%s", userId, videoId);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void saveProgress(UUID userId, UUID videoId, Long lastWatchedTime) {
         String key = getCacheKey(userId, videoId);
-        redisTemplate.opsForValue().set(key, lastWatchedTime);
-        redisTemplate.expire(key, VIDEO_PROGRESS_CACHE_EXPIRE_TIME, TimeUnit.SECONDS);
+        String member = userId + ":" + videoId;
+        // SET EX + SADD trong một pipeline: một round trip cho mỗi heartbeat
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForValue().set(key, lastWatchedTime, properties.getTtl());
+                ops.opsForSet().add(VIDEO_PROGRESS_DIRTY_KEY, member);
+                return null;
+            }
+        });
     }
 
     @Override
@@ -33,6 +82,91 @@ public class VideoProgressCacheServiceImpl implements VideoProgressCacheService
         if (value instanceof Number) {
             return Long.valueOf(value.toString());
         }
-        return 0L;
+        // Hết hạn trên Redis (hoặc Redis restart): đọc vị trí đã flush xuống DB
+        return userProgressRepository.findByLessonIdAndUserId(videoId, userId)
+                .map(UserProgress::getLastWatchedTime)
+                .orElse(0L);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<VideoProgressEntry> popDirtyProgress(int maxEntries) {
+        // Member được chuyển nguyên byte sang tập in-flight, kết quả đọc bằng serializer của template
+        List<Object> members = redisTemplate.execute(POP_DIRTY, RedisSerializer.string(),
+                (RedisSerializer<List>) redisTemplate.getValueSerializer(),
+                List.of(VIDEO_PROGRESS_DIRTY_KEY, VIDEO_PROGRESS_IN_FLIGHT_KEY),
+                String.valueOf(maxEntries), String.valueOf(System.currentTimeMillis()));
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object> validMembers = new ArrayList<>(members.size());
+        List<Object> skipped = new ArrayList<>();
+        List<UUID[]> ids = new ArrayList<>(members.size());
+        List<String> keys = new ArrayList<>(members.size());
+        for (Object member : members) {
+            String[] parts = member.toString().split(":");
+            try {
+                UUID userId = UUID.fromString(parts[0]);
+                UUID videoId = UUID.fromString(parts[1]);
+                validMembers.add(member);
+                ids.add(new UUID[]{userId, videoId});
+                keys.add(getCacheKey(userId, videoId));
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                log.warn("Dropping malformed video progress member: {}", member);
+                skipped.add(member);
+            }
+        }
+
+        List<Object> values = keys.isEmpty() ? List.of() : redisTemplate.opsForValue().multiGet(keys);
+        List<VideoProgressEntry> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values != null ? values.get(i) : null;
+            if (value instanceof Number number) {
+                entries.add(new VideoProgressEntry(ids.get(i)[0], ids.get(i)[1], number.longValue()));
+            } else {
+                skipped.add(validMembers.get(i));
+            }
+        }
+        // Không có gì để flush: bỏ khỏi tập in-flight ngay, nếu không sẽ bị trả về tập dirty mãi
+        if (!skipped.isEmpty()) {
+            redisTemplate.opsForZSet().remove(VIDEO_PROGRESS_IN_FLIGHT_KEY, skipped.toArray());
+        }
+        return entries;
+    }
+
+    @Override
+    public void acknowledge(Collection<VideoProgressEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForZSet().remove(VIDEO_PROGRESS_IN_FLIGHT_KEY, members(entries));
+    }
+
+    @Override
+    public void markDirty(Collection<VideoProgressEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Object[] members = members(entries);
+        // Thêm vào tập dirty trước: dừng giữa hai lệnh chỉ khiến entry được flush thêm một lần
+        redisTemplate.opsForSet().add(VIDEO_PROGRESS_DIRTY_KEY, members);
+        redisTemplate.opsForZSet().remove(VIDEO_PROGRESS_IN_FLIGHT_KEY, members);
+    }
+
+    @Override
+    public int requeueStale(Duration timeout) {
+        long cutoff = System.currentTimeMillis() - timeout.toMillis();
+        Long requeued = redisTemplate.execute(REQUEUE_STALE, RedisSerializer.string(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(VIDEO_PROGRESS_DIRTY_KEY, VIDEO_PROGRESS_IN_FLIGHT_KEY),
+                String.valueOf(cutoff), String.valueOf(properties.getBatchSize() * properties.getMaxBatchesPerRun()));
+        return requeued != null ? requeued.intValue() : 0;
+    }
+
+    private static Object[] members(Collection<VideoProgressEntry> entries) {
+        return entries.stream()
+                .map(entry -> entry.userId() + ":" + entry.videoId())
+                .toArray();
     }
 }
@@ -6,6 +6,7 @@ import com.vinaacademy.platform.feature.lesson.repository.projection.LessonAcces
 import com.vinaacademy.platform.feature.storage.dto.MediaFileDto;
 import com.vinaacademy.platform.feature.storage.enums.FileType;
 import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.storage.service.S3Service.PresignedUrl;
 import com.vinaacademy.platform.feature.storage.service.StorageService;
 import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
 import com.vinaacademy.platform.feature.user.constant.AuthConstants;
@@ -18,13 +19,20 @@ import com.vinaacademy.platform.feature.video.mapper.VideoMapper;
 import com.vinaacademy.platform.feature.video.repository.VideoRepository;
 import com.vinaacademy.platform.feature.video.service.VideoService;
 import com.vinaacademy.platform.feature.video.validator.VideoValidator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
@@ -37,6 +45,11 @@ import org.springframework.web.multipart.MultipartFile;
 @Service
 @Slf4j
 public class VideoServiceImpl implements VideoService {
+  // Như URL segment ký qua backend: link trong manifest bị chia sẻ cũng chỉ dùng được tối đa 1 giờ
+  private static final int MANIFEST_SEGMENT_URL_TTL_SECONDS = 3600;
+  // URL được đảm bảo còn hạn ít nhất 3/4 TTL; nửa TTL chừa chỗ cho người xem tạm dừng hoặc tua lại
+  private static final double PRESIGNED_PLAYBACK_WINDOW_SECONDS = MANIFEST_SEGMENT_URL_TTL_SECONDS / 2.0;
+
   @Autowired private VideoRepository videoRepository;
   @Autowired private LessonRepository lessonRepository;
   @Autowired private VideoProcessorServiceImpl videoProcessorService;
@@ -45,6 +58,7 @@ public class VideoServiceImpl implements VideoService {
 
   @Autowired private VideoValidator videoValidator;
   @Autowired private SecurityHelper securityHelper;
+  @Autowired private MeterRegistry meterRegistry;
 
   /**
    * Uploads a video file for a lesson, marks the video as processing and triggers asynchronous processing.
@@ -87,11 +101,10 @@ public class VideoServiceImpl implements VideoService {
     // Tạo thư mục lưu video
     MediaFileDto mediaFile =
         storageService.uploadFile(file, FileType.VIDEO, currentUser.getId().toString());
-    String destinationFile = mediaFile.getFilePath();
     video = videoRepository.save(video);
 
     // Xử lý FFmpeg async
-    videoProcessorService.processVideo(video.getId(), Paths.get(destinationFile));
+    videoProcessorService.processVideo(video.getId(), mediaFile.getId());
 
     return VideoMapper.INSTANCE.toDto(video);
   }
@@ -99,14 +112,16 @@ public class VideoServiceImpl implements VideoService {
   /**
    * Return a redirect response to the video's thumbnail URL.
    *
-   * If the stored thumbnail is an S3 key (not starting with "http://"/"https://"), verifies the object exists
-   * in S3 and returns a 302 redirect to a presigned URL (valid 86400s) with Cache-Control max-age=86400.
-   * If the stored thumbnail is an absolute URL, returns a 302 redirect directly to that URL with the same cache header.
+   * If the stored thumbnail is an S3 key (not starting with "http://"/"https://"), returns a 302 redirect to a
+   * presigned URL (requested for 86400s), cached by the client no longer than the URL stays valid. The video
+   * processor only stores a generated thumbnail key once that thumbnail has been uploaded (or copied), so its
+   * existence is not checked again with a HEAD request.
+   * If the stored thumbnail is an absolute URL, returns a 302 redirect directly to that URL with max-age=86400.
    *
    * @param videoId the UUID of the video whose thumbnail is requested
    * @return a 302 ResponseEntity that redirects the client to the thumbnail (presigned S3 URL or external URL)
-   * @throws BadRequestException if the video is not found, the thumbnail URL is missing, the thumbnail does not exist in storage,
-   *         or an error occurs while generating/serving the thumbnail
+   * @throws BadRequestException if the video is not found, the thumbnail URL is missing, or an error occurs while
+   *         generating/serving the thumbnail
    */
   @Override
   public ResponseEntity<Resource> getThumbnail(UUID videoId) {
@@ -127,19 +142,16 @@ public class VideoServiceImpl implements VideoService {
     try {
       // Check if it's a MinIO key (doesn't start with http)
       if (!thumbnailKey.startsWith("http://") && !thumbnailKey.startsWith("https://")) {
-        // It's a MinIO S3 key, redirect to presigned URL for direct access
-        if (!s3Service.fileExists(thumbnailKey)) {
-          log.warn("Thumbnail not found in MinIO: {}", thumbnailKey);
-          throw BadRequestException.message("Thumbnail not found");
-        }
-
-        // Generate presigned URL for direct access (1 day expiration)
-        String presignedUrl = s3Service.generatePresignedUrl(thumbnailKey, 86400);
+        // It's a MinIO S3 key, redirect to presigned URL for direct access (1 day expiration)
+        PresignedUrl presigned = s3Service.presign(thumbnailKey, 86400);
+        // URL có thể đã được ký từ trước (cache), không để client giữ redirect lâu hơn hạn của URL
+        long maxAge =
+            Math.max(0, Duration.between(Instant.now(), presigned.expiresAt()).toSeconds());
 
-        log.debug("Redirecting to presigned URL for thumbnail: {}", presignedUrl);
+        log.debug("Redirecting to presigned URL for thumbnail: {}", presigned.url());
         return ResponseEntity.status(302)
-            .header(HttpHeaders.LOCATION, presignedUrl)
-            .header(HttpHeaders.CACHE_CONTROL, "max-age=86400") // Cache for 1 day
+            .header(HttpHeaders.LOCATION, presigned.url())
+            .header(HttpHeaders.CACHE_CONTROL, "max-age=" + Math.min(maxAge, 86400))
             .build();
       }
       // For backward compatibility with old URLs - redirect directly
@@ -197,17 +209,31 @@ public class VideoServiceImpl implements VideoService {
   /**
    * Returns a presigned S3 URL for streaming a specific HLS segment of a video.
    *
-   * Validates the requested subPath, ensures the video exists and is READY, verifies the segment exists in S3,
-   * and generates a presigned URL valid for 1 hour.
+   * Validates the requested subPath, ensures the video exists and is READY and generates a presigned URL valid for
+   * 1 hour. A READY video has its whole HLS output uploaded, so the segment is not checked with a HEAD request;
+   * an unknown subPath ends in a 404 from storage.
    *
    * @param videoId the UUID of the video
    * @param subPath the relative path to the HLS segment or manifest (must match [A-Za-z0-9_./-]+)
    * @return a presigned URL that provides direct access to the requested segment for 1 hour
-   * @throws BadRequestException if the subPath is invalid, the video is not found, the video is not READY, or the segment does not exist
+   * @throws BadRequestException if the subPath is invalid, the video is not found or the video is not READY
    */
   @Override
   public String getSegmentStreaming(UUID videoId, String subPath) {
-    if (!subPath.matches("[A-Za-z0-9_./-]+")) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return resolveSegment(videoId, subPath);
+    } catch (RuntimeException e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(timer("video.segment.resolve", exception));
+    }
+  }
+
+  private String resolveSegment(UUID videoId, String subPath) {
+    if (!subPath.matches("[A-Za-z0-9_./-]+") || subPath.contains("..")) {
       throw BadRequestException.message("Đường dẫn không hợp lệ");
     }
 
@@ -225,12 +251,6 @@ public class VideoServiceImpl implements VideoService {
     // Construct S3 key from video's HLS path and subPath
     String s3Key = video.getHlsPath() + "/" + subPath;
 
-    // Check if file exists in MinIO
-    if (!s3Service.fileExists(s3Key)) {
-      log.warn("Video segment not found in MinIO: {}", s3Key);
-      throw BadRequestException.message("Không tìm thấy tệp video");
-    }
-
     // Generate presigned URL for direct access (1 hour expiration)
     String presignedUrl = s3Service.generatePresignedUrl(s3Key, 3600);
 
@@ -243,7 +263,12 @@ public class VideoServiceImpl implements VideoService {
    *
    * <p>All lines starting with `#` or empty lines are preserved. Non-comment lines are treated as segment or playlist references:
    * - If a line is an absolute URL, only the final path component (filename) is extracted and used.
-   * - The resulting relative path (which may include subdirectories) is prefixed with {@code basePath} so the client will request segments via the backend.
+   * - Media segments (".ts") starting within the first half hour of playback (per {@code #EXTINF}) are replaced by
+   *   presigned storage URLs valid for 1 hour, all signed in one batch, so the player fetches them directly instead
+   *   of going through one backend redirect per segment. A leaked manifest is thus usable for no longer than a
+   *   segment redirect is.
+   * - Later segments and other references (nested playlists) are prefixed with {@code basePath} so the client
+   *   requests them via the backend, which signs them when they are actually played.
    *
    * @param videoId the video UUID used to locate the HLS manifest in storage
    * @param basePath the backend prefix to prepend to each non-comment manifest line (should include a trailing slash if needed)
@@ -254,6 +279,25 @@ public class VideoServiceImpl implements VideoService {
   @Override
   public ByteArrayResource getRewriteManifestProxy(UUID videoId, String basePath, String subPath)
       throws IOException {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      ByteArrayResource manifest = rewriteManifest(videoId, basePath, subPath);
+      DistributionSummary.builder("video.manifest.bytes")
+          .baseUnit("bytes")
+          .register(meterRegistry)
+          .record(manifest.contentLength());
+      return manifest;
+    } catch (IOException | RuntimeException e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(timer("video.manifest.rewrite", exception));
+    }
+  }
+
+  private ByteArrayResource rewriteManifest(UUID videoId, String basePath, String subPath)
+      throws IOException {
     // 2.1 Đọc manifest gốc từ storage
     Video video =
         videoRepository
@@ -265,39 +309,96 @@ public class VideoServiceImpl implements VideoService {
       original = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
     }
 
-    // 2.2 Rewrite MỌI dòng không phải comment (#...) thành đường dẫn backend
+    // 2.2 Rewrite MỌI dòng không phải comment (#...)
     // - Giữ nguyên comment (#EXTM3U, #EXT-X-...)
     // - Với dòng là URL tuyệt đối (http/https), ta chỉ lấy phần tên file cuối (an toàn nhất)
-    //   rồi gắn vào basePath để luôn đi qua backend (áp quyền + ký segment động)
-    String rewritten =
-        original
-            .lines()
-            .map(
-                line -> {
-                  String trimmed = line.trim();
-                  if (trimmed.isEmpty() || trimmed.startsWith("#")) {
-                    return line; // giữ nguyên comment/metadata
-                  }
-
-                  String target = trimmed;
-
-                  // Nếu là URL tuyệt đối (http/https), chỉ lấy phần path sau videoId
-                  if (target.contains("://")) {
-                    try {
-                      URI uri = URI.create(target);
-                      target = Paths.get(uri.getPath()).getFileName().toString();
-                    } catch (Exception e) {
-                      log.warn("Invalid URL in manifest: {}", target, e);
-                    }
-                  }
-
-                  // Gắn nguyên relative path (có thể bao gồm 720p/segment001.ts)
-                  return basePath + target;
-                })
-            .collect(Collectors.joining("\n"));
+    // - Segment (.ts) trong nửa giờ phát đầu: ký sẵn presigned URL trong một lượt (quyền đã được kiểm tra ở request manifest)
+    // - Segment phát sau đó và playlist con (.m3u8): gắn vào basePath để vẫn đi qua backend
+    List<String> lines = original.lines().toList();
+    String manifestDir = video.getHlsPath() + "/" + subPath.substring(0, subPath.lastIndexOf('/') + 1);
+    List<String> targets = new ArrayList<>(lines.size());
+    List<String> segmentKeys = new ArrayList<>();
+    // Player chỉ tải media playlist một lần (VOD) rồi dùng URL suốt buổi xem: segment phát muộn hơn cửa sổ
+    // sẽ hết hạn trước khi tới lượt, nên để backend ký lúc cần
+    double playbackOffset = 0;
+    double segmentDuration = 0;
+    for (String line : lines) {
+      String target = manifestTarget(line);
+      if (target == null) {
+        segmentDuration = extinfDuration(line, segmentDuration);
+      } else if (target.endsWith(".ts")) {
+        if (playbackOffset < PRESIGNED_PLAYBACK_WINDOW_SECONDS) {
+          segmentKeys.add(manifestDir + target);
+        }
+        playbackOffset += segmentDuration;
+      }
+      targets.add(target);
+    }
+    Map<String, String> segmentUrls =
+        segmentKeys.isEmpty()
+            ? Map.of()
+            : s3Service.generatePresignedUrls(segmentKeys, MANIFEST_SEGMENT_URL_TTL_SECONDS);
+
+    StringBuilder rewritten = new StringBuilder(original.length() + segmentKeys.size() * 320);
+    for (int i = 0; i < lines.size(); i++) {
+      if (i > 0) {
+        rewritten.append('\n');
+      }
+      String target = targets.get(i);
+      if (target == null) {
+        rewritten.append(lines.get(i)); // giữ nguyên comment/metadata
+      } else if (segmentUrls.containsKey(manifestDir + target)) {
+        rewritten.append(segmentUrls.get(manifestDir + target));
+      } else {
+        // Gắn nguyên relative path (có thể bao gồm 720p/playlist.m3u8 hoặc segment phát muộn)
+        rewritten.append(basePath).append(target);
+      }
+    }
 
     // 2.3 Trả manifest đã rewrite
-    byte[] bytes = rewritten.getBytes(StandardCharsets.UTF_8);
+    byte[] bytes = rewritten.toString().getBytes(StandardCharsets.UTF_8);
     return new ByteArrayResource(bytes);
   }
+
+  /**
+   * @return the path referenced by a manifest line, relative to the manifest, or null for comments and blank lines
+   */
+  private String manifestTarget(String line) {
+    String target = line.trim();
+    if (target.isEmpty() || target.startsWith("#")) {
+      return null;
+    }
+    // Nếu là URL tuyệt đối (http/https), chỉ lấy phần path sau videoId
+    if (target.contains("://")) {
+      try {
+        URI uri = URI.create(target);
+        target = Paths.get(uri.getPath()).getFileName().toString();
+      } catch (Exception e) {
+        log.warn("Invalid URL in manifest: {}", target, e);
+      }
+    }
+    return target;
+  }
+
+  /**
+   * @return the duration declared by an {@code #EXTINF:<seconds>,} tag, or {@code current} for any other line
+   */
+  private static double extinfDuration(String line, double current) {
+    String trimmed = line.trim();
+    if (!trimmed.startsWith("#EXTINF:")) {
+      return current;
+    }
+    int comma = trimmed.indexOf(',');
+    String value = trimmed.substring("#EXTINF:".length(), comma >= 0 ? comma : trimmed.length());
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      log.warn("Invalid EXTINF in manifest: {}", line);
+      return current;
+    }
+  }
+
+  private Timer timer(String name, String exception) {
+    return Timer.builder(name).tag("exception", exception).register(meterRegistry);
+  }
 }
@@ -1,6 +1,9 @@
 package com.vinaacademy.platform.feature.video.utils;
 
 import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.video.constants.VideoConstants;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.BufferedReader;
@@ -12,8 +15,13 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+/**
+ * FFmpeg/ffprobe helpers. Being static, they record {@code video.transcode} (per variant) and
+ * {@code video.hls.upload} on the global Micrometer registry, to which Spring Boot adds its own registry.
+ */
 @Slf4j
 public class FFmpegUtils {
 
@@ -53,7 +61,13 @@ public class FFmpegUtils {
             Path variantDir = outputBaseDir.resolve(variant.name());
             Files.createDirectories(variantDir);
 
+            long start = System.nanoTime();
             int exitCode = convertToVariantHLS(inputFilePath, variant, variantDir);
+            Timer.builder("video.transcode")
+                    .tag("variant", variant.name())
+                    .tag("outcome", exitCode == 0 ? "success" : "failure")
+                    .register(Metrics.globalRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
             if (exitCode != 0) {
                 throw new RuntimeException("FFmpeg failed for " + variant.name());
@@ -88,12 +102,13 @@ public class FFmpegUtils {
          * @param outputBaseDir     temporary directory where HLS variants and playlists are generated
          * @param thumbnailFilePath path to the generated thumbnail image (may not exist)
          * @param videoId           UUID used to build the S3 key prefix (e.g., "videos/hls/{videoId}")
-         * @return the S3/MinIO key prefix where the HLS files were uploaded (e.g., "videos/hls/{videoId}")
+         * @return the S3/MinIO key prefix where the HLS files were uploaded (e.g., "videos/hls/{videoId}") and the
+         *         thumbnail key, null when no thumbnail was generated
          * @throws IOException              if an I/O error occurs during upload or file operations
          * @throws InterruptedException     if the invoked ffmpeg/ffprobe process is interrupted
          * @throws RuntimeException         if the local FFmpeg HLS conversion fails (non-zero exit code)
          */
-    public static String convertToAdaptiveHLSAndUpload(Path inputFilePath, Path outputBaseDir, Path thumbnailFilePath, 
+    public static HlsUpload convertToAdaptiveHLSAndUpload(Path inputFilePath, Path outputBaseDir, Path thumbnailFilePath, 
                                                       com.vinaacademy.platform.feature.storage.service.S3Service s3Service, 
                                                       java.util.UUID videoId) throws IOException, InterruptedException {
         // First convert to HLS locally
@@ -104,17 +119,22 @@ public class FFmpegUtils {
 
         try {
             // Upload HLS directory to MinIO
-            String s3KeyPrefix = "videos/hls/" + videoId.toString();
+            String s3KeyPrefix = VideoConstants.HLS_KEY_PREFIX + videoId.toString();
+            long start = System.nanoTime();
             s3Service.uploadDirectory(s3KeyPrefix, outputBaseDir);
+            Timer.builder("video.hls.upload")
+                    .register(Metrics.globalRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             
             // Upload thumbnail to MinIO
+            String thumbnailKey = null;
             if (Files.exists(thumbnailFilePath)) {
-                String thumbnailKey = "videos/thumbnails/" + videoId.toString() + ".jpg";
+                thumbnailKey = VideoConstants.THUMBNAIL_KEY_PREFIX + videoId.toString() + ".jpg";
                 s3Service.uploadFile(thumbnailKey, thumbnailFilePath, "image/jpeg");
             }
             
             log.info("Successfully uploaded HLS files and thumbnail to MinIO for video: {}", videoId);
-            return s3KeyPrefix;
+            return new HlsUpload(s3KeyPrefix, thumbnailKey);
             
         } finally {
             // Clean up local files
@@ -232,6 +252,15 @@ public class FFmpegUtils {
         }
     }
 
+    /**
+     * Keys written by {@link #convertToAdaptiveHLSAndUpload}.
+     *
+     * @param hlsPath      key prefix of the uploaded HLS output
+     * @param thumbnailKey key of the uploaded thumbnail, null when ffmpeg produced none
+     */
+    public record HlsUpload(String hlsPath, String thumbnailKey) {
+    }
+
     public record VideoVariant(String name, String resolution, String videoBitrate, String audioBitrate) {
         public int getBandwidthEstimate() {
             // Rough estimate for bandwidth
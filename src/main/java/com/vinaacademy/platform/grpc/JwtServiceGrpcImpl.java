@@ -5,6 +5,8 @@ import com.vinaacademy.grpc.TokenRequest;
 import com.vinaacademy.grpc.ValidateTokenResponse;
 import com.vinaacademy.platform.feature.user.auth.service.JwtService;
 import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.grpc.server.service.GrpcService;
@@ -15,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 @RequiredArgsConstructor
 public class JwtServiceGrpcImpl extends JwtServiceGrpc.JwtServiceImplBase {
   private final JwtService jwtService;
+  private final MeterRegistry meterRegistry;
 
 
   /**
@@ -31,6 +34,9 @@ public class JwtServiceGrpcImpl extends JwtServiceGrpc.JwtServiceImplBase {
   public void validateToken(
       TokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
     log.info("Received validate request with token: {}", request.getToken());
+    // Độ trễ theo method đã có ở grpc.server (interceptor observation của Spring gRPC)
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String result = "error";
     try {
       boolean isValid = jwtService.isValidToken(request.getToken());
 
@@ -45,6 +51,7 @@ public class JwtServiceGrpcImpl extends JwtServiceGrpc.JwtServiceImplBase {
               .setFullName(jwtService.extractFullName(request.getToken()))
               .build();
 
+      result = isValid ? "valid" : "invalid";
       responseObserver.onNext(response);
       responseObserver.onCompleted();
     } catch (Exception e) {
@@ -54,6 +61,11 @@ public class JwtServiceGrpcImpl extends JwtServiceGrpc.JwtServiceImplBase {
               .withDescription(e.getMessage())
               .withCause(e)
               .asRuntimeException());
+    } finally {
+      sample.stop(Timer.builder("jwt.validate")
+          .description("Token validation including claim extraction")
+          .tag("result", result)
+          .register(meterRegistry));
     }
   }
 }
@@ -0,0 +1,94 @@
+package com.vinaacademy.platform.grpc;
+
+import com.vinaacademy.platform.feature.ratelimit.RateLimitService;
+import com.vinaacademy.platform.feature.ratelimit.RateLimiter.Decision;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Locale;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the {@code grpc} rate-limit policy to every gRPC call, per authenticated client and peer address
+ * together, or per peer address for anonymous calls. Rejected calls are closed with RESOURCE_EXHAUSTED; the
+ * {@code ratelimit-*} and {@code retry-after} values travel as metadata.
+ *
+ * <p>Every internal service authenticates as the one registered OAuth2 client ({@code grpc-client}), so
+ * keying by client id alone would make all services share a single bucket and let one busy service starve
+ * the others. Adding the peer address gives each service instance its own quota (the {@code api.read} one
+ * for machine tokens). Behind a proxy that hides the caller's address the peer is the proxy, and callers
+ * behind it share a quota again.
+ *
+ * <p>Registered without an explicit order, so it runs after Spring gRPC's authentication interceptor and
+ * sees the caller's authentication.
+ */
+@Slf4j
+@Component
+@GlobalServerInterceptor
+@RequiredArgsConstructor
+public class RateLimitGrpcInterceptor implements ServerInterceptor {
+  private final RateLimitService rateLimitService;
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    Decision decision =
+        rateLimitService.acquirePerAddress(
+            RateLimitProperties.GRPC,
+            SecurityContextHolder.getContext().getAuthentication(),
+            peerAddress(call));
+
+    if (!decision.allowed()) {
+      log.debug(
+          "Rate limited gRPC call {}, retry after {}s",
+          call.getMethodDescriptor().getFullMethodName(),
+          decision.retryAfterSeconds());
+      call.close(
+          Status.RESOURCE_EXHAUSTED.withDescription(
+              "Rate limit exceeded, retry after " + decision.retryAfterSeconds() + "s"),
+          toMetadata(decision.headers()));
+      return new ServerCall.Listener<>() {};
+    }
+
+    ServerCall<ReqT, RespT> withHeaders =
+        new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+          @Override
+          public void sendHeaders(Metadata responseHeaders) {
+            responseHeaders.merge(toMetadata(decision.headers()));
+            super.sendHeaders(responseHeaders);
+          }
+        };
+    return next.startCall(withHeaders, headers);
+  }
+
+  private static String peerAddress(ServerCall<?, ?> call) {
+    SocketAddress address = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+    if (address instanceof InetSocketAddress inet && inet.getAddress() != null) {
+      return inet.getAddress().getHostAddress();
+    }
+    return String.valueOf(address);
+  }
+
+  // Tên metadata của gRPC phải viết thường
+  private static Metadata toMetadata(Map<String, String> values) {
+    Metadata metadata = new Metadata();
+    values.forEach(
+        (name, value) ->
+            metadata.put(
+                Metadata.Key.of(name.toLowerCase(Locale.ROOT), Metadata.ASCII_STRING_MARSHALLER),
+                value));
+    return metadata;
+  }
+}
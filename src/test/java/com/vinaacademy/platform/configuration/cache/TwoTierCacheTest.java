@@ -0,0 +1,224 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * A shared {@link ConcurrentMapCacheManager} stands for Redis (L2); each node has its own {@link
+ * TwoTierCacheManager} and {@link CacheInvalidationBroadcaster}, and the mocked template delivers every
+ * published message to all broadcasters, like the {@code cache:invalidate} channel.
+ */
+class TwoTierCacheTest {
+
+  private static final String CACHE = CacheConstants.COURSE_DETAILS;
+
+  private final List<CacheInvalidationBroadcaster> subscribers = new CopyOnWriteArrayList<>();
+  private ConcurrentMapCacheManager redis;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    redis = new ConcurrentMapCacheManager(CACHE);
+    executor = Executors.newFixedThreadPool(16);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentMissesOnOneKeyLoadOnce() throws Exception {
+    ConcurrentMapCache l2 = new ConcurrentMapCache(CACHE);
+    TwoTierCache cache = cache(l2, 100, Duration.ofMinutes(5));
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      results.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return cache.get(
+                    "lap-trinh-java",
+                    () -> {
+                      loads.incrementAndGet();
+                      // Giữ quyền nạp đủ lâu để các luồng còn lại cùng miss
+                      Thread.sleep(200);
+                      return "details";
+                    });
+              }));
+    }
+    start.countDown();
+
+    for (Future<String> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("details");
+    }
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(l2.get("lap-trinh-java").get()).isEqualTo("details");
+  }
+
+  @Test
+  void failedLoadIsPropagatedToWaitersAndRetriedLater() throws Exception {
+    TwoTierCache cache = cache(new ConcurrentMapCache(CACHE), 100, Duration.ofMinutes(5));
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Future<String> first =
+        executor.submit(
+            () ->
+                cache.get(
+                    "k",
+                    () -> {
+                      loading.countDown();
+                      release.await();
+                      throw new IllegalStateException("database down");
+                    }));
+    loading.await();
+    Future<String> waiter = executor.submit(() -> cache.get("k", () -> "unused"));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(Cache.ValueRetrievalException.class);
+    assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(Cache.ValueRetrievalException.class)
+        .hasRootCauseMessage("database down");
+    // Lỗi không được cache: lần gọi sau nạp lại
+    assertThat(cache.get("k", () -> "recovered")).isEqualTo("recovered");
+  }
+
+  @Test
+  void localEntriesExpireAfterTtl() throws Exception {
+    ConcurrentMapCache l2 = new ConcurrentMapCache(CACHE);
+    TwoTierCache cache = cache(l2, 100, Duration.ofMillis(100));
+
+    cache.put("k", "v1");
+    // Node khác ghi thẳng lên Redis và thông điệp invalidate bị mất
+    l2.put("k", "v2");
+    assertThat(cache.get("k").get()).isEqualTo("v1");
+
+    Thread.sleep(200);
+    assertThat(cache.get("k").get()).isEqualTo("v2");
+  }
+
+  @Test
+  void localTierKeepsMostRecentlyUsedEntriesWithinBound() {
+    ConcurrentMapCache l2 = new ConcurrentMapCache(CACHE);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TwoTierCache cache =
+        new TwoTierCache(l2, broadcaster(), 2, Duration.ofMinutes(5), meterRegistry);
+
+    cache.put("k1", "v1");
+    cache.put("k2", "v2");
+    cache.get("k1");
+    cache.put("k3", "v3");
+    assertThat(meterRegistry.get("cache.tier.local.size").gauge().value()).isEqualTo(2);
+
+    // k2 ít được dùng nhất nên bị đẩy khỏi L1: lần đọc sau phải xuống Redis
+    l2.put("k1", "stale-check");
+    l2.put("k2", "from-redis");
+    assertThat(cache.get("k1").get()).isEqualTo("v1");
+    assertThat(cache.get("k2").get()).isEqualTo("from-redis");
+    assertThat(meterRegistry.get("cache.tier.gets").tag("result", "l2_hit").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void evictInvalidatesOtherNodesLocalTier() {
+    Cache nodeA = node().getCache(CACHE);
+    Cache nodeB = node().getCache(CACHE);
+
+    nodeA.put("k", "v1");
+    assertThat(nodeB.get("k").get()).isEqualTo("v1");
+
+    nodeA.evict("k");
+    redis.getCache(CACHE).put("k", "v2");
+    assertThat(nodeB.get("k").get()).isEqualTo("v2");
+
+    nodeA.put("k", "v3");
+    assertThat(nodeB.get("k").get()).isEqualTo("v3");
+  }
+
+  @Test
+  void clearInvalidatesOtherNodesLocalTier() {
+    Cache nodeA = node().getCache(CACHE);
+    Cache nodeB = node().getCache(CACHE);
+
+    nodeA.put("k1", "v1");
+    nodeA.put("k2", "v2");
+    assertThat(nodeB.get("k1").get()).isEqualTo("v1");
+    assertThat(nodeB.get("k2").get()).isEqualTo("v2");
+
+    nodeA.clear();
+    redis.getCache(CACHE).put("k1", "fresh");
+    assertThat(nodeB.get("k1").get()).isEqualTo("fresh");
+    assertThat(nodeB.get("k2")).isNull();
+  }
+
+  @Test
+  void managerWrapsEachDelegateCacheOnce() {
+    CacheManager manager = node();
+
+    assertThat(manager.getCache(CACHE)).isInstanceOf(TwoTierCache.class);
+    assertThat(manager.getCache(CACHE)).isSameAs(manager.getCache(CACHE));
+    assertThat(manager.getCache("unknown")).isNull();
+    assertThat(manager.getCacheNames()).containsExactly(CACHE);
+  }
+
+  private TwoTierCache cache(Cache l2, int maxEntries, Duration ttl) {
+    return new TwoTierCache(l2, broadcaster(), maxEntries, ttl, new SimpleMeterRegistry());
+  }
+
+  private TwoTierCacheManager node() {
+    return new TwoTierCacheManager(redis, broadcaster(), new SimpleMeterRegistry());
+  }
+
+  private CacheInvalidationBroadcaster broadcaster() {
+    StringRedisTemplate template = mock(StringRedisTemplate.class);
+    doAnswer(
+            invocation -> {
+              byte[] channel =
+                  invocation.<String>getArgument(0).getBytes(StandardCharsets.UTF_8);
+              byte[] body = invocation.<String>getArgument(1).getBytes(StandardCharsets.UTF_8);
+              for (CacheInvalidationBroadcaster subscriber : subscribers) {
+                subscriber.onMessage(new DefaultMessage(channel, body), null);
+              }
+              return (long) subscribers.size();
+            })
+        .when(template)
+        .convertAndSend(eq(CacheInvalidationBroadcaster.INVALIDATE_CHANNEL), anyString());
+    CacheInvalidationBroadcaster broadcaster =
+        new CacheInvalidationBroadcaster(template, mock(RedisMessageListenerContainer.class));
+    subscribers.add(broadcaster);
+    return broadcaster;
+  }
+}
@@ -0,0 +1,216 @@
+package com.vinaacademy.platform.configuration.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vinaacademy.platform.configuration.cache.VersionedCacheSerializer.Format;
+import com.vinaacademy.platform.feature.category.dto.CategoryDto;
+import com.vinaacademy.platform.feature.course.dto.CourseDetailsResponse;
+import com.vinaacademy.platform.feature.course.enums.CourseLevel;
+import com.vinaacademy.platform.feature.course.enums.CourseStatus;
+import com.vinaacademy.platform.feature.course.enums.LessonType;
+import com.vinaacademy.platform.feature.lesson.dto.LessonDto;
+import com.vinaacademy.platform.feature.review.dto.CourseReviewDto;
+import com.vinaacademy.platform.feature.section.dto.SectionDto;
+import com.vinaacademy.platform.feature.user.dto.UserDto;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class VersionedCacheSerializerTest {
+
+  private final VersionedCacheSerializer smile = new VersionedCacheSerializer(Format.SMILE, -1);
+
+  @Test
+  void smileRoundTripsCachedCourseDetails() {
+    CourseDetailsResponse course = courseDetails(3, 4);
+
+    byte[] bytes = smile.serialize(course);
+
+    assertThat(bytes[0]).isEqualTo(VersionedCacheSerializer.MAGIC);
+    assertThat(bytes[1]).isEqualTo(VersionedCacheSerializer.CODEC_SMILE);
+    assertThat(smile.deserialize(bytes))
+        .isInstanceOf(CourseDetailsResponse.class)
+        .usingRecursiveComparison()
+        .isEqualTo(course);
+  }
+
+  @Test
+  void payloadAboveThresholdIsCompressed() {
+    VersionedCacheSerializer compressing = new VersionedCacheSerializer(Format.SMILE, 2048);
+    CourseDetailsResponse course = courseDetails(10, 15);
+
+    byte[] plain = smile.serialize(course);
+    byte[] compressed = compressing.serialize(course);
+
+    assertThat(plain.length).isGreaterThan(2048);
+    assertThat(compressed[1]).isEqualTo(VersionedCacheSerializer.CODEC_SMILE_DEFLATE);
+    assertThat(compressed.length).isLessThan(plain.length);
+    // Node nào cũng đọc được cả hai mã hóa, bất kể ngưỡng nén của chính nó
+    assertThat(smile.deserialize(compressed)).usingRecursiveComparison().isEqualTo(course);
+    assertThat(compressing.deserialize(plain)).usingRecursiveComparison().isEqualTo(course);
+  }
+
+  @Test
+  void payloadBelowThresholdIsNotCompressed() {
+    VersionedCacheSerializer compressing = new VersionedCacheSerializer(Format.SMILE, 2048);
+
+    byte[] bytes = compressing.serialize(category("lap-trinh"));
+
+    assertThat(bytes[1]).isEqualTo(VersionedCacheSerializer.CODEC_SMILE);
+  }
+
+  @Test
+  void readsEntriesWrittenByJsonSerializer() {
+    CategoryDto category = category("lap-trinh");
+    category.setChildren(new ArrayList<>(List.of(category("java"), category("python"))));
+    // Cây danh mục được cache dưới dạng List bất biến từ Stream.toList()
+    List<CategoryDto> tree = Stream.of(category, category("thiet-ke")).toList();
+
+    byte[] json = CacheSerializers.json().serialize(tree);
+
+    assertThat(json[0]).isEqualTo((byte) '[');
+    assertThat(smile.deserialize(json)).isEqualTo(tree);
+  }
+
+  @Test
+  void jsonSerializerRoundTripsJavaTimeValues() {
+    CourseDetailsResponse course = courseDetails(1, 2);
+    GenericJackson2JsonRedisSerializer json = CacheSerializers.json();
+
+    assertThat(json.deserialize(json.serialize(course))).usingRecursiveComparison().isEqualTo(course);
+  }
+
+  @Test
+  void jsonFormatWritesUntaggedEntries() {
+    VersionedCacheSerializer json = new VersionedCacheSerializer(Format.JSON, 0);
+    CourseDetailsResponse course = courseDetails(1, 2);
+
+    byte[] bytes = json.serialize(course);
+
+    assertThat(bytes[0]).isEqualTo((byte) '{');
+    assertThat(smile.deserialize(bytes)).usingRecursiveComparison().isEqualTo(course);
+  }
+
+  @Test
+  void unknownCodecIsRejected() {
+    byte[] bytes = {VersionedCacheSerializer.MAGIC, 9, 1, 2, 3};
+
+    assertThatThrownBy(() -> smile.deserialize(bytes))
+        .isInstanceOf(SerializationException.class)
+        .hasMessageContaining("Unknown cache codec: 9");
+  }
+
+  @Test
+  void truncatedCompressedPayloadIsRejected() {
+    byte[] compressed =
+        new VersionedCacheSerializer(Format.SMILE, 0).serialize(courseDetails(2, 3));
+    byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+    assertThatThrownBy(() -> smile.deserialize(truncated))
+        .isInstanceOf(SerializationException.class);
+  }
+
+  @Test
+  void jdkTypesOutsideAllowlistAreRejected() {
+    Map<String, Object> value = new HashMap<>();
+    value.put("link", URI.create("https://vinaacademy.vn"));
+
+    byte[] bytes = smile.serialize(value);
+
+    assertThatThrownBy(() -> smile.deserialize(bytes))
+        .isInstanceOf(SerializationException.class)
+        .hasMessageContaining("java.net.URI");
+  }
+
+  @Test
+  void emptyValuesMapToNull() {
+    assertThat(smile.serialize(null)).isEmpty();
+    assertThat(smile.deserialize(new byte[0])).isNull();
+    assertThat(smile.deserialize(null)).isNull();
+  }
+
+  private static CategoryDto category(String slug) {
+    return CategoryDto.builder().id((long) slug.hashCode()).name(slug).slug(slug).coursesCount(20).build();
+  }
+
+  private static CourseDetailsResponse courseDetails(int sectionCount, int lessonsPerSection) {
+    LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+    UUID courseId = UUID.randomUUID();
+    UserDto instructor =
+        UserDto.builder()
+            .id(UUID.randomUUID())
+            .fullName("Nguyễn Văn Giảng Viên")
+            .username("giangvien")
+            .email("giangvien@vinaacademy.vn")
+            .roles(new HashSet<>())
+            .createdDate(now)
+            .build();
+
+    List<SectionDto> sections = new ArrayList<>();
+    for (int s = 0; s < sectionCount; s++) {
+      UUID sectionId = UUID.randomUUID();
+      List<LessonDto> lessons = new ArrayList<>();
+      for (int l = 0; l < lessonsPerSection; l++) {
+        lessons.add(
+            LessonDto.builder()
+                .id(UUID.randomUUID())
+                .title("Bài " + (l + 1) + ": Lập trình hướng đối tượng")
+                .description("Kế thừa, đa hình và đóng gói")
+                .type(l % 3 == 0 ? LessonType.QUIZ : LessonType.VIDEO)
+                .orderIndex(l)
+                .sectionId(sectionId)
+                .authorId(instructor.getId())
+                .videoDuration(612.5)
+                .createdDate(now)
+                .build());
+      }
+      sections.add(
+          SectionDto.builder()
+              .id(sectionId)
+              .title("Chương " + (s + 1))
+              .orderIndex(s)
+              .lessonCount(lessonsPerSection)
+              .courseId(courseId)
+              .lessons(lessons)
+              .build());
+    }
+
+    return CourseDetailsResponse.builder()
+        .id(courseId)
+        .name("Lập trình Java từ cơ bản đến nâng cao")
+        .slug("lap-trinh-java")
+        .price(new BigDecimal("499000"))
+        .level(CourseLevel.BEGINNER)
+        .status(CourseStatus.PUBLISHED)
+        .rating(4.7)
+        .totalStudent(12000)
+        .totalLesson((long) sectionCount * lessonsPerSection)
+        .instructors(new ArrayList<>(List.of(instructor)))
+        .ownerInstructor(instructor)
+        .sections(sections)
+        .reviews(
+            new ArrayList<>(
+                List.of(
+                    CourseReviewDto.builder()
+                        .id(1L)
+                        .courseId(courseId)
+                        .rating(5)
+                        .review("Khóa học rất chi tiết")
+                        .createdDate(now)
+                        .build())))
+        .createdDate(now)
+        .build();
+  }
+}
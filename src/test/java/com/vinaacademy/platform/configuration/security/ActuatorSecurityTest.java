@@ -0,0 +1,128 @@
+package com.vinaacademy.platform.configuration.security;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.vinaacademy.platform.feature.user.constant.AuthConstants;
+import com.vinaacademy.platform.feature.user.role.entity.Role;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.info.InfoEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.servlet.ServletManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Actuator endpoints reached through the application port must only be open to admin tokens. The
+ * token carries the user's authorities exactly as {@code JwtService} issues them (the {@code
+ * scope} claim built from {@link Role#getAuthorities()}).
+ */
+@SpringBootTest(
+    classes = {
+      SecurityConfig.class,
+      AuthorizationServerSecurityConfig.class,
+      RegisteredClientConfig.class,
+      CorsConfig.class,
+      CustomJwtAuthenticationConverter.class,
+      CustomAccessDeniedHandler.class,
+      CustomAuthenticationEntryPoint.class
+    },
+    properties = {
+      "server.port=8080",
+      "management.server.port=8080",
+      "management.endpoints.web.exposure.include=health,info"
+    })
+@AutoConfigureMockMvc
+@ImportAutoConfiguration({
+  JacksonAutoConfiguration.class,
+  HttpMessageConvertersAutoConfiguration.class,
+  DispatcherServletAutoConfiguration.class,
+  WebMvcAutoConfiguration.class,
+  EndpointAutoConfiguration.class,
+  WebEndpointAutoConfiguration.class,
+  HealthEndpointAutoConfiguration.class,
+  InfoEndpointAutoConfiguration.class,
+  ManagementContextAutoConfiguration.class,
+  ServletManagementContextAutoConfiguration.class
+})
+class ActuatorSecurityTest {
+
+  private static final int APPLICATION_PORT = 8080;
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private JwtDecoder jwtDecoder;
+  @MockitoBean private ClientRegistrationRepository clientRegistrationRepository;
+
+  @Test
+  void adminTokenReachesActuatorEndpoint() throws Exception {
+    givenTokenWithRole(AuthConstants.ADMIN_ROLE);
+
+    mockMvc.perform(actuator("/actuator/info").header("Authorization", "Bearer token"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void nonAdminTokenIsForbidden() throws Exception {
+    givenTokenWithRole(AuthConstants.STUDENT_ROLE);
+
+    mockMvc.perform(actuator("/actuator/info").header("Authorization", "Bearer token"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void anonymousRequestIsRejected() throws Exception {
+    mockMvc.perform(actuator("/actuator/info")).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void healthStaysPublic() throws Exception {
+    mockMvc.perform(actuator("/actuator/health")).andExpect(status().isOk());
+  }
+
+  private void givenTokenWithRole(String roleCode) {
+    List<String> authorities =
+        Role.builder().code(roleCode).build().getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+    Jwt jwt =
+        Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .subject("user@vinaacademy.vn")
+            .claim("email", "user@vinaacademy.vn")
+            .claim("scope", authorities)
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(300))
+            .build();
+    when(jwtDecoder.decode(anyString())).thenReturn(jwt);
+  }
+
+  private static MockHttpServletRequestBuilder actuator(String path) {
+    return get(path)
+        .with(
+            request -> {
+              request.setLocalPort(APPLICATION_PORT);
+              return request;
+            });
+  }
+}
@@ -0,0 +1,75 @@
+package com.vinaacademy.platform.feature.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class BoundedRingBufferTest {
+
+  @Test
+  void capacityIsRoundedUpToPowerOfTwo() {
+    assertThat(new BoundedRingBuffer<Integer>(1000).capacity()).isEqualTo(1024);
+    assertThat(new BoundedRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+  }
+
+  @Test
+  void offerFailsWhenFullAndPollIsFifo() {
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(buffer.offer(i)).isTrue();
+    }
+    assertThat(buffer.offer(99)).isFalse();
+
+    List<Integer> drained = new ArrayList<>();
+    assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+    assertThat(drained).containsExactly(0, 1, 2);
+    assertThat(buffer.poll()).isEqualTo(3);
+    assertThat(buffer.poll()).isNull();
+    assertThat(buffer.isEmpty()).isTrue();
+  }
+
+  @Test
+  void concurrentProducersAndConsumerNeitherLoseNorDuplicate() throws Exception {
+    int producers = 4;
+    int perProducer = 10_000;
+    BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1024);
+    Set<Integer> seen = ConcurrentHashMap.newKeySet();
+    AtomicInteger duplicates = new AtomicInteger();
+    CountDownLatch producersDone = new CountDownLatch(producers);
+    ExecutorService pool = Executors.newFixedThreadPool(producers + 1);
+
+    for (int p = 0; p < producers; p++) {
+      int base = p * perProducer;
+      pool.submit(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          while (!buffer.offer(base + i)) {
+            Thread.onSpinWait();
+          }
+        }
+        producersDone.countDown();
+      });
+    }
+    pool.submit(() -> {
+      while (producersDone.getCount() > 0 || !buffer.isEmpty()) {
+        Integer value = buffer.poll();
+        if (value != null && !seen.add(value)) {
+          duplicates.incrementAndGet();
+        }
+      }
+    });
+
+    pool.shutdown();
+    assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    assertThat(duplicates.get()).isZero();
+    assertThat(seen).hasSize(producers * perProducer);
+  }
+}
@@ -0,0 +1,61 @@
+package com.vinaacademy.platform.feature.image.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.vinaacademy.platform.feature.image.config.ImageProperties;
+import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
+import com.vinaacademy.platform.feature.storage.service.StorageService;
+import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageServiceImplTest {
+
+  @TempDir Path derivedDir;
+
+  private ImageServiceImpl imageService;
+
+  @BeforeEach
+  void setUp() {
+    ImageProperties imageProperties = new ImageProperties();
+    imageProperties.setDerivedDir(derivedDir.toString());
+    imageService =
+        new ImageServiceImpl(
+            mock(StorageService.class),
+            mock(SecurityHelper.class),
+            mock(StorageProperties.class),
+            imageProperties);
+  }
+
+  @Test
+  void deleteVariantsRemovesAllPresetsOfImageOnly() throws Exception {
+    UUID deleted = UUID.randomUUID();
+    UUID kept = UUID.randomUUID();
+    for (String variant : new String[] {"thumb.jpg", "card.webp", "hero.png"}) {
+      write(deleted, variant);
+    }
+    write(kept, "thumb.jpg");
+
+    imageService.deleteVariants(deleted);
+
+    assertThat(derivedDir.resolve(deleted.toString())).doesNotExist();
+    assertThat(derivedDir.resolve(kept.toString()).resolve("thumb.jpg")).exists();
+  }
+
+  @Test
+  void deleteVariantsOfImageWithoutVariantsIsNoop() {
+    imageService.deleteVariants(UUID.randomUUID());
+
+    assertThat(derivedDir).isEmptyDirectory();
+  }
+
+  private void write(UUID id, String variant) throws Exception {
+    Path dir = Files.createDirectories(derivedDir.resolve(id.toString()));
+    Files.write(dir.resolve(variant), new byte[] {1, 2, 3});
+  }
+}
@@ -0,0 +1,176 @@
+package com.vinaacademy.platform.feature.image.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.platform.feature.image.enums.ImageFormat;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Locale;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.IIORegistry;
+import javax.imageio.spi.ImageWriterSpi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ImageTransformUtilsTest {
+
+  // JDK không có writer WebP: đăng ký một provider giả để canWrite(WEBP) đúng và kiểm tra được phần chọn định dạng
+  private ImageWriterSpi webpWriter;
+
+  @AfterEach
+  void tearDown() {
+    if (webpWriter != null) {
+      IIORegistry.getDefaultInstance().deregisterServiceProvider(webpWriter);
+    }
+  }
+
+  @Test
+  void negotiate_listedModernFormatIsSelectedWhenWriterExists() {
+    registerWebpWriter();
+
+    assertThat(ImageTransformUtils.negotiate("image/webp,image/*;q=0.8,*/*;q=0.5"))
+        .isEqualTo(ImageFormat.WEBP);
+  }
+
+  @Test
+  void negotiate_listedModernFormatWithoutWriterFallsBackToLegacy() {
+    // AVIF được khai báo nhưng không có writer; WebP có writer nhưng client không nhận
+    registerWebpWriter();
+
+    assertThat(ImageTransformUtils.negotiate("image/avif,image/png")).isNull();
+  }
+
+  @Test
+  void negotiate_wildcardsDoNotSelectModernFormats() {
+    registerWebpWriter();
+
+    assertThat(ImageTransformUtils.negotiate("*/*")).isNull();
+    assertThat(ImageTransformUtils.negotiate("image/*")).isNull();
+  }
+
+  @Test
+  void negotiate_zeroQualityExcludesFormat() {
+    registerWebpWriter();
+
+    assertThat(ImageTransformUtils.negotiate("image/webp;q=0,image/jpeg")).isNull();
+  }
+
+  @Test
+  void negotiate_missingOrMalformedHeaderFallsBackToLegacy() {
+    registerWebpWriter();
+
+    assertThat(ImageTransformUtils.negotiate(null)).isNull();
+    assertThat(ImageTransformUtils.negotiate(" ")).isNull();
+    assertThat(ImageTransformUtils.negotiate("image/webp;q=abc")).isNull();
+  }
+
+  private void registerWebpWriter() {
+    webpWriter = new StubWriterSpi("image/webp");
+    IIORegistry.getDefaultInstance().registerServiceProvider(webpWriter);
+  }
+
+  @Test
+  void resizeCover_sameAspectRatioIsScaledToTarget() {
+    BufferedImage resized = ImageTransformUtils.resizeCover(filled(1920, 1080), 480, 270);
+
+    assertThat(resized.getWidth()).isEqualTo(480);
+    assertThat(resized.getHeight()).isEqualTo(270);
+  }
+
+  @Test
+  void resizeCover_widerSourceKeepsCenteredSquare() {
+    // Chỉ dải giữa 500px (x = 750..1249) màu xanh dương: khung cắt vuông phải nằm đúng dải đó
+    BufferedImage source = new BufferedImage(2000, 500, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = source.createGraphics();
+    g.setColor(Color.RED);
+    g.fillRect(0, 0, 750, 500);
+    g.setColor(Color.BLUE);
+    g.fillRect(750, 0, 500, 500);
+    g.setColor(Color.GREEN);
+    g.fillRect(1250, 0, 750, 500);
+    g.dispose();
+
+    BufferedImage resized = ImageTransformUtils.resizeCover(source, 160, 160);
+
+    assertThat(resized.getWidth()).isEqualTo(160);
+    assertThat(resized.getHeight()).isEqualTo(160);
+    for (int[] point : new int[][] {{0, 0}, {159, 0}, {0, 159}, {159, 159}, {80, 80}}) {
+      assertThat(resized.getRGB(point[0], point[1]) & 0xFFFFFF).isEqualTo(0x0000FF);
+    }
+  }
+
+  @Test
+  void resizeCover_tallerSourceKeepsCenteredBand() {
+    BufferedImage source = new BufferedImage(1600, 1800, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = source.createGraphics();
+    g.setColor(Color.RED);
+    g.fillRect(0, 0, 1600, 1800);
+    // Khung 16:9 cao 900px ở giữa: y = 450..1349
+    g.setColor(Color.BLUE);
+    g.fillRect(0, 450, 1600, 900);
+    g.dispose();
+
+    BufferedImage resized = ImageTransformUtils.resizeCover(source, 1280, 720);
+
+    assertThat(resized.getWidth()).isEqualTo(1280);
+    assertThat(resized.getHeight()).isEqualTo(720);
+    assertThat(resized.getRGB(640, 0) & 0xFFFFFF).isEqualTo(0x0000FF);
+    assertThat(resized.getRGB(640, 719) & 0xFFFFFF).isEqualTo(0x0000FF);
+  }
+
+  @Test
+  void resizeCover_smallerSourceIsCroppedButNotUpscaled() {
+    BufferedImage resized = ImageTransformUtils.resizeCover(filled(300, 1200), 480, 270);
+
+    // 300 / (480 / 270) = 168.75 -> 169
+    assertThat(resized.getWidth()).isEqualTo(300);
+    assertThat(resized.getHeight()).isEqualTo(169);
+  }
+
+  @Test
+  void resizeCover_transparencyIsKept() {
+    BufferedImage source = new BufferedImage(800, 800, BufferedImage.TYPE_INT_ARGB);
+
+    BufferedImage resized = ImageTransformUtils.resizeCover(source, 160, 160);
+
+    assertThat(resized.getColorModel().hasAlpha()).isTrue();
+    assertThat(ImageTransformUtils.legacyFormat(resized)).isEqualTo(ImageFormat.PNG);
+    assertThat(ImageTransformUtils.legacyFormat(filled(10, 10))).isEqualTo(ImageFormat.JPEG);
+  }
+
+  private static BufferedImage filled(int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.GRAY);
+    g.fillRect(0, 0, width, height);
+    g.dispose();
+    return image;
+  }
+
+  private static class StubWriterSpi extends ImageWriterSpi {
+
+    StubWriterSpi(String mimeType) {
+      this.MIMETypes = new String[] {mimeType};
+      this.names = new String[] {mimeType};
+      this.vendorName = "test";
+      this.version = "1";
+    }
+
+    @Override
+    public boolean canEncodeImage(ImageTypeSpecifier type) {
+      return false;
+    }
+
+    @Override
+    public ImageWriter createWriterInstance(Object extension) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+      return "stub writer";
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.vinaacademy.platform.feature.lesson.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository.ProgressRow;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs {@link UserProgressBatchRepository#ensureUniqueConstraint()} against a real PostgreSQL whose
+ * {@code user_progress} table lost its unique constraint and holds duplicate rows, as a database
+ * created before the constraint was introduced does. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserProgressBatchRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserProgressBatchRepositoryPostgresTest {
+
+  @Container @ServiceConnection
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Autowired private UserProgressBatchRepository userProgressBatchRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final UUID userId = UUID.randomUUID();
+  private final UUID lessonId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    // Khóa ngoại không liên quan tới bước gộp dòng trùng; bỏ đi để không phải dựng khóa học, chương, bài học
+    jdbcTemplate.execute(
+        """
+        DO $$
+        DECLARE c record;
+        BEGIN
+            FOR c IN SELECT conname FROM pg_constraint
+                     WHERE conrelid = 'user_progress'::regclass AND contype IN ('f', 'u') LOOP
+                EXECUTE format('ALTER TABLE user_progress DROP CONSTRAINT %I', c.conname);
+            END LOOP;
+        END $$
+        """);
+    jdbcTemplate.update("DELETE FROM user_progress");
+  }
+
+  @Test
+  void duplicatesAreMergedBeforeConstraintIsAdded() {
+    LocalDateTime now = LocalDateTime.now();
+    insert(userId, lessonId, true, 900, now.minusDays(2));
+    insert(userId, lessonId, false, 300, now);
+    insert(userId, lessonId, false, 100, now.minusDays(1));
+    UUID otherLesson = UUID.randomUUID();
+    insert(userId, otherLesson, false, 50, now);
+
+    int removed = userProgressBatchRepository.ensureUniqueConstraint();
+
+    assertThat(removed).isEqualTo(2);
+    List<Map<String, Object>> rows =
+        jdbcTemplate.queryForList(
+            "SELECT completed, last_watched_time FROM user_progress WHERE user_id = ? AND lesson_id = ?",
+            userId,
+            lessonId);
+    // Giữ vị trí mới nhất, nhưng không mất trạng thái hoàn thành của bản trùng cũ hơn
+    assertThat(rows)
+        .singleElement()
+        .satisfies(
+            row -> {
+              assertThat(row).containsEntry("completed", true);
+              assertThat(row).containsEntry("last_watched_time", 300L);
+            });
+    assertThat(count(otherLesson)).isEqualTo(1);
+  }
+
+  @Test
+  void upsertWorksOnceConstraintExistsAndCheckIsIdempotent() {
+    userProgressBatchRepository.ensureUniqueConstraint();
+
+    assertThat(userProgressBatchRepository.ensureUniqueConstraint()).isZero();
+    userProgressBatchRepository.upsertProgress(List.of(new ProgressRow(userId, lessonId, 10, false)));
+    userProgressBatchRepository.upsertProgress(List.of(new ProgressRow(userId, lessonId, 20, false)));
+
+    assertThat(count(lessonId)).isEqualTo(1);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT last_watched_time FROM user_progress WHERE user_id = ? AND lesson_id = ?",
+                Long.class,
+                userId,
+                lessonId))
+        .isEqualTo(20L);
+  }
+
+  private void insert(
+      UUID user, UUID lesson, boolean completed, long lastWatchedTime, LocalDateTime updatedDate) {
+    jdbcTemplate.update(
+        """
+        INSERT INTO user_progress (user_id, lesson_id, completed, last_watched_time, created_date, updated_date)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """,
+        user,
+        lesson,
+        completed,
+        lastWatchedTime,
+        updatedDate,
+        updatedDate);
+  }
+
+  private int count(UUID lesson) {
+    Integer count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM user_progress WHERE user_id = ? AND lesson_id = ?",
+            Integer.class,
+            userId,
+            lesson);
+    return count != null ? count : 0;
+  }
+}
@@ -0,0 +1,99 @@
+package com.vinaacademy.platform.feature.log.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.feature.log.constant.LogConstants;
+import com.vinaacademy.platform.feature.log.service.LogService;
+import com.vinaacademy.platform.feature.reading.Reading;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EntityAuditListenerTest {
+
+  private static final String[] PROPERTIES = {"title", "content"};
+
+  @Mock private LogService logService;
+  @Mock private EntityPersister persister;
+  @Mock private EventSource session;
+  @Mock private SessionFactoryImplementor sessionFactory;
+  @Mock private Type textType;
+
+  @InjectMocks private EntityAuditListener listener;
+
+  @Captor private ArgumentCaptor<Map<String, Object>> oldData;
+  @Captor private ArgumentCaptor<Map<String, Object>> newData;
+
+  @BeforeEach
+  void setUp() {
+    when(persister.getMappedClass()).thenReturn((Class) Reading.class);
+    when(persister.getPropertyNames()).thenReturn(PROPERTIES);
+    when(persister.getPropertyTypes()).thenReturn(new Type[] {textType, textType});
+    when(session.getFactory()).thenReturn(sessionFactory);
+  }
+
+  @Test
+  void readingContentIsLoggedAsDigestAndLength() {
+    String oldContent = "Nội dung cũ ".repeat(1000);
+    String newContent = "Nội dung mới ".repeat(1000);
+    UUID id = UUID.randomUUID();
+
+    listener.onPostUpdate(
+        new PostUpdateEvent(
+            new Reading(),
+            id,
+            new Object[] {"Bài đọc", newContent},
+            new Object[] {"Bài đọc", oldContent},
+            new int[] {1},
+            persister,
+            session));
+
+    verify(logService)
+        .logEntityChange(
+            eq("Lesson"), eq(id), eq(LogConstants.UPDATE_ACTION), oldData.capture(), newData.capture());
+    assertThat(oldData.getValue())
+        .containsEntry(
+            "content",
+            Map.of("sha256", DigestUtils.sha256Hex(oldContent), "length", oldContent.length()));
+    assertThat(newData.getValue())
+        .containsEntry(
+            "content",
+            Map.of("sha256", DigestUtils.sha256Hex(newContent), "length", newContent.length()));
+  }
+
+  @Test
+  void plainPropertiesAreLoggedAsIs() {
+    listener.onPostUpdate(
+        new PostUpdateEvent(
+            new Reading(),
+            UUID.randomUUID(),
+            new Object[] {"Tiêu đề mới", "x"},
+            new Object[] {"Tiêu đề cũ", "x"},
+            new int[] {0},
+            persister,
+            session));
+
+    verify(logService)
+        .logEntityChange(any(), any(), any(), oldData.capture(), newData.capture());
+    assertThat(oldData.getValue()).containsExactly(Map.entry("title", "Tiêu đề cũ"));
+    assertThat(newData.getValue()).containsExactly(Map.entry("title", "Tiêu đề mới"));
+  }
+}
@@ -0,0 +1,60 @@
+package com.vinaacademy.platform.feature.log.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+import com.vinaacademy.platform.feature.log.config.AuditLogProperties;
+import com.vinaacademy.platform.feature.log.dto.LogEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+  private static final LogEvent EVENT =
+      new LogEvent(
+          "Course", "42", "UPDATE", "Cập nhật khóa học", "admin", "{}", "{}", "127.0.0.1", "JUnit");
+
+  @Mock private InternalLogService internalLogService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private AuditLogWriter writer;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    writer = new AuditLogWriter(internalLogService, new AuditLogProperties(), meterRegistry);
+  }
+
+  @Test
+  void writeThroughBeforeStartPersistsEvent() {
+    assertThat(writer.enqueue(EVENT)).isTrue();
+
+    verify(internalLogService).saveAll(List.of(EVENT));
+    assertThat(count("flushed")).isEqualTo(1);
+  }
+
+  @Test
+  void writeThroughFailureIsCountedNotThrown() {
+    doThrow(new DataAccessResourceFailureException("database down"))
+        .when(internalLogService)
+        .saveAll(anyList());
+
+    assertThat(writer.enqueue(EVENT)).isTrue();
+
+    assertThat(count("failed")).isEqualTo(1);
+    assertThat(count("flushed")).isZero();
+  }
+
+  private double count(String result) {
+    return meterRegistry.counter("audit.log.events", "result", result).count();
+  }
+}
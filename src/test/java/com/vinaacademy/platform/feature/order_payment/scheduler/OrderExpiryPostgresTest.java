@@ -0,0 +1,187 @@
+package com.vinaacademy.platform.feature.order_payment.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.platform.feature.order_payment.config.OrderExpiryProperties;
+import com.vinaacademy.platform.feature.order_payment.entity.Coupon;
+import com.vinaacademy.platform.feature.order_payment.entity.CouponRedemption;
+import com.vinaacademy.platform.feature.order_payment.entity.Order;
+import com.vinaacademy.platform.feature.order_payment.entity.Payment;
+import com.vinaacademy.platform.feature.order_payment.enums.CouponRedemptionStatus;
+import com.vinaacademy.platform.feature.order_payment.enums.DiscountType;
+import com.vinaacademy.platform.feature.order_payment.enums.OrderStatus;
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentStatus;
+import com.vinaacademy.platform.feature.order_payment.event.listener.OrderExpiredCouponListener;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRedemptionRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentRepository;
+import com.vinaacademy.platform.feature.order_payment.service.CouponRedemptionService;
+import com.vinaacademy.platform.feature.order_payment.service.CouponRedemptionServiceImpl;
+import com.vinaacademy.platform.feature.user.UserRepository;
+import com.vinaacademy.platform.feature.user.entity.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the expiry sweep SQL, the {@code OrderExpiredEvent} listener and the coupon release against a
+ * real PostgreSQL. Skipped when Docker is not available.
+ */
+@DataJpaTest(
+    properties = {
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      // Chỉ chạy sweep khi test gọi, không để lịch tự chạy chen vào
+      "application.order-expiry.sweep-interval-ms=3600000"
+    })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+  OrderExpiryProperties.class,
+  OrderExpiryRepository.class,
+  OrderStatusScheduler.class,
+  OrderExpiredCouponListener.class,
+  CouponRedemptionServiceImpl.class
+})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExpiryPostgresTest {
+
+  @Container @ServiceConnection
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Autowired private OrderStatusScheduler scheduler;
+  @Autowired private CouponRedemptionService couponRedemptionService;
+  @Autowired private CouponRepository couponRepository;
+  @Autowired private CouponRedemptionRepository couponRedemptionRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private PaymentRepository paymentRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+
+  @BeforeEach
+  void setUp() {
+    tx = new TransactionTemplate(transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    tx.executeWithoutResult(
+        status -> {
+          couponRedemptionRepository.deleteAllInBatch();
+          orderRepository.findAll().forEach(order -> order.setPayment(null));
+        });
+    tx.executeWithoutResult(
+        status -> {
+          paymentRepository.deleteAllInBatch();
+          orderRepository.deleteAllInBatch();
+          couponRepository.deleteAllInBatch();
+          userRepository.deleteAllInBatch();
+        });
+  }
+
+  @Test
+  void cancelledPaymentFailsOrderAndReleasesCouponReservation() {
+    Coupon coupon = coupon();
+    Order order = orderWithReservedCoupon(coupon);
+    UUID paymentId = payment(order, LocalDateTime.now().minusHours(1));
+
+    scheduler.checkPendingOrders();
+
+    assertThat(paymentRepository.findById(paymentId).orElseThrow().getPaymentStatus())
+        .isEqualTo(PaymentStatus.CANCELLED);
+    assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus())
+        .isEqualTo(OrderStatus.FAILED);
+    assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount()).isZero();
+    assertThat(couponRedemptionRepository.findAll())
+        .extracting(CouponRedemption::getStatus)
+        .containsExactly(CouponRedemptionStatus.RELEASED);
+  }
+
+  @Test
+  void paymentWithinTtlKeepsOrderAndReservation() {
+    Coupon coupon = coupon();
+    Order order = orderWithReservedCoupon(coupon);
+    UUID paymentId = payment(order, LocalDateTime.now().minusMinutes(1));
+
+    scheduler.checkPendingOrders();
+
+    assertThat(paymentRepository.findById(paymentId).orElseThrow().getPaymentStatus())
+        .isEqualTo(PaymentStatus.PENDING);
+    assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus())
+        .isEqualTo(OrderStatus.PENDING);
+    assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount()).isOne();
+  }
+
+  private Coupon coupon() {
+    return couponRepository.save(
+        Coupon.builder()
+            .code("SALE-" + UUID.randomUUID())
+            .discountType(DiscountType.FIXED_AMOUNT)
+            .discountValue(new BigDecimal("50000"))
+            .startedAt(LocalDateTime.now().minusDays(1))
+            .expiredAt(LocalDateTime.now().plusDays(1))
+            .usageLimit(1L)
+            .usedCount(0L)
+            .build());
+  }
+
+  private Order orderWithReservedCoupon(Coupon coupon) {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("hocvien-" + UUID.randomUUID() + "@vinaacademy.vn")
+                .username("hocvien-" + UUID.randomUUID())
+                .build());
+    Order order =
+        orderRepository.save(
+            Order.builder()
+                .status(OrderStatus.PENDING)
+                .subTotal(new BigDecimal("499000"))
+                .user(user)
+                .coupon(coupon)
+                .orderItems(new ArrayList<>())
+                .build());
+    tx.executeWithoutResult(
+        status ->
+            couponRedemptionService.reserve(orderRepository.findById(order.getId()).orElseThrow()));
+    return order;
+  }
+
+  private UUID payment(Order order, LocalDateTime createdAt) {
+    return tx.execute(
+        status -> {
+          Order managed = orderRepository.findById(order.getId()).orElseThrow();
+          Payment payment =
+              Payment.builder()
+                  .order(managed)
+                  .amount(managed.getTotalAmount())
+                  .createdAt(createdAt)
+                  .paymentMethod("VNPAY")
+                  .paymentStatus(PaymentStatus.PENDING)
+                  .transactionId(managed.getId().toString())
+                  .build();
+          managed.setPayment(payment);
+          orderRepository.saveAndFlush(managed);
+          return payment.getId();
+        });
+  }
+}
@@ -0,0 +1,118 @@
+package com.vinaacademy.platform.feature.order_payment.scheduler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.feature.order_payment.config.OrderExpiryProperties;
+import com.vinaacademy.platform.feature.order_payment.event.OrderExpiredEvent;
+import com.vinaacademy.platform.feature.order_payment.event.listener.OrderExpiredCouponListener;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository.CancelledPayments;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderExpiryRepository.ExpiredOrder;
+import com.vinaacademy.platform.feature.order_payment.service.CouponRedemptionService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Events are dispatched straight to the real {@link OrderExpiredCouponListener}, so these cover the path
+ * from a swept order to its coupon reservation being released.
+ */
+class OrderStatusSchedulerTest {
+
+  private OrderExpiryRepository orderExpiryRepository;
+  private CouponRedemptionService couponRedemptionService;
+  private OrderStatusScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    orderExpiryRepository = mock(OrderExpiryRepository.class);
+    couponRedemptionService = mock(CouponRedemptionService.class);
+    OrderExpiredCouponListener listener = new OrderExpiredCouponListener(couponRedemptionService);
+
+    TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+    OrderExpiryProperties properties = new OrderExpiryProperties();
+    properties.setBatchSize(10);
+    properties.setMaxBatchesPerRun(5);
+    scheduler =
+        new OrderStatusScheduler(
+            orderExpiryRepository,
+            properties,
+            event -> listener.handleOrderExpired((OrderExpiredEvent) event),
+            transactionTemplate);
+    when(orderExpiryRepository.tryLockSweep()).thenReturn(true);
+  }
+
+  @Test
+  void cancelledPaymentReleasesCouponReservationOfItsOrder() {
+    UUID orderId = UUID.randomUUID();
+    when(orderExpiryRepository.cancelExpiredPayments(any(LocalDateTime.class), anyInt()))
+        .thenReturn(
+            new CancelledPayments(
+                1, List.of(new ExpiredOrder(orderId, UUID.randomUUID(), UUID.randomUUID()))));
+    when(orderExpiryRepository.failExpiredOrders(any(LocalDateTime.class), anyInt()))
+        .thenReturn(List.of());
+
+    scheduler.checkPendingOrders();
+
+    verify(couponRedemptionService).release(orderId);
+  }
+
+  @Test
+  void ordersFailedForBothReasonsAreReleasedAndOrdersWithoutCouponAreSkipped() {
+    UUID paymentOrder = UUID.randomUUID();
+    UUID unpaidOrder = UUID.randomUUID();
+    UUID noCouponOrder = UUID.randomUUID();
+    when(orderExpiryRepository.cancelExpiredPayments(any(LocalDateTime.class), anyInt()))
+        .thenReturn(
+            new CancelledPayments(
+                1, List.of(new ExpiredOrder(paymentOrder, UUID.randomUUID(), UUID.randomUUID()))));
+    when(orderExpiryRepository.failExpiredOrders(any(LocalDateTime.class), anyInt()))
+        .thenReturn(
+            List.of(
+                new ExpiredOrder(unpaidOrder, UUID.randomUUID(), UUID.randomUUID()),
+                new ExpiredOrder(noCouponOrder, UUID.randomUUID(), null)));
+
+    scheduler.checkPendingOrders();
+
+    verify(couponRedemptionService).release(paymentOrder);
+    verify(couponRedemptionService).release(unpaidOrder);
+    verify(couponRedemptionService, never()).release(noCouponOrder);
+  }
+
+  @Test
+  void fullPaymentBatchTriggersAnotherBatch() {
+    // Payment bị hủy nhưng đơn đã xử lý ở nơi khác: lô vẫn đầy nên quét tiếp
+    when(orderExpiryRepository.cancelExpiredPayments(any(LocalDateTime.class), anyInt()))
+        .thenReturn(new CancelledPayments(10, List.of()), new CancelledPayments(0, List.of()));
+    when(orderExpiryRepository.failExpiredOrders(any(LocalDateTime.class), anyInt()))
+        .thenReturn(List.of());
+
+    scheduler.checkPendingOrders();
+
+    verify(orderExpiryRepository, times(2)).cancelExpiredPayments(any(LocalDateTime.class), anyInt());
+    verify(couponRedemptionService, never()).release(any());
+  }
+
+  @Test
+  void skipsWhenAnotherNodeHoldsTheLock() {
+    when(orderExpiryRepository.tryLockSweep()).thenReturn(false);
+
+    scheduler.checkPendingOrders();
+
+    verify(orderExpiryRepository, never()).cancelExpiredPayments(any(LocalDateTime.class), anyInt());
+    verify(orderExpiryRepository, never()).failExpiredOrders(any(LocalDateTime.class), anyInt());
+  }
+}
@@ -0,0 +1,216 @@
+package com.vinaacademy.platform.feature.order_payment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.order_payment.entity.Coupon;
+import com.vinaacademy.platform.feature.order_payment.entity.Order;
+import com.vinaacademy.platform.feature.order_payment.enums.CouponRedemptionStatus;
+import com.vinaacademy.platform.feature.order_payment.enums.DiscountType;
+import com.vinaacademy.platform.feature.order_payment.enums.OrderStatus;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRedemptionRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderRepository;
+import com.vinaacademy.platform.feature.user.UserRepository;
+import com.vinaacademy.platform.feature.user.entity.User;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs {@link CouponRedemptionServiceImpl} against a real PostgreSQL, each reservation in its own
+ * committed transaction, so the conditional UPDATE on {@code coupons.used_count} and the per-user
+ * check that runs after it are exercised under actual row locking. Skipped when Docker is not
+ * available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CouponRedemptionServiceImpl.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponRedemptionPostgresTest {
+
+  private static final long USAGE_LIMIT = 10;
+
+  @Container @ServiceConnection
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @Autowired private CouponRedemptionService couponRedemptionService;
+  @Autowired private CouponRepository couponRepository;
+  @Autowired private CouponRedemptionRepository couponRedemptionRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    tx = new TransactionTemplate(transactionManager);
+    executor = Executors.newFixedThreadPool(16);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    tx.executeWithoutResult(
+        status -> {
+          couponRedemptionRepository.deleteAllInBatch();
+          orderRepository.deleteAllInBatch();
+          couponRepository.deleteAllInBatch();
+          userRepository.deleteAllInBatch();
+        });
+  }
+
+  @Test
+  void concurrentReservationsNeverExceedUsageOrPerUserLimit() throws Exception {
+    Coupon coupon = coupon(USAGE_LIMIT, 1L);
+    // 20 học viên, mỗi người 2 đơn cùng lúc: 40 lượt tranh 10 lượt dùng, mỗi người tối đa 1
+    List<Order> orders = new ArrayList<>();
+    List<User> users = new ArrayList<>();
+    for (int u = 0; u < 20; u++) {
+      User user = user(u);
+      users.add(user);
+      orders.add(order(user, coupon));
+      orders.add(order(user, coupon));
+    }
+    Collections.shuffle(orders);
+
+    AtomicInteger reserved = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (Order order : orders) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                try {
+                  tx.executeWithoutResult(
+                      status ->
+                          couponRedemptionService.reserve(
+                              orderRepository.findById(order.getId()).orElseThrow()));
+                  reserved.incrementAndGet();
+                } catch (BadRequestException e) {
+                  rejected.incrementAndGet();
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+
+    assertThat(reserved.get()).isEqualTo(USAGE_LIMIT);
+    assertThat(rejected.get()).isEqualTo(orders.size() - USAGE_LIMIT);
+    // Lượt bị từ chối vì giới hạn theo học viên phải rollback cả phần đã tăng used_count
+    assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount())
+        .isEqualTo(USAGE_LIMIT);
+    assertThat(couponRedemptionRepository.count()).isEqualTo(USAGE_LIMIT);
+    for (User user : users) {
+      assertThat(
+              couponRedemptionRepository.countByCoupon_IdAndUser_IdAndStatusIn(
+                  coupon.getId(), user.getId(), EnumSet.allOf(CouponRedemptionStatus.class)))
+          .isLessThanOrEqualTo(1);
+    }
+  }
+
+  @Test
+  void releaseReturnsUsageToCoupon() {
+    Coupon coupon = coupon(1L, null);
+    Order first = order(user(0), coupon);
+    Order second = order(user(1), coupon);
+
+    reserve(first);
+    assertThatThrownBy(() -> reserve(second)).isInstanceOf(BadRequestException.class);
+
+    tx.executeWithoutResult(status -> couponRedemptionService.release(first.getId()));
+    assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount()).isZero();
+
+    reserve(second);
+    assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount()).isOne();
+  }
+
+  @Test
+  void expiredCouponIsNotReserved() {
+    Coupon coupon = coupon(USAGE_LIMIT, null);
+    Order order = order(user(0), coupon);
+    tx.executeWithoutResult(
+        status ->
+            couponRepository
+                .findById(coupon.getId())
+                .orElseThrow()
+                .setExpiredAt(LocalDateTime.now().minusMinutes(1)));
+
+    assertThatThrownBy(() -> reserve(order)).isInstanceOf(BadRequestException.class);
+    assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getUsedCount()).isZero();
+  }
+
+  private void reserve(Order order) {
+    tx.executeWithoutResult(
+        status ->
+            couponRedemptionService.reserve(orderRepository.findById(order.getId()).orElseThrow()));
+  }
+
+  private Coupon coupon(Long usageLimit, Long perUserLimit) {
+    return couponRepository.save(
+        Coupon.builder()
+            .code("SALE-" + UUID.randomUUID())
+            .discountType(DiscountType.FIXED_AMOUNT)
+            .discountValue(new BigDecimal("50000"))
+            .startedAt(LocalDateTime.now().minusDays(1))
+            .expiredAt(LocalDateTime.now().plusDays(1))
+            .usageLimit(usageLimit)
+            .usedCount(0L)
+            .perUserLimit(perUserLimit)
+            .build());
+  }
+
+  private User user(int index) {
+    return userRepository.save(
+        User.builder()
+            .email("hocvien" + index + "-" + UUID.randomUUID() + "@vinaacademy.vn")
+            .username("hocvien" + index + "-" + UUID.randomUUID())
+            .fullName("Học viên " + index)
+            .build());
+  }
+
+  private Order order(User user, Coupon coupon) {
+    return orderRepository.save(
+        Order.builder()
+            .status(OrderStatus.PENDING)
+            .subTotal(new BigDecimal("499000"))
+            .user(user)
+            .coupon(coupon)
+            .orderItems(new ArrayList<>())
+            .build());
+  }
+}
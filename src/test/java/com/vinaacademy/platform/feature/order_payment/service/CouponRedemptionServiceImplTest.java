@@ -0,0 +1,110 @@
+package com.vinaacademy.platform.feature.order_payment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.order_payment.entity.Coupon;
+import com.vinaacademy.platform.feature.order_payment.entity.CouponRedemption;
+import com.vinaacademy.platform.feature.order_payment.entity.Order;
+import com.vinaacademy.platform.feature.order_payment.enums.CouponRedemptionStatus;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRedemptionRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.CouponRepository;
+import com.vinaacademy.platform.feature.user.entity.User;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Service wiring only; the limits themselves are enforced by the database and covered against a real
+ * PostgreSQL in {@link CouponRedemptionPostgresTest}.
+ */
+class CouponRedemptionServiceImplTest {
+
+  private CouponRepository couponRepository;
+  private CouponRedemptionRepository couponRedemptionRepository;
+  private CouponRedemptionServiceImpl service;
+
+  private Coupon coupon;
+
+  @BeforeEach
+  void setUp() {
+    couponRepository = mock(CouponRepository.class);
+    couponRedemptionRepository = mock(CouponRedemptionRepository.class);
+    service = new CouponRedemptionServiceImpl(couponRepository, couponRedemptionRepository);
+
+    coupon = Coupon.builder()
+        .id(UUID.randomUUID())
+        .code("SALE10")
+        .usageLimit(10L)
+        .usedCount(0L)
+        .build();
+
+    when(couponRepository.reserveUsage(eq(coupon.getId()), any(LocalDateTime.class))).thenReturn(1);
+  }
+
+  @Test
+  void reservationSavesReservedRedemptionForOrder() {
+    Order order = order(UUID.randomUUID());
+
+    service.reserve(order);
+
+    ArgumentCaptor<CouponRedemption> saved = ArgumentCaptor.forClass(CouponRedemption.class);
+    verify(couponRedemptionRepository).save(saved.capture());
+    assertThat(saved.getValue().getCoupon()).isSameAs(coupon);
+    assertThat(saved.getValue().getOrder()).isSameAs(order);
+    assertThat(saved.getValue().getUser()).isSameAs(order.getUser());
+    assertThat(saved.getValue().getStatus()).isEqualTo(CouponRedemptionStatus.RESERVED);
+  }
+
+  @Test
+  void exhaustedCouponRejectsWithoutSavingRedemption() {
+    when(couponRepository.reserveUsage(eq(coupon.getId()), any(LocalDateTime.class))).thenReturn(0);
+
+    assertThatThrownBy(() -> service.reserve(order(UUID.randomUUID())))
+        .isInstanceOf(BadRequestException.class);
+    verify(couponRedemptionRepository, never()).save(any(CouponRedemption.class));
+  }
+
+  @Test
+  void perUserLimitRejectsWithoutSavingRedemption() {
+    coupon.setPerUserLimit(1L);
+    when(couponRedemptionRepository.countByCoupon_IdAndUser_IdAndStatusIn(
+        eq(coupon.getId()), any(UUID.class), anyCollection()))
+        .thenReturn(1L);
+
+    assertThatThrownBy(() -> service.reserve(order(UUID.randomUUID())))
+        .isInstanceOf(BadRequestException.class);
+    verify(couponRedemptionRepository, never()).save(any(CouponRedemption.class));
+  }
+
+  @Test
+  void orderWithoutCouponReservesNothing() {
+    Order order = order(UUID.randomUUID());
+    order.setCoupon(null);
+
+    service.reserve(order);
+
+    verify(couponRepository, never()).reserveUsage(any(), any());
+    verify(couponRedemptionRepository, never()).save(any(CouponRedemption.class));
+  }
+
+  private Order order(UUID userId) {
+    User user = new User();
+    user.setId(userId);
+    Order order = new Order();
+    order.setId(UUID.randomUUID());
+    order.setUser(user);
+    order.setCoupon(coupon);
+    return order;
+  }
+}
@@ -0,0 +1,216 @@
+package com.vinaacademy.platform.feature.order_payment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinaacademy.platform.feature.order_payment.entity.Order;
+import com.vinaacademy.platform.feature.order_payment.entity.Payment;
+import com.vinaacademy.platform.feature.order_payment.enums.OrderStatus;
+import com.vinaacademy.platform.feature.order_payment.enums.PaymentStatus;
+import com.vinaacademy.platform.feature.order_payment.mapper.PaymentMapper;
+import com.vinaacademy.platform.feature.order_payment.repository.OrderRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentInboxRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentInboxRepository.Claim;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentOutboxRepository;
+import com.vinaacademy.platform.feature.order_payment.repository.PaymentRepository;
+import com.vinaacademy.platform.feature.order_payment.utils.Utils;
+import com.vinaacademy.platform.feature.order_payment.utils.VNPayConfig;
+import com.vinaacademy.platform.feature.user.auth.helpers.SecurityHelper;
+import com.vinaacademy.platform.feature.user.entity.User;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PaymentServiceImplTest {
+
+  private static final String SECRET = "TESTSECRETKEY0123456789";
+
+  private PaymentRepository paymentRepository;
+  private PaymentOutboxRepository paymentOutboxRepository;
+  private CouponRedemptionService couponRedemptionService;
+  private PaymentInboxRepository paymentInboxRepository;
+  private PaymentServiceImpl service;
+
+  private final VnPayStandIn vnPay = new VnPayStandIn(SECRET);
+  private Payment payment;
+  private String txnRef;
+
+  @BeforeEach
+  void setUp() {
+    VNPayConfig vnPayConfig = new VNPayConfig();
+    vnPayConfig.vnp_HashSecret = SECRET;
+
+    paymentRepository = mock(PaymentRepository.class);
+    paymentOutboxRepository = mock(PaymentOutboxRepository.class);
+    couponRedemptionService = mock(CouponRedemptionService.class);
+    paymentInboxRepository = inMemoryInbox();
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    service = new PaymentServiceImpl(mock(OrderRepository.class), mock(PaymentMapper.class),
+        paymentRepository, objectMapper, mock(SecurityHelper.class), vnPayConfig, new Utils(vnPayConfig),
+        paymentInboxRepository, paymentOutboxRepository, couponRedemptionService);
+
+    User user = new User();
+    user.setId(UUID.randomUUID());
+    Order order = new Order();
+    order.setId(UUID.randomUUID());
+    order.setUser(user);
+    order.setStatus(OrderStatus.PENDING);
+    txnRef = order.getId().toString();
+    payment = Payment.builder()
+        .id(UUID.randomUUID())
+        .order(order)
+        .amount(new BigDecimal("499000"))
+        .paymentStatus(PaymentStatus.PENDING)
+        .paymentData(objectMapper.createObjectNode())
+        .transactionId(txnRef)
+        .build();
+    when(paymentRepository.findByTransactionId(txnRef)).thenReturn(Optional.of(payment));
+  }
+
+  @Test
+  void concurrentReplaysOfOneCallbackAreProcessedOnce() throws Exception {
+    Map<String, String> callback = vnPay.callback(txnRef, 499000, "00");
+    int deliveries = 24;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<PaymentStatus>> results = new ArrayList<>();
+    for (int i = 0; i < deliveries; i++) {
+      // IPN và trang return gửi cùng một bộ tham số, mỗi lần là một request mới
+      results.add(pool.submit(() -> {
+        start.await();
+        return service.validPayment(new HashMap<>(callback));
+      }));
+    }
+    start.countDown();
+    pool.shutdown();
+    assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    for (Future<PaymentStatus> result : results) {
+      assertThat(result.get()).isEqualTo(PaymentStatus.COMPLETED);
+    }
+    assertThat(payment.getOrder().getStatus()).isEqualTo(OrderStatus.PAID);
+    assertThat(payment.getTransactionId()).isEqualTo(callback.get("vnp_TransactionNo"));
+    verify(paymentRepository, times(1)).save(payment);
+    verify(couponRedemptionService, times(1)).consume(payment.getOrder().getId());
+    verify(paymentOutboxRepository, times(1)).enqueue(eq(payment.getId()), any());
+  }
+
+  @Test
+  void tamperedCallbackChangesNothing() {
+    Map<String, String> callback = vnPay.callback(txnRef, 499000, "00");
+    callback.put("vnp_Amount", "100");
+
+    assertThat(service.validPayment(callback)).isEqualTo(PaymentStatus.FAILED);
+
+    assertThat(payment.getOrder().getStatus()).isEqualTo(OrderStatus.PENDING);
+    verify(paymentInboxRepository, never()).claim(anyString());
+    verify(paymentOutboxRepository, never()).enqueue(any(), any());
+  }
+
+  @Test
+  void declinedPaymentReleasesCouponWithoutOutbox() {
+    assertThat(service.validPayment(vnPay.callback(txnRef, 499000, "24"))).isEqualTo(PaymentStatus.CANCELLED);
+
+    assertThat(payment.getOrder().getStatus()).isEqualTo(OrderStatus.FAILED);
+    verify(couponRedemptionService).release(payment.getOrder().getId());
+    verify(paymentOutboxRepository, never()).enqueue(any(), any());
+  }
+
+  /**
+   * Mirrors INSERT ... ON CONFLICT: a duplicate waits for the first delivery to finish (the row lock in
+   * the database) and then gets its result.
+   */
+  private static PaymentInboxRepository inMemoryInbox() {
+    Map<String, CompletableFuture<PaymentStatus>> rows = new ConcurrentHashMap<>();
+    PaymentInboxRepository inbox = mock(PaymentInboxRepository.class);
+    when(inbox.claim(anyString())).thenAnswer(invocation -> {
+      CompletableFuture<PaymentStatus> row = new CompletableFuture<>();
+      CompletableFuture<PaymentStatus> existing = rows.putIfAbsent(invocation.getArgument(0), row);
+      return existing == null ? new Claim(true, null) : new Claim(false, existing.get(10, TimeUnit.SECONDS));
+    });
+    doAnswer(invocation -> {
+      rows.get((String) invocation.getArgument(0)).complete(invocation.getArgument(1));
+      return null;
+    }).when(inbox).complete(anyString(), any(PaymentStatus.class));
+    return inbox;
+  }
+
+  /**
+   * Local stand-in for the VNPay gateway: builds callback parameters signed the way VNPay signs them.
+   */
+  private static final class VnPayStandIn {
+
+    private final String secret;
+
+    VnPayStandIn(String secret) {
+      this.secret = secret;
+    }
+
+    Map<String, String> callback(String txnRef, long amount, String status) {
+      Map<String, String> params = new TreeMap<>();
+      params.put("vnp_Amount", String.valueOf(amount * 100));
+      params.put("vnp_BankCode", "NCB");
+      params.put("vnp_OrderInfo", "Đơn thanh toán cho mã đơn: " + txnRef);
+      params.put("vnp_ResponseCode", status);
+      params.put("vnp_TmnCode", "TESTTMN1");
+      params.put("vnp_TransactionNo", "14" + Math.abs(txnRef.hashCode()));
+      params.put("vnp_TransactionStatus", status);
+      params.put("vnp_TxnRef", txnRef);
+
+      StringBuilder data = new StringBuilder();
+      params.forEach((name, value) -> {
+        if (data.length() > 0) {
+          data.append('&');
+        }
+        data.append(encode(name)).append('=').append(encode(value));
+      });
+      Map<String, String> signed = new HashMap<>(params);
+      signed.put("vnp_SecureHashType", "HmacSHA512");
+      signed.put("vnp_SecureHash", hmac(data.toString()));
+      return signed;
+    }
+
+    private String hmac(String data) {
+      try {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private static String encode(String value) {
+      return URLEncoder.encode(value, StandardCharsets.US_ASCII);
+    }
+  }
+}
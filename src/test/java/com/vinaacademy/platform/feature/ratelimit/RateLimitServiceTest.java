@@ -0,0 +1,103 @@
+package com.vinaacademy.platform.feature.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.vinaacademy.platform.feature.ratelimit.RateLimiter.Decision;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Policy;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+class RateLimitServiceTest {
+
+  private static final Quota DEFAULTS = new Quota(10, Duration.ofMinutes(1));
+  private static final Quota STUDENT = new Quota(20, Duration.ofMinutes(1));
+  private static final Quota ADMIN = new Quota(1000, Duration.ofHours(1));
+
+  private RateLimiter rateLimiter;
+  private RateLimitProperties properties;
+  private RateLimitService service;
+
+  @BeforeEach
+  void setUp() {
+    rateLimiter = mock(RateLimiter.class);
+    properties = new RateLimitProperties();
+    properties.getPolicies()
+        .put("test", new Policy(DEFAULTS, Map.of("student", STUDENT, "admin", ADMIN)));
+    service = new RateLimitService(rateLimiter, properties);
+  }
+
+  @Test
+  void anonymousCallerIsLimitedPerIpWithDefaults() {
+    service.acquire("test", null, "203.0.113.7");
+    service.acquire("test",
+        new AnonymousAuthenticationToken("key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+        "203.0.113.8");
+
+    verify(rateLimiter).tryAcquire("ratelimit:test:ip:203.0.113.7", DEFAULTS);
+    verify(rateLimiter).tryAcquire("ratelimit:test:ip:203.0.113.8", DEFAULTS);
+  }
+
+  @Test
+  void userGetsMostGenerousRoleQuota() {
+    // admin: 1000/giờ ≈ 16,7/phút, vẫn ít hơn student 20/phút
+    TestingAuthenticationToken user =
+        new TestingAuthenticationToken("student@vinaacademy.com", null, "SCOPE_student", "SCOPE_admin");
+
+    service.acquire("test", user, "203.0.113.7");
+
+    verify(rateLimiter).tryAcquire(eq("ratelimit:test:user:student@vinaacademy.com"), eq(STUDENT));
+  }
+
+  @Test
+  void roleWithoutQuotaFallsBackToDefaults() {
+    TestingAuthenticationToken user =
+        new TestingAuthenticationToken("teacher@vinaacademy.com", null, "ROLE_INSTRUCTOR");
+
+    service.acquire("test", user, "203.0.113.7");
+
+    verify(rateLimiter).tryAcquire("ratelimit:test:user:teacher@vinaacademy.com", DEFAULTS);
+  }
+
+  @Test
+  void machineClientIsLimitedPerAddress() {
+    TestingAuthenticationToken client =
+        new TestingAuthenticationToken("grpc-client", null, "SCOPE_api.read", "SCOPE_api.write");
+
+    service.acquirePerAddress("test", client, "10.0.0.5");
+    service.acquirePerAddress("test", client, "10.0.0.6");
+    service.acquirePerAddress("test", null, "10.0.0.7");
+
+    verify(rateLimiter).tryAcquire("ratelimit:test:client:grpc-client:10.0.0.5", DEFAULTS);
+    verify(rateLimiter).tryAcquire("ratelimit:test:client:grpc-client:10.0.0.6", DEFAULTS);
+    verify(rateLimiter).tryAcquire("ratelimit:test:ip:10.0.0.7", DEFAULTS);
+  }
+
+  @Test
+  void disabledLimiterAllowsEverything() {
+    properties.setEnabled(false);
+
+    Decision decision = service.acquire("test", null, "203.0.113.7");
+
+    assertThat(decision.allowed()).isTrue();
+    assertThat(decision.headers()).isEmpty();
+    verifyNoInteractions(rateLimiter);
+  }
+
+  @Test
+  void unknownPolicyIsRejected() {
+    assertThatThrownBy(() -> service.acquire("missing", null, "203.0.113.7"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,169 @@
+package com.vinaacademy.platform.feature.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.platform.feature.ratelimit.RateLimiter.Decision;
+import com.vinaacademy.platform.feature.ratelimit.config.RateLimitProperties.Quota;
+import com.vinaacademy.platform.feature.ratelimit.store.LocalRateLimitStore;
+import com.vinaacademy.platform.feature.ratelimit.store.RateLimitStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Several {@link RateLimiter} instances stand for several nodes; the one {@link LocalRateLimitStore} they
+ * share stands for Redis (its compute() is atomic per key, like the Lua script).
+ */
+class RateLimiterConcurrencyTest {
+
+  private static final int NODES = 4;
+  private static final int THREADS_PER_NODE = 8;
+  private static final String KEY = "ratelimit:search:user:student@vinaacademy.com";
+  private static final Quota QUOTA = new Quota(200, Duration.ofMinutes(1));
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+  private final AtomicInteger storeCalls = new AtomicInteger();
+  private List<RateLimiter> nodes;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    LocalRateLimitStore redis = new LocalRateLimitStore();
+    RateLimitStore counting =
+        (key, quota, permits, now) -> {
+          storeCalls.incrementAndGet();
+          return redis.acquire(key, quota, permits, now);
+        };
+    nodes = new ArrayList<>();
+    for (int i = 0; i < NODES; i++) {
+      nodes.add(new RateLimiter(counting, 0.05, Duration.ofSeconds(1).toNanos() / 1000, clock::get));
+    }
+    executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void limitHoldsAcrossNodesUnderContention() throws Exception {
+    assertThat(hammer(50)).isEqualTo(QUOTA.getLimit());
+
+    // Nửa chu kỳ sau chỉ hồi lại một nửa hạn mức
+    clock.addAndGet(Duration.ofSeconds(30).toNanos() / 1000);
+    assertThat(hammer(50)).isEqualTo(QUOTA.getLimit() / 2);
+  }
+
+  @Test
+  void leasesAndCachedDenialsSaveStoreCalls() throws Exception {
+    long allowed = hammer(50);
+    int callsWhenExhausted = storeCalls.get();
+
+    // Nửa đầu hạn mức cấp theo lease 10 permit (khoảng 10 lần gọi store), nửa sau từng permit một,
+    // cộng vài lần bị từ chối mỗi node
+    assertThat(allowed).isEqualTo(QUOTA.getLimit());
+    assertThat(callsWhenExhausted).isLessThan(10 + 100 + NODES * THREADS_PER_NODE + NODES);
+
+    // Node đã biết key bị chặn tới lúc nào, không hỏi lại store
+    hammer(50);
+    assertThat(storeCalls.get()).isEqualTo(callsWhenExhausted);
+  }
+
+  @Test
+  void deniedDecisionCarriesRetryHeaders() {
+    RateLimiter node = nodes.get(0);
+    for (int i = 0; i < QUOTA.getLimit(); i++) {
+      assertThat(node.tryAcquire(KEY, QUOTA).allowed()).isTrue();
+    }
+
+    Decision denied = node.tryAcquire(KEY, QUOTA);
+
+    assertThat(denied.allowed()).isFalse();
+    // Một permit hồi lại sau 60s / 200 = 0,3s, làm tròn lên 1s
+    assertThat(denied.retryAfterSeconds()).isEqualTo(1);
+    assertThat(denied.headers())
+        .containsEntry("RateLimit-Limit", "200")
+        .containsEntry("RateLimit-Remaining", "0")
+        .containsEntry("RateLimit-Reset", "60")
+        .containsEntry("RateLimit-Policy", "200;w=60")
+        .containsEntry("Retry-After", "1");
+  }
+
+  @Test
+  void expiredLeaseDropsUnusedPermits() {
+    RateLimiter first = nodes.get(0);
+    RateLimiter second = nodes.get(1);
+    assertThat(first.tryAcquire(KEY, QUOTA).remaining()).isEqualTo(QUOTA.getLimit() - 1);
+
+    clock.addAndGet(Duration.ofSeconds(2).toNanos() / 1000);
+    first.tryAcquire(KEY, QUOTA);
+
+    // 9 permit thừa của lease đầu tiên bị bỏ, không quay về bucket: 200 - 3 lease * 10 + 6 permit hồi
+    // lại trong 2s = 176, cộng 9 permit còn trong lease của node thứ hai
+    assertThat(second.tryAcquire(KEY, QUOTA).remaining()).isEqualTo(185);
+  }
+
+  @Test
+  void clientAtHalfTheQuotaAcrossTwoNodesIsNeverDenied() {
+    RateLimiter first = nodes.get(0);
+    RateLimiter second = nodes.get(1);
+    // Nửa hạn mức: cứ 4 khoảng phát (1,2s) trang gửi cùng lúc hai request, mỗi node một, trong 10 phút
+    long interval = 4 * QUOTA.emissionIntervalMicros();
+    int rounds = (int) (Duration.ofMinutes(10).toNanos() / 1000 / interval);
+
+    int denied = 0;
+    for (int i = 0; i < rounds; i++) {
+      for (RateLimiter node : List.of(first, second)) {
+        if (!node.tryAcquire(KEY, QUOTA).allowed()) {
+          denied++;
+        }
+      }
+      clock.addAndGet(interval);
+    }
+
+    // Nếu vẫn lấy lease sát hạn mức, node đầu ôm hết permit vừa hồi lại rồi bỏ phí khi lease hết hạn,
+    // node kia bị từ chối
+    assertThat(denied).isZero();
+  }
+
+  /** Every thread retries until it has been denied the given number of times; returns permits granted. */
+  private long hammer(int deniesPerThread) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger allowed = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (RateLimiter node : nodes) {
+      for (int t = 0; t < THREADS_PER_NODE; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  int denied = 0;
+                  while (denied < deniesPerThread) {
+                    if (node.tryAcquire(KEY, QUOTA).allowed()) {
+                      allowed.incrementAndGet();
+                    } else {
+                      denied++;
+                    }
+                  }
+                  return null;
+                }));
+      }
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    return allowed.get();
+  }
+}
@@ -0,0 +1,270 @@
+package com.vinaacademy.platform.feature.storage.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.vinaacademy.platform.feature.storage.entity.MediaFile;
+import com.vinaacademy.platform.feature.storage.enums.FileType;
+import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
+import com.vinaacademy.platform.feature.storage.repository.StorageBlobRepository.GarbageBlob;
+import com.vinaacademy.platform.feature.storage.service.BlobStoreService;
+import com.vinaacademy.platform.feature.storage.service.impl.BlobStoreServiceImpl;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the reference counting SQL of {@link StorageBlobRepository} against a real PostgreSQL, each
+ * step in its own committed transaction, so the upserts, the idempotent release and the {@code SKIP
+ * LOCKED} garbage claim behave as they do in production. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StorageBlobRepository.class, BlobStoreServiceImpl.class, StorageProperties.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StorageBlobRepositoryPostgresTest {
+
+  private static final Path UPLOAD_DIR = createUploadDir();
+
+  @Container @ServiceConnection
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @DynamicPropertySource
+  static void storageProperties(DynamicPropertyRegistry registry) {
+    registry.add("application.storage.uploadDir", UPLOAD_DIR::toString);
+  }
+
+  @Autowired private StorageBlobRepository storageBlobRepository;
+  @Autowired private MediaFileRepository mediaFileRepository;
+  @Autowired private BlobStoreService blobStoreService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    tx = new TransactionTemplate(transactionManager);
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    mediaFileRepository.deleteAll();
+    jdbcTemplate.update("DELETE FROM storage_blobs");
+  }
+
+  @Test
+  void acquireCountsEveryReferenceAndKeepsFirstPath() {
+    String hash = hash("a");
+
+    String first = tx.execute(s -> storageBlobRepository.acquire(hash, 1, "/blobs/first"));
+    String second = tx.execute(s -> storageBlobRepository.acquire(hash, 1, "/blobs/second"));
+
+    assertThat(first).isEqualTo("/blobs/first");
+    assertThat(second).isEqualTo("/blobs/first");
+    assertThat(blob(hash)).containsEntry("ref_count", 2);
+  }
+
+  @Test
+  void acquireExistingRequiresSameSizeAndRevivesUnreferencedBlob() {
+    String hash = hash("b");
+    tx.executeWithoutResult(s -> storageBlobRepository.markOrphan(hash, 10, "/blobs/b"));
+
+    Optional<String> unknown =
+        tx.execute(s -> storageBlobRepository.acquireExisting(hash("missing"), 10));
+    Optional<String> otherSize = tx.execute(s -> storageBlobRepository.acquireExisting(hash, 11));
+    Optional<String> existing = tx.execute(s -> storageBlobRepository.acquireExisting(hash, 10));
+
+    assertThat(unknown).isEmpty();
+    assertThat(otherSize).isEmpty();
+    assertThat(existing).contains("/blobs/b");
+
+    assertThat(blob(hash))
+        .containsEntry("ref_count", 1)
+        .containsEntry("unreferenced_since", null);
+  }
+
+  @Test
+  void releaseDropsEachMediaFileReferenceOnce() {
+    String hash = hash("c");
+    UUID first = mediaFile(hash);
+    UUID second = mediaFile(hash);
+    tx.execute(s -> storageBlobRepository.acquire(hash, 1, "/blobs/c"));
+    tx.execute(s -> storageBlobRepository.acquire(hash, 1, "/blobs/c"));
+
+    Boolean released = tx.execute(s -> storageBlobRepository.release(first));
+    Boolean releasedAgain = tx.execute(s -> storageBlobRepository.release(first));
+
+    assertThat(released).isTrue();
+    assertThat(releasedAgain).isFalse();
+    assertThat(blob(hash))
+        .containsEntry("ref_count", 1)
+        .containsEntry("unreferenced_since", null);
+    assertThat(mediaFileRepository.findById(first).orElseThrow().getContentHash()).isNull();
+
+    Boolean releasedLast = tx.execute(s -> storageBlobRepository.release(second));
+    assertThat(releasedLast).isTrue();
+    assertThat(blob(hash)).containsEntry("ref_count", 0);
+    assertThat(blob(hash).get("unreferenced_since")).isNotNull();
+  }
+
+  @Test
+  void claimGarbageOnlyReturnsUnreferencedBlobsPastCutoff() {
+    String old = hash("old");
+    String recent = hash("recent");
+    String stillReferenced = hash("referenced");
+    tx.executeWithoutResult(
+        s -> {
+          storageBlobRepository.markOrphan(old, 1, "/blobs/old");
+          storageBlobRepository.markOrphan(recent, 1, "/blobs/recent");
+          storageBlobRepository.markOrphan(stillReferenced, 1, "/blobs/referenced");
+        });
+    // Bộ đếm lệch: ref_count 0 nhưng MediaFile vẫn trỏ tới nội dung
+    mediaFile(stillReferenced);
+    jdbcTemplate.update(
+        "UPDATE storage_blobs SET unreferenced_since = ? WHERE sha256 IN (?, ?)",
+        LocalDateTime.now().minusDays(2),
+        old,
+        stillReferenced);
+
+    assertThat(claimGarbage(LocalDateTime.now().minusDays(1))).containsExactly(new GarbageBlob(old, "/blobs/old"));
+  }
+
+  @Test
+  void claimGarbageSkipsBlobLockedByAnotherTransaction() throws Exception {
+    String locked = hash("locked");
+    tx.executeWithoutResult(s -> storageBlobRepository.markOrphan(locked, 1, "/blobs/locked"));
+    jdbcTemplate.update(
+        "UPDATE storage_blobs SET unreferenced_since = ?", LocalDateTime.now().minusDays(2));
+
+    CountDownLatch lockHeld = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?> holder =
+        executor.submit(
+            () ->
+                tx.executeWithoutResult(
+                    s -> {
+                      jdbcTemplate.queryForList(
+                          "SELECT sha256 FROM storage_blobs WHERE sha256 = ? FOR UPDATE", locked);
+                      lockHeld.countDown();
+                      await(release);
+                    }));
+    try {
+      assertThat(lockHeld.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(claimGarbage(LocalDateTime.now())).isEmpty();
+    } finally {
+      release.countDown();
+      holder.get(10, TimeUnit.SECONDS);
+    }
+    assertThat(claimGarbage(LocalDateTime.now()))
+        .extracting(GarbageBlob::sha256)
+        .containsExactly(locked);
+  }
+
+  @Test
+  void rolledBackStoreLeavesItsFileToGarbageCollection() throws IOException {
+    Path upload = Files.writeString(UPLOAD_DIR.resolve("upload.bin"), "rollback");
+    String hash = hash("rollback");
+
+    assertThatThrownBy(
+            () ->
+                tx.executeWithoutResult(
+                    s -> {
+                      try {
+                        blobStoreService.store(upload, hash);
+                      } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                      }
+                      throw new IllegalStateException("rollback");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    Map<String, Object> orphan = blob(hash);
+    assertThat(orphan).containsEntry("ref_count", 0);
+    assertThat(orphan.get("unreferenced_since")).isNotNull();
+    assertThat(Paths.get((String) orphan.get("file_path"))).exists();
+    assertThat(claimGarbage(LocalDateTime.now().plusSeconds(1)))
+        .extracting(GarbageBlob::sha256)
+        .containsExactly(hash);
+  }
+
+  private List<GarbageBlob> claimGarbage(LocalDateTime cutoff) {
+    return tx.execute(s -> storageBlobRepository.claimGarbage(cutoff, 10));
+  }
+
+  private Map<String, Object> blob(String hash) {
+    return jdbcTemplate.queryForMap(
+        "SELECT ref_count, file_path, unreferenced_since FROM storage_blobs WHERE sha256 = ?",
+        hash);
+  }
+
+  private UUID mediaFile(String contentHash) {
+    return mediaFileRepository
+        .save(
+            MediaFile.builder()
+                .userId(UUID.randomUUID())
+                .fileName("bai-giang.mp4")
+                .fileType(FileType.VIDEO)
+                .contentHash(contentHash)
+                .status(MediaFile.UploadStatus.COMPLETED)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build())
+        .getId();
+  }
+
+  private static String hash(String content) {
+    return DigestUtils.sha256Hex(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Path createUploadDir() {
+    try {
+      return Files.createTempDirectory("blob-store-test");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
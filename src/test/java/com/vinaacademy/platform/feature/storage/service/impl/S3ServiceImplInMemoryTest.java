@@ -0,0 +1,122 @@
+package com.vinaacademy.platform.feature.storage.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.platform.configuration.S3ClientFactory;
+import com.vinaacademy.platform.configuration.S3ClientProperties;
+import com.vinaacademy.platform.feature.storage.service.S3Service.StoredObject;
+import com.vinaacademy.platform.feature.storage.support.InMemoryS3;
+import com.vinaacademy.platform.feature.storage.utils.S3UrlSigner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+/** Runs S3ServiceImpl against {@link InMemoryS3} with a real transfer manager instead of mocks. */
+class S3ServiceImplInMemoryTest {
+
+  private static final String BUCKET = "test-bucket";
+
+  @TempDir Path tempDir;
+
+  private InMemoryS3 s3;
+  private S3TransferManager transferManager;
+  private S3ServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    s3 = new InMemoryS3();
+    S3ClientProperties properties = new S3ClientProperties();
+    properties.setDirectoryUploadConcurrency(8);
+    S3ClientFactory factory =
+        new S3ClientFactory("http://localhost:9000", "us-east-1", "access", "secret", true, properties);
+    transferManager = factory.transferManager(s3.asyncClient());
+    service =
+        new S3ServiceImpl(
+            s3.syncClient(),
+            s3.asyncClient(),
+            new S3UrlSigner(
+                "http://localhost:9000", "us-east-1", "access", "secret", true, 100, Clock.systemUTC()),
+            transferManager);
+    ReflectionTestUtils.setField(service, "bucketName", BUCKET);
+    ReflectionTestUtils.setField(service, "endpoint", "http://localhost:9000");
+    ReflectionTestUtils.setField(service, "pathStyle", true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    transferManager.close();
+  }
+
+  @Test
+  void uploadDirectory_storesHlsTreeUnderPrefix() throws IOException {
+    Path hls = tempDir.resolve("hls");
+    Files.createDirectories(hls.resolve("720p"));
+    Files.writeString(hls.resolve("master.m3u8"), "#EXTM3U\n720p/playlist.m3u8\n");
+    Files.writeString(hls.resolve("720p/playlist.m3u8"), "#EXTM3U\nsegment_000.ts\n");
+    Files.write(hls.resolve("720p/segment_000.ts"), new byte[4096]);
+
+    List<String> urls = service.uploadDirectory("videos/hls/v1", hls);
+
+    assertThat(urls).hasSize(3);
+    assertThat(s3.keys(BUCKET, "videos/hls/v1/"))
+        .containsExactly(
+            "videos/hls/v1/720p/playlist.m3u8",
+            "videos/hls/v1/720p/segment_000.ts",
+            "videos/hls/v1/master.m3u8");
+    assertThat(s3.get(BUCKET, "videos/hls/v1/720p/segment_000.ts").content()).hasSize(4096);
+    assertThat(s3.get(BUCKET, "videos/hls/v1/720p/segment_000.ts").contentType()).isNotBlank();
+    try (InputStream in = service.downloadFile("videos/hls/v1/master.m3u8")) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).startsWith("#EXTM3U");
+    }
+    assertThat(service.listPrefixes("videos/hls/")).containsExactly("videos/hls/v1/");
+  }
+
+  @Test
+  void deleteDirectory_pagesThroughLargePrefixInBatchesOfAtMost1000() {
+    Instant now = Instant.now();
+    for (int i = 0; i < 2500; i++) {
+      s3.put(BUCKET, String.format("videos/hls/big/seg_%05d.ts", i), new byte[1], now);
+    }
+    s3.put(BUCKET, "videos/hls/bigger/keep.ts", new byte[1], now);
+
+    List<StoredObject> listed = service.listObjects("videos/hls/big/");
+    assertThat(listed).hasSize(2500);
+
+    service.deleteDirectory("videos/hls/big/");
+
+    assertThat(s3.keys(BUCKET, "videos/hls/big/")).isEmpty();
+    assertThat(s3.keys(BUCKET, "videos/hls/bigger/")).containsExactly("videos/hls/bigger/keep.ts");
+    // InMemoryS3 từ chối lô > 1000 key, nên 2500 object cần ít nhất 3 lô
+    assertThat(s3.deleteRequests()).isGreaterThanOrEqualTo(3);
+  }
+
+  @Test
+  void copyDirectory_copiesEveryPageUnderTargetPrefix() {
+    Instant now = Instant.now();
+    for (int i = 0; i < 1500; i++) {
+      s3.put(BUCKET, String.format("videos/hls/src/720p/seg_%05d.ts", i), new byte[] {(byte) i}, now);
+    }
+    s3.put(BUCKET, "videos/hls/src/master.m3u8", "#EXTM3U".getBytes(StandardCharsets.UTF_8), now);
+    s3.put(BUCKET, "videos/hls/src2/other.ts", new byte[1], now);
+
+    int copied = service.copyDirectory("videos/hls/src/", "videos/hls/dst/");
+
+    assertThat(copied).isEqualTo(1501);
+    assertThat(s3.keys(BUCKET, "videos/hls/dst/")).hasSize(1501).contains("videos/hls/dst/master.m3u8");
+    assertThat(s3.get(BUCKET, "videos/hls/dst/720p/seg_00007.ts").content()).containsExactly(7);
+    // Bản gốc vẫn còn nguyên, prefix có tên gần giống không bị chép theo
+    assertThat(s3.keys(BUCKET, "videos/hls/src/")).hasSize(1501);
+    assertThat(s3.keys(BUCKET, "videos/hls/dst/other.ts")).isEmpty();
+  }
+}
@@ -1,21 +1,27 @@
 package com.vinaacademy.platform.feature.storage.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.vinaacademy.platform.feature.storage.service.S3Service.PresignedUrl;
+import com.vinaacademy.platform.feature.storage.utils.S3UrlSigner;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,11 +35,9 @@ import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 import software.amazon.awssdk.transfer.s3.S3TransferManager;
 import software.amazon.awssdk.transfer.s3.model.CompletedDirectoryUpload;
 import software.amazon.awssdk.transfer.s3.model.UploadDirectoryRequest;
@@ -42,7 +46,7 @@ import software.amazon.awssdk.transfer.s3.model.UploadDirectoryRequest;
 class S3ServiceImplTest {
 
   @Mock private S3Client s3Client;
-  @Mock private S3Presigner s3Presigner;
+  @Mock private S3AsyncClient s3AsyncClient;
   private S3TransferManager s3TransferManager;
 
   private S3ServiceImpl service;
@@ -50,7 +54,18 @@ class S3ServiceImplTest {
   @BeforeEach
   void setUp() {
     s3TransferManager = Mockito.mock(S3TransferManager.class, Mockito.RETURNS_DEEP_STUBS);
-    service = new S3ServiceImpl(s3Client, s3Presigner, s3TransferManager);
+    service = new S3ServiceImpl(
+            s3Client,
+            s3AsyncClient,
+            new S3UrlSigner(
+                "http://localhost:9000",
+                "us-east-1",
+                "access",
+                "secret",
+                true,
+                100,
+                Clock.fixed(Instant.parse("2025-01-01T00:10:00Z"), ZoneOffset.UTC)),
+            s3TransferManager);
     ReflectionTestUtils.setField(service, "bucketName", "test-bucket");
     ReflectionTestUtils.setField(service, "endpoint", "http://localhost:9000");
     ReflectionTestUtils.setField(service, "pathStyle", true);
@@ -114,14 +129,34 @@ class S3ServiceImplTest {
   }
 
   @Test
-  void generatePresignedUrl_success() throws Exception {
-    PresignedGetObjectRequest presigned = org.mockito.Mockito.mock(PresignedGetObjectRequest.class);
-    when(presigned.url()).thenReturn(new URL("http://localhost:9000/test-bucket/a/b.txt"));
-    when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presigned);
-
+  void generatePresignedUrl_success() {
     String url = service.generatePresignedUrl("a/b.txt", 60);
 
-    assertEquals("http://localhost:9000/test-bucket/a/b.txt", url);
+    assertThat(url)
+        .startsWith("http://localhost:9000/test-bucket/a/b.txt?X-Amz-Algorithm=AWS4-HMAC-SHA256")
+        .contains("X-Amz-Expires=60")
+        .contains("X-Amz-Signature=");
+  }
+
+  @Test
+  void presign_reusesUrlWithinWindow_andReportsExpiry() {
+    PresignedUrl first = service.presign("a/b.txt", 3600);
+    PresignedUrl second = service.presign("a/b.txt", 3600);
+
+    assertThat(second.url()).isEqualTo(first.url());
+    // Ký tại đầu cửa sổ 15 phút (00:00), hết hạn sau 1 giờ
+    assertThat(first.expiresAt()).isEqualTo(Instant.parse("2025-01-01T01:00:00Z"));
+  }
+
+  @Test
+  void generatePresignedUrls_signsEveryKeyInOrder() {
+    List<String> keys = List.of("hls/720p/segment_001.ts", "hls/720p/segment_000.ts");
+
+    Map<String, String> urls = service.generatePresignedUrls(keys, 3600);
+
+    assertThat(urls.keySet()).containsExactlyElementsOf(keys);
+    assertThat(urls.get("hls/720p/segment_000.ts"))
+        .isEqualTo(service.generatePresignedUrl("hls/720p/segment_000.ts", 3600));
   }
 
   @Test
@@ -141,7 +176,7 @@ class S3ServiceImplTest {
 
     service.deleteDirectory("prefix/");
 
-    verify(s3Client, times(0)).deleteObjects(any(DeleteObjectsRequest.class));
+    verify(s3AsyncClient, times(0)).deleteObjects(any(DeleteObjectsRequest.class));
   }
 
   @Test
@@ -150,12 +185,86 @@ class S3ServiceImplTest {
     S3Object o2 = S3Object.builder().key("prefix/b.txt").build();
     ListObjectsV2Response listResp = ListObjectsV2Response.builder().contents(o1, o2).build();
     when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(listResp);
-    when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
-        .thenReturn(DeleteObjectsResponse.builder().build());
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
 
     service.deleteDirectory("prefix/");
 
-    verify(s3Client, times(1)).deleteObjects(any(DeleteObjectsRequest.class));
+    verify(s3AsyncClient, times(1)).deleteObjects(any(DeleteObjectsRequest.class));
+  }
+
+  @Test
+  void deleteDirectory_followsContinuationTokens_andDeletesInBatchesOf1000() {
+    // 2 trang: 1000 key (bị cắt, có token) rồi 1500 key
+    ListObjectsV2Response page1 =
+        ListObjectsV2Response.builder()
+            .contents(objects(0, 1000))
+            .isTruncated(true)
+            .nextContinuationToken("token-1")
+            .build();
+    ListObjectsV2Response page2 =
+        ListObjectsV2Response.builder().contents(objects(1000, 2500)).isTruncated(false).build();
+    ArgumentCaptor<ListObjectsV2Request> listCap = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+    when(s3Client.listObjectsV2(listCap.capture())).thenReturn(page1, page2);
+    ArgumentCaptor<DeleteObjectsRequest> deleteCap = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    when(s3AsyncClient.deleteObjects(deleteCap.capture()))
+        .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+    service.deleteDirectory("videos/hls/v1/");
+
+    assertThat(listCap.getAllValues()).extracting(ListObjectsV2Request::continuationToken)
+        .containsExactly(null, "token-1");
+    assertThat(deleteCap.getAllValues())
+        .extracting(r -> r.delete().objects().size())
+        .containsExactly(1000, 1000, 500);
+    assertThat(deleteCap.getAllValues())
+        .flatExtracting(r -> r.delete().objects())
+        .extracting(ObjectIdentifier::key)
+        .doesNotHaveDuplicates()
+        .hasSize(2500);
+  }
+
+  @Test
+  void deleteObjects_whenSomeKeysFail_throwsAfterAllBatches() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 1500; i++) {
+      keys.add("k/" + i);
+    }
+    S3Error error = S3Error.builder().key("k/3").code("AccessDenied").message("denied").build();
+    when(s3AsyncClient.deleteObjects(any(DeleteObjectsRequest.class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(DeleteObjectsResponse.builder().errors(error).build()),
+            CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+    assertThatThrownBy(() -> service.deleteObjects(keys))
+        .isInstanceOf(RuntimeException.class)
+        .hasRootCauseMessage("1 objects not deleted, first: k/3 (AccessDenied: denied)");
+    verify(s3AsyncClient, times(2)).deleteObjects(any(DeleteObjectsRequest.class));
+  }
+
+  @Test
+  void listPrefixes_collectsCommonPrefixesOfEveryPage() {
+    ListObjectsV2Response page1 =
+        ListObjectsV2Response.builder()
+            .commonPrefixes(CommonPrefix.builder().prefix("videos/hls/a/").build())
+            .isTruncated(true)
+            .nextContinuationToken("t")
+            .build();
+    ListObjectsV2Response page2 =
+        ListObjectsV2Response.builder()
+            .commonPrefixes(CommonPrefix.builder().prefix("videos/hls/b/").build())
+            .build();
+    when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(page1, page2);
+
+    assertThat(service.listPrefixes("videos/hls/")).containsExactly("videos/hls/a/", "videos/hls/b/");
+  }
+
+  private static List<S3Object> objects(int from, int to) {
+    List<S3Object> objects = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      objects.add(S3Object.builder().key("videos/hls/v1/segment_" + i + ".ts").size(1L).build());
+    }
+    return objects;
   }
 
   @Test
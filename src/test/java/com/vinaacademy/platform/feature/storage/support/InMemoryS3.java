@@ -0,0 +1,332 @@
+package com.vinaacademy.platform.feature.storage.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * In-process stand-in for MinIO: one object map behind an {@link S3Client} and an {@link S3AsyncClient},
+ * so code written against the SDK interfaces (and {@code S3TransferManager} on top of the async client) runs
+ * without a server. Listing honours prefixes, delimiters and continuation tokens with at most 1000 keys per
+ * page, and {@code DeleteObjects} rejects more than 1000 keys, as S3 does.
+ *
+ * <p>Only the operations used by the application are implemented; the others throw
+ * {@link UnsupportedOperationException} (the SDK interfaces' default).
+ */
+public class InMemoryS3 {
+
+  public record StoredObject(byte[] content, String contentType, Instant lastModified) {}
+
+  private static final int MAX_KEYS = 1000;
+
+  // Khóa "bucket/key"; sắp xếp theo key như ListObjectsV2
+  private final ConcurrentSkipListMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+  private final AtomicInteger listRequests = new AtomicInteger();
+  private final AtomicInteger deleteRequests = new AtomicInteger();
+
+  public S3Client syncClient() {
+    return new SyncClient();
+  }
+
+  public S3AsyncClient asyncClient() {
+    return new AsyncClient();
+  }
+
+  public void put(String bucket, String key, byte[] content, Instant lastModified) {
+    objects.put(bucket + "/" + key, new StoredObject(content, null, lastModified));
+  }
+
+  public StoredObject get(String bucket, String key) {
+    return objects.get(bucket + "/" + key);
+  }
+
+  /** Keys of the bucket starting with {@code prefix}, in order. */
+  public List<String> keys(String bucket, String prefix) {
+    String from = bucket + "/" + prefix;
+    return objects.tailMap(from, true).keySet().stream()
+        .takeWhile(k -> k.startsWith(from))
+        .map(k -> k.substring(bucket.length() + 1))
+        .toList();
+  }
+
+  public int listRequests() {
+    return listRequests.get();
+  }
+
+  public int deleteRequests() {
+    return deleteRequests.get();
+  }
+
+  private PutObjectResponse store(PutObjectRequest request, byte[] content) {
+    objects.put(
+        request.bucket() + "/" + request.key(),
+        new StoredObject(content, request.contentType(), Instant.now()));
+    return PutObjectResponse.builder().eTag("\"" + Integer.toHexString(content.length) + "\"").build();
+  }
+
+  private StoredObject find(String bucket, String key) {
+    StoredObject object = objects.get(bucket + "/" + key);
+    if (object == null) {
+      throw NoSuchKeyException.builder().statusCode(404).message("The specified key does not exist.").build();
+    }
+    return object;
+  }
+
+  private HeadObjectResponse head(HeadObjectRequest request) {
+    StoredObject object = find(request.bucket(), request.key());
+    return HeadObjectResponse.builder()
+        .contentLength((long) object.content().length)
+        .contentType(object.contentType())
+        .lastModified(object.lastModified())
+        .build();
+  }
+
+  private ListObjectsV2Response list(ListObjectsV2Request request) {
+    listRequests.incrementAndGet();
+    String bucketPrefix = request.bucket() + "/";
+    String prefix = request.prefix() != null ? request.prefix() : "";
+    int maxKeys = request.maxKeys() != null ? Math.min(request.maxKeys(), MAX_KEYS) : MAX_KEYS;
+    String after = request.continuationToken() != null ? request.continuationToken() : request.startAfter();
+
+    NavigableMap<String, StoredObject> tail =
+        after != null
+            ? objects.tailMap(bucketPrefix + after, false)
+            : objects.tailMap(bucketPrefix + prefix, true);
+    List<S3Object> contents = new ArrayList<>();
+    List<CommonPrefix> commonPrefixes = new ArrayList<>();
+    String last = null;
+    boolean truncated = false;
+    for (Map.Entry<String, StoredObject> entry : tail.entrySet()) {
+      String key = entry.getKey().substring(bucketPrefix.length());
+      if (!entry.getKey().startsWith(bucketPrefix) || !key.startsWith(prefix)) {
+        break;
+      }
+      int delimiterAt =
+          request.delimiter() != null ? key.indexOf(request.delimiter(), prefix.length()) : -1;
+      String commonPrefix = delimiterAt >= 0 ? key.substring(0, delimiterAt + 1) : null;
+      if (commonPrefix != null && last != null && last.startsWith(commonPrefix)) {
+        continue; // đã tính prefix này
+      }
+      if (contents.size() + commonPrefixes.size() == maxKeys) {
+        truncated = true;
+        break;
+      }
+      if (commonPrefix != null) {
+        commonPrefixes.add(CommonPrefix.builder().prefix(commonPrefix).build());
+        // Token sau mọi key thuộc prefix này
+        last = commonPrefix + Character.MAX_VALUE;
+      } else {
+        contents.add(
+            S3Object.builder()
+                .key(key)
+                .size((long) entry.getValue().content().length)
+                .lastModified(entry.getValue().lastModified())
+                .build());
+        last = key;
+      }
+    }
+    return ListObjectsV2Response.builder()
+        .name(request.bucket())
+        .prefix(request.prefix())
+        .contents(contents)
+        .commonPrefixes(commonPrefixes)
+        .keyCount(contents.size() + commonPrefixes.size())
+        .isTruncated(truncated)
+        .nextContinuationToken(truncated ? last : null)
+        .build();
+  }
+
+  private CopyObjectResponse copy(CopyObjectRequest request) {
+    StoredObject source = find(request.sourceBucket(), request.sourceKey());
+    objects.put(
+        request.destinationBucket() + "/" + request.destinationKey(),
+        new StoredObject(source.content(), source.contentType(), Instant.now()));
+    return CopyObjectResponse.builder().build();
+  }
+
+  private DeleteObjectsResponse deleteAll(DeleteObjectsRequest request) {
+    deleteRequests.incrementAndGet();
+    List<ObjectIdentifier> keys = request.delete().objects();
+    if (keys.size() > MAX_KEYS) {
+      throw (S3Exception)
+          S3Exception.builder().statusCode(400).message("MalformedXML: more than 1000 keys").build();
+    }
+    List<DeletedObject> deleted = new ArrayList<>();
+    for (ObjectIdentifier id : keys) {
+      objects.remove(request.bucket() + "/" + id.key());
+      deleted.add(DeletedObject.builder().key(id.key()).build());
+    }
+    boolean quiet = Boolean.TRUE.equals(request.delete().quiet());
+    return DeleteObjectsResponse.builder().deleted(quiet ? List.of() : deleted).build();
+  }
+
+  private static CompletableFuture<byte[]> read(AsyncRequestBody body) {
+    CompletableFuture<byte[]> result = new CompletableFuture<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    body.subscribe(
+        new Subscriber<ByteBuffer>() {
+          @Override
+          public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+          }
+
+          @Override
+          public synchronized void onNext(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.write(bytes, 0, bytes.length);
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            result.completeExceptionally(t);
+          }
+
+          @Override
+          public synchronized void onComplete() {
+            result.complete(out.toByteArray());
+          }
+        });
+    return result;
+  }
+
+  private final class SyncClient implements S3Client {
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+      try (InputStream in = body.contentStreamProvider().newStream()) {
+        return store(request, in.readAllBytes());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(
+        GetObjectRequest request, ResponseTransformer<GetObjectResponse, ReturnT> transformer) {
+      StoredObject object = find(request.bucket(), request.key());
+      GetObjectResponse response =
+          GetObjectResponse.builder()
+              .contentLength((long) object.content().length)
+              .contentType(object.contentType())
+              .lastModified(object.lastModified())
+              .build();
+      try {
+        return transformer.transform(
+            response, AbortableInputStream.create(new ByteArrayInputStream(object.content())));
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public HeadObjectResponse headObject(HeadObjectRequest request) {
+      return head(request);
+    }
+
+    @Override
+    public CopyObjectResponse copyObject(CopyObjectRequest request) {
+      return copy(request);
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+      objects.remove(request.bucket() + "/" + request.key());
+      return DeleteObjectResponse.builder().build();
+    }
+
+    @Override
+    public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+      return deleteAll(request);
+    }
+
+    @Override
+    public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+      return list(request);
+    }
+
+    @Override
+    public String serviceName() {
+      return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private final class AsyncClient implements S3AsyncClient {
+
+    @Override
+    public CompletableFuture<PutObjectResponse> putObject(
+        PutObjectRequest request, AsyncRequestBody body) {
+      return read(body).thenApply(content -> store(request, content));
+    }
+
+    @Override
+    public CompletableFuture<HeadObjectResponse> headObject(HeadObjectRequest request) {
+      return CompletableFuture.supplyAsync(() -> head(request));
+    }
+
+    @Override
+    public CompletableFuture<CopyObjectResponse> copyObject(CopyObjectRequest request) {
+      return CompletableFuture.supplyAsync(() -> copy(request));
+    }
+
+    @Override
+    public CompletableFuture<DeleteObjectsResponse> deleteObjects(DeleteObjectsRequest request) {
+      return CompletableFuture.supplyAsync(() -> deleteAll(request));
+    }
+
+    @Override
+    public CompletableFuture<ListObjectsV2Response> listObjectsV2(ListObjectsV2Request request) {
+      return CompletableFuture.supplyAsync(() -> list(request));
+    }
+
+    @Override
+    public String serviceName() {
+      return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,115 @@
+package com.vinaacademy.platform.feature.storage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.vinaacademy.platform.feature.storage.service.S3Service.PresignedUrl;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+class S3UrlSignerTest {
+
+  private static final String ENDPOINT = "http://localhost:9000";
+  private static final String REGION = "ap-southeast-1";
+  private static final String ACCESS_KEY = "admin";
+  private static final String SECRET_KEY = "password123";
+
+  @Test
+  void signature_matchesSdkPresigner() {
+    for (boolean pathStyle : new boolean[] {true, false}) {
+      for (String key :
+          List.of("videos/hls/abc/720p/segment_000.ts", "thư mục/ảnh bìa (1).jpg", "a+b=c&d~e.txt")) {
+        assertSameSignatureAsSdk(pathStyle, key);
+      }
+    }
+  }
+
+  @Test
+  void urlIsStableWithinWindow_andChangesInNextWindow() {
+    Instant start = Instant.parse("2025-03-10T10:00:00Z");
+    PresignedUrl first = signerAt(start, true).presign("bucket", "k.ts", Duration.ofHours(1));
+    // Cache riêng từng signer: cùng cửa sổ thì URL ký lại vẫn giống hệt
+    PresignedUrl sameWindow =
+        signerAt(start.plusSeconds(899), true).presign("bucket", "k.ts", Duration.ofHours(1));
+    PresignedUrl nextWindow =
+        signerAt(start.plusSeconds(900), true).presign("bucket", "k.ts", Duration.ofHours(1));
+
+    assertThat(sameWindow.url()).isEqualTo(first.url());
+    assertThat(nextWindow.url()).isNotEqualTo(first.url());
+    assertThat(Duration.between(start.plusSeconds(899), sameWindow.expiresAt()))
+        .isGreaterThanOrEqualTo(Duration.ofMinutes(45));
+  }
+
+  @Test
+  void batch_returnsUrlPerKey() {
+    S3UrlSigner signer = signerAt(Instant.parse("2025-03-10T10:00:00Z"), true);
+    List<String> keys = List.of("hls/seg_2.ts", "hls/seg_0.ts", "hls/seg_1.ts");
+
+    Map<String, PresignedUrl> urls = signer.presign("bucket", keys, Duration.ofHours(1));
+
+    assertThat(urls.keySet()).containsExactlyElementsOf(keys);
+    assertThat(urls.get("hls/seg_0.ts").url()).startsWith("http://localhost:9000/bucket/hls/seg_0.ts?");
+    assertThat(urls.get("hls/seg_0.ts"))
+        .isEqualTo(signer.presign("bucket", "hls/seg_0.ts", Duration.ofHours(1)));
+  }
+
+  private void assertSameSignatureAsSdk(boolean pathStyle, String key) {
+    // Thời hạn 4 giây -> cửa sổ 1 giây: ký đúng giây SDK đã ký thì URL phải trùng khớp
+    Duration expiry = Duration.ofSeconds(4);
+    String sdkUrl;
+    try (S3Presigner presigner =
+        S3Presigner.builder()
+            .endpointOverride(URI.create(ENDPOINT))
+            .region(Region.of(REGION))
+            .credentialsProvider(
+                StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build())
+            .build()) {
+      sdkUrl =
+          presigner
+              .presignGetObject(
+                  GetObjectPresignRequest.builder()
+                      .signatureDuration(expiry)
+                      .getObjectRequest(GetObjectRequest.builder().bucket("bucket").key(key).build())
+                      .build())
+              .url()
+              .toString();
+    }
+    Map<String, String> sdkQuery = query(sdkUrl);
+    Instant signedAt =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC)
+            .parse(sdkQuery.get("X-Amz-Date"), Instant::from);
+
+    String url = signerAt(signedAt, pathStyle).presign("bucket", key, expiry).url();
+
+    assertThat(url.substring(0, url.indexOf('?'))).isEqualTo(sdkUrl.substring(0, sdkUrl.indexOf('?')));
+    assertThat(query(url)).isEqualTo(sdkQuery);
+  }
+
+  private static S3UrlSigner signerAt(Instant now, boolean pathStyle) {
+    return new S3UrlSigner(
+        ENDPOINT, REGION, ACCESS_KEY, SECRET_KEY, pathStyle, 100, Clock.fixed(now, ZoneOffset.UTC));
+  }
+
+  private static Map<String, String> query(String url) {
+    return Arrays.stream(URI.create(url).getRawQuery().split("&"))
+        .map(p -> p.split("=", 2))
+        .collect(Collectors.toMap(p -> p[0], p -> p[1]));
+  }
+}
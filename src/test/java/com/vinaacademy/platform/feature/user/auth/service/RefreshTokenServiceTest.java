@@ -0,0 +1,193 @@
+package com.vinaacademy.platform.feature.user.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.exception.BadRequestException;
+import com.vinaacademy.platform.feature.user.auth.entity.RefreshToken;
+import com.vinaacademy.platform.feature.user.auth.repository.RefreshTokenRepository;
+import com.vinaacademy.platform.feature.user.auth.service.JwtService.RefreshTokenClaims;
+import com.vinaacademy.platform.feature.user.entity.User;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+
+class RefreshTokenServiceTest {
+
+  private static final String EMAIL = "student@vinaacademy.com";
+
+  private RefreshTokenRepository repository;
+  private RefreshTokenFamilyCache familyCache;
+  private JwtService jwtService;
+  private RefreshTokenService service;
+  private User user;
+
+  /** Stands in for the refresh_tokens table; the stubs below mirror the repository queries. */
+  private final List<RefreshToken> rows = new CopyOnWriteArrayList<>();
+  private final Map<String, RefreshTokenClaims> issued = new ConcurrentHashMap<>();
+  private final AtomicInteger sequence = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(RefreshTokenRepository.class);
+    familyCache = mock(RefreshTokenFamilyCache.class);
+    jwtService = mock(JwtService.class);
+    UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    service = new RefreshTokenService(repository, familyCache, jwtService, userDetailsService);
+
+    user = new User();
+    user.setEmail(EMAIL);
+    user.setEnabled(true);
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+
+    when(jwtService.generateRefreshToken(any(), any(UUID.class)))
+        .thenAnswer(invocation -> {
+          String token = "refresh-" + sequence.incrementAndGet();
+          issued.put(token, new RefreshTokenClaims(EMAIL, invocation.getArgument(1),
+              LocalDateTime.now().plusDays(1)));
+          return token;
+        });
+    when(jwtService.decodeRefreshToken(anyString()))
+        .thenAnswer(invocation -> {
+          RefreshTokenClaims claims = issued.get(invocation.<String>getArgument(0));
+          if (claims == null) {
+            throw new BadJwtException("bad token");
+          }
+          return claims;
+        });
+    when(repository.save(any(RefreshToken.class)))
+        .thenAnswer(invocation -> {
+          rows.add(invocation.getArgument(0));
+          return invocation.getArgument(0);
+        });
+    when(repository.findByTokenHash(anyString()))
+        .thenAnswer(invocation -> rows.stream()
+            .filter(row -> row.getTokenHash().equals(invocation.getArgument(0)))
+            .findFirst());
+    when(repository.markRotated(anyString(), any(LocalDateTime.class)))
+        .thenAnswer(invocation -> {
+          Optional<RefreshToken> row = rows.stream()
+              .filter(r -> r.getTokenHash().equals(invocation.getArgument(0)) && r.getRotatedAt() == null)
+              .findFirst();
+          row.ifPresent(r -> r.setRotatedAt(invocation.getArgument(1)));
+          return row.isPresent() ? 1 : 0;
+        });
+    when(repository.deleteByFamilyId(any(UUID.class)))
+        .thenAnswer(invocation -> {
+          int before = rows.size();
+          rows.removeIf(r -> r.getFamilyId().equals(invocation.getArgument(0)));
+          return before - rows.size();
+        });
+  }
+
+  @Test
+  void issue_storesDigestOnly() {
+    String token = service.issue(user);
+
+    assertThat(rows).hasSize(1);
+    RefreshToken row = rows.get(0);
+    assertThat(row.getTokenHash()).hasSize(64).isEqualTo(RefreshTokenService.hash(token)).isNotEqualTo(token);
+    assertThat(row.getUsername()).isEqualTo(EMAIL);
+    verify(familyCache).put(row.getFamilyId(), row.getTokenHash(), row.getExpireTime());
+  }
+
+  @Test
+  void rotate_replacesTokenWithinFamily() {
+    String first = service.issue(user);
+
+    RefreshTokenService.Rotation rotation = service.rotate(first);
+
+    assertThat(rotation.refreshToken()).isNotEqualTo(first);
+    assertThat(rotation.userDetails()).isSameAs(user);
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(0).getRotatedAt()).isNotNull();
+    assertThat(rows.get(1).getRotatedAt()).isNull();
+    assertThat(rows.get(1).getFamilyId()).isEqualTo(rows.get(0).getFamilyId());
+  }
+
+  @Test
+  void rotate_reuseOfRotatedTokenRevokesWholeFamily() {
+    String first = service.issue(user);
+    String second = service.rotate(first).refreshToken();
+    String other = service.issue(user);
+
+    assertThatThrownBy(() -> service.rotate(first)).isInstanceOf(BadRequestException.class);
+
+    // Token mới nhất của họ bị thu hồi theo, họ token khác không bị ảnh hưởng
+    assertThatThrownBy(() -> service.rotate(second)).isInstanceOf(BadRequestException.class);
+    assertThat(rows).extracting(RefreshToken::getTokenHash).containsExactly(RefreshTokenService.hash(other));
+  }
+
+  @Test
+  void rotate_staleCachedHashFallsBackToDatabase() {
+    String first = service.issue(user);
+    UUID familyId = rows.get(0).getFamilyId();
+    // Lần ghi Redis trước thất bại, cache còn giữ hash của token đã xoay vòng
+    when(familyCache.currentHash(familyId)).thenReturn("previous-token-hash");
+
+    RefreshTokenService.Rotation rotation = service.rotate(first);
+
+    assertThat(rotation.refreshToken()).isNotEqualTo(first);
+    verify(repository).findByTokenHash(RefreshTokenService.hash(first));
+    verify(repository, never()).deleteByFamilyId(any(UUID.class));
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(0).getRotatedAt()).isNotNull();
+  }
+
+  @Test
+  void rotate_cachedHashMismatchOfRotatedTokenRevokesFamily() {
+    String first = service.issue(user);
+    UUID familyId = rows.get(0).getFamilyId();
+    String second = service.rotate(first).refreshToken();
+    when(familyCache.currentHash(familyId)).thenReturn(RefreshTokenService.hash(second));
+
+    assertThatThrownBy(() -> service.rotate(first)).isInstanceOf(BadRequestException.class);
+
+    verify(repository).deleteByFamilyId(familyId);
+    verify(familyCache).evict(familyId);
+    assertThat(rows).isEmpty();
+  }
+
+  @Test
+  void rotate_cachedHashMatchSkipsDatabaseLookup() {
+    String first = service.issue(user);
+    when(familyCache.currentHash(rows.get(0).getFamilyId())).thenReturn(RefreshTokenService.hash(first));
+
+    service.rotate(first);
+
+    verify(repository, never()).findByTokenHash(anyString());
+    assertThat(rows.get(0).getRotatedAt()).isNotNull();
+  }
+
+  @Test
+  void rotate_lostRaceIsTreatedAsReuse() {
+    String first = service.issue(user);
+    when(familyCache.currentHash(rows.get(0).getFamilyId())).thenReturn(RefreshTokenService.hash(first));
+    // Một request khác đã xoay vòng token này giữa lúc đọc cache và UPDATE
+    rows.get(0).setRotatedAt(LocalDateTime.now());
+
+    assertThatThrownBy(() -> service.rotate(first)).isInstanceOf(BadRequestException.class);
+    assertThat(rows).isEmpty();
+  }
+
+  @Test
+  void rotate_rejectsUnknownOrForgedToken() {
+    assertThatThrownBy(() -> service.rotate("forged")).isInstanceOf(BadRequestException.class);
+    verify(repository, never()).markRotated(anyString(), any(LocalDateTime.class));
+  }
+}
@@ -0,0 +1,143 @@
+package com.vinaacademy.platform.feature.user.auth.throttle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.vinaacademy.platform.exception.TooManyRequestsException;
+import com.vinaacademy.platform.feature.user.UserRepository;
+import com.vinaacademy.platform.feature.user.auth.config.LoginThrottleProperties;
+import com.vinaacademy.platform.feature.user.auth.config.LoginThrottleProperties.Limit;
+import com.vinaacademy.platform.feature.user.auth.throttle.LoginAttemptStore.Failure;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleServiceTest {
+
+  private static final String EMAIL = "student@vinaacademy.com";
+  private static final String IP = "203.0.113.7";
+
+  private static final Limit LIMIT =
+      new Limit(5, Duration.ofMinutes(15), Duration.ofMinutes(5), Duration.ofHours(24), Duration.ofHours(24));
+
+  private LocalLoginAttemptStore store;
+  private UserRepository userRepository;
+  private LoginThrottleService service;
+
+  @BeforeEach
+  void setUp() {
+    store = new LocalLoginAttemptStore();
+    userRepository = mock(UserRepository.class);
+    LoginThrottleProperties properties = new LoginThrottleProperties();
+    properties.setIp(new Limit(20, Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofHours(1),
+        Duration.ofHours(6)));
+    service = new LoginThrottleService(store, properties, userRepository);
+  }
+
+  @Test
+  void accountLocksOnFifthFailureAndWritesDatabaseOnce() {
+    for (int i = 0; i < 4; i++) {
+      service.recordFailure(EMAIL, IP);
+      service.checkAllowed(EMAIL, IP);
+    }
+    verify(userRepository, never()).extendLockTime(anyString(), any());
+
+    service.recordFailure(EMAIL.toUpperCase(), IP);
+
+    verify(userRepository, times(1)).extendLockTime(eq(EMAIL.toUpperCase()), any(LocalDateTime.class));
+    assertThatThrownBy(() -> service.checkAllowed(EMAIL, "198.51.100.1"))
+        .isInstanceOfSatisfying(TooManyRequestsException.class,
+            e -> assertThat(e.getRetryAfterSeconds()).isBetween(299L, 300L));
+  }
+
+  @Test
+  void ipLocksAcrossAccounts() {
+    for (int i = 0; i < 20; i++) {
+      service.recordFailure("user" + i + "@vinaacademy.com", IP);
+    }
+
+    assertThatThrownBy(() -> service.checkAllowed("someone-else@vinaacademy.com", IP))
+        .isInstanceOf(TooManyRequestsException.class);
+    service.checkAllowed("someone-else@vinaacademy.com", "198.51.100.1");
+  }
+
+  @Test
+  void successClearsAccountButNotIp() {
+    for (int i = 0; i < 4; i++) {
+      service.recordFailure(EMAIL, IP);
+    }
+    service.recordSuccess(EMAIL);
+    for (int i = 0; i < 4; i++) {
+      service.recordFailure(EMAIL, IP);
+    }
+    service.checkAllowed(EMAIL, IP);
+
+    assertThat(store.lockedForMillis(List.of("auth:login:account:" + EMAIL), System.currentTimeMillis()))
+        .isZero();
+  }
+
+  @Test
+  void lockoutDoublesUpToMaximum() {
+    long now = 0;
+    long[] expected = {5, 10, 20, 40, 80, 160, 320, 640, 1280, 1440, 1440};
+    for (long minutes : expected) {
+      Failure failure = null;
+      for (int i = 0; i < 5; i++) {
+        failure = store.recordFailure("k", LIMIT, now);
+      }
+      assertThat(failure.lockedForMillis()).isEqualTo(Duration.ofMinutes(minutes).toMillis());
+      now += failure.lockedForMillis();
+    }
+  }
+
+  @Test
+  void bucketRefillsOverWindow() {
+    long now = 0;
+    for (int i = 0; i < 4; i++) {
+      assertThat(store.recordFailure("k", LIMIT, now).lockedForMillis()).isZero();
+    }
+    // 15 phút hồi lại đủ 5 token: thêm 4 lần sai nữa vẫn chưa bị khóa
+    now += Duration.ofMinutes(15).toMillis();
+    for (int i = 0; i < 4; i++) {
+      assertThat(store.recordFailure("k", LIMIT, now).lockedForMillis()).isZero();
+    }
+    assertThat(store.recordFailure("k", LIMIT, now).lockedForMillis()).isPositive();
+  }
+
+  @Test
+  void lockoutCountIsForgottenAfterQuietPeriod() {
+    long now = 0;
+    for (int i = 0; i < 5; i++) {
+      store.recordFailure("k", LIMIT, now);
+    }
+    now += Duration.ofMinutes(5).plus(Duration.ofHours(24)).toMillis();
+
+    Failure failure = null;
+    for (int i = 0; i < 5; i++) {
+      failure = store.recordFailure("k", LIMIT, now);
+    }
+    assertThat(failure.lockouts()).isEqualTo(1);
+    assertThat(failure.lockedForMillis()).isEqualTo(Duration.ofMinutes(5).toMillis());
+  }
+
+  @Test
+  void disabledThrottleDoesNothing() {
+    LoginThrottleProperties properties = new LoginThrottleProperties();
+    properties.setEnabled(false);
+    LoginThrottleService disabled = new LoginThrottleService(store, properties, userRepository);
+    for (int i = 0; i < 10; i++) {
+      disabled.recordFailure(EMAIL, IP);
+    }
+    disabled.checkAllowed(EMAIL, IP);
+    verify(userRepository, never()).extendLockTime(anyString(), any());
+  }
+}
@@ -0,0 +1,101 @@
+package com.vinaacademy.platform.feature.video.scheduler;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.feature.enrollment.repository.EnrollmentProgressRepository;
+import com.vinaacademy.platform.feature.lesson.repository.UserProgressBatchRepository;
+import com.vinaacademy.platform.feature.video.config.VideoProgressProperties;
+import com.vinaacademy.platform.feature.video.dto.VideoProgressEntry;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import com.vinaacademy.platform.feature.video.repository.projection.VideoDurationProjection;
+import com.vinaacademy.platform.feature.video.service.VideoProgressCacheService;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+class VideoProgressFlushSchedulerTest {
+
+  private final UUID videoId = UUID.randomUUID();
+  private final List<VideoProgressEntry> entries =
+      List.of(new VideoProgressEntry(UUID.randomUUID(), videoId, 120));
+
+  @Mock private VideoProgressCacheService videoProgressCacheService;
+  @Mock private UserProgressBatchRepository userProgressBatchRepository;
+  @Mock private VideoRepository videoRepository;
+  @Mock private EnrollmentProgressRepository enrollmentProgressRepository;
+
+  private VideoProgressProperties properties;
+  private VideoProgressFlushScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    properties = new VideoProgressProperties();
+    scheduler =
+        new VideoProgressFlushScheduler(
+            videoProgressCacheService,
+            userProgressBatchRepository,
+            videoRepository,
+            enrollmentProgressRepository,
+            properties);
+    when(videoProgressCacheService.popDirtyProgress(anyInt())).thenReturn(entries, List.of());
+    when(videoRepository.findDurationsByIdIn(List.of(videoId))).thenReturn(List.of(duration(600.0)));
+  }
+
+  @Test
+  void flushedEntriesAreAcknowledged() {
+    when(userProgressBatchRepository.upsertProgress(anyList())).thenReturn(List.of());
+
+    scheduler.flushVideoProgress();
+
+    verify(videoProgressCacheService).requeueStale(properties.getInFlightTimeout());
+    verify(videoProgressCacheService).acknowledge(entries);
+    verify(videoProgressCacheService, never()).markDirty(anyCollection());
+  }
+
+  @Test
+  void failedUpsertPutsEntriesBackWithoutAcknowledging() {
+    when(userProgressBatchRepository.upsertProgress(anyList()))
+        .thenThrow(new QueryTimeoutException("timeout"));
+
+    scheduler.flushVideoProgress();
+
+    verify(videoProgressCacheService).markDirty(entries);
+    verify(videoProgressCacheService, never()).acknowledge(anyCollection());
+  }
+
+  @Test
+  void staleEntriesUseConfiguredTimeout() {
+    properties.setInFlightTimeout(Duration.ofMinutes(1));
+    when(userProgressBatchRepository.upsertProgress(anyList())).thenReturn(List.of());
+
+    scheduler.flushVideoProgress();
+
+    verify(videoProgressCacheService).requeueStale(Duration.ofMinutes(1));
+  }
+
+  private VideoDurationProjection duration(double seconds) {
+    return new VideoDurationProjection() {
+      @Override
+      public UUID getId() {
+        return videoId;
+      }
+
+      @Override
+      public Double getDuration() {
+        return seconds;
+      }
+    };
+  }
+}
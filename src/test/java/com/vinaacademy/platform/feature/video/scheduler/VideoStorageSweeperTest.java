@@ -0,0 +1,108 @@
+package com.vinaacademy.platform.feature.video.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.storage.service.S3Service.StoredObject;
+import com.vinaacademy.platform.feature.video.config.VideoStorageSweepProperties;
+import com.vinaacademy.platform.feature.video.dto.OrphanSweepReport;
+import com.vinaacademy.platform.feature.video.dto.OrphanSweepReport.Orphan;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class VideoStorageSweeperTest {
+
+  private static final Instant OLD = Instant.now().minus(Duration.ofDays(3));
+  private static final Instant RECENT = Instant.now().minus(Duration.ofMinutes(5));
+
+  private final UUID referencedId = UUID.randomUUID();
+  private final UUID orphanId = UUID.randomUUID();
+  private final UUID processingId = UUID.randomUUID();
+  private final UUID recentId = UUID.randomUUID();
+
+  @Mock private S3Service s3Service;
+  @Mock private VideoRepository videoRepository;
+
+  private VideoStorageSweeper sweeper;
+
+  @BeforeEach
+  void setUp() {
+    VideoStorageSweepProperties properties = new VideoStorageSweepProperties();
+    properties.setGrace(Duration.ofDays(1));
+    sweeper = new VideoStorageSweeper(s3Service, videoRepository, properties);
+
+    when(s3Service.listPrefixes("videos/hls/"))
+        .thenReturn(
+            List.of(hls(referencedId) + "/", hls(orphanId) + "/", hls(processingId) + "/", hls(recentId) + "/"));
+    when(videoRepository.findReferencedHlsPaths(anyCollection())).thenReturn(Set.of(hls(referencedId)));
+    when(videoRepository.findIdsByIdInAndStatus(anyCollection(), eq(VideoStatus.PROCESSING)))
+        .thenReturn(Set.of(processingId));
+    when(s3Service.listObjects(hls(orphanId) + "/"))
+        .thenReturn(
+            List.of(
+                new StoredObject(hls(orphanId) + "/master.m3u8", 100, OLD),
+                new StoredObject(hls(orphanId) + "/720p/segment_000.ts", 900, OLD)));
+    when(s3Service.listObjects(hls(recentId) + "/"))
+        .thenReturn(List.of(new StoredObject(hls(recentId) + "/master.m3u8", 100, RECENT)));
+
+    when(s3Service.listObjects("videos/thumbnails/"))
+        .thenReturn(
+            List.of(
+                new StoredObject(thumbnail(referencedId), 10, OLD),
+                new StoredObject(thumbnail(orphanId), 20, OLD)));
+    when(videoRepository.findReferencedThumbnails(anyCollection())).thenReturn(Set.of(thumbnail(referencedId)));
+  }
+
+  @Test
+  void dryRun_reportsOrphansWithoutDeleting() {
+    OrphanSweepReport report = sweeper.sweep(true);
+
+    assertThat(report.dryRun()).isTrue();
+    assertThat(report.scanned()).isEqualTo(6);
+    assertThat(report.orphans())
+        .extracting(Orphan::prefix)
+        .containsExactly(hls(orphanId) + "/", thumbnail(orphanId));
+    assertThat(report.orphanBytes()).isEqualTo(1020);
+    assertThat(report.deletedObjects()).isZero();
+    verify(s3Service, never()).deleteObjects(any());
+  }
+
+  @Test
+  void sweep_deletesOnlyUnreferencedObjectsPastGrace() {
+    when(s3Service.deleteObjects(any())).thenAnswer(inv -> inv.<List<String>>getArgument(0).size());
+
+    OrphanSweepReport report = sweeper.sweep(false);
+
+    assertThat(report.deletedObjects()).isEqualTo(3);
+    verify(s3Service)
+        .deleteObjects(List.of(hls(orphanId) + "/master.m3u8", hls(orphanId) + "/720p/segment_000.ts"));
+    verify(s3Service).deleteObjects(List.of(thumbnail(orphanId)));
+    // Video đang xử lý thì không cần liệt kê object bên trong
+    verify(s3Service, never()).listObjects(hls(processingId) + "/");
+  }
+
+  private static String hls(UUID id) {
+    return "videos/hls/" + id;
+  }
+
+  private static String thumbnail(UUID id) {
+    return "videos/thumbnails/" + id + ".jpg";
+  }
+}
@@ -0,0 +1,144 @@
+package com.vinaacademy.platform.feature.video.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.feature.course.entity.Course;
+import com.vinaacademy.platform.feature.notification.service.NotificationService;
+import com.vinaacademy.platform.feature.section.entity.Section;
+import com.vinaacademy.platform.feature.storage.entity.MediaFile;
+import com.vinaacademy.platform.feature.storage.properties.StorageProperties;
+import com.vinaacademy.platform.feature.storage.repository.MediaFileRepository;
+import com.vinaacademy.platform.feature.storage.service.BlobStoreService;
+import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.user.entity.User;
+import com.vinaacademy.platform.feature.video.entity.Video;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VideoProcessorServiceImplTest {
+
+  private static final String SOURCE_HASH = "ab".repeat(32);
+
+  @TempDir Path tempDir;
+
+  @Mock private VideoRepository videoRepository;
+  @Mock private MediaFileRepository mediaFileRepository;
+  @Mock private NotificationService notificationService;
+  @Mock private StorageProperties storageProperties;
+  @Mock private S3Service s3Service;
+  @Mock private BlobStoreService blobStoreService;
+
+  private VideoProcessorServiceImpl service;
+  private UUID mediaFileId;
+  private Video source;
+  private Video video;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new VideoProcessorServiceImpl(
+            videoRepository,
+            mediaFileRepository,
+            notificationService,
+            storageProperties,
+            s3Service,
+            blobStoreService);
+    ReflectionTestUtils.setField(service, "frontendUrl", "https://vinaacademy.vn");
+    when(storageProperties.getHlsDir()).thenReturn(tempDir.resolve("hls").toString());
+    when(storageProperties.getThumbnailDir()).thenReturn(tempDir.resolve("thumbnails").toString());
+
+    mediaFileId = UUID.randomUUID();
+    when(mediaFileRepository.findById(mediaFileId))
+        .thenReturn(
+            Optional.of(
+                MediaFile.builder()
+                    .id(mediaFileId)
+                    .filePath(tempDir.resolve("source.mp4").toString())
+                    .contentHash(SOURCE_HASH)
+                    .build()));
+
+    source = video(VideoStatus.READY);
+    source.setHlsPath("videos/hls/" + source.getId());
+    source.setThumbnailUrl("videos/thumbnails/" + source.getId() + ".jpg");
+    source.setDuration(612.5);
+    video = video(VideoStatus.PROCESSING);
+    when(videoRepository.findFirstBySourceHashAndStatusAndIdNot(
+            SOURCE_HASH, VideoStatus.READY, video.getId()))
+        .thenReturn(Optional.of(source));
+    when(videoRepository.findByIdWithLock(video.getId())).thenReturn(Optional.of(video));
+  }
+
+  @Test
+  void sameContentCopiesOutputIntoOwnPrefix() {
+    when(s3Service.copyDirectory(anyString(), anyString())).thenReturn(12);
+    when(s3Service.fileExists("videos/thumbnails/" + source.getId() + ".jpg")).thenReturn(true);
+
+    service.processVideo(video.getId(), mediaFileId);
+
+    verify(s3Service)
+        .copyDirectory("videos/hls/" + source.getId() + "/", "videos/hls/" + video.getId() + "/");
+    verify(s3Service)
+        .copyFile(
+            "videos/thumbnails/" + source.getId() + ".jpg",
+            "videos/thumbnails/" + video.getId() + ".jpg");
+    assertThat(video.getStatus()).isEqualTo(VideoStatus.READY);
+    assertThat(video.getHlsPath()).isEqualTo("videos/hls/" + video.getId());
+    assertThat(video.getThumbnailUrl()).isEqualTo("videos/thumbnails/" + video.getId() + ".jpg");
+    assertThat(video.getDuration()).isEqualTo(612.5);
+    assertThat(video.getSourceHash()).isEqualTo(SOURCE_HASH);
+    verify(blobStoreService).release(mediaFileId);
+  }
+
+  @Test
+  void customThumbnailOfSourceIsNotCopied() {
+    source.setThumbnailUrl("images/khoa-hoc-java.png");
+    when(s3Service.copyDirectory(anyString(), anyString())).thenReturn(12);
+
+    service.processVideo(video.getId(), mediaFileId);
+
+    verify(s3Service, never()).copyFile(anyString(), anyString());
+    assertThat(video.getHlsPath()).isEqualTo("videos/hls/" + video.getId());
+    assertThat(video.getThumbnailUrl()).isNull();
+  }
+
+  @Test
+  void missingSourceOutputIsNotReferenced() {
+    when(s3Service.copyDirectory(anyString(), anyString())).thenReturn(0);
+
+    // Không có nguồn để encode trong test: bước FFmpeg thất bại và video chuyển sang ERROR
+    service.processVideo(video.getId(), mediaFileId);
+
+    assertThat(video.getHlsPath()).isNull();
+    assertThat(video.getStatus()).isEqualTo(VideoStatus.ERROR);
+    verify(blobStoreService, never()).release(any());
+  }
+
+  private static Video video(VideoStatus status) {
+    return Video.builder()
+        .id(UUID.randomUUID())
+        .title("Bài 1: Giới thiệu")
+        .status(status)
+        .section(Section.builder().course(Course.builder().id(UUID.randomUUID()).build()).build())
+        .author(User.builder().id(UUID.randomUUID()).build())
+        .build();
+  }
+}
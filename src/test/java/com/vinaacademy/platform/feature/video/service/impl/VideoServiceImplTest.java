@@ -0,0 +1,113 @@
+package com.vinaacademy.platform.feature.video.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vinaacademy.platform.feature.storage.service.S3Service;
+import com.vinaacademy.platform.feature.video.entity.Video;
+import com.vinaacademy.platform.feature.video.enums.VideoStatus;
+import com.vinaacademy.platform.feature.video.repository.VideoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class VideoServiceImplTest {
+
+  private static final String BASE_PATH = "/api/v1/videos/stream/";
+
+  @Mock private VideoRepository videoRepository;
+  @Mock private S3Service s3Service;
+
+  @InjectMocks private VideoServiceImpl videoService;
+
+  @Captor private ArgumentCaptor<Collection<String>> signedKeys;
+
+  private Video video;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(videoService, "meterRegistry", new SimpleMeterRegistry());
+    video =
+        Video.builder()
+            .id(UUID.randomUUID())
+            .status(VideoStatus.READY)
+            .duration(3600)
+            .build();
+    video.setHlsPath("videos/hls/" + video.getId());
+    when(videoRepository.findById(video.getId())).thenReturn(Optional.of(video));
+  }
+
+  @Test
+  void onlySegmentsOfTheFirstHalfHourArePresignedForOneHour() throws Exception {
+    // 360 segment x 10 giây = 1 giờ phát
+    String playlist =
+        "#EXTM3U\n#EXT-X-TARGETDURATION:10\n"
+            + IntStream.range(0, 360)
+                .mapToObj(i -> "#EXTINF:10.000,\nsegment%03d.ts\n".formatted(i))
+                .collect(Collectors.joining())
+            + "#EXT-X-ENDLIST";
+    givenManifest("720p/playlist.m3u8", playlist);
+    when(s3Service.generatePresignedUrls(anyCollection(), anyInt()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                    .collect(Collectors.toMap(Function.identity(), key -> "https://s3/" + key)));
+
+    List<String> lines = rewrite("720p/playlist.m3u8");
+
+    verify(s3Service).generatePresignedUrls(signedKeys.capture(), eq(3600));
+    assertThat(signedKeys.getValue())
+        .hasSize(180)
+        .first()
+        .isEqualTo("videos/hls/" + video.getId() + "/720p/segment000.ts");
+    assertThat(lines)
+        .contains("https://s3/videos/hls/" + video.getId() + "/720p/segment179.ts")
+        .contains(BASE_PATH + "segment180.ts")
+        .contains(BASE_PATH + "segment359.ts")
+        .doesNotContain("https://s3/videos/hls/" + video.getId() + "/720p/segment180.ts");
+  }
+
+  @Test
+  void masterPlaylistStillGoesThroughBackend() throws Exception {
+    givenManifest(
+        "master.m3u8",
+        "#EXTM3U\n#EXT-X-STREAM-INF:BANDWIDTH=2800000,RESOLUTION=1280x720\n720p/playlist.m3u8");
+
+    List<String> lines = rewrite("master.m3u8");
+
+    assertThat(lines).endsWith(BASE_PATH + "720p/playlist.m3u8");
+    verify(s3Service, never()).generatePresignedUrls(anyCollection(), anyInt());
+  }
+
+  private void givenManifest(String subPath, String content) {
+    when(s3Service.downloadFile(video.getHlsPath() + "/" + subPath))
+        .thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private List<String> rewrite(String subPath) throws Exception {
+    byte[] body = videoService.getRewriteManifestProxy(video.getId(), BASE_PATH, subPath).getByteArray();
+    return new String(body, StandardCharsets.UTF_8).lines().toList();
+  }
+}